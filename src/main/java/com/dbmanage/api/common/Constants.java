@@ -11,6 +11,12 @@ public class Constants {
      */
     public static class Api {
         public static final String CONTENT_TYPE_JSON = "application/json";
+        public static final String CONTENT_TYPE_NDJSON = "application/x-ndjson";
+        public static final String CONTENT_TYPE_COLUMNAR_JSON = "application/vnd.dbmanage.columnar+json";
+        public static final String CONTENT_TYPE_CSV = "text/csv";
+        public static final String CONTENT_TYPE_GZIP = "application/gzip";
+        public static final String CONTENT_TYPE_ZIP = "application/zip";
+        public static final String HEADER_TASK_ID = "X-Task-Id";
         public static final String BEARER_PREFIX = "Bearer ";
     }
     
@@ -38,6 +44,34 @@ public class Constants {
      */
     public static class Sql {
         public static final String DEFAULT_DIALECT = "sql";
+        
+        public static final String RESULT_FORMAT_OBJECT = "object";
+        public static final String RESULT_FORMAT_COLUMNAR = "columnar";
+
+        public static final String STATUS_SUCCESS = "SUCCESS";
+        public static final String STATUS_FAILED = "FAILED";
+        public static final String STATUS_CANCELLED = "CANCELLED";
+        public static final String STATUS_TIMEOUT = "TIMEOUT";
+    }
+    
+    /**
+     * 后台数据任务相关常量
+     */
+    public static class Task {
+        public static final String TYPE_QUERY = "QUERY";
+        public static final String TYPE_IMPORT = "IMPORT";
+        public static final String TYPE_EXPORT = "EXPORT";
+        public static final String TYPE_COPY = "COPY";
+
+        public static final String STATUS_PENDING = "PENDING";
+        public static final String STATUS_RUNNING = "RUNNING";
+        public static final String STATUS_COMPLETED = "COMPLETED";
+        public static final String STATUS_FAILED = "FAILED";
+        public static final String STATUS_CANCELLED = "CANCELLED";
+        public static final String STATUS_EXPIRED = "EXPIRED";
+
+        public static final String FORMAT_CSV = "csv";
+        public static final String FORMAT_NDJSON = "ndjson";
     }
     
     /**
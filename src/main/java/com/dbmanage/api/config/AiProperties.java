@@ -16,4 +16,37 @@ import java.util.Map;
 public class AiProperties {
     
     private Map<String, String> systemPrompts;
-} 
\ No newline at end of file
+
+    private Cache cache = new Cache();
+
+    /**
+     * AI响应缓存配置
+     */
+    @Data
+    public static class Cache {
+        /**
+         * 是否启用缓存
+         */
+        private boolean enabled = true;
+
+        /**
+         * 内存中最多缓存的响应数
+         */
+        private long maxEntries = 1000;
+
+        /**
+         * 生成SQL和补全建议的存活时间（分钟）
+         */
+        private long ttlMinutes = 1440;
+
+        /**
+         * 查询示例的存活时间（分钟），示例只依赖方言和结构，可以缓存更久
+         */
+        private long examplesTtlMinutes = 10080;
+
+        /**
+         * 是否同时保存到管理数据库，服务重启后仍可命中
+         */
+        private boolean persistent = false;
+    }
+}
@@ -19,6 +19,19 @@ public class AppProperties {
     private Jwt jwt;
     private Cors cors;
     private ErrorMessages errorMessages;
+    private Pool pool = new Pool();
+    private Query query = new Query();
+    private MetadataCache metadataCache = new MetadataCache();
+    private Executor executor = new Executor();
+    private History history = new History();
+    private RowCount rowCount = new RowCount();
+    private Spool spool = new Spool();
+    private DataImport dataImport = new DataImport();
+    private TableCopy tableCopy = new TableCopy();
+    private ResultCache resultCache = new ResultCache();
+    private SchemaTree schemaTree = new SchemaTree();
+    private SchemaSnapshot schemaSnapshot = new SchemaSnapshot();
+    private SchemaSearch schemaSearch = new SchemaSearch();
 
     /**
      * JWT配置
@@ -38,6 +51,269 @@ public class AppProperties {
         private long maxAge;
     }
 
+    /**
+     * 目标数据库连接池配置
+     * 每个已保存的连接对应一个独立的连接池，时间单位均为毫秒
+     */
+    @Data
+    public static class Pool {
+        private int minIdle = 0;
+        private int maxSize = 10;
+        private long connectionTimeout = 10000;
+        private long idleTimeout = 600000;
+        private long maxLifetime = 1800000;
+        /**
+         * 每个连接缓存的预编译语句数量
+         */
+        private int statementCacheSize = 250;
+        /**
+         * 可缓存的SQL最大长度（MySQL）
+         */
+        private int statementCacheSqlLimit = 2048;
+    }
+
+    /**
+     * 查询执行配置
+     */
+    @Data
+    public static class Query {
+        /**
+         * 流式查询时每次从数据库游标读取的行数（MySQL使用逐行流式读取，不受此值影响）
+         */
+        private int fetchSize = 1000;
+        /**
+         * 批量编辑时每次executeBatch提交的最大行数
+         */
+        private int batchSize = 1000;
+        /**
+         * 默认语句超时时间（秒），0表示不限制；连接或请求中可单独指定
+         */
+        private int timeoutSeconds = 300;
+        /**
+         * 默认结果最大行数，0表示不限制；连接或请求中可单独指定，流式查询不受此限制
+         */
+        private int maxRows = 10000;
+    }
+
+    /**
+     * 元数据缓存配置
+     * 缓存表、视图、函数列表及表结构，执行DDL或手动刷新时按连接失效
+     */
+    @Data
+    public static class MetadataCache {
+        private boolean enabled = true;
+        private long ttlSeconds = 300;
+        private long maxEntries = 10000;
+    }
+
+    /**
+     * 查询结果缓存配置
+     * 只缓存请求中指定useCache的单条只读查询，按估算的内存占用限制总大小
+     */
+    @Data
+    public static class ResultCache {
+        private boolean enabled = true;
+
+        /**
+         * 缓存结果的总内存上限（MB）
+         */
+        private long maxSizeMb = 256;
+
+        /**
+         * 单个结果的内存上限（MB），超过时不缓存
+         */
+        private long maxEntrySizeMb = 16;
+
+        /**
+         * 默认存活时间（秒）
+         */
+        private long ttlSeconds = 60;
+
+        /**
+         * 请求可指定的最长存活时间（秒）
+         */
+        private long maxTtlSeconds = 3600;
+    }
+
+    /**
+     * 后台任务执行配置
+     * 所有连接共享一个有界线程池，每个目标连接另有独立的并发数和排队上限
+     */
+    @Data
+    public static class Executor {
+        /**
+         * 共享线程池的线程数
+         */
+        private int poolSize = 16;
+        /**
+         * 共享线程池的排队上限
+         */
+        private int queueCapacity = 500;
+        /**
+         * 单个目标连接同时执行的最大任务数
+         */
+        private int perConnectionConcurrency = 4;
+        /**
+         * 单个目标连接等待执行的最大任务数，超出后拒绝
+         */
+        private int perConnectionQueue = 100;
+        /**
+         * 应用关闭时等待任务结束的秒数
+         */
+        private int shutdownTimeoutSeconds = 30;
+    }
+
+    /**
+     * 查询历史写入配置
+     * 历史记录先进入内存队列，由后台线程按条数或时间批量写入
+     */
+    @Data
+    public static class History {
+        /**
+         * 内存队列容量，队列满时丢弃新记录
+         */
+        private int queueCapacity = 10000;
+        /**
+         * 每批写入的最大条数
+         */
+        private int batchSize = 200;
+        /**
+         * 未攒满一批时的最长等待时间（毫秒）
+         */
+        private long flushIntervalMs = 1000;
+        /**
+         * 队列满时提交方的最长等待时间（毫秒），超时后丢弃
+         */
+        private long offerTimeoutMs = 50;
+    }
+
+    /**
+     * 表行数统计配置
+     * 默认返回数据库统计信息中的估算值，精确计数在后台执行并缓存
+     */
+    @Data
+    public static class RowCount {
+        /**
+         * 精确计数结果的缓存时间（秒）
+         */
+        private long exactTtlSeconds = 600;
+        /**
+         * 估算行数的缓存时间（秒），表数据分页时在此期间不再重复查询统计信息
+         */
+        private long estimateTtlSeconds = 30;
+        /**
+         * 最多缓存的行数条数（估算值和精确值合计）
+         */
+        private long maxEntries = 10000;
+    }
+
+    /**
+     * 结果落盘配置
+     * 异步查询等后台任务的结果写入本地文件，按页读取，过期后删除
+     */
+    @Data
+    public static class Spool {
+        /**
+         * 结果文件目录
+         */
+        private String dir = System.getProperty("java.io.tmpdir") + "/dbmanage-spool";
+        /**
+         * 每个行组的行数，读取分页时按行组定位
+         */
+        private int rowGroupSize = 1000;
+        /**
+         * 单个结果文件的最大大小（MB），超出后任务失败
+         */
+        private long maxFileSizeMb = 1024;
+        /**
+         * 每页最多读取的行数
+         */
+        private int maxPageSize = 5000;
+        /**
+         * 任务完成后结果文件的保留时间（分钟）
+         */
+        private long ttlMinutes = 60;
+        /**
+         * 过期文件清理间隔（秒）
+         */
+        private long cleanupIntervalSeconds = 300;
+    }
+
+    /**
+     * 数据导入配置
+     */
+    @Data
+    public static class DataImport {
+        /**
+         * 每批提交的行数，PostgreSQL的COPY按此行数分段写入
+         */
+        private int batchSize = 5000;
+    }
+
+    /**
+     * 跨连接表复制配置
+     */
+    @Data
+    public static class TableCopy {
+        /**
+         * 每批写入并提交的行数
+         */
+        private int batchSize = 5000;
+
+        /**
+         * 读取端与写入端之间最多缓冲的批次数，写入较慢时读取端在此阻塞
+         */
+        private int queueCapacity = 4;
+    }
+
+    /**
+     * 对象树配置
+     */
+    @Data
+    public static class SchemaTree {
+        /**
+         * 每页最多返回的节点数
+         */
+        private int maxPageSize = 1000;
+    }
+
+    /**
+     * 结构快照配置
+     */
+    @Data
+    public static class SchemaSnapshot {
+        /**
+         * 每个数据库保留的快照版本数，更早的版本在刷新时删除
+         */
+        private int keepVersions = 20;
+    }
+
+    /**
+     * 结构搜索索引配置
+     */
+    @Data
+    public static class SchemaSearch {
+        /**
+         * 内存中最多保留的索引数（每个连接的每个数据库一个）
+         */
+        private int maxIndexes = 50;
+
+        /**
+         * 索引空闲多久后释放（分钟）
+         */
+        private long idleMinutes = 60;
+
+        /**
+         * 增量更新累积的表数超过该值时重建整个索引
+         */
+        private int maxDeltaTables = 500;
+
+        /**
+         * 每次搜索最多返回的条目数
+         */
+        private int maxResults = 200;
+    }
+
     /**
      * 错误消息配置
      */
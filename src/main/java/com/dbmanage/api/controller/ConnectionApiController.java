@@ -2,13 +2,26 @@ package com.dbmanage.api.controller;
 
 import com.dbmanage.api.common.ApiResponse;
 import com.dbmanage.api.common.BaseController;
+import com.dbmanage.api.common.Constants;
 import com.dbmanage.api.dto.connection.ConnectionRequest;
 import com.dbmanage.api.dto.connection.ConnectionResponse;
 import com.dbmanage.api.dto.connection.ConnectionTestRequest;
 import com.dbmanage.api.dto.query.QueryRequest;
 import com.dbmanage.api.dto.query.QueryResponse;
+import com.dbmanage.api.dto.query.RowCount;
+import com.dbmanage.api.dto.query.SchemaTreePage;
+import com.dbmanage.api.dto.query.TableDataBatchRequest;
+import com.dbmanage.api.dto.query.TableDataBatchResponse;
+import com.dbmanage.api.dto.query.TableDataPage;
 import com.dbmanage.api.service.DatabaseConnectionService;
+import com.dbmanage.api.service.MetadataCacheService;
 import com.dbmanage.api.service.QueryService;
+import com.dbmanage.api.service.RowCountService;
+import com.dbmanage.api.service.SchemaSearchService;
+import com.dbmanage.api.service.SchemaTreeService;
+import com.dbmanage.api.service.TableDataService;
+import com.dbmanage.api.util.SchemaSearchIndex;
+import com.dbmanage.api.util.SqlStatementType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -31,6 +44,21 @@ public class ConnectionApiController extends BaseController {
     
     @Autowired
     private QueryService queryService;
+    
+    @Autowired
+    private TableDataService tableDataService;
+    
+    @Autowired
+    private MetadataCacheService metadataCacheService;
+    
+    @Autowired
+    private RowCountService rowCountService;
+    
+    @Autowired
+    private SchemaTreeService schemaTreeService;
+    
+    @Autowired
+    private SchemaSearchService schemaSearchService;
 
     /**
      * 测试连接
@@ -99,6 +127,23 @@ public class ConnectionApiController extends BaseController {
         return success(result);
     }
     
+    /**
+     * 刷新连接的元数据缓存
+     * 在本工具之外修改了表结构时，可调用此接口使缓存的表、视图等元数据失效
+     * @param id 连接ID
+     * @return 失效的缓存条目数
+     */
+    @PostMapping("/{id}/metadata/refresh")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> refreshMetadata(@PathVariable Long id) {
+        try {
+            Map<String, Object> result = new HashMap<>();
+            result.put("invalidated", metadataCacheService.invalidate(id));
+            return success(result);
+        } catch (Exception e) {
+            return error("刷新元数据失败: " + e.getMessage());
+        }
+    }
+    
     /**
      * 获取连接的数据库列表
      * @param id 连接ID
@@ -107,23 +152,67 @@ public class ConnectionApiController extends BaseController {
     @GetMapping("/{id}/databases")
     public ResponseEntity<ApiResponse<List<String>>> getDatabases(@PathVariable Long id) {
         try {
-            Long userId = getCurrentUserId();
-            List<Map<String, Object>> databaseStructure = queryService.getDatabaseStructure(id);
-            
-            // 从结构中提取数据库名称
-            List<String> databases = new ArrayList<>();
-            for (Map<String, Object> catalog : databaseStructure) {
-                if (catalog.containsKey("label")) {
-                    databases.add(catalog.get("label").toString());
-                }
-            }
-            
-            return success(databases);
+            // 只读取数据库一级，不再遍历模式、表和列
+            return success(schemaTreeService.getDatabases(id));
         } catch (Exception e) {
             return error("获取数据库列表失败: " + e.getMessage());
         }
     }
     
+    /**
+     * 逐级获取对象树节点
+     * 不指定数据库时返回数据库列表，指定数据库返回模式（不支持模式的数据库返回表），
+     * 指定模式返回表和视图，指定表返回列
+     * @param id 连接ID
+     * @param database 数据库名称
+     * @param schema 模式名称
+     * @param table 表名
+     * @param filter 名称过滤
+     * @param offset 起始位置
+     * @param limit 每页节点数
+     * @return 当前层级的节点分页
+     */
+    @GetMapping("/{id}/tree")
+    public ResponseEntity<ApiResponse<SchemaTreePage>> getTree(
+            @PathVariable Long id,
+            @RequestParam(required = false) String database,
+            @RequestParam(required = false) String schema,
+            @RequestParam(required = false) String table,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false, defaultValue = "0") Integer offset,
+            @RequestParam(required = false, defaultValue = "200") Integer limit) {
+        try {
+            return success(schemaTreeService.getChildren(id, database, schema, table, filter, offset, limit));
+        } catch (Exception e) {
+            return error("获取对象树失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 按名称和注释搜索表和列
+     * 支持前缀、子串和模糊匹配，索引基于结构快照构建，首次搜索时可能需要先刷新快照
+     * @param id 连接ID
+     * @param q 查询字符串
+     * @param database 数据库名称
+     * @param kind 条目类型（table或column），为空时不限
+     * @param limit 最多返回的条目数
+     * @return 匹配的表和列，按得分降序
+     */
+    @GetMapping("/{id}/search")
+    public ResponseEntity<ApiResponse<List<SchemaSearchIndex.Hit>>> searchSchema(
+            @PathVariable Long id,
+            @RequestParam String q,
+            @RequestParam(required = false) String database,
+            @RequestParam(required = false) String kind,
+            @RequestParam(required = false, defaultValue = "20") Integer limit) {
+        try {
+            Long userId = getCurrentUserId();
+            return success(schemaSearchService.search(userId, id, database, q, kind, limit));
+        } catch (Exception e) {
+            return error("搜索表和列失败: " + e.getMessage());
+        }
+    }
+    
     /**
      * 获取数据库的表列表
      * @param id 连接ID
@@ -206,6 +295,27 @@ public class ConnectionApiController extends BaseController {
             @PathVariable Long id, 
             @PathVariable String database,
             @RequestBody Map<String, String> request) {
+        return doExecuteQuery(id, database, request, false);
+    }
+    
+    /**
+     * 执行SQL查询，以列式格式返回结果
+     * rows中每行为按columns顺序排列的数组，并附带columnMetadata
+     * @param id 连接ID
+     * @param database 数据库名称
+     * @param request 包含SQL的请求体
+     * @return 查询结果
+     */
+    @PostMapping(value = "/{id}/databases/{database}/execute", produces = Constants.Api.CONTENT_TYPE_COLUMNAR_JSON)
+    public ResponseEntity<ApiResponse<Map<String, Object>>> executeQueryColumnar(
+            @PathVariable Long id, 
+            @PathVariable String database,
+            @RequestBody Map<String, String> request) {
+        return doExecuteQuery(id, database, request, true);
+    }
+    
+    private ResponseEntity<ApiResponse<Map<String, Object>>> doExecuteQuery(
+            Long id, String database, Map<String, String> request, boolean columnar) {
         try {
             String sql = request.get("sql");
             if (sql == null || sql.trim().isEmpty()) {
@@ -217,6 +327,9 @@ public class ConnectionApiController extends BaseController {
             queryRequest.setConnectionId(id);
             queryRequest.setSql(sql);
             queryRequest.setDatabase(database);
+            if (columnar) {
+                queryRequest.setResultFormat(Constants.Sql.RESULT_FORMAT_COLUMNAR);
+            }
             
             // 如果提供了表名，也设置表名
             String tableName = request.get("table");
@@ -224,12 +337,13 @@ public class ConnectionApiController extends BaseController {
                 queryRequest.setTableName(tableName);
             }
             
-            // 判断SQL类型
-            String sqlType = determineSqlType(sql.trim().toUpperCase());
-            
             // 执行查询并返回结果
             QueryResponse queryResponse = queryService.executeQuery(queryRequest);
             
+            // SQL类型由执行时的脚本解析得出
+            String sqlType = queryResponse.getStatementType() != null
+                    ? queryResponse.getStatementType() : SqlStatementType.UNKNOWN.name();
+            
             // 构建返回结果
             Map<String, Object> result = new HashMap<>();
             result.put("success", queryResponse.isSuccess());
@@ -239,7 +353,12 @@ public class ConnectionApiController extends BaseController {
                 data.put("sqlType", sqlType);
                 data.put("isQueryResult", queryResponse.isQueryResult());
                 data.put("columns", queryResponse.getColumns());
-                data.put("rows", queryResponse.getData());
+                if (columnar) {
+                    data.put("rows", queryResponse.getRows());
+                    data.put("columnMetadata", queryResponse.getColumnMetadata());
+                } else {
+                    data.put("rows", queryResponse.getData());
+                }
                 data.put("affectedRows", queryResponse.getAffectedRows());
                 data.put("executionTime", queryResponse.getExecutionTime());
                 data.put("database", database);
@@ -339,89 +458,6 @@ public class ConnectionApiController extends BaseController {
         }
     }
     
-    /**
-     * 判断SQL语句类型
-     * @param sql SQL语句（已转换为大写）
-     * @return SQL类型
-     */
-    private String determineSqlType(String sql) {
-        sql = sql.replaceAll("\\s+", " ").trim();
-        
-        if (sql.startsWith("SELECT ") || sql.startsWith("WITH ")) {
-            return "SELECT";
-        } else if (sql.startsWith("INSERT ")) {
-            return "INSERT";
-        } else if (sql.startsWith("UPDATE ")) {
-            return "UPDATE";
-        } else if (sql.startsWith("DELETE ")) {
-            return "DELETE";
-        } else if (sql.startsWith("CREATE TABLE ") || sql.startsWith("CREATE TEMPORARY TABLE ")) {
-            return "CREATE_TABLE";
-        } else if (sql.startsWith("ALTER TABLE ")) {
-            return "ALTER_TABLE";
-        } else if (sql.startsWith("DROP TABLE ")) {
-            return "DROP_TABLE";
-        } else if (sql.startsWith("CREATE VIEW ")) {
-            return "CREATE_VIEW";
-        } else if (sql.startsWith("ALTER VIEW ")) {
-            return "ALTER_VIEW";
-        } else if (sql.startsWith("DROP VIEW ")) {
-            return "DROP_VIEW";
-        } else if (sql.startsWith("CREATE INDEX ") || sql.startsWith("CREATE UNIQUE INDEX ")) {
-            return "CREATE_INDEX";
-        } else if (sql.startsWith("DROP INDEX ")) {
-            return "DROP_INDEX";
-        } else if (sql.startsWith("CREATE PROCEDURE ")) {
-            return "CREATE_PROCEDURE";
-        } else if (sql.startsWith("CREATE FUNCTION ")) {
-            return "CREATE_FUNCTION";
-        } else if (sql.startsWith("DROP PROCEDURE ")) {
-            return "DROP_PROCEDURE";
-        } else if (sql.startsWith("DROP FUNCTION ")) {
-            return "DROP_FUNCTION";
-        } else if (sql.startsWith("CREATE TRIGGER ")) {
-            return "CREATE_TRIGGER";
-        } else if (sql.startsWith("DROP TRIGGER ")) {
-            return "DROP_TRIGGER";
-        } else if (sql.startsWith("BEGIN ") || sql.startsWith("START TRANSACTION") || 
-                  sql.startsWith("COMMIT") || sql.startsWith("ROLLBACK")) {
-            return "TRANSACTION";
-        } else if (sql.startsWith("EXPLAIN ")) {
-            return "EXPLAIN";
-        } else if (sql.startsWith("DESCRIBE ") || sql.startsWith("DESC ")) {
-            return "DESCRIBE";
-        } else if (sql.startsWith("SHOW ")) {
-            return "SHOW";
-        } else if (sql.startsWith("CREATE DATABASE ") || sql.startsWith("CREATE SCHEMA ")) {
-            return "CREATE_DATABASE";
-        } else if (sql.startsWith("DROP DATABASE ") || sql.startsWith("DROP SCHEMA ")) {
-            return "DROP_DATABASE";
-        } else if (sql.startsWith("USE ")) {
-            return "USE_DATABASE";
-        } else if (sql.startsWith("SET ")) {
-            return "SET";
-        } else if (sql.startsWith("GRANT ")) {
-            return "GRANT";
-        } else if (sql.startsWith("REVOKE ")) {
-            return "REVOKE";
-        } else if (sql.startsWith("CREATE USER ")) {
-            return "CREATE_USER";
-        } else if (sql.startsWith("ALTER USER ")) {
-            return "ALTER_USER";
-        } else if (sql.startsWith("DROP USER ")) {
-            return "DROP_USER";
-        } else if (sql.startsWith("CREATE EVENT ")) {
-            return "CREATE_EVENT";
-        } else if (sql.startsWith("ALTER EVENT ")) {
-            return "ALTER_EVENT";
-        } else if (sql.startsWith("DROP EVENT ")) {
-            return "DROP_EVENT";
-        }
-        
-        // 无法识别的SQL类型
-        return "UNKNOWN";
-    }
-
     /**
      * 获取数据库的函数列表
      * @param id 连接ID
@@ -477,6 +513,11 @@ public class ConnectionApiController extends BaseController {
      * @param id 连接ID
      * @param database 数据库名称
      * @param table 表名
+     * @param limit 每页行数
+     * @param offset 偏移量，仅offset分页模式使用
+     * @param pagination 分页模式：offset（默认）或keyset
+     * @param cursor 上一页返回的nextCursor，keyset模式使用，为空时读取第一页
+     * @param exactCount 是否在后台统计精确行数，默认只返回估算值
      * @return 表数据
      */
     @GetMapping("/{id}/databases/{database}/tables/{table}/data")
@@ -485,8 +526,33 @@ public class ConnectionApiController extends BaseController {
             @PathVariable String database,
             @PathVariable String table,
             @RequestParam(required = false, defaultValue = "100") Integer limit,
-            @RequestParam(required = false, defaultValue = "0") Integer offset) {
+            @RequestParam(required = false, defaultValue = "0") Integer offset,
+            @RequestParam(required = false, defaultValue = "offset") String pagination,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean exactCount) {
         try {
+            // 游标分页：按主键定位下一页，深翻页不再扫描并丢弃前面的行
+            if ("keyset".equalsIgnoreCase(pagination) || cursor != null) {
+                TableDataPage page = tableDataService.readPage(id, database, table, limit, cursor);
+                
+                Map<String, Object> data = new HashMap<>();
+                data.put("columns", page.getColumns());
+                data.put("data", page.getData());
+                putTotal(data, id, database, table, exactCount, page.getData().size());
+                data.put("database", database);
+                data.put("table", table);
+                data.put("limit", limit);
+                data.put("pagination", "keyset");
+                data.put("keyColumns", page.getKeyColumns());
+                data.put("nextCursor", page.getNextCursor());
+                data.put("hasMore", page.isHasMore());
+                
+                Map<String, Object> result = new HashMap<>();
+                result.put("success", true);
+                result.put("data", data);
+                return success(result);
+            }
+            
             // 创建查询SQL
             String sql = String.format("SELECT * FROM %s LIMIT %d OFFSET %d", table, limit, offset);
             
@@ -508,7 +574,8 @@ public class ConnectionApiController extends BaseController {
                 Map<String, Object> data = new HashMap<>();
                 data.put("columns", queryResponse.getColumns());
                 data.put("data", queryResponse.getData());
-                data.put("total", queryResponse.getData() != null ? queryResponse.getData().size() : 0);
+                putTotal(data, id, database, table, exactCount,
+                        queryResponse.getData() != null ? queryResponse.getData().size() : 0);
                 data.put("database", database);
                 data.put("table", table);
                 data.put("limit", limit);
@@ -525,6 +592,37 @@ public class ConnectionApiController extends BaseController {
         }
     }
 
+    /**
+     * 查询表的行数
+     * @param id 连接ID
+     * @param database 数据库名称
+     * @param table 表名
+     * @param exact 是否需要精确计数，精确计数在后台执行，完成前返回估算值
+     * @return 行数信息
+     */
+    @GetMapping("/{id}/databases/{database}/tables/{table}/count")
+    public ResponseEntity<ApiResponse<RowCount>> getTableRowCount(
+            @PathVariable Long id,
+            @PathVariable String database,
+            @PathVariable String table,
+            @RequestParam(required = false, defaultValue = "false") boolean exact) {
+        try {
+            return success(rowCountService.getRowCount(id, database, table, exact));
+        } catch (Exception e) {
+            return error("获取表行数失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 设置表数据的总行数：优先使用统计信息估算值或缓存的精确值，无法获取时退回当前页行数
+     */
+    private void putTotal(Map<String, Object> data, Long id, String database, String table, boolean exactCount, int pageSize) {
+        RowCount rowCount = rowCountService.getRowCount(id, database, table, exactCount);
+        data.put("total", rowCount.getCount() != null ? rowCount.getCount() : pageSize);
+        data.put("totalEstimated", rowCount.getCount() == null || rowCount.isEstimated());
+        data.put("totalPending", rowCount.isExactPending());
+    }
+
     /**
      * 新增表数据
      * @param id 连接ID
@@ -690,6 +788,29 @@ public class ConnectionApiController extends BaseController {
         }
     }
     
+    /**
+     * 批量编辑表数据
+     * 一次提交多行插入、更新、删除，连续的相同形状的操作合并为一个批次，在同一事务中执行
+     * @param id 连接ID
+     * @param database 数据库名称
+     * @param table 表名
+     * @param request 批量编辑请求
+     * @return 每行的执行结果
+     */
+    @PostMapping("/{id}/databases/{database}/tables/{table}/data/batch")
+    public ResponseEntity<ApiResponse<TableDataBatchResponse>> batchEditTableData(
+            @PathVariable Long id, 
+            @PathVariable String database,
+            @PathVariable String table,
+            @RequestBody TableDataBatchRequest request) {
+        try {
+            TableDataBatchResponse response = tableDataService.executeBatch(id, database, table, request);
+            return success(response);
+        } catch (Exception e) {
+            return error("批量编辑数据失败: " + e.getMessage());
+        }
+    }
+    
     /**
      * 删除表数据
      * @param id 连接ID
@@ -0,0 +1,155 @@
+package com.dbmanage.api.controller;
+
+import com.dbmanage.api.common.ApiResponse;
+import com.dbmanage.api.common.BaseController;
+import com.dbmanage.api.common.Constants;
+import com.dbmanage.api.dto.task.DataTaskResponse;
+import com.dbmanage.api.dto.task.ExportRequest;
+import com.dbmanage.api.dto.task.ImportRequest;
+import com.dbmanage.api.dto.task.TableCopyRequest;
+import com.dbmanage.api.service.DataTaskService;
+import com.dbmanage.api.service.ExportService;
+import com.dbmanage.api.service.ImportService;
+import com.dbmanage.api.service.TableCopyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.validation.Valid;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 数据导入导出控制器
+ */
+@RestController
+@RequestMapping("/data")
+public class DataTransferController extends BaseController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private TableCopyService tableCopyService;
+
+    @Autowired
+    private DataTaskService dataTaskService;
+
+    /**
+     * 导出表或查询结果
+     * 响应体为CSV或NDJSON文件（默认gzip压缩），任务ID通过X-Task-Id响应头返回，可用于查询导出进度
+     * @param request 导出请求
+     * @return 导出文件
+     */
+    @PostMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@Valid @RequestBody ExportRequest request) {
+        Long userId = getCurrentUserId();
+        DataTaskResponse task = exportService.createTask(userId, request);
+        StreamingResponseBody body = outputStream -> exportService.export(task.getId(), request, outputStream);
+
+        String contentType;
+        if (exportService.isPartitioned(request)) {
+            contentType = Constants.Api.CONTENT_TYPE_ZIP;
+        } else if (request.isGzip()) {
+            contentType = Constants.Api.CONTENT_TYPE_GZIP;
+        } else if (Constants.Task.FORMAT_CSV.equals(request.getFormat())) {
+            contentType = Constants.Api.CONTENT_TYPE_CSV + ";charset=UTF-8";
+        } else {
+            contentType = Constants.Api.CONTENT_TYPE_NDJSON;
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(task.getFileName(), StandardCharsets.UTF_8).build().toString())
+                .header(Constants.Api.HEADER_TASK_ID, String.valueOf(task.getId()))
+                .header(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, Constants.Api.HEADER_TASK_ID)
+                .contentType(MediaType.parseMediaType(contentType))
+                .body(body);
+    }
+
+    /**
+     * 导入CSV或NDJSON文件到表中
+     * 文件保存后在后台导入，立即返回任务状态，通过任务ID查询进度
+     * @param file 导入文件，可为gzip压缩
+     * @param request 导入参数
+     * @return 任务状态
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<DataTaskResponse>> importData(@RequestParam("file") MultipartFile file,
+                                                                    @Valid ImportRequest request) {
+        try {
+            Long userId = getCurrentUserId();
+            return success(importService.submit(userId, request, file));
+        } catch (Exception e) {
+            return error("提交导入任务失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 在两个连接之间复制表
+     * 后台读取源表并批量写入目标表，立即返回任务状态，通过任务ID查询进度
+     * @param request 复制请求
+     * @return 任务状态
+     */
+    @PostMapping("/copy")
+    public ResponseEntity<ApiResponse<DataTaskResponse>> copyTable(@Valid @RequestBody TableCopyRequest request) {
+        try {
+            Long userId = getCurrentUserId();
+            return success(tableCopyService.submit(userId, request));
+        } catch (Exception e) {
+            return error("提交复制任务失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 取消表复制任务
+     * @param taskId 任务ID
+     * @return 任务状态
+     */
+    @DeleteMapping("/copy/{taskId}")
+    public ResponseEntity<ApiResponse<DataTaskResponse>> cancelCopy(@PathVariable Long taskId) {
+        try {
+            Long userId = getCurrentUserId();
+            return success(tableCopyService.cancel(userId, taskId));
+        } catch (Exception e) {
+            return error("取消复制任务失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取数据任务状态
+     * @param taskId 任务ID
+     * @return 任务状态
+     */
+    @GetMapping("/tasks/{taskId}")
+    public ResponseEntity<ApiResponse<DataTaskResponse>> getTask(@PathVariable Long taskId) {
+        try {
+            Long userId = getCurrentUserId();
+            return success(dataTaskService.getTask(userId, taskId));
+        } catch (Exception e) {
+            return error("获取任务状态失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取最近的数据任务
+     * @param limit 限制数量
+     * @return 任务列表
+     */
+    @GetMapping("/tasks")
+    public ResponseEntity<ApiResponse<List<DataTaskResponse>>> getTasks(@RequestParam(defaultValue = "20") int limit) {
+        try {
+            Long userId = getCurrentUserId();
+            return success(dataTaskService.getTasks(userId, limit));
+        } catch (Exception e) {
+            return error("获取任务列表失败: " + e.getMessage());
+        }
+    }
+}
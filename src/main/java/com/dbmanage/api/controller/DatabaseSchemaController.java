@@ -6,6 +6,9 @@ import com.dbmanage.api.dto.query.QueryRequest;
 import com.dbmanage.api.dto.query.QueryResponse;
 import com.dbmanage.api.service.DatabaseConnectionService;
 import com.dbmanage.api.service.QueryService;
+import com.dbmanage.api.service.SchemaService;
+import com.dbmanage.api.service.SchemaTreeService;
+import com.dbmanage.api.service.TaskExecutionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,8 +21,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -37,11 +42,18 @@ public class DatabaseSchemaController extends BaseController {
     @Autowired
     private DatabaseConnectionService connectionService;
     
-    // 用于并行处理的线程池
-    private final ExecutorService executorService = Executors.newFixedThreadPool(5);
+    @Autowired
+    private SchemaService schemaService;
+    
+    @Autowired
+    private SchemaTreeService schemaTreeService;
+    
+    @Autowired
+    private TaskExecutionService taskExecutionService;
 
     /**
      * 获取数据库结构信息
+     * 只返回数据库一级节点，模式、表和列通过 GET /connections/{id}/tree 逐级加载
      * @param connectionId 连接ID，如果不提供则返回所有用户连接的结构
      * @return 数据库结构信息
      */
@@ -55,24 +67,28 @@ public class DatabaseSchemaController extends BaseController {
             // 如果没有提供连接ID，则返回用户所有连接的结构
             if (connectionId == null) {
                 // 获取用户的所有连接
-                List<Map<String, Object>> userConnections = new ArrayList<>();
-                connectionService.getUserConnections(userId).forEach(conn -> {
-                    Map<String, Object> connection = new HashMap<>();
-                    connection.put("id", conn.getId());
-                    connection.put("name", conn.getName());
-                    connection.put("type", conn.getType());
-                    
-                    // 尝试获取该连接的数据库结构
-                    try {
-                        List<Map<String, Object>> structure = queryService.getDatabaseStructure(conn.getId());
-                        connection.put("databases", structure);
-                    } catch (Exception e) {
-                        logger.error("获取连接 {} 的数据库结构失败: {}", conn.getId(), e.getMessage(), e);
-                        connection.put("error", "无法获取数据库结构: " + e.getMessage());
-                    }
-                    
-                    userConnections.add(connection);
-                });
+                // 每个连接的结构在各自的任务通道中并行获取，慢库不会阻塞其他连接
+                List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+                connectionService.getUserConnections(userId).forEach(conn ->
+                    futures.add(submitOrFail(conn.getId(), () -> {
+                        Map<String, Object> connection = new HashMap<>();
+                        connection.put("id", conn.getId());
+                        connection.put("name", conn.getName());
+                        connection.put("type", conn.getType());
+                        
+                        // 尝试获取该连接的数据库列表
+                        try {
+                            connection.put("databases", toDatabaseNodes(schemaTreeService.getDatabases(conn.getId())));
+                        } catch (Exception e) {
+                            logger.error("获取连接 {} 的数据库结构失败: {}", conn.getId(), e.getMessage(), e);
+                            connection.put("error", "无法获取数据库结构: " + e.getMessage());
+                        }
+                        return connection;
+                    }, "id", conn.getId())));
+                
+                List<Map<String, Object>> userConnections = futures.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList());
                 
                 // 返回所有连接的结构
                 Map<String, Object> rootNode = new HashMap<>();
@@ -81,8 +97,8 @@ public class DatabaseSchemaController extends BaseController {
                 rootNode.put("children", userConnections);
                 result.add(rootNode);
             } else {
-                // 返回特定连接的结构
-                result = queryService.getDatabaseStructure(connectionId);
+                // 返回特定连接的数据库列表
+                result = toDatabaseNodes(schemaTreeService.getDatabases(connectionId));
             }
             
             return success(result);
@@ -161,7 +177,6 @@ public class DatabaseSchemaController extends BaseController {
     @GetMapping("/complete-schema/{connectionId}")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getCompleteSchema(@PathVariable Long connectionId) {
         try {
-           Integer  limit=100;
             Map<String, Object> result = new HashMap<>();
             
             // 获取连接信息
@@ -177,76 +192,21 @@ public class DatabaseSchemaController extends BaseController {
                     result.put("defaultDatabase", conn.getDatabase());
                 });
             
-            // 获取所有数据库
-            List<Map<String, Object>> databaseStructure = queryService.getDatabaseStructure(connectionId);
-            result.put("databases", databaseStructure);
+            // 获取所有数据库名称，只读取数据库一级，各库的结构在下面分别加载
+            List<String> databases = schemaTreeService.getDatabases(connectionId);
+            result.put("databases", databases);
             
             // 获取每个数据库的详细信息
             List<Map<String, Object>> detailedDatabases = new ArrayList<>();
             
-            // 从数据库结构中提取数据库名称
-            for (Map<String, Object> database : databaseStructure) {
-                String databaseName = (String) database.get("label");
-                Map<String, Object> detailedDatabase = new HashMap<>();
-                detailedDatabase.put("name", databaseName);
-                
-                try {
-                    // 获取表列表及其结构
-                    List<Map<String, Object>> tables = queryService.getDatabaseTables(connectionId, databaseName, null);
-                    
-                    // 如果表数量过多，只取前limit个
-                    if (tables.size() > limit) {
-                        logger.info("数据库 {} 的表数量 {} 超过限制 {}，将只返回前 {} 个表",
-                                databaseName, tables.size(), limit, limit);
-                        tables = tables.subList(0, limit);
-                        detailedDatabase.put("truncated", true);
-                        detailedDatabase.put("totalTables", tables.size());
-                    }
-                    
-                    // 并行处理表结构获取，提高性能
-                    List<CompletableFuture<Map<String, Object>>> tableFutures = tables.stream()
-                        .map(table -> {
-                            String tableName = (String) table.get("label");
-                            return CompletableFuture.supplyAsync(() -> {
-                                Map<String, Object> detailedTable = new HashMap<>();
-                                detailedTable.put("name", tableName);
-                                
-                                // 获取表的列信息
-                                try {
-                                    // 确保传递完整的表名，包括数据库名称
-                                    List<Map<String, Object>> columns = queryService.getTableStructure(connectionId, databaseName + "." + tableName);
-                                    detailedTable.put("columns", columns);
-                                } catch (Exception e) {
-                                    logger.error("获取表 {}.{} 的结构失败: {}", databaseName, tableName, e.getMessage(), e);
-                                    detailedTable.put("error", "无法获取表结构: " + e.getMessage());
-                                }
-                                
-                                return detailedTable;
-                            }, executorService);
-                        })
-                        .collect(Collectors.toList());
-                    
-                    // 等待所有表结构获取完成
-                    List<Map<String, Object>> detailedTables = tableFutures.stream()
-                        .map(CompletableFuture::join)
-                        .collect(Collectors.toList());
-                    
-                    detailedDatabase.put("tables", detailedTables);
-                    
-                    // 获取视图列表
-                    List<Map<String, Object>> views = queryService.getDatabaseViews(connectionId, databaseName, null);
-                    detailedDatabase.put("views", views);
-                    
-                    // 获取函数列表
-                    List<Map<String, Object>> functions = queryService.getDatabaseFunctions(connectionId, databaseName, null);
-                    detailedDatabase.put("functions", functions);
-                    
-                    detailedDatabases.add(detailedDatabase);
-                } catch (Exception e) {
-                    logger.error("获取数据库 {} 的结构失败: {}", databaseName, e.getMessage(), e);
-                    detailedDatabase.put("error", "无法获取数据库结构: " + e.getMessage());
-                    detailedDatabases.add(detailedDatabase);
-                }
+            // 各数据库在该连接的任务通道中并行加载，并发数受单连接上限约束
+            List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+            for (String databaseName : databases) {
+                futures.add(submitOrFail(connectionId, () -> loadDetailedDatabase(connectionId, databaseName),
+                        "name", databaseName));
+            }
+            for (CompletableFuture<Map<String, Object>> future : futures) {
+                detailedDatabases.add(future.join());
             }
             
             result.put("detailedDatabases", detailedDatabases);
@@ -284,89 +244,9 @@ public class DatabaseSchemaController extends BaseController {
                     result.put("database", database);
                 });
             
-            // 获取表列表
-            List<Map<String, Object>> tables = queryService.getDatabaseTables(connectionId, database, null);
-            List<Map<String, Object>> detailedTables = new ArrayList<>();
-            
-            // 设置合理的限制，避免表过多时性能问题
-            int limit = 100;
-            if (tables.size() > limit) {
-                tables = tables.subList(0, limit);
-                result.put("truncated", true);
-                result.put("totalTables", tables.size());
-            }
-            
-            // 并行获取表结构信息
-            List<CompletableFuture<Map<String, Object>>> tableFutures = tables.stream()
-                .map(table -> {
-                    String tableName = (String) table.get("label");
-                    return CompletableFuture.supplyAsync(() -> {
-                        Map<String, Object> detailedTable = new HashMap<>();
-                        
-                        try {
-                            // 获取表的字段信息
-                            List<Map<String, Object>> columnsData = queryService.getTableStructure(connectionId, database + "." + tableName);
-                            
-                            // 表信息处理：分离表元数据和列信息
-                            if (!columnsData.isEmpty() && columnsData.get(0).containsKey("type") && "TABLE".equals(columnsData.get(0).get("type"))) {
-                                // 第一个元素是表元数据
-                                Map<String, Object> tableMetadata = columnsData.get(0);
-                                detailedTable.put("name", tableMetadata.get("name"));
-                                detailedTable.put("comment", tableMetadata.get("comment") != null ? tableMetadata.get("comment") : "");
-                                
-                                // 处理列信息，过滤掉表元数据
-                                List<Map<String, Object>> columns = columnsData.stream()
-                                    .skip(1) // 跳过表元数据
-                                    .map(column -> {
-                                        Map<String, Object> formattedColumn = new HashMap<>();
-                                        formattedColumn.put("name", column.get("name"));
-                                        formattedColumn.put("type", column.get("type"));
-                                        formattedColumn.put("comment", column.get("comment") != null ? column.get("comment") : "");
-                                        formattedColumn.put("nullable", column.get("nullable"));
-                                        formattedColumn.put("isPrimaryKey", column.get("isPrimaryKey"));
-                                        formattedColumn.put("defaultValue", column.get("defaultValue"));
-                                        return formattedColumn;
-                                    })
-                                    .collect(Collectors.toList());
-                                
-                                detailedTable.put("columns", columns);
-                            } else {
-                                // 兼容旧版返回结构（无表元数据的情况）
-                                detailedTable.put("name", tableName);
-                                detailedTable.put("comment", "");
-                                
-                                List<Map<String, Object>> columns = columnsData.stream()
-                                    .map(column -> {
-                                        Map<String, Object> formattedColumn = new HashMap<>();
-                                        formattedColumn.put("name", column.get("name"));
-                                        formattedColumn.put("type", column.get("type"));
-                                        formattedColumn.put("comment", column.get("comment") != null ? column.get("comment") : "");
-                                        formattedColumn.put("nullable", column.get("nullable"));
-                                        formattedColumn.put("defaultValue", column.get("defaultValue"));
-                                        return formattedColumn;
-                                    })
-                                    .collect(Collectors.toList());
-                                
-                                detailedTable.put("columns", columns);
-                            }
-                        } catch (Exception e) {
-                            logger.error("获取表 {}.{} 的结构失败: {}", database, tableName, e.getMessage(), e);
-                            detailedTable.put("name", tableName);
-                            detailedTable.put("error", "无法获取表结构: " + e.getMessage());
-                            detailedTable.put("columns", new ArrayList<>());
-                        }
-                        
-                        return detailedTable;
-                    }, executorService);
-                })
-                .collect(Collectors.toList());
-            
-            // 等待所有表结构获取完成
-            detailedTables = tableFutures.stream()
-                .map(CompletableFuture::join)
-                .collect(Collectors.toList());
-            
-            result.put("tables", detailedTables);
+            // 批量加载表结构，每张表包含name、comment、columns等信息
+            List<Map<String, Object>> tables = schemaService.getDatabaseSchema(connectionId, database);
+            result.put("tables", tables);
             
             // 获取视图列表
             List<Map<String, Object>> views = queryService.getDatabaseViews(connectionId, database, null);
@@ -379,6 +259,74 @@ public class DatabaseSchemaController extends BaseController {
         }
     }
 
+    /**
+     * 加载单个数据库的表、视图和函数
+     */
+    private Map<String, Object> loadDetailedDatabase(Long connectionId, String databaseName) {
+        Map<String, Object> detailedDatabase = new HashMap<>();
+        detailedDatabase.put("name", databaseName);
+        
+        try {
+            // 一次性批量加载整个库的表、字段、主键和索引
+            List<Map<String, Object>> tables = schemaService.getDatabaseSchema(connectionId, databaseName);
+            detailedDatabase.put("tables", tables);
+            
+            // 获取视图列表
+            List<Map<String, Object>> views = queryService.getDatabaseViews(connectionId, databaseName, null);
+            detailedDatabase.put("views", views);
+            
+            // 获取函数列表
+            List<Map<String, Object>> functions = queryService.getDatabaseFunctions(connectionId, databaseName, null);
+            detailedDatabase.put("functions", functions);
+        } catch (Exception e) {
+            logger.error("获取数据库 {} 的结构失败: {}", databaseName, e.getMessage(), e);
+            detailedDatabase.put("error", "无法获取数据库结构: " + e.getMessage());
+        }
+        
+        return detailedDatabase;
+    }
+    
+    /**
+     * 把数据库名称转换为对象树的数据库节点，节点格式与 GET /connections/{id}/tree 返回的一致
+     */
+    private List<Map<String, Object>> toDatabaseNodes(List<String> databases) {
+        List<Map<String, Object>> nodes = new ArrayList<>(databases.size());
+        for (String database : databases) {
+            Map<String, Object> node = new HashMap<>();
+            node.put("id", "catalog-" + database);
+            node.put("label", database);
+            node.put("type", "database");
+            node.put("leaf", false);
+            node.put("database", database);
+            nodes.add(node);
+        }
+        return nodes;
+    }
+    
+    /**
+     * 提交元数据加载任务，任务被拒绝或取消时返回带错误信息的节点
+     * @param connectionId 目标连接ID
+     * @param task 加载任务
+     * @param key 节点标识字段名
+     * @param value 节点标识
+     * @return 加载结果
+     */
+    private CompletableFuture<Map<String, Object>> submitOrFail(Long connectionId, Supplier<Map<String, Object>> task,
+                                                               String key, Object value) {
+        Function<Throwable, Map<String, Object>> toError = e -> {
+            Map<String, Object> node = new HashMap<>();
+            node.put(key, value);
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            node.put("error", "无法获取数据库结构: " + cause.getMessage());
+            return node;
+        };
+        try {
+            return taskExecutionService.submit(connectionId, task).exceptionally(toError);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(toError.apply(e));
+        }
+    }
+    
     /**
      * 创建新数据库
      * @param connectionId 连接ID
@@ -2,6 +2,12 @@ package com.dbmanage.api.controller;
 
 import com.dbmanage.api.common.ApiResponse;
 import com.dbmanage.api.common.BaseController;
+import com.dbmanage.api.service.AiResponseCacheService;
+import com.dbmanage.api.service.QueryHistoryWriter;
+import com.dbmanage.api.service.QueryResultCache;
+import com.dbmanage.api.service.SchemaSearchService;
+import com.dbmanage.api.service.TaskExecutionService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -20,6 +26,21 @@ import static com.dbmanage.api.common.ApiResponse.success;
 @RequestMapping("/health")
 public class HealthCheckController extends BaseController {
 
+    @Autowired
+    private TaskExecutionService taskExecutionService;
+
+    @Autowired
+    private QueryHistoryWriter queryHistoryWriter;
+
+    @Autowired
+    private QueryResultCache queryResultCache;
+
+    @Autowired
+    private SchemaSearchService schemaSearchService;
+
+    @Autowired
+    private AiResponseCacheService aiResponseCacheService;
+
     /**
      * 健康检查接口，提供API可用性验证
      * @return API状态信息
@@ -33,4 +54,49 @@ public class HealthCheckController extends BaseController {
         status.put("version", "1.0.0");
         return success(status);
     }
+
+    /**
+     * 后台任务执行状态，包括各连接的运行、排队和拒绝数量
+     * @return 任务执行统计信息
+     */
+    @GetMapping("/executor")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> executorStats() {
+        return success(taskExecutionService.getStats());
+    }
+
+    /**
+     * 查询历史异步写入状态，包括排队、已写入和丢弃数量
+     * @return 历史写入统计信息
+     */
+    @GetMapping("/history-writer")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> historyWriterStats() {
+        return success(queryHistoryWriter.getStats());
+    }
+
+    /**
+     * 查询结果缓存状态，包括条目数、内存占用和命中率
+     * @return 结果缓存统计信息
+     */
+    @GetMapping("/result-cache")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> resultCacheStats() {
+        return success(queryResultCache.getStats());
+    }
+
+    /**
+     * 结构搜索索引状态，包括索引数、条目数和增量更新次数
+     * @return 搜索索引统计信息
+     */
+    @GetMapping("/schema-search")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> schemaSearchStats() {
+        return success(schemaSearchService.getStats());
+    }
+
+    /**
+     * AI响应缓存状态，包括条目数、命中率和实际调用模型的次数
+     * @return AI响应缓存统计信息
+     */
+    @GetMapping("/ai-cache")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> aiCacheStats() {
+        return success(aiResponseCacheService.getStats());
+    }
 }
\ No newline at end of file
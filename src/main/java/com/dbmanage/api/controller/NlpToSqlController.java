@@ -1,10 +1,17 @@
 package com.dbmanage.api.controller;
 
+import com.dbmanage.api.common.ApiResponse;
+import com.dbmanage.api.common.BaseController;
+import com.dbmanage.api.dto.query.SqlCompletionResponse;
+import com.dbmanage.api.service.AiResponseCacheService;
 import com.dbmanage.api.service.NlpToSqlService;
+import com.dbmanage.api.service.SchemaSnapshotService;
+import com.dbmanage.api.service.SqlCompletionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -15,11 +22,20 @@ import java.util.Map;
  */
 @RestController
 @RequestMapping("/ai")
-public class NlpToSqlController {
+public class NlpToSqlController extends BaseController {
 
     @Autowired
     private NlpToSqlService nlpToSqlService;
 
+    @Autowired
+    private SchemaSnapshotService schemaSnapshotService;
+
+    @Autowired
+    private SqlCompletionService sqlCompletionService;
+
+    @Autowired
+    private AiResponseCacheService aiResponseCacheService;
+
     /**
      * 将自然语言转换为SQL
      * 
@@ -29,6 +45,7 @@ public class NlpToSqlController {
      *   "model": "openai", // 或 "deepseek"
      *   "connectionType": "mysql", // 数据库类型，如mysql, postgresql等
      *   "database": "jesite", // 数据库名称
+     *   "connectionId": 1, // 可选，未提供schema时使用该连接最新的结构快照
      *   "schema": { // 完整的数据库结构信息
      *     "databaseType": "mysql",
      *     "database": "jesite",
@@ -101,6 +118,16 @@ public class NlpToSqlController {
                 }
             }
             
+            // 未提供schema时使用结构快照，不访问目标数据库
+            Object connectionId = requestBody.get("connectionId");
+            if ((schema == null || schema.trim().isEmpty()) && connectionId != null) {
+                String description = schemaSnapshotService.describe(getCurrentUserId(),
+                        Long.valueOf(connectionId.toString()), database);
+                if (description != null) {
+                    schema = description;
+                }
+            }
+            
             // 如果schema为空，返回警告
             if (schema == null || schema.trim().isEmpty()) {
                 Map<String, Object> errorResponse = new HashMap<>();
@@ -135,11 +162,18 @@ public class NlpToSqlController {
 
     /**
      * 获取SQL自动补全建议
+     * 默认在本地按光标处的上下文补全表、列、关键字和函数（source为local），
+     * 只有指定useAi或输入内容是自然语言描述时才调用大语言模型（source为ai）
      *
      * @param partialSql 部分SQL
      * @param dialect SQL方言
-     * @param schemaInfo 数据库结构信息
+     * @param schemaInfo 数据库结构信息，调用大语言模型时使用
      * @param modelType 模型类型 (openai 或 deepseek)
+     * @param connectionId 数据库连接ID，本地补全表和列时需要
+     * @param database 数据库名称
+     * @param cursor 光标位置，默认为文本末尾
+     * @param useAi 是否直接使用大语言模型
+     * @param limit 本地补全最多返回的补全项数
      * @return 补全建议列表
      */
     @PostMapping("/sql-completions")
@@ -147,9 +181,41 @@ public class NlpToSqlController {
             @RequestParam String partialSql,
             @RequestParam(required = false, defaultValue = "sql") String dialect,
             @RequestParam(required = false) String schemaInfo,
-            @RequestParam(required = false, defaultValue = "deepseek") String modelType) {
+            @RequestParam(required = false, defaultValue = "deepseek") String modelType,
+            @RequestParam(required = false) Long connectionId,
+            @RequestParam(required = false) String database,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean useAi,
+            @RequestParam(required = false, defaultValue = "50") Integer limit) {
         
         try {
+            Long userId = connectionId != null ? getCurrentUserId() : null;
+            if (!useAi) {
+                SqlCompletionResponse local = sqlCompletionService.complete(userId, connectionId, database,
+                        partialSql, cursor, dialect, limit);
+                if (!local.isNaturalLanguage()) {
+                    List<String> completions = new ArrayList<>();
+                    for (SqlCompletionResponse.Item item : local.getItems()) {
+                        completions.add(item.getLabel());
+                    }
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("partialSql", partialSql);
+                    response.put("completions", completions);
+                    response.put("items", local.getItems());
+                    response.put("context", local.getContext());
+                    response.put("prefix", local.getPrefix());
+                    response.put("replaceStart", local.getReplaceStart());
+                    response.put("executionTime", local.getExecutionTime());
+                    response.put("source", "local");
+                    return ResponseEntity.ok(response);
+                }
+            }
+
+            // 未提供schemaInfo时使用结构快照
+            if ((schemaInfo == null || schemaInfo.trim().isEmpty()) && connectionId != null) {
+                schemaInfo = schemaSnapshotService.describe(userId, connectionId, database);
+            }
             List<String> completions = nlpToSqlService.getSqlCompletions(partialSql, dialect, schemaInfo, modelType);
             
             Map<String, Object> response = new HashMap<>();
@@ -157,6 +223,7 @@ public class NlpToSqlController {
             response.put("partialSql", partialSql);
             response.put("completions", completions);
             response.put("modelType", modelType);
+            response.put("source", "ai");
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -199,4 +266,20 @@ public class NlpToSqlController {
             return ResponseEntity.ok(response);
         }
     }
+
+    /**
+     * 清空AI响应缓存，修改模型配置或希望重新生成结果时使用
+     *
+     * @return 清空的缓存条目数
+     */
+    @DeleteMapping("/cache")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> clearCache() {
+        try {
+            Map<String, Object> result = new HashMap<>();
+            result.put("cleared", aiResponseCacheService.clear());
+            return success(result);
+        } catch (Exception e) {
+            return error("清空AI响应缓存失败: " + e.getMessage());
+        }
+    }
 } 
\ No newline at end of file
@@ -2,15 +2,24 @@ package com.dbmanage.api.controller;
 
 import com.dbmanage.api.common.ApiResponse;
 import com.dbmanage.api.common.BaseController;
+import com.dbmanage.api.common.Constants;
 import com.dbmanage.api.dto.query.QueryHistoryResponse;
 import com.dbmanage.api.dto.query.QueryRequest;
 import com.dbmanage.api.dto.query.QueryResponse;
 import com.dbmanage.api.dto.query.SavedQueryRequest;
 import com.dbmanage.api.dto.query.SavedQueryResponse;
+import com.dbmanage.api.dto.task.DataTaskResponse;
+import com.dbmanage.api.dto.task.QueryJobPage;
+import com.dbmanage.api.service.QueryExecutionRegistry;
+import com.dbmanage.api.service.QueryJobService;
 import com.dbmanage.api.service.QueryService;
+import com.dbmanage.api.util.NdjsonRowWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -26,6 +35,15 @@ public class QueryController extends BaseController {
     @Autowired
     private QueryService queryService;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private QueryExecutionRegistry queryExecutionRegistry;
+    
+    @Autowired
+    private QueryJobService queryJobService;
+    
     /**
      * 执行SQL查询
      * @param request 查询请求
@@ -37,6 +55,34 @@ public class QueryController extends BaseController {
         return success(response);
     }
     
+    /**
+     * 执行SQL查询，以列式格式返回结果
+     * 列信息只返回一次，每行为按列顺序排列的数组
+     * @param request 查询请求
+     * @return 查询响应
+     */
+    @PostMapping(value = "/execute", produces = Constants.Api.CONTENT_TYPE_COLUMNAR_JSON)
+    public ResponseEntity<ApiResponse<QueryResponse>> executeQueryColumnar(@Valid @RequestBody QueryRequest request) {
+        request.setResultFormat(Constants.Sql.RESULT_FORMAT_COLUMNAR);
+        QueryResponse response = queryService.executeQuery(request);
+        return success(response);
+    }
+    
+    /**
+     * 流式执行SQL查询
+     * 以NDJSON格式边读边写，适用于结果集较大的查询
+     * @param request 查询请求
+     * @return 流式响应
+     */
+    @PostMapping(value = "/stream", produces = Constants.Api.CONTENT_TYPE_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamQuery(@Valid @RequestBody QueryRequest request) {
+        StreamingResponseBody body = outputStream ->
+                queryService.streamQuery(request, new NdjsonRowWriter(outputStream, objectMapper));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(Constants.Api.CONTENT_TYPE_NDJSON))
+                .body(body);
+    }
+    
     /**
      * 获取数据库结构信息
      * @param connectionId 数据库连接ID
@@ -140,4 +186,92 @@ public class QueryController extends BaseController {
         List<QueryHistoryResponse> history = queryService.getQueryHistory(userId, limit);
         return success(history);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 获取当前用户正在执行的查询
+     * @return 执行中的查询列表
+     */
+    @GetMapping("/running")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getRunningQueries() {
+        Long userId = getCurrentUserId();
+        return success(queryExecutionRegistry.getRunning(userId));
+    }
+    
+    /**
+     * 取消正在执行的查询
+     * @param executionId 执行ID，由执行请求指定或从执行响应中获取
+     * @return 是否已发出取消请求
+     */
+    @DeleteMapping("/{executionId}")
+    public ResponseEntity<ApiResponse<Boolean>> cancelQuery(@PathVariable String executionId) {
+        Long userId = getCurrentUserId();
+        if (queryExecutionRegistry.cancel(executionId, userId)) {
+            return success(true);
+        }
+        return error("执行不存在或已结束: " + executionId);
+    }
+    
+    /**
+     * 提交异步查询，结果写入服务端文件后分页读取
+     * @param request 查询请求
+     * @return 任务状态
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<ApiResponse<DataTaskResponse>> submitJob(@Valid @RequestBody QueryRequest request) {
+        try {
+            Long userId = getCurrentUserId();
+            return success(queryJobService.submit(userId, request));
+        } catch (Exception e) {
+            return error("提交异步查询失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 获取异步查询状态
+     * @param jobId 任务ID
+     * @return 任务状态
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<DataTaskResponse>> getJob(@PathVariable Long jobId) {
+        try {
+            Long userId = getCurrentUserId();
+            return success(queryJobService.getJob(userId, jobId));
+        } catch (Exception e) {
+            return error("获取异步查询状态失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 分页读取异步查询结果
+     * @param jobId 任务ID
+     * @param offset 起始行（从0开始）
+     * @param limit 每页行数
+     * @return 结果分页
+     */
+    @GetMapping("/jobs/{jobId}/rows")
+    public ResponseEntity<ApiResponse<QueryJobPage>> getJobRows(@PathVariable Long jobId,
+                                                                @RequestParam(defaultValue = "0") long offset,
+                                                                @RequestParam(defaultValue = "100") int limit) {
+        try {
+            Long userId = getCurrentUserId();
+            return success(queryJobService.getPage(userId, jobId, offset, limit));
+        } catch (Exception e) {
+            return error("读取异步查询结果失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 取消异步查询，已完成的查询则删除其结果
+     * @param jobId 任务ID
+     * @return 任务状态
+     */
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<DataTaskResponse>> cancelJob(@PathVariable Long jobId) {
+        try {
+            Long userId = getCurrentUserId();
+            return success(queryJobService.cancel(userId, jobId));
+        } catch (Exception e) {
+            return error("取消异步查询失败: " + e.getMessage());
+        }
+    }
+}
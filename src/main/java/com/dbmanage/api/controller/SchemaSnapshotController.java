@@ -0,0 +1,121 @@
+package com.dbmanage.api.controller;
+
+import com.dbmanage.api.common.ApiResponse;
+import com.dbmanage.api.common.BaseController;
+import com.dbmanage.api.dto.query.SchemaDiff;
+import com.dbmanage.api.dto.query.SchemaSnapshotResponse;
+import com.dbmanage.api.service.SchemaSnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 结构快照控制器
+ */
+@RestController
+@RequestMapping("/connections/{id}/snapshots")
+public class SchemaSnapshotController extends BaseController {
+
+    @Autowired
+    private SchemaSnapshotService schemaSnapshotService;
+
+    /**
+     * 刷新结构快照，只重新读取变化信号改变的表
+     * @param id 连接ID
+     * @param database 数据库名称，为空时使用连接的默认数据库
+     * @param force 是否重新读取全部表
+     * @return 最新快照
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<SchemaSnapshotResponse>> refresh(
+            @PathVariable Long id,
+            @RequestParam(required = false) String database,
+            @RequestParam(required = false, defaultValue = "false") boolean force) {
+        try {
+            Long userId = getCurrentUserId();
+            return success(schemaSnapshotService.refresh(userId, id, database, force));
+        } catch (Exception e) {
+            return error("刷新结构快照失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取快照版本列表
+     * @param id 连接ID
+     * @param database 数据库名称
+     * @return 快照列表
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<SchemaSnapshotResponse>>> getSnapshots(
+            @PathVariable Long id,
+            @RequestParam(required = false) String database) {
+        try {
+            Long userId = getCurrentUserId();
+            return success(schemaSnapshotService.getSnapshots(userId, id, database));
+        } catch (Exception e) {
+            return error("获取快照列表失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取最新快照及表结构
+     * @param id 连接ID
+     * @param database 数据库名称
+     * @return 快照
+     */
+    @GetMapping("/latest")
+    public ResponseEntity<ApiResponse<SchemaSnapshotResponse>> getLatest(
+            @PathVariable Long id,
+            @RequestParam(required = false) String database) {
+        try {
+            Long userId = getCurrentUserId();
+            return success(schemaSnapshotService.getSnapshot(userId, id, database, null));
+        } catch (Exception e) {
+            return error("获取结构快照失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 比较两个快照版本
+     * @param id 连接ID
+     * @param database 数据库名称
+     * @param from 起始版本
+     * @param to 目标版本，为空时为最新版本
+     * @return 结构差异
+     */
+    @GetMapping("/diff")
+    public ResponseEntity<ApiResponse<SchemaDiff>> diff(
+            @PathVariable Long id,
+            @RequestParam(required = false) String database,
+            @RequestParam Integer from,
+            @RequestParam(required = false) Integer to) {
+        try {
+            Long userId = getCurrentUserId();
+            return success(schemaSnapshotService.diff(userId, id, database, from, to));
+        } catch (Exception e) {
+            return error("比较结构快照失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取指定版本的快照及表结构
+     * @param id 连接ID
+     * @param version 版本号
+     * @param database 数据库名称
+     * @return 快照
+     */
+    @GetMapping("/{version}")
+    public ResponseEntity<ApiResponse<SchemaSnapshotResponse>> getSnapshot(
+            @PathVariable Long id,
+            @PathVariable Integer version,
+            @RequestParam(required = false) String database) {
+        try {
+            Long userId = getCurrentUserId();
+            return success(schemaSnapshotService.getSnapshot(userId, id, database, version));
+        } catch (Exception e) {
+            return error("获取结构快照失败: " + e.getMessage());
+        }
+    }
+}
@@ -30,6 +30,16 @@ public class ConnectionRequest {
     private String parameters;
 
     private Long groupId;
+
+    /**
+     * 语句超时时间（秒），为空时使用全局默认值
+     */
+    private Integer queryTimeout;
+
+    /**
+     * 查询结果最大行数，为空时使用全局默认值
+     */
+    private Integer maxRows;
     
     // Getters and Setters
     
@@ -104,4 +114,20 @@ public class ConnectionRequest {
     public void setGroupId(Long groupId) {
         this.groupId = groupId;
     }
+    
+    public Integer getQueryTimeout() {
+        return queryTimeout;
+    }
+    
+    public void setQueryTimeout(Integer queryTimeout) {
+        this.queryTimeout = queryTimeout;
+    }
+    
+    public Integer getMaxRows() {
+        return maxRows;
+    }
+    
+    public void setMaxRows(Integer maxRows) {
+        this.maxRows = maxRows;
+    }
 } 
\ No newline at end of file
@@ -25,6 +25,8 @@ public class ConnectionResponse {
     private Long groupId;
     @JsonProperty("group_name")
     private String groupName;
+    private Integer queryTimeout;
+    private Integer maxRows;
     
     public ConnectionResponse() {
     }
@@ -42,6 +44,8 @@ public class ConnectionResponse {
         this.createdAt = connection.getCreatedAt();
         this.updatedAt = connection.getUpdatedAt();
         this.lastConnected = connection.getLastConnected();
+        this.queryTimeout = connection.getQueryTimeout();
+        this.maxRows = connection.getMaxRows();
         
         if (connection.getGroup() != null) {
             this.groupId = connection.getGroup().getId();
@@ -162,4 +166,20 @@ public class ConnectionResponse {
     public void setGroupName(String groupName) {
         this.groupName = groupName;
     }
+    
+    public Integer getQueryTimeout() {
+        return queryTimeout;
+    }
+    
+    public void setQueryTimeout(Integer queryTimeout) {
+        this.queryTimeout = queryTimeout;
+    }
+    
+    public Integer getMaxRows() {
+        return maxRows;
+    }
+    
+    public void setMaxRows(Integer maxRows) {
+        this.maxRows = maxRows;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.dbmanage.api.dto.query;
+
+import lombok.Data;
+
+/**
+ * 查询结果列元数据DTO类
+ * 来源于ResultSetMetaData，随列式结果一并返回
+ */
+@Data
+public class ColumnMetadata {
+
+    /**
+     * 列名（列标签）
+     */
+    private String name;
+
+    /**
+     * 数据库类型名称，如VARCHAR、INT
+     */
+    private String typeName;
+
+    /**
+     * JDBC类型编码，见java.sql.Types
+     */
+    private int jdbcType;
+
+    /**
+     * 精度（字符类型为最大长度）
+     */
+    private int precision;
+
+    /**
+     * 小数位数
+     */
+    private int scale;
+
+    /**
+     * 是否可为空
+     */
+    private boolean nullable;
+
+    /**
+     * 是否自增
+     */
+    private boolean autoIncrement;
+
+    /**
+     * 所属表名，表达式列为空
+     */
+    private String tableName;
+}
@@ -10,6 +10,8 @@ public class QueryHistoryResponse {
     private Integer affectedRows;
     private boolean success;
     private String errorMessage;
+    private String statementType;
+    private String status;
     private Long connectionId;
     private String connectionName;
     private String type;
@@ -63,6 +65,14 @@ public class QueryHistoryResponse {
         this.errorMessage = errorMessage;
     }
     
+    public String getStatementType() {
+        return statementType;
+    }
+    
+    public void setStatementType(String statementType) {
+        this.statementType = statementType;
+    }
+    
     public Long getConnectionId() {
         return connectionId;
     }
@@ -94,4 +104,12 @@ public class QueryHistoryResponse {
     public void setExecutedAt(LocalDateTime executedAt) {
         this.executedAt = executedAt;
     }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
 } 
\ No newline at end of file
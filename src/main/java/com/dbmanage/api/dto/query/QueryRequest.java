@@ -36,15 +36,45 @@ public class QueryRequest {
     private String tableName;
     
     /**
-     * 额外参数
+     * 命名参数，SQL中的 :name 按参数名绑定
      */
     private Map<String, Object> params;
     
     /**
-     * SQL参数列表
+     * SQL参数列表，按顺序绑定到 ? 占位符
      */
     private List<Object> parameters;
     
+    /**
+     * 结果格式：object（默认，每行一个Map）或 columnar（列信息只返回一次，每行为数组）
+     */
+    private String resultFormat;
+    
+    /**
+     * 执行ID，由客户端生成以便在执行过程中取消；为空时由服务端生成
+     */
+    private String executionId;
+    
+    /**
+     * 语句超时时间（秒），为空时使用连接或全局默认值
+     */
+    private Integer timeoutSeconds;
+    
+    /**
+     * 结果最大行数，为空时使用连接或全局默认值
+     */
+    private Integer maxRows;
+    
+    /**
+     * 是否使用结果缓存，只对单条只读查询生效
+     */
+    private Boolean useCache;
+    
+    /**
+     * 结果缓存存活时间（秒），为空时使用全局默认值
+     */
+    private Integer cacheTtlSeconds;
+    
     /**
      * 获取连接ID
      */
@@ -128,4 +158,88 @@ public class QueryRequest {
     public void setParameters(List<Object> parameters) {
         this.parameters = parameters;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 获取结果格式
+     */
+    public String getResultFormat() {
+        return resultFormat;
+    }
+    
+    /**
+     * 设置结果格式
+     */
+    public void setResultFormat(String resultFormat) {
+        this.resultFormat = resultFormat;
+    }
+    
+    /**
+     * 获取执行ID
+     */
+    public String getExecutionId() {
+        return executionId;
+    }
+    
+    /**
+     * 设置执行ID
+     */
+    public void setExecutionId(String executionId) {
+        this.executionId = executionId;
+    }
+    
+    /**
+     * 获取语句超时时间（秒）
+     */
+    public Integer getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+    
+    /**
+     * 设置语句超时时间（秒）
+     */
+    public void setTimeoutSeconds(Integer timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+    
+    /**
+     * 获取结果最大行数
+     */
+    public Integer getMaxRows() {
+        return maxRows;
+    }
+    
+    /**
+     * 设置结果最大行数
+     */
+    public void setMaxRows(Integer maxRows) {
+        this.maxRows = maxRows;
+    }
+    
+    /**
+     * 获取是否使用结果缓存
+     */
+    public Boolean getUseCache() {
+        return useCache;
+    }
+    
+    /**
+     * 设置是否使用结果缓存
+     */
+    public void setUseCache(Boolean useCache) {
+        this.useCache = useCache;
+    }
+    
+    /**
+     * 获取结果缓存存活时间（秒）
+     */
+    public Integer getCacheTtlSeconds() {
+        return cacheTtlSeconds;
+    }
+    
+    /**
+     * 设置结果缓存存活时间（秒）
+     */
+    public void setCacheTtlSeconds(Integer cacheTtlSeconds) {
+        this.cacheTtlSeconds = cacheTtlSeconds;
+    }
+}
\ No newline at end of file
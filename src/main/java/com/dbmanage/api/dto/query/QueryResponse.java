@@ -1,5 +1,7 @@
 package com.dbmanage.api.dto.query;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 import java.util.Map;
 
@@ -28,6 +30,23 @@ public class QueryResponse {
      */
     private List<Map<String, Object>> data;
     
+    /**
+     * 列式查询结果数据，每行为按columns顺序排列的数组（SELECT查询，列式格式）
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Object[]> rows;
+    
+    /**
+     * 查询结果列元数据（SELECT查询，列式格式）
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ColumnMetadata> columnMetadata;
+    
+    /**
+     * 语句类型（多条语句时为最后执行的语句），取值见SqlStatementType
+     */
+    private String statementType;
+    
     /**
      * 查询执行时间（毫秒）
      */
@@ -43,6 +62,26 @@ public class QueryResponse {
      */
     private String errorMessage;
     
+    /**
+     * 执行ID，可用于取消执行
+     */
+    private String executionId;
+    
+    /**
+     * 执行状态：SUCCESS、FAILED、CANCELLED、TIMEOUT
+     */
+    private String status;
+    
+    /**
+     * 结果是否因达到最大行数而被截断
+     */
+    private boolean truncated;
+    
+    /**
+     * 结果是否来自结果缓存
+     */
+    private boolean cached;
+    
     // Getters and Setters
     
     public boolean isQueryResult() {
@@ -77,6 +116,30 @@ public class QueryResponse {
         this.data = data;
     }
     
+    public List<Object[]> getRows() {
+        return rows;
+    }
+    
+    public void setRows(List<Object[]> rows) {
+        this.rows = rows;
+    }
+    
+    public List<ColumnMetadata> getColumnMetadata() {
+        return columnMetadata;
+    }
+    
+    public void setColumnMetadata(List<ColumnMetadata> columnMetadata) {
+        this.columnMetadata = columnMetadata;
+    }
+    
+    public String getStatementType() {
+        return statementType;
+    }
+    
+    public void setStatementType(String statementType) {
+        this.statementType = statementType;
+    }
+    
     public long getExecutionTime() {
         return executionTime;
     }
@@ -100,4 +163,36 @@ public class QueryResponse {
     public void setErrorMessage(String errorMessage) {
         this.errorMessage = errorMessage;
     }
+    
+    public String getExecutionId() {
+        return executionId;
+    }
+    
+    public void setExecutionId(String executionId) {
+        this.executionId = executionId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public boolean isTruncated() {
+        return truncated;
+    }
+    
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+    
+    public boolean isCached() {
+        return cached;
+    }
+    
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.dbmanage.api.dto.query;
+
+import lombok.Data;
+
+/**
+ * 表行数DTO类
+ */
+@Data
+public class RowCount {
+
+    /**
+     * 行数，无法获取时为空
+     */
+    private Long count;
+
+    /**
+     * 是否为估算值（来自数据库统计信息）
+     */
+    private boolean estimated;
+
+    /**
+     * 精确计数是否正在后台执行
+     */
+    private boolean exactPending;
+}
@@ -0,0 +1,73 @@
+package com.dbmanage.api.dto.query;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 结构快照差异DTO类
+ */
+@Data
+public class SchemaDiff {
+
+    private Long connectionId;
+
+    private String database;
+
+    private Integer fromVersion;
+
+    private Integer toVersion;
+
+    /**
+     * 新增的表（schema.table）
+     */
+    private List<String> addedTables = new ArrayList<>();
+
+    /**
+     * 删除的表（schema.table）
+     */
+    private List<String> removedTables = new ArrayList<>();
+
+    /**
+     * 结构变化的表
+     */
+    private List<TableChange> changedTables = new ArrayList<>();
+
+    /**
+     * 单个表的结构变化
+     */
+    @Data
+    public static class TableChange {
+
+        private String table;
+
+        /**
+         * 新增的列定义
+         */
+        private List<Map<String, Object>> addedColumns = new ArrayList<>();
+
+        /**
+         * 删除的列名
+         */
+        private List<String> removedColumns = new ArrayList<>();
+
+        /**
+         * 定义变化的列：name、before、after
+         */
+        private List<Map<String, Object>> changedColumns = new ArrayList<>();
+
+        /**
+         * 主键变化前后的列，主键未变化时为空
+         */
+        private List<String> primaryKeyBefore;
+
+        private List<String> primaryKeyAfter;
+
+        /**
+         * 注释、表类型等其他属性变化时为true
+         */
+        private boolean propertiesChanged;
+    }
+}
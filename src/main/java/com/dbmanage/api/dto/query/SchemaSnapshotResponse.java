@@ -0,0 +1,58 @@
+package com.dbmanage.api.dto.query;
+
+import com.dbmanage.api.model.SchemaSnapshot;
+import lombok.Data;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 结构快照响应DTO类
+ */
+@Data
+public class SchemaSnapshotResponse {
+
+    private Long id;
+
+    private Long connectionId;
+
+    private String database;
+
+    private Integer version;
+
+    private Integer tableCount;
+
+    /**
+     * 相对上一版本新增、删除或结构变化的表数量
+     */
+    private Integer changedTables;
+
+    /**
+     * 本次刷新从目标数据库重新读取结构的表数量，只在刷新时返回
+     */
+    private Integer rereadTables;
+
+    private Date createdAt;
+
+    private Date checkedAt;
+
+    /**
+     * 表结构：schema、name、type、comment、columns、primaryKey，列表查询时为空
+     */
+    private List<Map<String, Object>> tables;
+
+    public SchemaSnapshotResponse() {
+    }
+
+    public SchemaSnapshotResponse(SchemaSnapshot snapshot) {
+        this.id = snapshot.getId();
+        this.connectionId = snapshot.getConnection().getId();
+        this.database = snapshot.getDatabaseName();
+        this.version = snapshot.getVersion();
+        this.tableCount = snapshot.getTableCount();
+        this.changedTables = snapshot.getChangedTables();
+        this.createdAt = snapshot.getCreatedAt();
+        this.checkedAt = snapshot.getCheckedAt();
+    }
+}
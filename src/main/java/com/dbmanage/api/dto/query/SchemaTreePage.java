@@ -0,0 +1,39 @@
+package com.dbmanage.api.dto.query;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 对象树分页结果DTO类
+ * 每次只返回一层节点：数据库、模式、表或列
+ */
+@Data
+public class SchemaTreePage {
+
+    /**
+     * 节点层级：database、schema、table、column
+     */
+    private String level;
+
+    /**
+     * 当前页节点
+     */
+    private List<Map<String, Object>> nodes;
+
+    /**
+     * 当前页起始位置
+     */
+    private int offset;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+
+    /**
+     * 执行时间（毫秒）
+     */
+    private long executionTime;
+}
@@ -0,0 +1,68 @@
+package com.dbmanage.api.dto.query;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL补全响应DTO类
+ */
+@Data
+public class SqlCompletionResponse {
+
+    /**
+     * 光标处的上下文：keyword、table、column、none
+     */
+    private String context;
+
+    /**
+     * 光标前正在输入的部分名称
+     */
+    private String prefix;
+
+    /**
+     * 补全时替换的起始位置，到光标为止的文本由补全项替换
+     */
+    private int replaceStart;
+
+    /**
+     * 文本更像自然语言描述时为true，此时本地补全结果通常没有意义
+     */
+    private boolean naturalLanguage;
+
+    private List<Item> items = new ArrayList<>();
+
+    /**
+     * 执行时间（毫秒）
+     */
+    private long executionTime;
+
+    /**
+     * 单个补全项
+     */
+    @Data
+    public static class Item {
+
+        private String label;
+
+        /**
+         * 类型：keyword、function、table、column
+         */
+        private String kind;
+
+        /**
+         * 说明：列的类型和所属表、表的类型、注释等
+         */
+        private String detail;
+
+        public Item() {
+        }
+
+        public Item(String label, String kind, String detail) {
+            this.label = label;
+            this.kind = kind;
+            this.detail = detail;
+        }
+    }
+}
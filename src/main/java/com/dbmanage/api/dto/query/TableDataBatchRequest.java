@@ -0,0 +1,40 @@
+package com.dbmanage.api.dto.query;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 表数据批量编辑请求DTO类
+ */
+@Data
+public class TableDataBatchRequest {
+
+    /**
+     * 编辑操作列表，按提交顺序编号
+     */
+    private List<Operation> operations;
+
+    /**
+     * 单行编辑操作
+     */
+    @Data
+    public static class Operation {
+
+        /**
+         * 操作类型：insert、update、delete
+         */
+        private String type;
+
+        /**
+         * 插入或更新的字段值
+         */
+        private Map<String, Object> data;
+
+        /**
+         * 更新或删除的条件字段值
+         */
+        private Map<String, Object> condition;
+    }
+}
@@ -0,0 +1,70 @@
+package com.dbmanage.api.dto.query;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 表数据批量编辑响应DTO类
+ */
+@Data
+public class TableDataBatchResponse {
+
+    /**
+     * 是否全部执行成功并已提交
+     */
+    private boolean success;
+
+    /**
+     * 操作总数
+     */
+    private int total;
+
+    /**
+     * 合并后执行的批次数量（连续的同形状操作合并为一个批次）
+     */
+    private int batches;
+
+    /**
+     * 执行时间（毫秒）
+     */
+    private long executionTime;
+
+    /**
+     * 错误消息
+     */
+    private String errorMessage;
+
+    /**
+     * 每行的执行结果，顺序与请求中的operations一致
+     */
+    private List<RowResult> results = new ArrayList<>();
+
+    /**
+     * 单行执行结果
+     */
+    @Data
+    public static class RowResult {
+
+        /**
+         * 操作在请求中的下标
+         */
+        private int index;
+
+        /**
+         * 是否执行成功
+         */
+        private boolean success;
+
+        /**
+         * 受影响的行数，驱动未返回时为空
+         */
+        private Integer affectedRows;
+
+        /**
+         * 错误消息
+         */
+        private String errorMessage;
+    }
+}
@@ -0,0 +1,43 @@
+package com.dbmanage.api.dto.query;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 表数据分页结果DTO类（游标分页）
+ */
+@Data
+public class TableDataPage {
+
+    /**
+     * 列名
+     */
+    private List<String> columns;
+
+    /**
+     * 当前页数据
+     */
+    private List<Map<String, Object>> data;
+
+    /**
+     * 用于排序和定位的键列（主键或非空唯一索引）
+     */
+    private List<String> keyColumns;
+
+    /**
+     * 下一页游标，没有更多数据时为空
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+
+    /**
+     * 执行时间（毫秒）
+     */
+    private long executionTime;
+}
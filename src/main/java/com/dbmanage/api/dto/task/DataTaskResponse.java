@@ -0,0 +1,73 @@
+package com.dbmanage.api.dto.task;
+
+import com.dbmanage.api.model.DataTask;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 后台数据任务状态DTO类
+ */
+@Data
+public class DataTaskResponse {
+
+    private Long id;
+
+    /**
+     * 任务类型：QUERY、IMPORT、EXPORT
+     */
+    private String type;
+
+    /**
+     * 任务状态：PENDING、RUNNING、COMPLETED、FAILED、CANCELLED、EXPIRED
+     */
+    private String status;
+
+    private Long connectionId;
+
+    private String tableName;
+
+    private String fileName;
+
+    /**
+     * 总行数，任务完成前可能为空
+     */
+    private Long totalRows;
+
+    /**
+     * 已处理行数
+     */
+    private Long processedRows;
+
+    /**
+     * 进度百分比，总行数未知时为空
+     */
+    private Integer progressPercentage;
+
+    private String errorMessage;
+
+    private Date createdAt;
+
+    private Date startedAt;
+
+    private Date completedAt;
+
+    public DataTaskResponse() {
+    }
+
+    public DataTaskResponse(DataTask task) {
+        this.id = task.getId();
+        this.type = task.getType();
+        this.status = task.getStatus();
+        this.connectionId = task.getConnection().getId();
+        this.tableName = task.getTableName();
+        this.fileName = task.getFileName();
+        this.totalRows = task.getTotalRows();
+        this.processedRows = task.getProcessedRows();
+        this.progressPercentage = task.getProgressPercentage();
+        this.errorMessage = task.getErrorMessage();
+        this.createdAt = task.getCreatedAt();
+        this.startedAt = task.getStartedAt();
+        this.completedAt = task.getCompletedAt();
+    }
+}
@@ -0,0 +1,54 @@
+package com.dbmanage.api.dto.task;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * 数据导出请求DTO类
+ * table和sql二选一：指定table时导出整张表，否则导出sql的查询结果
+ */
+@Data
+public class ExportRequest {
+
+    @NotNull(message = "连接ID不能为空")
+    private Long connectionId;
+
+    private String database;
+
+    /**
+     * 导出的表名，可带schema前缀
+     */
+    private String table;
+
+    /**
+     * 导出的查询语句
+     */
+    private String sql;
+
+    /**
+     * 导出格式：csv、ndjson
+     */
+    private String format = "csv";
+
+    /**
+     * 是否gzip压缩
+     */
+    private boolean gzip = true;
+
+    /**
+     * 语句超时时间（秒），默认不限制
+     */
+    private Integer timeoutSeconds;
+
+    /**
+     * 并行度，大于1时按键范围拆分表并发读取，只对表导出有效；
+     * 除PostgreSQL（共享快照）外，各范围分别读取，导出期间并发写入的数据可能不一致
+     */
+    private Integer parallelism;
+
+    /**
+     * 并行导出时是否输出为zip包（每个键范围一个文件），否则按键顺序合并为一个文件
+     */
+    private boolean partitioned;
+}
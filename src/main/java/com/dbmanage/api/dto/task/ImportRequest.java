@@ -0,0 +1,40 @@
+package com.dbmanage.api.dto.task;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+/**
+ * 数据导入请求DTO类
+ * 文件首行（CSV表头或NDJSON首个对象）的字段名对应目标表的列名
+ */
+@Data
+public class ImportRequest {
+
+    @NotNull(message = "连接ID不能为空")
+    private Long connectionId;
+
+    private String database;
+
+    /**
+     * 目标表名，可带schema前缀
+     */
+    @NotBlank(message = "表名不能为空")
+    private String table;
+
+    /**
+     * 文件格式：csv、ndjson，为空时按文件扩展名判断
+     */
+    private String format;
+
+    /**
+     * 文件是否gzip压缩，为空时按文件扩展名判断
+     */
+    private Boolean gzip;
+
+    /**
+     * 每批提交的行数，为空时使用配置的默认值
+     */
+    private Integer batchSize;
+}
@@ -0,0 +1,39 @@
+package com.dbmanage.api.dto.task;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 异步查询结果分页DTO类
+ */
+@Data
+public class QueryJobPage {
+
+    private Long jobId;
+
+    /**
+     * 列名
+     */
+    private List<String> columns;
+
+    /**
+     * 当前页数据，每行为按列顺序排列的数组
+     */
+    private List<Object[]> rows;
+
+    /**
+     * 起始行（从0开始）
+     */
+    private long offset;
+
+    /**
+     * 结果总行数
+     */
+    private long total;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+}
@@ -0,0 +1,60 @@
+package com.dbmanage.api.dto.task;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+/**
+ * 跨连接表复制请求DTO类
+ * 源表的列按名称（不区分大小写）写入目标表的同名列
+ */
+@Data
+public class TableCopyRequest {
+
+    @NotNull(message = "源连接ID不能为空")
+    private Long sourceConnectionId;
+
+    private String sourceDatabase;
+
+    /**
+     * 源表名，可带schema前缀
+     */
+    @NotBlank(message = "源表名不能为空")
+    private String sourceTable;
+
+    @NotNull(message = "目标连接ID不能为空")
+    private Long targetConnectionId;
+
+    private String targetDatabase;
+
+    /**
+     * 目标表名，为空时与源表同名
+     */
+    private String targetTable;
+
+    /**
+     * 目标表不存在时是否按源表结构创建
+     */
+    private boolean createTable = true;
+
+    /**
+     * 复制前是否清空目标表，不能与增量复制同时使用
+     */
+    private boolean truncate;
+
+    /**
+     * 增量复制：只复制键列值大于目标表中最大值的行，可用于中断后续传或定期同步
+     */
+    private boolean incremental;
+
+    /**
+     * 增量复制使用的键列，为空时使用源表的单列主键；必须是单列主键或非空的单列唯一索引
+     */
+    private String keyColumn;
+
+    /**
+     * 每批写入的行数，为空时使用配置的默认值
+     */
+    private Integer batchSize;
+}
@@ -0,0 +1,120 @@
+package com.dbmanage.api.model;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * AI响应缓存实体类
+ * 持久化的大语言模型响应，服务重启后仍可命中
+ */
+@Entity
+@Table(name = "ai_response_cache")
+public class AiResponseCache {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    /**
+     * 模型、方言、规范化后的问题和结构指纹的SHA-256
+     */
+    @Column(name = "cache_key", nullable = false, unique = true, length = 64)
+    private String cacheKey;
+    
+    /**
+     * 调用类型：generate-sql、completions、examples
+     */
+    @Column(nullable = false, length = 30)
+    private String operation;
+    
+    @Column(length = 100)
+    private String model;
+    
+    /**
+     * 处理后的响应，JSON格式
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String response;
+    
+    @Column(name = "hit_count")
+    private Integer hitCount = 0;
+    
+    @Column(name = "created_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date expiresAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = new Date();
+    }
+    
+    // Getters and Setters
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getCacheKey() {
+        return cacheKey;
+    }
+    
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+    
+    public String getOperation() {
+        return operation;
+    }
+    
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+    
+    public String getModel() {
+        return model;
+    }
+    
+    public void setModel(String model) {
+        this.model = model;
+    }
+    
+    public String getResponse() {
+        return response;
+    }
+    
+    public void setResponse(String response) {
+        this.response = response;
+    }
+    
+    public Integer getHitCount() {
+        return hitCount;
+    }
+    
+    public void setHitCount(Integer hitCount) {
+        this.hitCount = hitCount;
+    }
+    
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
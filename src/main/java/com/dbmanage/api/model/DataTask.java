@@ -12,10 +12,10 @@ public class DataTask {
     private Long id;
     
     @Column(nullable = false, length = 20)
-    private String type;  // IMPORT, EXPORT
+    private String type;  // QUERY, IMPORT, EXPORT, COPY
     
     @Column(nullable = false, length = 20)
-    private String status;  // PENDING, RUNNING, COMPLETED, FAILED
+    private String status;  // PENDING, RUNNING, COMPLETED, FAILED, CANCELLED, EXPIRED
     
     @Column(name = "file_name", length = 200)
     private String fileName;
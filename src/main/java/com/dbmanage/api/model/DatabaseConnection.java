@@ -37,6 +37,18 @@ public class DatabaseConnection {
     @Column(length = 500)
     private String parameters;
     
+    /**
+     * 语句超时时间（秒），为空时使用全局默认值
+     */
+    @Column(name = "query_timeout")
+    private Integer queryTimeout;
+    
+    /**
+     * 查询结果最大行数，为空时使用全局默认值
+     */
+    @Column(name = "max_rows")
+    private Integer maxRows;
+    
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -189,4 +201,20 @@ public class DatabaseConnection {
     public void setLastConnected(Date lastConnected) {
         this.lastConnected = lastConnected;
     }
+    
+    public Integer getQueryTimeout() {
+        return queryTimeout;
+    }
+    
+    public void setQueryTimeout(Integer queryTimeout) {
+        this.queryTimeout = queryTimeout;
+    }
+    
+    public Integer getMaxRows() {
+        return maxRows;
+    }
+    
+    public void setMaxRows(Integer maxRows) {
+        this.maxRows = maxRows;
+    }
 } 
\ No newline at end of file
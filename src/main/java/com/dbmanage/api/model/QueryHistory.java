@@ -51,6 +51,18 @@ public class QueryHistory {
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
     
+    /**
+     * 语句类型，取值见SqlStatementType
+     */
+    @Column(name = "statement_type", length = 30)
+    private String statementType;
+    
+    /**
+     * 执行状态：SUCCESS、FAILED、CANCELLED、TIMEOUT
+     */
+    @Column(name = "status", length = 20)
+    private String status;
+    
     /**
      * 是否收藏，默认为false
      */
@@ -145,6 +157,14 @@ public class QueryHistory {
         this.errorMessage = errorMessage;
     }
     
+    public String getStatementType() {
+        return statementType;
+    }
+    
+    public void setStatementType(String statementType) {
+        this.statementType = statementType;
+    }
+    
     public Boolean getFavorite() {
         return favorite;
     }
@@ -192,4 +212,12 @@ public class QueryHistory {
     public void setQueryText(String queryText) {
         this.queryText = queryText;
     }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.dbmanage.api.model;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * 结构快照实体类
+ * 记录连接中某个数据库的一个结构版本，表结构保存在 {@link SchemaSnapshotTable} 中
+ */
+@Entity
+@Table(name = "schema_snapshots")
+public class SchemaSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne
+    @JoinColumn(name = "connection_id", nullable = false)
+    private DatabaseConnection connection;
+    
+    @Column(name = "database_name", nullable = false, length = 200)
+    private String databaseName;
+    
+    @Column(nullable = false)
+    private Integer version;
+    
+    @Column(name = "table_count")
+    private Integer tableCount;
+    
+    /**
+     * 相对上一版本新增、删除或结构变化的表数量
+     */
+    @Column(name = "changed_tables")
+    private Integer changedTables;
+    
+    @Column(name = "created_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+    
+    /**
+     * 最近一次刷新检查的时间，结构未变化时只更新此时间
+     */
+    @Column(name = "checked_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date checkedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = new Date();
+        checkedAt = createdAt;
+    }
+    
+    // Getters and Setters
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public DatabaseConnection getConnection() {
+        return connection;
+    }
+    
+    public void setConnection(DatabaseConnection connection) {
+        this.connection = connection;
+    }
+    
+    public String getDatabaseName() {
+        return databaseName;
+    }
+    
+    public void setDatabaseName(String databaseName) {
+        this.databaseName = databaseName;
+    }
+    
+    public Integer getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+    
+    public Integer getTableCount() {
+        return tableCount;
+    }
+    
+    public void setTableCount(Integer tableCount) {
+        this.tableCount = tableCount;
+    }
+    
+    public Integer getChangedTables() {
+        return changedTables;
+    }
+    
+    public void setChangedTables(Integer changedTables) {
+        this.changedTables = changedTables;
+    }
+    
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public Date getCheckedAt() {
+        return checkedAt;
+    }
+    
+    public void setCheckedAt(Date checkedAt) {
+        this.checkedAt = checkedAt;
+    }
+}
@@ -0,0 +1,134 @@
+package com.dbmanage.api.model;
+
+import javax.persistence.*;
+
+/**
+ * 快照中的表结构实体类
+ * 每行在 firstVersion 到 lastVersion 之间的快照版本中有效，lastVersion为空表示仍是当前结构；
+ * 结构未变化的表在新版本中沿用同一行，不重复保存
+ */
+@Entity
+@Table(name = "schema_snapshot_tables")
+public class SchemaSnapshotTable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne
+    @JoinColumn(name = "connection_id", nullable = false)
+    private DatabaseConnection connection;
+    
+    @Column(name = "database_name", nullable = false, length = 200)
+    private String databaseName;
+    
+    @Column(name = "schema_name", length = 200)
+    private String schemaName;
+    
+    @Column(name = "table_name", nullable = false, length = 200)
+    private String tableName;
+    
+    @Column(name = "table_type", length = 50)
+    private String tableType;  // TABLE, VIEW
+    
+    /**
+     * 变化信号，如MySQL的CREATE_TIME/UPDATE_TIME、PostgreSQL的pg_class.xmin、SQL Server的modify_date；
+     * 为空表示无法判断，每次刷新都重新读取
+     */
+    @Column(name = "change_signal", length = 200)
+    private String changeSignal;
+    
+    /**
+     * 表结构JSON：列、主键和注释
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String definition;
+    
+    @Column(name = "first_version", nullable = false)
+    private Integer firstVersion;
+    
+    @Column(name = "last_version")
+    private Integer lastVersion;
+    
+    // Getters and Setters
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public DatabaseConnection getConnection() {
+        return connection;
+    }
+    
+    public void setConnection(DatabaseConnection connection) {
+        this.connection = connection;
+    }
+    
+    public String getDatabaseName() {
+        return databaseName;
+    }
+    
+    public void setDatabaseName(String databaseName) {
+        this.databaseName = databaseName;
+    }
+    
+    public String getSchemaName() {
+        return schemaName;
+    }
+    
+    public void setSchemaName(String schemaName) {
+        this.schemaName = schemaName;
+    }
+    
+    public String getTableName() {
+        return tableName;
+    }
+    
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+    
+    public String getTableType() {
+        return tableType;
+    }
+    
+    public void setTableType(String tableType) {
+        this.tableType = tableType;
+    }
+    
+    public String getChangeSignal() {
+        return changeSignal;
+    }
+    
+    public void setChangeSignal(String changeSignal) {
+        this.changeSignal = changeSignal;
+    }
+    
+    public String getDefinition() {
+        return definition;
+    }
+    
+    public void setDefinition(String definition) {
+        this.definition = definition;
+    }
+    
+    public Integer getFirstVersion() {
+        return firstVersion;
+    }
+    
+    public void setFirstVersion(Integer firstVersion) {
+        this.firstVersion = firstVersion;
+    }
+    
+    public Integer getLastVersion() {
+        return lastVersion;
+    }
+    
+    public void setLastVersion(Integer lastVersion) {
+        this.lastVersion = lastVersion;
+    }
+}
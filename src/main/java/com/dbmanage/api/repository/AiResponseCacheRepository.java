@@ -0,0 +1,43 @@
+package com.dbmanage.api.repository;
+
+import com.dbmanage.api.model.AiResponseCache;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * AI响应缓存数据访问接口
+ */
+@Repository
+public interface AiResponseCacheRepository extends JpaRepository<AiResponseCache, Long> {
+
+    /**
+     * 根据缓存键查找响应
+     * @param cacheKey 缓存键
+     * @return 缓存的响应
+     */
+    Optional<AiResponseCache> findByCacheKey(String cacheKey);
+
+    /**
+     * 命中次数加一
+     * @param id 缓存记录ID
+     * @return 更新的行数
+     */
+    @Modifying
+    @Query("UPDATE AiResponseCache c SET c.hitCount = c.hitCount + 1 WHERE c.id = :id")
+    int incrementHitCount(@Param("id") Long id);
+
+    /**
+     * 删除已过期的响应
+     * @param time 当前时间
+     * @return 删除的行数
+     */
+    @Modifying
+    @Query("DELETE FROM AiResponseCache c WHERE c.expiresAt < :time")
+    int deleteExpired(@Param("time") Date time);
+}
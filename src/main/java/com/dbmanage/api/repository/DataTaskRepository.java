@@ -8,6 +8,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -48,4 +49,12 @@ public interface DataTaskRepository extends JpaRepository<DataTask, Long> {
      * @return 数据任务列表
      */
     List<DataTask> findByUserAndStatusIn(User user, List<String> statuses);
-} 
\ No newline at end of file
+    
+    /**
+     * 查找指定状态且完成时间早于给定时间的数据任务
+     * @param status 状态
+     * @param completedAt 完成时间上限
+     * @return 数据任务列表
+     */
+    List<DataTask> findByStatusAndCompletedAtBefore(String status, Date completedAt);
+}
@@ -0,0 +1,50 @@
+package com.dbmanage.api.repository;
+
+import com.dbmanage.api.model.DatabaseConnection;
+import com.dbmanage.api.model.SchemaSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 结构快照数据访问接口
+ */
+@Repository
+public interface SchemaSnapshotRepository extends JpaRepository<SchemaSnapshot, Long> {
+
+    /**
+     * 查找数据库的最新快照
+     * @param connection 数据库连接对象
+     * @param databaseName 数据库名称
+     * @return 最新快照
+     */
+    Optional<SchemaSnapshot> findFirstByConnectionAndDatabaseNameOrderByVersionDesc(DatabaseConnection connection, String databaseName);
+
+    /**
+     * 查找数据库的全部快照，按版本降序排序
+     * @param connection 数据库连接对象
+     * @param databaseName 数据库名称
+     * @return 快照列表
+     */
+    List<SchemaSnapshot> findByConnectionAndDatabaseNameOrderByVersionDesc(DatabaseConnection connection, String databaseName);
+
+    /**
+     * 查找指定版本的快照
+     * @param connection 数据库连接对象
+     * @param databaseName 数据库名称
+     * @param version 版本号
+     * @return 快照
+     */
+    Optional<SchemaSnapshot> findByConnectionAndDatabaseNameAndVersion(DatabaseConnection connection, String databaseName, Integer version);
+
+    /**
+     * 删除早于指定版本的快照
+     * @param connection 数据库连接对象
+     * @param databaseName 数据库名称
+     * @param version 保留的最早版本号
+     * @return 删除的快照数
+     */
+    long deleteByConnectionAndDatabaseNameAndVersionLessThan(DatabaseConnection connection, String databaseName, Integer version);
+}
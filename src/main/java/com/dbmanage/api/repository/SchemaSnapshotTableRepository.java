@@ -0,0 +1,53 @@
+package com.dbmanage.api.repository;
+
+import com.dbmanage.api.model.DatabaseConnection;
+import com.dbmanage.api.model.SchemaSnapshotTable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 快照表结构数据访问接口
+ */
+@Repository
+public interface SchemaSnapshotTableRepository extends JpaRepository<SchemaSnapshotTable, Long> {
+
+    /**
+     * 查找数据库当前版本的表结构
+     * @param connection 数据库连接对象
+     * @param databaseName 数据库名称
+     * @return 表结构列表
+     */
+    List<SchemaSnapshotTable> findByConnectionAndDatabaseNameAndLastVersionIsNull(DatabaseConnection connection, String databaseName);
+
+    /**
+     * 查找指定快照版本中有效的表结构
+     * @param connection 数据库连接对象
+     * @param databaseName 数据库名称
+     * @param version 版本号
+     * @return 表结构列表
+     */
+    @Query("SELECT t FROM SchemaSnapshotTable t WHERE t.connection = :connection AND t.databaseName = :databaseName " +
+            "AND t.firstVersion <= :version AND (t.lastVersion IS NULL OR t.lastVersion >= :version)")
+    List<SchemaSnapshotTable> findAtVersion(@Param("connection") DatabaseConnection connection,
+                                            @Param("databaseName") String databaseName,
+                                            @Param("version") Integer version);
+
+    /**
+     * 删除只在早于指定版本的快照中有效的表结构
+     * @param connection 数据库连接对象
+     * @param databaseName 数据库名称
+     * @param version 保留的最早版本号
+     * @return 删除的行数
+     */
+    @Modifying
+    @Query("DELETE FROM SchemaSnapshotTable t WHERE t.connection = :connection AND t.databaseName = :databaseName " +
+            "AND t.lastVersion < :version")
+    int deleteExpired(@Param("connection") DatabaseConnection connection,
+                      @Param("databaseName") String databaseName,
+                      @Param("version") Integer version);
+}
@@ -0,0 +1,48 @@
+package com.dbmanage.api.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * AI响应缓存服务接口
+ * 按调用类型、模型、方言、规范化后的问题和结构信息的哈希缓存大语言模型的响应，
+ * 相同问题针对未变化的结构不再重复调用模型
+ */
+public interface AiResponseCacheService {
+
+    String OPERATION_GENERATE_SQL = "generate-sql";
+    String OPERATION_COMPLETIONS = "completions";
+    String OPERATION_EXAMPLES = "examples";
+
+    /**
+     * 查找缓存的响应，未命中时调用模型并缓存结果
+     * 空结果（如调用失败时返回的空列表）不缓存；相同键的并发未命中只调用一次模型
+     *
+     * @param operation 调用类型
+     * @param model 模型名称
+     * @param dialect SQL方言
+     * @param question 问题或部分SQL，比较前合并连续空白
+     * @param schemaInfo 数据库结构信息，可为空
+     * @param type 响应类型，用于从缓存中还原
+     * @param loader 调用模型
+     * @return 响应，每次调用得到独立的对象
+     */
+    <T> T get(String operation, String model, String dialect, String question, String schemaInfo,
+              TypeReference<T> type, Supplier<T> loader);
+
+    /**
+     * 清空缓存，包括持久化的响应
+     *
+     * @return 清空的内存条目数
+     */
+    long clear();
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 条目数、命中次数和命中率
+     */
+    Map<String, Object> getStats();
+}
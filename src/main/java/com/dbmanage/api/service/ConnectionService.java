@@ -18,6 +18,15 @@ public interface ConnectionService {
      */
     Connection getConnection(Long connectionId) throws SQLException;
 
+    /**
+     * 从连接池获取数据库连接，连接池按连接ID懒加载创建
+     * 使用完毕后调用close()即归还到连接池
+     * @param connectionInfo 连接信息
+     * @return 数据库连接
+     * @throws SQLException 连接失败时抛出
+     */
+    Connection getConnection(DatabaseConnection connectionInfo) throws SQLException;
+
     /**
      * 测试连接
      * @param connectionInfo 连接信息
@@ -33,7 +42,7 @@ public interface ConnectionService {
     void cacheConnection(Long connectionId, DatabaseConnection connectionInfo);
 
     /**
-     * 从缓存中移除连接信息
+     * 从缓存中移除连接信息，并关闭对应的连接池
      * @param connectionId 连接ID
      */
     void removeConnection(Long connectionId);
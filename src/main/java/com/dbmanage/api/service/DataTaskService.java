@@ -0,0 +1,30 @@
+package com.dbmanage.api.service;
+
+import com.dbmanage.api.dto.task.DataTaskResponse;
+
+import java.util.List;
+
+/**
+ * 后台数据任务查询服务接口
+ */
+public interface DataTaskService {
+
+    /**
+     * 获取任务状态
+     *
+     * @param userId 用户ID
+     * @param taskId 任务ID
+     * @return 任务状态
+     * @throws com.dbmanage.api.exception.ResourceNotFoundException 任务不存在或不属于该用户
+     */
+    DataTaskResponse getTask(Long userId, Long taskId);
+
+    /**
+     * 获取用户最近的任务
+     *
+     * @param userId 用户ID
+     * @param limit 最多返回的任务数
+     * @return 任务列表，按创建时间降序
+     */
+    List<DataTaskResponse> getTasks(Long userId, int limit);
+}
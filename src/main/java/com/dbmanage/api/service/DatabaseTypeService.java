@@ -87,4 +87,30 @@ public interface DatabaseTypeService {
      * @return 标准化后的数据库类型名称
      */
     String getNormalizedDatabaseType(String databaseType);
+
+    /**
+     * 将源库列类型映射为目标数据库的列定义，用于跨库复制时建表
+     * 
+     * @param databaseType 目标数据库类型
+     * @param jdbcType 源列的JDBC类型（java.sql.Types）
+     * @param sourceTypeName 源列的数据库类型名称
+     * @param precision 源列的精度或长度
+     * @param scale 源列的小数位数
+     * @return 目标数据库的类型定义，如 varchar(255)、numeric(10,2)
+     */
+    String mapColumnType(String databaseType, int jdbcType, String sourceTypeName, int precision, int scale);
+
+    /**
+     * 将源库主键列类型映射为目标数据库中可以作为主键的列定义
+     * 与 {@link #mapColumnType} 相同，但不能建索引的大文本和大二进制类型（如MySQL的longtext、
+     * SQL Server的nvarchar(max)）改为目标库索引长度上限内的有界类型，超出长度的值写入时失败
+     *
+     * @param databaseType 目标数据库类型
+     * @param jdbcType 源列的JDBC类型（java.sql.Types）
+     * @param sourceTypeName 源列的数据库类型名称
+     * @param precision 源列的精度或长度
+     * @param scale 源列的小数位数
+     * @return 目标数据库的类型定义
+     */
+    String mapKeyColumnType(String databaseType, int jdbcType, String sourceTypeName, int precision, int scale);
 }
\ No newline at end of file
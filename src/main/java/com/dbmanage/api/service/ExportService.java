@@ -0,0 +1,49 @@
+package com.dbmanage.api.service;
+
+import com.dbmanage.api.dto.task.DataTaskResponse;
+import com.dbmanage.api.dto.task.ExportRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 数据导出服务接口
+ * 结果集逐行写入输出流，内存占用与导出行数无关
+ */
+public interface ExportService {
+
+    /**
+     * 校验导出请求并创建导出任务
+     *
+     * @param userId 用户ID
+     * @param request 导出请求
+     * @return 任务状态，客户端可凭任务ID查询进度
+     */
+    DataTaskResponse createTask(Long userId, ExportRequest request);
+
+    /**
+     * 执行导出，写入结束后更新任务状态
+     *
+     * @param taskId 由createTask创建的任务ID
+     * @param request 导出请求
+     * @param outputStream 输出流，方法内不关闭
+     * @throws IOException 写出失败或CSV导出时查询出错
+     */
+    void export(Long taskId, ExportRequest request, OutputStream outputStream) throws IOException;
+
+    /**
+     * 是否为输出zip包的并行导出
+     *
+     * @param request 导出请求
+     * @return 是否输出zip包
+     */
+    boolean isPartitioned(ExportRequest request);
+
+    /**
+     * 导出文件名，如 orders.csv.gz
+     *
+     * @param request 导出请求
+     * @return 文件名
+     */
+    String getFileName(ExportRequest request);
+}
@@ -0,0 +1,23 @@
+package com.dbmanage.api.service;
+
+import com.dbmanage.api.dto.task.DataTaskResponse;
+import com.dbmanage.api.dto.task.ImportRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 数据导入服务接口
+ * 上传的文件先保存到本地，再由后台任务流式解析并批量写入目标表
+ */
+public interface ImportService {
+
+    /**
+     * 保存上传文件并提交导入任务
+     *
+     * @param userId 用户ID
+     * @param request 导入请求
+     * @param file 上传的CSV或NDJSON文件，可为gzip压缩
+     * @return 任务状态，可通过任务ID查询进度
+     * @throws java.util.concurrent.RejectedExecutionException 该连接的后台任务已满
+     */
+    DataTaskResponse submit(Long userId, ImportRequest request, MultipartFile file);
+}
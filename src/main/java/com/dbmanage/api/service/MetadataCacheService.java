@@ -0,0 +1,51 @@
+package com.dbmanage.api.service;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 元数据缓存服务接口
+ * 缓存表、视图、函数、事件列表及表结构等元数据，按连接维度失效
+ */
+public interface MetadataCacheService {
+
+    String STRUCTURE = "structure";
+    String TABLES = "tables";
+    String VIEWS = "views";
+    String FUNCTIONS = "functions";
+    String EVENTS = "events";
+    String TABLE_STRUCTURE = "tableStructure";
+    String SCHEMA = "schema";
+    String KEY_COLUMNS = "keyColumns";
+    String CATALOGS = "catalogs";
+    String TREE = "tree";
+
+    /**
+     * 获取缓存的元数据，未命中时调用loader加载并缓存
+     * 同一键并发未命中时只加载一次，加载失败时不缓存
+     *
+     * @param connectionId 数据库连接ID
+     * @param kind 元数据类型
+     * @param database 数据库名称，可为空
+     * @param name 模式名或表名，可为空
+     * @param loader 加载函数
+     * @param <T> 元数据类型
+     * @return 元数据
+     */
+    <T> T get(Long connectionId, String kind, String database, String name, Supplier<T> loader);
+
+    /**
+     * 使指定连接的全部元数据失效
+     *
+     * @param connectionId 数据库连接ID
+     * @return 失效的缓存条目数
+     */
+    int invalidate(Long connectionId);
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 命中数、未命中数、条目数等
+     */
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,82 @@
+package com.dbmanage.api.service;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 查询执行登记服务接口
+ * 记录正在执行的语句，支持按执行ID取消
+ */
+public interface QueryExecutionRegistry {
+
+    /**
+     * 登记一次执行
+     *
+     * @param executionId 客户端提供的执行ID，为空时自动生成
+     * @param userId 发起执行的用户ID
+     * @param connectionId 数据库连接ID
+     * @param sql 执行的SQL
+     * @return 执行ID
+     * @throws com.dbmanage.api.exception.ValidationException 执行ID已被占用
+     */
+    String register(String executionId, Long userId, Long connectionId, String sql);
+
+    /**
+     * 关联当前正在执行的语句，取消时调用其cancel()
+     * 如果在关联前已请求取消，则立即取消该语句
+     *
+     * @param executionId 执行ID
+     * @param statement JDBC语句
+     */
+    void attach(String executionId, Statement statement);
+
+    /**
+     * 关联一条与其他语句并发执行的语句（如并行导出中的各个范围），取消时与当前语句一起取消
+     * 如果在关联前已请求取消，则立即取消该语句
+     *
+     * @param executionId 执行ID
+     * @param statement JDBC语句
+     */
+    void attachParallel(String executionId, Statement statement);
+
+    /**
+     * 并发执行的语句结束后解除关联
+     *
+     * @param executionId 执行ID
+     * @param statement JDBC语句
+     */
+    void detachParallel(String executionId, Statement statement);
+
+    /**
+     * 执行是否已被请求取消
+     *
+     * @param executionId 执行ID
+     * @return 是否已取消
+     */
+    boolean isCancelled(String executionId);
+
+    /**
+     * 取消执行
+     *
+     * @param executionId 执行ID
+     * @param userId 当前用户ID，只能取消自己发起的执行
+     * @return 执行存在且已发出取消请求时返回true
+     */
+    boolean cancel(String executionId, Long userId);
+
+    /**
+     * 执行结束后注销
+     *
+     * @param executionId 执行ID
+     */
+    void unregister(String executionId);
+
+    /**
+     * 获取用户正在执行的查询
+     *
+     * @param userId 用户ID
+     * @return 执行ID、连接ID、SQL、开始时间及已执行时长
+     */
+    List<Map<String, Object>> getRunning(Long userId);
+}
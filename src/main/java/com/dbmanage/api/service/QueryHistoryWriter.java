@@ -0,0 +1,28 @@
+package com.dbmanage.api.service;
+
+import com.dbmanage.api.model.QueryHistory;
+
+import java.util.Map;
+
+/**
+ * 查询历史写入器接口
+ * 历史记录异步批量写入管理库，查询响应不再等待历史落库
+ */
+public interface QueryHistoryWriter {
+
+    /**
+     * 提交一条查询历史
+     * 队列已满且等待超时时丢弃该记录并计数
+     *
+     * @param history 查询历史，connection和user必须已设置
+     * @return 是否已进入写入队列
+     */
+    boolean submit(QueryHistory history);
+
+    /**
+     * 获取写入统计信息
+     *
+     * @return 排队数、已写入数、丢弃数、失败数等
+     */
+    Map<String, Object> getStats();
+}
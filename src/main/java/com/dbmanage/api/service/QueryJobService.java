@@ -0,0 +1,51 @@
+package com.dbmanage.api.service;
+
+import com.dbmanage.api.dto.query.QueryRequest;
+import com.dbmanage.api.dto.task.DataTaskResponse;
+import com.dbmanage.api.dto.task.QueryJobPage;
+
+/**
+ * 异步查询服务接口
+ * 查询在后台执行，结果写入本地文件，客户端轮询状态后分页读取
+ */
+public interface QueryJobService {
+
+    /**
+     * 提交异步查询
+     *
+     * @param userId 用户ID
+     * @param request 查询请求，脚本中最后一条语句的结果会被保存
+     * @return 任务状态
+     * @throws java.util.concurrent.RejectedExecutionException 该连接的后台任务已满
+     */
+    DataTaskResponse submit(Long userId, QueryRequest request);
+
+    /**
+     * 获取任务状态，执行中的任务返回已写入的行数
+     *
+     * @param userId 用户ID
+     * @param jobId 任务ID
+     * @return 任务状态
+     */
+    DataTaskResponse getJob(Long userId, Long jobId);
+
+    /**
+     * 分页读取已完成任务的结果
+     *
+     * @param userId 用户ID
+     * @param jobId 任务ID
+     * @param offset 起始行（从0开始）
+     * @param limit 每页行数，不超过配置的上限
+     * @return 结果分页
+     */
+    QueryJobPage getPage(Long userId, Long jobId, long offset, int limit);
+
+    /**
+     * 取消执行中的任务，已完成的任务则删除其结果文件
+     *
+     * @param userId 用户ID
+     * @param jobId 任务ID
+     * @return 任务状态
+     */
+    DataTaskResponse cancel(Long userId, Long jobId);
+}
@@ -0,0 +1,56 @@
+package com.dbmanage.api.service;
+
+import com.dbmanage.api.dto.query.QueryRequest;
+import com.dbmanage.api.dto.query.QueryResponse;
+import com.dbmanage.api.util.SqlDialect;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 查询结果缓存接口
+ * 按连接、数据库、规范化后的SQL、参数、结果格式和最大行数缓存只读查询的结果，
+ * 执行器执行DML时按表失效，执行DDL或无法判断影响范围的语句时按连接失效
+ */
+public interface QueryResultCache {
+
+    /**
+     * 查找缓存的结果，未命中时执行查询并缓存结果
+     * 相同键的并发未命中只执行一次查询，其余调用等待并共享结果（缓存未启用时同样合并）；
+     * 执行期间该连接发生过失效时结果不写入缓存
+     *
+     * @param connectionId 数据库连接ID
+     * @param request 查询请求
+     * @param dialect SQL方言
+     * @param maxRows 生效的最大行数
+     * @param loader 执行查询
+     * @return 查询结果，命中缓存或共享其他请求的结果时为副本，cached为true
+     */
+    QueryResponse get(Long connectionId, QueryRequest request, SqlDialect dialect, int maxRows,
+                      Supplier<QueryResponse> loader);
+
+    /**
+     * 使引用了指定表的缓存结果失效
+     *
+     * @param connectionId 数据库连接ID
+     * @param tables 表名，不区分大小写，可带schema前缀
+     * @return 失效的缓存条目数
+     */
+    int invalidateTables(Long connectionId, Collection<String> tables);
+
+    /**
+     * 使指定连接的全部缓存结果失效
+     *
+     * @param connectionId 数据库连接ID
+     * @return 失效的缓存条目数
+     */
+    int invalidate(Long connectionId);
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 条目数、内存占用、命中率、淘汰数
+     */
+    Map<String, Object> getStats();
+}
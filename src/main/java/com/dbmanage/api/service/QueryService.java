@@ -5,6 +5,7 @@ import com.dbmanage.api.dto.query.QueryRequest;
 import com.dbmanage.api.dto.query.QueryResponse;
 import com.dbmanage.api.dto.query.SavedQueryResponse;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -21,8 +22,20 @@ public interface QueryService {
      */
     QueryResponse executeQuery(QueryRequest request);
     
+    /**
+     * 流式执行SQL查询
+     * 结果集逐行交给处理器输出，使用数据库游标读取，内存占用与结果集大小无关。
+     * 脚本中只输出最后一条语句的结果，之前的语句按连接的自动提交方式依次执行并各自生效
+     * 
+     * @param request 查询请求
+     * @param handler 结果行处理器
+     * @throws IOException 输出结果失败（如客户端断开连接）
+     */
+    void streamQuery(QueryRequest request, ResultRowHandler handler) throws IOException;
+    
     /**
      * 获取数据库结构信息
+     * 一次遍历全部数据库、模式、表和列，大型实例上耗时很长；逐级展开请使用 {@link SchemaTreeService}
      * 
      * @param connectionId 数据库连接ID
      * @return 数据库结构信息
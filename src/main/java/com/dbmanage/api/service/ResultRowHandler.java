@@ -0,0 +1,52 @@
+package com.dbmanage.api.service;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 查询结果行处理器
+ * 用于流式消费查询结果，结果集中的每一行读出后立即交给处理器，不在内存中整体缓存
+ */
+public interface ResultRowHandler {
+
+    /**
+     * 开始输出结果
+     *
+     * @param columns 列名列表
+     * @throws IOException 输出失败
+     */
+    void start(List<String> columns) throws IOException;
+
+    /**
+     * 处理一行数据
+     *
+     * @param values 按列顺序排列的值，数组在调用结束后可能被复用
+     * @throws IOException 输出失败
+     */
+    void row(Object[] values) throws IOException;
+
+    /**
+     * 结果输出结束
+     *
+     * @param rowCount 总行数
+     * @param executionTime 执行时间（毫秒）
+     * @throws IOException 输出失败
+     */
+    void end(long rowCount, long executionTime) throws IOException;
+
+    /**
+     * 将缓冲的内容写入输出流，用于只输出数据行、不输出结束信息的场景
+     *
+     * @throws IOException 输出失败
+     */
+    default void flush() throws IOException {
+    }
+
+    /**
+     * 执行过程中发生错误
+     *
+     * @param message 错误消息
+     * @throws IOException 输出失败
+     */
+    void error(String message) throws IOException;
+}
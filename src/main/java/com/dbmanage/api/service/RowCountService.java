@@ -0,0 +1,23 @@
+package com.dbmanage.api.service;
+
+import com.dbmanage.api.dto.query.RowCount;
+
+/**
+ * 表行数统计服务接口
+ * 优先使用数据库统计信息中的估算行数，避免对大表执行COUNT(*)
+ */
+public interface RowCountService {
+
+    /**
+     * 获取表行数
+     * 有缓存的精确计数时直接返回；否则返回估算值，需要精确值时在后台执行COUNT(*)，
+     * 完成后的结果会被缓存，再次请求即可取得。估算值也会短时间缓存（app.row-count.estimate-ttl-seconds）
+     *
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称
+     * @param table 表名，可带模式前缀
+     * @param exact 是否需要精确计数
+     * @return 行数及其是否为估算值
+     */
+    RowCount getRowCount(Long connectionId, String database, String table, boolean exact);
+}
@@ -0,0 +1,52 @@
+package com.dbmanage.api.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 结构快照生成新版本后发布的事件，携带新增或变化的表结构和删除的表，供搜索索引等增量更新
+ */
+public class SchemaChangedEvent {
+
+    private final Long connectionId;
+    private final String database;
+    private final int version;
+    private final List<Map<String, Object>> changedTables;
+    private final List<String> removedTables;
+
+    /**
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称
+     * @param version 新的快照版本
+     * @param changedTables 新增或变化的表，结构与快照中的表相同（schema、name、type、comment、columns、primaryKey）
+     * @param removedTables 删除的表（schema.table）
+     */
+    public SchemaChangedEvent(Long connectionId, String database, int version,
+                              List<Map<String, Object>> changedTables, List<String> removedTables) {
+        this.connectionId = connectionId;
+        this.database = database;
+        this.version = version;
+        this.changedTables = changedTables;
+        this.removedTables = removedTables;
+    }
+
+    public Long getConnectionId() {
+        return connectionId;
+    }
+
+    public String getDatabase() {
+        return database;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public List<Map<String, Object>> getChangedTables() {
+        return changedTables;
+    }
+
+    public List<String> getRemovedTables() {
+        return removedTables;
+    }
+}
@@ -0,0 +1,67 @@
+package com.dbmanage.api.service;
+
+import com.dbmanage.api.util.SchemaSearchIndex;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 结构搜索服务接口
+ * 按名称和注释搜索表和列，索引基于结构快照在内存中构建，快照生成新版本时增量更新
+ */
+public interface SchemaSearchService {
+
+    /**
+     * 搜索表和列
+     * 支持完全匹配、前缀匹配、子串匹配和模糊匹配，不区分大小写；
+     * 首次搜索时构建索引，数据库还没有快照时先刷新一次快照
+     *
+     * @param userId 用户ID
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称，为空时使用连接的默认数据库
+     * @param query 查询字符串
+     * @param kind 条目类型（table或column），为空时不限
+     * @param limit 最多返回的条目数
+     * @return 匹配结果，按得分降序
+     */
+    List<SchemaSearchIndex.Hit> search(Long userId, Long connectionId, String database, String query,
+                                       String kind, int limit);
+
+    /**
+     * 按名称查找表，不区分大小写，名称可带或不带schema；不带schema且多个schema中有同名表时返回第一个
+     *
+     * @param userId 用户ID
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称，为空时使用连接的默认数据库
+     * @param name 表名
+     * @return 表结构，不存在时返回null
+     */
+    SchemaSearchIndex.Table findTable(Long userId, Long connectionId, String database, String name);
+
+    /**
+     * 按名称前缀列出表，不区分大小写，前缀可带或不带schema，结果按名称排序
+     *
+     * @param userId 用户ID
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称，为空时使用连接的默认数据库
+     * @param prefix 名称前缀，为空时列出所有表
+     * @param limit 最多返回的表数
+     * @return 表结构列表
+     */
+    List<SchemaSearchIndex.Table> listTables(Long userId, Long connectionId, String database, String prefix, int limit);
+
+    /**
+     * 释放连接的所有索引，下次搜索时重新构建
+     *
+     * @param connectionId 数据库连接ID
+     * @return 释放的索引数
+     */
+    int invalidate(Long connectionId);
+
+    /**
+     * 获取索引统计信息
+     *
+     * @return 索引数、条目数、构建和增量更新次数
+     */
+    Map<String, Object> getStats();
+}
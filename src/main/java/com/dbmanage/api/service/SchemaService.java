@@ -0,0 +1,21 @@
+package com.dbmanage.api.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据库结构服务接口
+ * 按数据库整体批量加载表、字段、主键、索引及注释
+ */
+public interface SchemaService {
+
+    /**
+     * 批量加载数据库中所有表的结构
+     * 每种数据库只执行少量面向集合的系统表查询，不再逐表获取字段
+     *
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称，为空时使用连接的默认数据库
+     * @return 表结构列表，每个元素包含name、schema、comment、columns、primaryKey、indexes
+     */
+    List<Map<String, Object>> getDatabaseSchema(Long connectionId, String database);
+}
@@ -0,0 +1,69 @@
+package com.dbmanage.api.service;
+
+import com.dbmanage.api.dto.query.SchemaDiff;
+import com.dbmanage.api.dto.query.SchemaSnapshotResponse;
+
+import java.util.List;
+
+/**
+ * 结构快照服务接口
+ * 将目标数据库的表结构按版本保存在管理库中，刷新时根据变化信号只重新读取发生变化的表，
+ * 读取快照和比较版本不访问目标数据库
+ */
+public interface SchemaSnapshotService {
+
+    /**
+     * 刷新数据库的结构快照
+     * 结构有变化（或还没有快照）时生成新版本，否则只更新检查时间
+     *
+     * @param userId 用户ID
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称，为空时使用连接的默认数据库
+     * @param force 是否忽略变化信号，重新读取全部表
+     * @return 最新快照
+     */
+    SchemaSnapshotResponse refresh(Long userId, Long connectionId, String database, boolean force);
+
+    /**
+     * 获取数据库的快照版本列表，不包含表结构
+     *
+     * @param userId 用户ID
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称，为空时使用连接的默认数据库
+     * @return 快照列表，按版本降序
+     */
+    List<SchemaSnapshotResponse> getSnapshots(Long userId, Long connectionId, String database);
+
+    /**
+     * 获取指定版本的快照及其表结构
+     *
+     * @param userId 用户ID
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称，为空时使用连接的默认数据库
+     * @param version 版本号，为空时返回最新版本
+     * @return 快照
+     */
+    SchemaSnapshotResponse getSnapshot(Long userId, Long connectionId, String database, Integer version);
+
+    /**
+     * 比较两个快照版本的结构差异
+     *
+     * @param userId 用户ID
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称，为空时使用连接的默认数据库
+     * @param fromVersion 起始版本
+     * @param toVersion 目标版本，为空时为最新版本
+     * @return 结构差异
+     */
+    SchemaDiff diff(Long userId, Long connectionId, String database, Integer fromVersion, Integer toVersion);
+
+    /**
+     * 将最新快照格式化为文本形式的结构描述，用于AI提示词
+     *
+     * @param userId 用户ID
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称，为空时使用连接的默认数据库
+     * @return 结构描述，还没有快照时返回null
+     */
+    String describe(Long userId, Long connectionId, String database);
+}
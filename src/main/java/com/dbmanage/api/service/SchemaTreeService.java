@@ -0,0 +1,37 @@
+package com.dbmanage.api.service;
+
+import com.dbmanage.api.dto.query.SchemaTreePage;
+
+import java.util.List;
+
+/**
+ * 对象树服务接口
+ * 逐级加载数据库、模式、表和列，每级支持按名称过滤和分页，不再一次遍历整个实例
+ */
+public interface SchemaTreeService {
+
+    /**
+     * 获取连接的数据库名称列表，只读取数据库一级
+     *
+     * @param connectionId 数据库连接ID
+     * @return 数据库名称列表
+     */
+    List<String> getDatabases(Long connectionId);
+
+    /**
+     * 获取节点的下一级子节点
+     * 未指定数据库时返回数据库列表；指定数据库时，支持模式的数据库返回模式列表，否则返回表列表；
+     * 指定模式（或不支持模式）时返回表和视图列表；指定表时返回列列表
+     *
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称，可为空
+     * @param schema 模式名称，可为空
+     * @param table 表名，可为空
+     * @param filter 名称过滤，包含该字符串的节点（不区分大小写），可为空
+     * @param offset 起始位置
+     * @param limit 每页节点数
+     * @return 子节点分页结果
+     */
+    SchemaTreePage getChildren(Long connectionId, String database, String schema, String table,
+                               String filter, int offset, int limit);
+}
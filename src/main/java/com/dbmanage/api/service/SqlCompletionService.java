@@ -0,0 +1,27 @@
+package com.dbmanage.api.service;
+
+import com.dbmanage.api.dto.query.SqlCompletionResponse;
+
+/**
+ * 本地SQL补全服务接口
+ * 按光标处的词法上下文，从结构搜索索引中的表和列以及关键字、函数中给出补全项，不调用大语言模型
+ */
+public interface SqlCompletionService {
+
+    /**
+     * 获取光标处的补全项
+     * FROM、JOIN等之后补全表名，SELECT、WHERE、ON等之后补全语句中各表的列、函数和关键字，
+     * 别名. 之后补全该表的列，schema. 之后补全该schema的表；未指定连接时只补全关键字和函数
+     *
+     * @param userId 用户ID
+     * @param connectionId 数据库连接ID，可为空
+     * @param database 数据库名称，为空时使用连接的默认数据库
+     * @param sql SQL文本
+     * @param cursor 光标位置，为空时视为文本末尾
+     * @param dialect SQL方言，如mysql、postgresql
+     * @param limit 最多返回的补全项数
+     * @return 补全结果
+     */
+    SqlCompletionResponse complete(Long userId, Long connectionId, String database, String sql, Integer cursor,
+                                   String dialect, int limit);
+}
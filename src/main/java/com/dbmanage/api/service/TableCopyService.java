@@ -0,0 +1,30 @@
+package com.dbmanage.api.service;
+
+import com.dbmanage.api.dto.task.DataTaskResponse;
+import com.dbmanage.api.dto.task.TableCopyRequest;
+
+/**
+ * 跨连接表复制服务接口
+ * 从源连接流式读取表数据，经有界队列交给写入端批量写入目标连接
+ */
+public interface TableCopyService {
+
+    /**
+     * 提交表复制任务
+     *
+     * @param userId 用户ID
+     * @param request 复制请求
+     * @return 任务状态，可通过任务ID查询进度
+     * @throws java.util.concurrent.RejectedExecutionException 目标连接的后台任务已满
+     */
+    DataTaskResponse submit(Long userId, TableCopyRequest request);
+
+    /**
+     * 取消表复制任务，已提交的批次不会回滚，可通过增量复制继续
+     *
+     * @param userId 用户ID
+     * @param taskId 任务ID
+     * @return 任务状态
+     */
+    DataTaskResponse cancel(Long userId, Long taskId);
+}
@@ -0,0 +1,49 @@
+package com.dbmanage.api.service;
+
+import com.dbmanage.api.dto.query.TableDataBatchRequest;
+import com.dbmanage.api.dto.query.TableDataBatchResponse;
+import com.dbmanage.api.dto.query.TableDataPage;
+
+import java.util.List;
+
+/**
+ * 表数据编辑服务接口
+ */
+public interface TableDataService {
+
+    /**
+     * 批量执行表数据的插入、更新、删除
+     * 连续的相同形状的操作合并为一个批次，按请求顺序在同一事务中执行；任一操作失败或更新、删除没有匹配到行时整体回滚
+     * （驱动不返回单行更新计数时无法检查是否匹配到行，如MySQL开启rewriteBatchedStatements时）
+     *
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称
+     * @param table 表名
+     * @param request 批量编辑请求
+     * @return 每行的执行结果
+     */
+    TableDataBatchResponse executeBatch(Long connectionId, String database, String table, TableDataBatchRequest request);
+
+    /**
+     * 按键集（keyset）方式分页读取表数据
+     * 按主键或非空唯一索引排序，以上一页最后一行的键值定位下一页，翻页耗时与页码无关
+     *
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称
+     * @param table 表名，可带模式前缀
+     * @param limit 每页行数
+     * @param cursor 上一页返回的游标，为空时读取第一页
+     * @return 当前页数据及下一页游标
+     */
+    TableDataPage readPage(Long connectionId, String database, String table, int limit, String cursor);
+
+    /**
+     * 获取表的键列：优先主键，其次所有列均非空的唯一索引
+     *
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称
+     * @param table 表名，可带模式前缀
+     * @return 键列，没有可用的键时返回空列表
+     */
+    List<String> getKeyColumns(Long connectionId, String database, String table);
+}
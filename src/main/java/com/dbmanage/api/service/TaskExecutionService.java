@@ -0,0 +1,31 @@
+package com.dbmanage.api.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 后台任务执行服务接口
+ * 按目标数据库连接隔离并发：每个连接有独立的并发数和排队上限，
+ * 单个慢库只会占满自己的配额，不会拖慢其他连接的任务
+ */
+public interface TaskExecutionService {
+
+    /**
+     * 提交针对某个目标连接的任务
+     *
+     * @param connectionId 目标数据库连接ID，为空时归入公共队列
+     * @param task 任务
+     * @param <T> 结果类型
+     * @return 任务结果，任务抛出的异常通过future传递
+     * @throws java.util.concurrent.RejectedExecutionException 该连接的排队任务已达上限或服务已关闭
+     */
+    <T> CompletableFuture<T> submit(Long connectionId, Supplier<T> task);
+
+    /**
+     * 获取执行统计信息
+     *
+     * @return 线程池状态及各连接的执行、排队、拒绝数量
+     */
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,274 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.config.AiProperties;
+import com.dbmanage.api.model.AiResponseCache;
+import com.dbmanage.api.repository.AiResponseCacheRepository;
+import com.dbmanage.api.service.AiResponseCacheService;
+import com.dbmanage.api.util.SingleFlight;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * AI响应缓存服务实现类
+ * 内存中基于Caffeine，条目数量有上限，查询示例和其他响应分别有存活时间；
+ * 启用持久化时同时保存到管理数据库，内存未命中时先查数据库，过期的记录在写入时定期清理。
+ * 缓存键包含系统提示词的哈希，修改提示词后旧的响应不再命中
+ */
+@Service
+public class AiResponseCacheServiceImpl implements AiResponseCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiResponseCacheServiceImpl.class);
+
+    /**
+     * 两次清理过期持久化记录的最小间隔
+     */
+    private static final long CLEANUP_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+
+    @Autowired
+    private AiResponseCacheRepository cacheRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AiProperties aiProperties;
+    private final AiProperties.Cache config;
+    private final Cache<String, CacheEntry> cache;
+    private final SingleFlight<String, String> loads = new SingleFlight<>();
+
+    private final AtomicLong persistentHits = new AtomicLong();
+    private final AtomicLong modelCalls = new AtomicLong();
+    private final AtomicLong lastCleanup = new AtomicLong();
+
+    @Autowired
+    public AiResponseCacheServiceImpl(AiProperties aiProperties) {
+        this.aiProperties = aiProperties;
+        this.config = aiProperties.getCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfter(new Expiry<String, CacheEntry>() {
+                    @Override
+                    public long expireAfterCreate(String key, CacheEntry entry, long currentTime) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CacheEntry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CacheEntry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public <T> T get(String operation, String model, String dialect, String question, String schemaInfo,
+                     TypeReference<T> type, Supplier<T> loader) {
+        if (!config.isEnabled()) {
+            return loader.get();
+        }
+        String key = cacheKey(operation, model, dialect, question, schemaInfo);
+        CacheEntry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return read(cached.json, type);
+        }
+        // 响应以JSON在并发调用之间共享，每个调用各自还原出独立的对象
+        String json = loads.execute(key, () -> {
+            if (config.isPersistent()) {
+                String stored = loadPersisted(key, operation);
+                if (stored != null) {
+                    return stored;
+                }
+            }
+            modelCalls.incrementAndGet();
+            T value = loader.get();
+            String result = write(value);
+            if (!isEmpty(value)) {
+                long ttlMillis = ttlMillis(operation);
+                cache.put(key, new CacheEntry(result, TimeUnit.MILLISECONDS.toNanos(ttlMillis)));
+                if (config.isPersistent()) {
+                    persist(key, operation, model, result, ttlMillis);
+                }
+            }
+            return result;
+        });
+        return read(json, type);
+    }
+
+    @Override
+    public long clear() {
+        long count = cache.estimatedSize();
+        cache.invalidateAll();
+        if (config.isPersistent()) {
+            try {
+                cacheRepository.deleteAllInBatch();
+            } catch (Exception e) {
+                logger.warn("清空持久化的AI响应缓存失败: {}", e.getMessage());
+            }
+        }
+        logger.info("AI响应缓存已清空，共 {} 项", count);
+        return count;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", config.isEnabled());
+        result.put("persistent", config.isPersistent());
+        result.put("entries", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("persistentHits", persistentHits.get());
+        result.put("modelCalls", modelCalls.get());
+        result.put("evictions", stats.evictionCount());
+        result.put("coalescing", loads.getStats());
+        return result;
+    }
+
+    /**
+     * 从管理数据库读取未过期的响应，命中时放回内存
+     */
+    private String loadPersisted(String key, String operation) {
+        try {
+            Optional<AiResponseCache> stored = cacheRepository.findByCacheKey(key);
+            if (!stored.isPresent()) {
+                return null;
+            }
+            AiResponseCache entry = stored.get();
+            long remaining = entry.getExpiresAt().getTime() - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return null;
+            }
+            cache.put(key, new CacheEntry(entry.getResponse(),
+                    TimeUnit.MILLISECONDS.toNanos(Math.min(remaining, ttlMillis(operation)))));
+            transactionTemplate.execute(status -> cacheRepository.incrementHitCount(entry.getId()));
+            persistentHits.incrementAndGet();
+            return entry.getResponse();
+        } catch (Exception e) {
+            logger.warn("读取持久化的AI响应缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 保存响应到管理数据库，失败时只记录日志，不影响本次调用
+     */
+    private void persist(String key, String operation, String model, String json, long ttlMillis) {
+        try {
+            AiResponseCache entry = cacheRepository.findByCacheKey(key).orElseGet(AiResponseCache::new);
+            entry.setCacheKey(key);
+            entry.setOperation(operation);
+            entry.setModel(model);
+            entry.setResponse(json);
+            entry.setExpiresAt(new Date(System.currentTimeMillis() + ttlMillis));
+            cacheRepository.save(entry);
+
+            long now = System.currentTimeMillis();
+            long last = lastCleanup.get();
+            if (now - last >= CLEANUP_INTERVAL_MS && lastCleanup.compareAndSet(last, now)) {
+                Integer deleted = transactionTemplate.execute(status -> cacheRepository.deleteExpired(new Date(now)));
+                if (deleted != null && deleted > 0) {
+                    logger.info("已删除 {} 条过期的AI响应缓存", deleted);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("保存AI响应缓存失败: {}", e.getMessage());
+        }
+    }
+
+    private long ttlMillis(String operation) {
+        long minutes = OPERATION_EXAMPLES.equals(operation) ? config.getExamplesTtlMinutes() : config.getTtlMinutes();
+        return TimeUnit.MINUTES.toMillis(minutes);
+    }
+
+    /**
+     * 缓存键：调用类型、模型、方言、合并空白后的问题、结构信息和系统提示词的SHA-256
+     */
+    private String cacheKey(String operation, String model, String dialect, String question, String schemaInfo) {
+        Map<String, String> prompts = aiProperties.getSystemPrompts() == null
+                ? new TreeMap<>() : new TreeMap<>(aiProperties.getSystemPrompts());
+        return sha256(operation + '\u0000' + model + '\u0000' + dialect + '\u0000' + normalize(question)
+                + '\u0000' + sha256(normalize(schemaInfo)) + '\u0000' + sha256(prompts.toString()));
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ");
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isEmpty(Object value) {
+        return value == null
+                || value instanceof String && ((String) value).trim().isEmpty()
+                || value instanceof Collection && ((Collection<?>) value).isEmpty();
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化AI响应失败: " + e.getMessage(), e);
+        }
+    }
+
+    private <T> T read(String json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("解析缓存的AI响应失败: " + e.getMessage(), e);
+        }
+    }
+
+    private static final class CacheEntry {
+        private final String json;
+        private final long ttlNanos;
+
+        CacheEntry(String json, long ttlNanos) {
+            this.json = json;
+            this.ttlNanos = ttlNanos;
+        }
+    }
+}
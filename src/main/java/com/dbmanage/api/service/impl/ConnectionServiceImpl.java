@@ -1,14 +1,23 @@
 package com.dbmanage.api.service.impl;
 
+import com.dbmanage.api.config.AppProperties;
 import com.dbmanage.api.exception.DatabaseConnectionException;
 import com.dbmanage.api.model.DatabaseConnection;
 import com.dbmanage.api.service.ConnectionService;
+import com.dbmanage.api.util.SqlDialect;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -17,9 +26,18 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 @Service
 public class ConnectionServiceImpl implements ConnectionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionServiceImpl.class);
+
     // 存储连接信息的缓存
     private final Map<Long, DatabaseConnection> connectionCache = new ConcurrentHashMap<>();
 
+    // 连接池注册表，按连接ID维护
+    private final Map<Long, HikariDataSource> dataSources = new ConcurrentHashMap<>();
+
+    @Autowired
+    private AppProperties appProperties;
+
     /**
      * 获取数据库连接
      * @param connectionId 连接ID
@@ -35,15 +53,29 @@ public class ConnectionServiceImpl implements ConnectionService {
 
         try {
 
-            // 使用缓存的连接信息建立连接
+            // 使用缓存的连接信息从连接池获取连接
+            return getConnection(connectionInfo);
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException("连接数据库失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 从连接池获取数据库连接
+     * @param connectionInfo 连接信息
+     * @return 数据库连接
+     * @throws SQLException 连接失败时抛出
+     */
+    public Connection getConnection(DatabaseConnection connectionInfo) throws SQLException {
+        // 未保存的连接没有ID，无法复用连接池，直接建立物理连接
+        if (connectionInfo.getId() == null) {
             return DriverManager.getConnection(
                     connectionInfo.getUrl(),
                     connectionInfo.getUsername(),
                     connectionInfo.getPassword()
             );
-        } catch (SQLException e) {
-            throw new DatabaseConnectionException("连接数据库失败: " + e.getMessage(), e);
         }
+        return getDataSource(connectionInfo).getConnection();
     }
 
     /**
@@ -72,10 +104,110 @@ public class ConnectionServiceImpl implements ConnectionService {
     }
 
     /**
-     * 从缓存中移除连接信息
+     * 从缓存中移除连接信息，并关闭对应的连接池
      * @param connectionId 连接ID
      */
     public void removeConnection(Long connectionId) {
         connectionCache.remove(connectionId);
+        HikariDataSource dataSource = dataSources.remove(connectionId);
+        if (dataSource != null) {
+            dataSource.close();
+            logger.info("已关闭连接池: {}", dataSource.getPoolName());
+        }
+    }
+
+    /**
+     * 应用关闭时释放所有连接池
+     */
+    @PreDestroy
+    public void shutdown() {
+        dataSources.values().forEach(HikariDataSource::close);
+        dataSources.clear();
+    }
+
+    /**
+     * 获取连接对应的连接池，不存在或连接参数已变更时重新创建
+     */
+    private HikariDataSource getDataSource(DatabaseConnection connectionInfo) {
+        HikariDataSource dataSource = dataSources.get(connectionInfo.getId());
+        if (dataSource != null && !dataSource.isClosed() && isSameTarget(dataSource, connectionInfo)) {
+            return dataSource;
+        }
+        return dataSources.compute(connectionInfo.getId(), (id, existing) -> {
+            if (existing != null && !existing.isClosed() && isSameTarget(existing, connectionInfo)) {
+                return existing;
+            }
+            if (existing != null) {
+                // 连接参数已修改，旧连接池不再可用
+                existing.close();
+            }
+            return createDataSource(connectionInfo);
+        });
+    }
+
+    /**
+     * 判断连接池是否仍指向同一目标库
+     */
+    private boolean isSameTarget(HikariDataSource dataSource, DatabaseConnection connectionInfo) {
+        return Objects.equals(dataSource.getJdbcUrl(), connectionInfo.getUrl())
+                && Objects.equals(dataSource.getUsername(), connectionInfo.getUsername())
+                && Objects.equals(dataSource.getPassword(), connectionInfo.getPassword());
+    }
+
+    /**
+     * 创建连接池
+     */
+    private HikariDataSource createDataSource(DatabaseConnection connectionInfo) {
+        AppProperties.Pool pool = appProperties.getPool();
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("dbmanage-" + connectionInfo.getId());
+        config.setJdbcUrl(connectionInfo.getUrl());
+        config.setUsername(connectionInfo.getUsername());
+        config.setPassword(connectionInfo.getPassword());
+        config.setMinimumIdle(Math.min(pool.getMinIdle(), pool.getMaxSize()));
+        config.setMaximumPoolSize(pool.getMaxSize());
+        config.setConnectionTimeout(pool.getConnectionTimeout());
+        config.setIdleTimeout(pool.getIdleTimeout());
+        config.setMaxLifetime(pool.getMaxLifetime());
+        // 不在创建时校验连接，目标库不可用时由getConnection抛出SQLException
+        config.setInitializationFailTimeout(-1);
+        configureDriver(config, connectionInfo, pool);
+
+        logger.info("创建连接池: {} -> {}", config.getPoolName(), connectionInfo.getUrl());
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * 按数据库类型设置驱动参数
+     * 开启驱动端的预编译语句缓存，同一池化连接上重复执行的SQL无需服务端重新解析；
+     * 同时开启批量语句改写，executeBatch合并为多值INSERT等少量往返
+     */
+    private void configureDriver(HikariConfig config, DatabaseConnection connectionInfo, AppProperties.Pool pool) {
+        switch (SqlDialect.from(connectionInfo.getType())) {
+            case MYSQL:
+                config.addDataSourceProperty("cachePrepStmts", "true");
+                config.addDataSourceProperty("useServerPrepStmts", "true");
+                config.addDataSourceProperty("prepStmtCacheSize", String.valueOf(pool.getStatementCacheSize()));
+                config.addDataSourceProperty("prepStmtCacheSqlLimit", String.valueOf(pool.getStatementCacheSqlLimit()));
+                config.addDataSourceProperty("rewriteBatchedStatements", "true");
+                break;
+            case POSTGRESQL:
+                config.addDataSourceProperty("preparedStatementCacheQueries", String.valueOf(pool.getStatementCacheSize()));
+                // 字符串参数不指定类型，由服务端按列类型推断（表格编辑提交的值均为字符串）
+                config.addDataSourceProperty("stringtype", "unspecified");
+                config.addDataSourceProperty("reWriteBatchedInserts", "true");
+                break;
+            case SQLSERVER:
+                config.addDataSourceProperty("disableStatementPooling", "false");
+                config.addDataSourceProperty("statementPoolingCacheSize", String.valueOf(pool.getStatementCacheSize()));
+                config.addDataSourceProperty("useBulkCopyForBatchInsert", "true");
+                break;
+            case ORACLE:
+                config.addDataSourceProperty("oracle.jdbc.implicitStatementCacheSize", String.valueOf(pool.getStatementCacheSize()));
+                break;
+            default:
+                break;
+        }
     }
 }
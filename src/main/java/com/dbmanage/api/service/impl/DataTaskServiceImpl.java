@@ -0,0 +1,44 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.dto.task.DataTaskResponse;
+import com.dbmanage.api.exception.ResourceNotFoundException;
+import com.dbmanage.api.model.User;
+import com.dbmanage.api.repository.DataTaskRepository;
+import com.dbmanage.api.repository.UserRepository;
+import com.dbmanage.api.service.DataTaskService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 后台数据任务查询服务实现类
+ */
+@Service
+public class DataTaskServiceImpl implements DataTaskService {
+
+    @Autowired
+    private DataTaskRepository dataTaskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Override
+    public DataTaskResponse getTask(Long userId, Long taskId) {
+        return dataTaskRepository.findById(taskId)
+                .filter(task -> task.getUser().getId().equals(userId))
+                .map(DataTaskResponse::new)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+    }
+
+    @Override
+    public List<DataTaskResponse> getTasks(Long userId, int limit) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        return dataTaskRepository.findByUserOrderByCreatedAtDesc(user, PageRequest.of(0, limit)).getContent().stream()
+                .map(DataTaskResponse::new)
+                .collect(Collectors.toList());
+    }
+}
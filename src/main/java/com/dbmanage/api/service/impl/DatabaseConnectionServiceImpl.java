@@ -14,6 +14,9 @@ import com.dbmanage.api.repository.UserRepository;
 import com.dbmanage.api.service.ConnectionGroupService;
 import com.dbmanage.api.service.ConnectionService;
 import com.dbmanage.api.service.DatabaseConnectionService;
+import com.dbmanage.api.service.MetadataCacheService;
+import com.dbmanage.api.service.QueryResultCache;
+import com.dbmanage.api.service.SchemaSearchService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,6 +46,14 @@ public class DatabaseConnectionServiceImpl implements DatabaseConnectionService
     private ConnectionGroupService connectionGroupService;
     @Autowired
     private ConnectionService connectionService;
+    @Autowired
+    private MetadataCacheService metadataCacheService;
+    
+    @Autowired
+    private QueryResultCache queryResultCache;
+
+    @Autowired
+    private SchemaSearchService schemaSearchService;
     
     /**
      * 创建数据库连接
@@ -79,6 +90,8 @@ public class DatabaseConnectionServiceImpl implements DatabaseConnectionService
         }
         connection.setPassword(request.getPassword());
         connection.setParameters(request.getParameters());
+        connection.setQueryTimeout(request.getQueryTimeout());
+        connection.setMaxRows(request.getMaxRows());
         connection.setUser(user);
         
         // 生成JDBC URL
@@ -124,12 +137,21 @@ public class DatabaseConnectionServiceImpl implements DatabaseConnectionService
         }
         
         connection.setParameters(request.getParameters());
+        connection.setQueryTimeout(request.getQueryTimeout());
+        connection.setMaxRows(request.getMaxRows());
         
         // 更新JDBC URL
         connection.setUrl(generateJdbcUrl(connection));
         
         DatabaseConnection updatedConnection = connectionRepository.save(connection);
         
+        // 刷新缓存的连接信息，连接池会在下次获取连接时按新参数重建
+        connectionService.cacheConnection(connectionId, updatedConnection);
+        // 连接可能已指向其他库，缓存的元数据和查询结果不再可信
+        metadataCacheService.invalidate(connectionId);
+        queryResultCache.invalidate(connectionId);
+        schemaSearchService.invalidate(connectionId);
+        
         return new ConnectionResponse(updatedConnection);
     }
     
@@ -181,6 +203,10 @@ public class DatabaseConnectionServiceImpl implements DatabaseConnectionService
                 .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + connectionId));
         
         connectionRepository.delete(connection);
+        connectionService.removeConnection(connectionId);
+        metadataCacheService.invalidate(connectionId);
+        queryResultCache.invalidate(connectionId);
+        schemaSearchService.invalidate(connectionId);
         return true;
     }
     
@@ -257,12 +283,8 @@ public class DatabaseConnectionServiceImpl implements DatabaseConnectionService
             // 注册驱动
             registerJdbcDriver(connection.getType());
             
-            // 尝试建立连接
-            conn = DriverManager.getConnection(
-                    connection.getUrl(),
-                    connection.getUsername(), 
-                    connection.getPassword()
-            );
+            // 从连接池获取连接，首次打开时预热连接池
+            conn = connectionService.getConnection(connection);
             connectionService.cacheConnection(connectionId, connection);
             // 更新最后连接时间
             connection.setLastConnected(new Date());
@@ -3,6 +3,7 @@ package com.dbmanage.api.service.impl;
 import com.dbmanage.api.service.DatabaseTypeService;
 import org.springframework.stereotype.Service;
 
+import java.sql.Types;
 import java.util.*;
 
 @Service
@@ -295,4 +296,186 @@ public class DatabaseTypeServiceImpl implements DatabaseTypeService {
 
         return (Integer) typeProps.get("maxDecimal");
     }
+
+    /**
+     * 将源列类型映射为目标数据库的列定义
+     * 按JDBC类型归类，长度或精度超出目标库上限时退化为对应的大文本或不限精度类型
+     */
+    public String mapColumnType(String databaseType, int jdbcType, String sourceTypeName, int precision, int scale) {
+        String db = getNormalizedDatabaseType(databaseType);
+        boolean mysql = "mysql".equals(db) || "mariadb".equals(db);
+        boolean postgresql = "postgresql".equals(db);
+        boolean sqlserver = "sqlserver".equals(db);
+        boolean oracle = "oracle".equals(db);
+        String typeName = sourceTypeName != null ? sourceTypeName.toLowerCase() : "";
+
+        // JDBC类型无法区分的常见类型
+        if (typeName.startsWith("json")) {
+            return postgresql ? "jsonb" : mysql ? "json" : largeTextType(db);
+        }
+        if ("uuid".equals(typeName) || "uniqueidentifier".equals(typeName)) {
+            return postgresql ? "uuid" : sqlserver ? "uniqueidentifier" : oracle ? "varchar2(36)" : "char(36)";
+        }
+
+        switch (jdbcType) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return sqlserver ? "bit" : oracle ? "number(1)" : "boolean";
+            case Types.TINYINT:
+            case Types.SMALLINT:
+                return oracle ? "number(5)" : "smallint";
+            case Types.INTEGER:
+                return oracle ? "number(10)" : postgresql ? "integer" : "int";
+            case Types.BIGINT:
+                return oracle ? "number(19)" : "bigint";
+            case Types.REAL:
+                return oracle ? "binary_float" : mysql ? "float" : "real";
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return oracle ? "binary_double" : postgresql ? "double precision" : mysql ? "double" : "float";
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return decimalType(db, precision, scale);
+            case Types.CHAR:
+            case Types.NCHAR:
+                if (precision > 0 && precision <= 255) {
+                    return (sqlserver && jdbcType == Types.NCHAR ? "nchar(" : "char(") + precision + ")";
+                }
+                return varcharType(db, precision);
+            case Types.VARCHAR:
+            case Types.NVARCHAR:
+                return varcharType(db, precision);
+            case Types.LONGVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return largeTextType(db);
+            case Types.DATE:
+                return "date";
+            case Types.TIME:
+            case Types.TIME_WITH_TIMEZONE:
+                return oracle ? "varchar2(32)" : "time";
+            case Types.TIMESTAMP:
+                return mysql ? "datetime(6)" : sqlserver ? "datetime2" : "timestamp";
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return mysql ? "datetime(6)" : postgresql ? "timestamptz" : sqlserver ? "datetimeoffset" : "timestamp with time zone";
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return postgresql ? "bytea" : mysql ? "longblob" : sqlserver ? "varbinary(max)" : "blob";
+            default:
+                return largeTextType(db);
+        }
+    }
+
+    /**
+     * 将源库主键列类型映射为目标数据库中可以作为主键的列定义
+     * 索引键长度上限：MySQL（InnoDB、utf8mb4）3072字节，SQL Server 900字节，Oracle按8K数据块约6400字节；
+     * PostgreSQL的text和bytea可以直接作为主键
+     */
+    public String mapKeyColumnType(String databaseType, int jdbcType, String sourceTypeName, int precision, int scale) {
+        String db = getNormalizedDatabaseType(databaseType);
+        String type = mapColumnType(databaseType, jdbcType, sourceTypeName, precision, scale);
+        int maxKeyLength;
+        String binaryType;
+        switch (db) {
+            case "mysql":
+            case "mariadb":
+                maxKeyLength = 768;
+                binaryType = "varbinary(3072)";
+                break;
+            case "sqlserver":
+                maxKeyLength = 450;
+                binaryType = "varbinary(900)";
+                break;
+            case "oracle":
+                maxKeyLength = 4000;
+                binaryType = "raw(2000)";
+                break;
+            default:
+                return type;
+        }
+        if (type.equals(largeTextType(db))
+                || (type.startsWith("varchar(") || type.startsWith("nvarchar(")) && precision > maxKeyLength) {
+            return varcharType(db, maxKeyLength);
+        }
+        if ("longblob".equals(type) || "varbinary(max)".equals(type) || "blob".equals(type)) {
+            return binaryType;
+        }
+        return type;
+    }
+
+    private String decimalType(String db, int precision, int scale) {
+        int maxPrecision;
+        switch (db) {
+            case "mysql":
+            case "mariadb":
+                maxPrecision = 65;
+                break;
+            case "postgresql":
+                maxPrecision = 1000;
+                break;
+            default:
+                maxPrecision = 38;
+                break;
+        }
+        if (precision <= 0 || precision > maxPrecision) {
+            // 不限精度的NUMERIC（如PostgreSQL的numeric、Oracle的number）
+            switch (db) {
+                case "mysql":
+                case "mariadb":
+                    return "decimal(65,30)";
+                case "postgresql":
+                    return "numeric";
+                case "oracle":
+                    return "number";
+                default:
+                    return "decimal(38,10)";
+            }
+        }
+        int s = Math.max(0, Math.min(scale, precision));
+        if ("oracle".equals(db)) {
+            return "number(" + precision + "," + s + ")";
+        }
+        return ("postgresql".equals(db) ? "numeric(" : "decimal(") + precision + "," + s + ")";
+    }
+
+    private String varcharType(String db, int length) {
+        int maxLength;
+        switch (db) {
+            case "mysql":
+            case "mariadb":
+                // 行大小上限65535字节，按utf8mb4每字符4字节计算
+                maxLength = 16383;
+                break;
+            case "postgresql":
+                maxLength = 10485760;
+                break;
+            default:
+                maxLength = 4000;
+                break;
+        }
+        if (length <= 0 || length > maxLength) {
+            return largeTextType(db);
+        }
+        if ("oracle".equals(db)) {
+            return "varchar2(" + length + ")";
+        }
+        return ("sqlserver".equals(db) ? "nvarchar(" : "varchar(") + length + ")";
+    }
+
+    private String largeTextType(String db) {
+        switch (db) {
+            case "mysql":
+            case "mariadb":
+                return "longtext";
+            case "sqlserver":
+                return "nvarchar(max)";
+            case "oracle":
+                return "clob";
+            default:
+                return "text";
+        }
+    }
 }
@@ -0,0 +1,759 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.common.Constants;
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.dto.query.QueryRequest;
+import com.dbmanage.api.dto.query.RowCount;
+import com.dbmanage.api.dto.task.DataTaskResponse;
+import com.dbmanage.api.dto.task.ExportRequest;
+import com.dbmanage.api.exception.ResourceNotFoundException;
+import com.dbmanage.api.exception.ValidationException;
+import com.dbmanage.api.model.DataTask;
+import com.dbmanage.api.model.DatabaseConnection;
+import com.dbmanage.api.repository.DataTaskRepository;
+import com.dbmanage.api.repository.DatabaseConnectionRepository;
+import com.dbmanage.api.service.ConnectionService;
+import com.dbmanage.api.service.ExportService;
+import com.dbmanage.api.service.QueryExecutionRegistry;
+import com.dbmanage.api.service.QueryService;
+import com.dbmanage.api.service.ResultRowHandler;
+import com.dbmanage.api.service.RowCountService;
+import com.dbmanage.api.service.TableDataService;
+import com.dbmanage.api.service.TaskExecutionService;
+import com.dbmanage.api.util.CsvRowWriter;
+import com.dbmanage.api.util.NdjsonRowWriter;
+import com.dbmanage.api.util.SqlDialect;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 数据导出服务实现类
+ * 通过流式查询读取只进结果集，每行直接写入（可选gzip压缩的）CSV或NDJSON输出流，
+ * 导出进度按时间间隔写回data_tasks表。
+ * 指定并行度的表导出按键列值域拆分为多个范围，各范围通过连接池并发读取，见 {@link #exportParallel}。
+ * 两种方式都可通过 DELETE /query/export-{taskId} 取消
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    /**
+     * 进度写回间隔（毫秒）
+     */
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+
+    /**
+     * 并行导出的最大范围数
+     */
+    private static final int MAX_PARALLELISM = 32;
+
+    @Autowired
+    private DataTaskRepository dataTaskRepository;
+
+    @Autowired
+    private DatabaseConnectionRepository connectionRepository;
+
+    @Autowired
+    private QueryService queryService;
+
+    @Autowired
+    private RowCountService rowCountService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Autowired
+    private TableDataService tableDataService;
+
+    @Autowired
+    private TaskExecutionService taskExecutionService;
+
+    @Autowired
+    private QueryExecutionRegistry queryExecutionRegistry;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Override
+    public DataTaskResponse createTask(Long userId, ExportRequest request) {
+        String format = request.getFormat();
+        if (!Constants.Task.FORMAT_CSV.equals(format) && !Constants.Task.FORMAT_NDJSON.equals(format)) {
+            throw new ValidationException("不支持的导出格式: " + format, "format");
+        }
+        boolean hasTable = request.getTable() != null && !request.getTable().isEmpty();
+        boolean hasSql = request.getSql() != null && !request.getSql().trim().isEmpty();
+        if (hasTable == hasSql) {
+            throw new ValidationException("table和sql必须且只能指定一个");
+        }
+
+        DatabaseConnection connection = connectionRepository.findById(request.getConnectionId())
+                .filter(c -> c.getUser().getId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + request.getConnectionId()));
+
+        DataTask task = new DataTask();
+        task.setType(Constants.Task.TYPE_EXPORT);
+        task.setConnection(connection);
+        task.setUser(connection.getUser());
+        task.setTableName(request.getTable());
+        task.setFileName(getFileName(request));
+        if (hasTable) {
+            // 用统计信息中的估算行数计算进度，不额外执行COUNT(*)
+            RowCount rowCount = rowCountService.getRowCount(connection.getId(), request.getDatabase(), request.getTable(), false);
+            task.setTotalRows(rowCount.getCount());
+        }
+        return new DataTaskResponse(dataTaskRepository.save(task));
+    }
+
+    @Override
+    public void export(Long taskId, ExportRequest request, OutputStream outputStream) throws IOException {
+        DataTask task = dataTaskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+        task.setStatus(Constants.Task.STATUS_RUNNING);
+        task.setStartedAt(new Date());
+        task = dataTaskRepository.save(task);
+
+        if (isParallel(request)) {
+            exportParallel(task, request, outputStream);
+            return;
+        }
+
+        QueryRequest queryRequest = new QueryRequest();
+        queryRequest.setConnectionId(request.getConnectionId());
+        queryRequest.setDatabase(request.getDatabase());
+        queryRequest.setSql(buildSql(task.getConnection(), request));
+        // 可通过 DELETE /query/export-{taskId} 取消导出
+        queryRequest.setExecutionId("export-" + taskId);
+        queryRequest.setTimeoutSeconds(request.getTimeoutSeconds() != null ? request.getTimeoutSeconds() : 0);
+
+        GZIPOutputStream gzip = request.isGzip() ? new GZIPOutputStream(outputStream, 64 * 1024) : null;
+        ResultRowHandler writer = createWriter(request, gzip != null ? gzip : outputStream);
+        ProgressTracker tracker = new ProgressTracker(task, writer);
+
+        String errorMessage = null;
+        try {
+            queryService.streamQuery(queryRequest, tracker);
+            if (gzip != null) {
+                gzip.finish();
+            }
+        } catch (IOException | RuntimeException e) {
+            // 客户端断开或CSV导出时查询出错
+            errorMessage = e.getMessage();
+            throw e;
+        } finally {
+            if (errorMessage == null) {
+                errorMessage = tracker.errorMessage;
+            }
+            task.setProcessedRows(tracker.rows);
+            if (errorMessage == null && tracker.ended) {
+                task.setTotalRows(tracker.rows);
+                task.setProgressPercentage(100);
+                task.setStatus(Constants.Task.STATUS_COMPLETED);
+            } else {
+                task.setErrorMessage(errorMessage);
+                task.setStatus(Constants.Task.STATUS_FAILED);
+                logger.warn("导出任务 {} 失败，已导出 {} 行: {}", taskId, tracker.rows, errorMessage);
+            }
+            task.setCompletedAt(new Date());
+            dataTaskRepository.save(task);
+        }
+    }
+
+    @Override
+    public boolean isPartitioned(ExportRequest request) {
+        return request.isPartitioned() && isParallel(request);
+    }
+
+    @Override
+    public String getFileName(ExportRequest request) {
+        if (isPartitioned(request)) {
+            return getBaseName(request) + ".zip";
+        }
+        return getBaseName(request) + "." + request.getFormat() + (request.isGzip() ? ".gz" : "");
+    }
+
+    private String getBaseName(ExportRequest request) {
+        return request.getTable() != null && !request.getTable().isEmpty()
+                ? request.getTable().replaceAll("[^\\w.-]", "_")
+                : "query";
+    }
+
+    private boolean isParallel(ExportRequest request) {
+        return request.getTable() != null && !request.getTable().isEmpty()
+                && request.getParallelism() != null && request.getParallelism() > 1;
+    }
+
+    private ResultRowHandler createWriter(ExportRequest request, OutputStream outputStream) throws IOException {
+        return Constants.Task.FORMAT_CSV.equals(request.getFormat())
+                ? new CsvRowWriter(outputStream)
+                : new NdjsonRowWriter(outputStream, objectMapper);
+    }
+
+    /**
+     * 并行导出：按首个键列的值域把表拆分为多个范围，每个范围在目标连接的任务通道中读取并写入临时分片文件，
+     * 再按范围顺序输出。分片各自完成gzip压缩，合并时直接拼接gzip成员（RFC 1952允许多个成员），
+     * 压缩也随读取并行进行；zip输出时分片以STORED方式放入，不再二次压缩。
+     * 各范围的语句登记在导出的执行ID下，取消时一起取消。
+     * PostgreSQL上各范围通过 pg_export_snapshot 共享同一个快照，导出结果是一致的时间点数据；
+     * 其他数据库的各范围在各自的连接和事务中读取，导出期间并发写入的数据可能只出现在部分范围中
+     */
+    private void exportParallel(DataTask task, ExportRequest request, OutputStream outputStream) throws IOException {
+        long startTime = System.currentTimeMillis();
+        DatabaseConnection connection = task.getConnection();
+        SqlDialect dialect = SqlDialect.from(connection.getType());
+        String table = dialect.quoteQualified(request.getTable());
+        boolean partitioned = isPartitioned(request);
+        Path spoolDir = Paths.get(appProperties.getSpool().getDir());
+
+        AtomicLong rows = new AtomicLong();
+        AtomicBoolean aborted = new AtomicBoolean();
+        List<Path> parts = new ArrayList<>();
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        String executionId = null;
+        Connection snapshotConn = null;
+        String errorMessage = null;
+        try {
+            executionId = queryExecutionRegistry.register("export-" + task.getId(), task.getUser().getId(),
+                    connection.getId(), "SELECT * FROM " + table);
+            List<String> keyColumns = tableDataService.getKeyColumns(connection.getId(), request.getDatabase(), request.getTable());
+            if (keyColumns.isEmpty()) {
+                throw new ValidationException("表 " + request.getTable() + " 没有主键或非空唯一索引，无法并行导出");
+            }
+            String splitColumn = dialect.quote(keyColumns.get(0));
+            String orderBy = keyColumns.stream().map(dialect::quote).collect(Collectors.joining(", "));
+
+            List<String> columns = new ArrayList<>();
+            List<Object> boundaries;
+            try (Connection conn = connectionService.getConnection(connection)) {
+                if (request.getDatabase() != null && !request.getDatabase().isEmpty()) {
+                    conn.setCatalog(request.getDatabase());
+                }
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT * FROM " + table + " WHERE 1 = 0")) {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                        columns.add(metaData.getColumnLabel(i));
+                    }
+                }
+                boundaries = splitRanges(conn, dialect, request.getTable(), keyColumns.get(0),
+                        Math.min(request.getParallelism(), MAX_PARALLELISM));
+            } catch (SQLException e) {
+                throw new IOException("拆分导出范围失败: " + e.getMessage(), e);
+            }
+            logger.info("并行导出表 {}，按 {} 拆分为 {} 个范围", request.getTable(), keyColumns.get(0), boundaries.size() + 1);
+
+            String snapshot = null;
+            if (dialect == SqlDialect.POSTGRESQL && boundaries.size() > 0) {
+                // 导出快照的事务在所有范围读取结束前保持打开
+                try {
+                    snapshotConn = connectionService.getConnection(connection);
+                } catch (SQLException e) {
+                    throw new IOException("获取导出快照连接失败: " + e.getMessage(), e);
+                }
+                snapshot = exportSnapshot(snapshotConn, request.getDatabase());
+            }
+
+            Files.createDirectories(spoolDir);
+            for (int i = 0; i <= boundaries.size(); i++) {
+                // 第一个范围没有下界，最后一个范围没有上界，统计信息过期时也不会遗漏数据
+                StringBuilder sql = new StringBuilder("SELECT * FROM ").append(table);
+                List<Object> parameters = new ArrayList<>();
+                if (i > 0) {
+                    sql.append(" WHERE ").append(splitColumn).append(" >= ?");
+                    parameters.add(boundaries.get(i - 1));
+                }
+                if (i < boundaries.size()) {
+                    sql.append(i > 0 ? " AND " : " WHERE ").append(splitColumn).append(" < ?");
+                    parameters.add(boundaries.get(i));
+                }
+                sql.append(" ORDER BY ").append(orderBy);
+
+                Path part = spoolDir.resolve("export-" + task.getId() + "-part-" + i);
+                parts.add(part);
+                String rangeSql = sql.toString();
+                String rangeExecutionId = executionId;
+                String rangeSnapshot = snapshot;
+                futures.add(taskExecutionService.submit(connection.getId(), () ->
+                        readRange(connection, request, rangeSql, parameters, part, columns, partitioned, rows, aborted,
+                                rangeExecutionId, rangeSnapshot)));
+            }
+
+            if (partitioned) {
+                mergeZip(outputStream, request, futures, parts, task, rows);
+            } else {
+                mergeOrdered(outputStream, request, columns, futures, parts, task, rows, startTime);
+            }
+        } catch (IOException | RuntimeException e) {
+            errorMessage = e.getMessage();
+            throw e;
+        } finally {
+            if (errorMessage != null) {
+                // 排队中的范围开始时直接返回，执行中的范围在下一行中止并删除自己的分片
+                aborted.set(true);
+            }
+            for (Path part : parts) {
+                deleteQuietly(part);
+            }
+            if (snapshotConn != null) {
+                closeSnapshot(snapshotConn);
+            }
+            if (executionId != null) {
+                queryExecutionRegistry.unregister(executionId);
+            }
+            task.setProcessedRows(rows.get());
+            if (errorMessage == null) {
+                task.setTotalRows(rows.get());
+                task.setProgressPercentage(100);
+                task.setStatus(Constants.Task.STATUS_COMPLETED);
+            } else {
+                task.setErrorMessage(errorMessage);
+                task.setStatus(Constants.Task.STATUS_FAILED);
+                logger.warn("并行导出任务 {} 失败，已读取 {} 行: {}", task.getId(), rows.get(), errorMessage);
+            }
+            task.setCompletedAt(new Date());
+            dataTaskRepository.save(task);
+        }
+    }
+
+    /**
+     * 在可重复读事务中导出PostgreSQL快照，供各范围的连接导入
+     *
+     * @return 快照ID，导出失败时返回null，各范围改为各自读取
+     */
+    private String exportSnapshot(Connection conn, String database) {
+        try {
+            if (database != null && !database.isEmpty()) {
+                conn.setCatalog(database);
+            }
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+                try (ResultSet rs = stmt.executeQuery("SELECT pg_export_snapshot()")) {
+                    return rs.next() ? rs.getString(1) : null;
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("导出快照失败，各范围将分别读取: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void closeSnapshot(Connection conn) {
+        try {
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.warn("结束快照事务失败: {}", e.getMessage());
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            logger.warn("关闭快照连接失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 计算范围边界：整数键按MIN/MAX等分；其他类型的键在PostgreSQL上优先取pg_stats直方图，
+     * 否则用NTILE窗口函数在键列上取分位点。无法拆分时返回空列表，整张表作为一个范围
+     */
+    private List<Object> splitRanges(Connection conn, SqlDialect dialect, String table, String column, int parallelism) throws SQLException {
+        String quotedTable = dialect.quoteQualified(table);
+        String quotedColumn = dialect.quote(column);
+
+        int jdbcType;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT " + quotedColumn + " FROM " + quotedTable + " WHERE 1 = 0")) {
+            jdbcType = rs.getMetaData().getColumnType(1);
+        }
+
+        if (jdbcType == Types.TINYINT || jdbcType == Types.SMALLINT || jdbcType == Types.INTEGER || jdbcType == Types.BIGINT) {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT MIN(" + quotedColumn + "), MAX(" + quotedColumn + ") FROM " + quotedTable)) {
+                rs.next();
+                BigDecimal min = rs.getBigDecimal(1);
+                BigDecimal max = rs.getBigDecimal(2);
+                if (min == null || max == null) {
+                    return Collections.emptyList();
+                }
+                BigInteger low = min.toBigInteger();
+                BigInteger span = max.toBigInteger().subtract(low);
+                List<Object> boundaries = new ArrayList<>();
+                BigInteger previous = low;
+                for (int i = 1; i < parallelism; i++) {
+                    BigInteger bound = low.add(span.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(parallelism)));
+                    if (bound.compareTo(previous) > 0) {
+                        // 参数类型与列一致时才能使用索引（PostgreSQL中bigint与numeric比较会放弃索引）
+                        boundaries.add(bound.bitLength() < 64 ? (Object) bound.longValue() : new BigDecimal(bound));
+                        previous = bound;
+                    }
+                }
+                return boundaries;
+            }
+        }
+
+        if (dialect == SqlDialect.POSTGRESQL) {
+            List<Object> histogram = new ArrayList<>();
+            String schema = table.lastIndexOf('.') > 0 ? table.substring(0, table.lastIndexOf('.')) : null;
+            String name = table.substring(table.lastIndexOf('.') + 1);
+            String sql = "SELECT u.b FROM pg_stats s, unnest(s.histogram_bounds::text::text[]) WITH ORDINALITY AS u(b, n) "
+                    + "WHERE s.schemaname = COALESCE(?, current_schema()) AND s.tablename = ? AND s.attname = ? ORDER BY u.n";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, schema);
+                ps.setString(2, name);
+                ps.setString(3, column);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        histogram.add(rs.getString(1));
+                    }
+                }
+            }
+            if (histogram.size() > 2) {
+                return pickBoundaries(histogram, parallelism);
+            }
+        }
+
+        String sql = "SELECT MIN(" + quotedColumn + ") FROM (SELECT " + quotedColumn + ", NTILE(" + parallelism + ") OVER (ORDER BY "
+                + quotedColumn + ") AS bucket FROM " + quotedTable + ") b GROUP BY bucket ORDER BY bucket";
+        List<Object> quantiles = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                quantiles.add(rs.getObject(1));
+            }
+        } catch (SQLException e) {
+            // 不支持窗口函数的数据库（如MySQL 5.7）
+            logger.warn("表 {} 无法计算分位点，按单个范围导出: {}", table, e.getMessage());
+            return Collections.emptyList();
+        }
+        List<Object> boundaries = new ArrayList<>();
+        for (int i = 1; i < quantiles.size(); i++) {
+            Object value = quantiles.get(i);
+            // 复合键的首列可能重复，相同的分位点合并
+            if (value != null && !Objects.equals(value, quantiles.get(i - 1))) {
+                boundaries.add(value);
+            }
+        }
+        return boundaries;
+    }
+
+    /**
+     * 从直方图边界中均匀选取parallelism - 1个范围边界
+     */
+    private List<Object> pickBoundaries(List<Object> histogram, int parallelism) {
+        List<Object> boundaries = new ArrayList<>();
+        int last = histogram.size() - 1;
+        for (int i = 1; i < parallelism; i++) {
+            Object bound = histogram.get((int) Math.round((double) i * last / parallelism));
+            if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(bound)) {
+                boundaries.add(bound);
+            }
+        }
+        boundaries.remove(histogram.get(0));
+        return boundaries;
+    }
+
+    /**
+     * 读取一个键范围并写入分片文件，在任务执行服务的线程中运行
+     *
+     * @param standalone 分片是否为完整文件（含表头和结束信息），zip输出时使用
+     * @param snapshot 要导入的PostgreSQL快照ID，为空时在当前数据上读取
+     * @return 读取的行数
+     */
+    private long readRange(DatabaseConnection connection, ExportRequest request, String sql, List<Object> parameters, Path part,
+                           List<String> columns, boolean standalone, AtomicLong rows, AtomicBoolean aborted,
+                           String executionId, String snapshot) {
+        if (aborted.get() || queryExecutionRegistry.isCancelled(executionId)) {
+            aborted.set(true);
+            return 0L;
+        }
+        long startTime = System.currentTimeMillis();
+        long count = 0;
+        SqlDialect dialect = SqlDialect.from(connection.getType());
+        try (Connection conn = connectionService.getConnection(connection);
+             OutputStream file = new BufferedOutputStream(Files.newOutputStream(part), 64 * 1024)) {
+            if (request.getDatabase() != null && !request.getDatabase().isEmpty()) {
+                conn.setCatalog(request.getDatabase());
+            }
+            // PostgreSQL只有在事务内才会使用游标分批读取
+            boolean cursorNeedsTransaction = dialect == SqlDialect.POSTGRESQL && conn.getAutoCommit();
+            if (cursorNeedsTransaction) {
+                conn.setAutoCommit(false);
+            }
+            PreparedStatement statement = null;
+            try (PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                if (snapshot != null && cursorNeedsTransaction) {
+                    // 导入快照必须是可重复读事务中的第一条语句
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+                        stmt.execute("SET TRANSACTION SNAPSHOT '" + snapshot.replace("'", "''") + "'");
+                    }
+                }
+                statement = ps;
+                queryExecutionRegistry.attachParallel(executionId, ps);
+                // MySQL驱动只有fetchSize为Integer.MIN_VALUE时才逐行流式读取
+                ps.setFetchSize(dialect == SqlDialect.MYSQL ? Integer.MIN_VALUE : appProperties.getQuery().getFetchSize());
+                for (int i = 0; i < parameters.size(); i++) {
+                    ps.setObject(i + 1, parameters.get(i));
+                }
+
+                GZIPOutputStream gzip = request.isGzip() ? new GZIPOutputStream(file, 64 * 1024) : null;
+                ResultRowHandler writer = createWriter(request, gzip != null ? gzip : file);
+                if (standalone) {
+                    writer.start(columns);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    Object[] values = new Object[rs.getMetaData().getColumnCount()];
+                    while (rs.next()) {
+                        if (aborted.get()) {
+                            throw new IOException("导出已中止");
+                        }
+                        for (int i = 1; i <= values.length; i++) {
+                            values[i - 1] = rs.getObject(i);
+                        }
+                        writer.row(values);
+                        count++;
+                        rows.incrementAndGet();
+                    }
+                }
+                if (standalone) {
+                    writer.end(count, System.currentTimeMillis() - startTime);
+                }
+                writer.flush();
+                if (gzip != null) {
+                    gzip.finish();
+                }
+            } finally {
+                if (statement != null) {
+                    queryExecutionRegistry.detachParallel(executionId, statement);
+                }
+                if (cursorNeedsTransaction) {
+                    // 只读游标，回滚即可结束事务
+                    conn.rollback();
+                    conn.setAutoCommit(true);
+                }
+            }
+            return count;
+        } catch (SQLException | IOException e) {
+            aborted.set(true);
+            throw new IllegalStateException("读取导出范围失败: " + e.getMessage(), e);
+        } finally {
+            if (aborted.get()) {
+                deleteQuietly(part);
+            }
+        }
+    }
+
+    /**
+     * 按范围顺序拼接分片，表头和NDJSON的结束信息单独写出
+     */
+    private void mergeOrdered(OutputStream outputStream, ExportRequest request, List<String> columns,
+                              List<CompletableFuture<Long>> futures, List<Path> parts, DataTask task,
+                              AtomicLong rows, long startTime) throws IOException {
+        writeMember(outputStream, request, writer -> writer.start(columns));
+        for (int i = 0; i < parts.size(); i++) {
+            await(futures.get(i), task, rows);
+            Files.copy(parts.get(i), outputStream);
+            deleteQuietly(parts.get(i));
+        }
+        if (Constants.Task.FORMAT_NDJSON.equals(request.getFormat())) {
+            writeMember(outputStream, request, writer -> writer.end(rows.get(), System.currentTimeMillis() - startTime));
+        }
+        outputStream.flush();
+    }
+
+    /**
+     * 按范围顺序把分片作为zip条目输出
+     */
+    private void mergeZip(OutputStream outputStream, ExportRequest request, List<CompletableFuture<Long>> futures,
+                          List<Path> parts, DataTask task, AtomicLong rows) throws IOException {
+        String extension = "." + request.getFormat() + (request.isGzip() ? ".gz" : "");
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        for (int i = 0; i < parts.size(); i++) {
+            await(futures.get(i), task, rows);
+            Path part = parts.get(i);
+            long size = Files.size(part);
+            ZipEntry entry = new ZipEntry(String.format("%s-part-%04d%s", getBaseName(request), i + 1, extension));
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(size);
+            entry.setCompressedSize(size);
+            entry.setCrc(crc32(part));
+            zip.putNextEntry(entry);
+            Files.copy(part, zip);
+            zip.closeEntry();
+            deleteQuietly(part);
+        }
+        zip.finish();
+        outputStream.flush();
+    }
+
+    /**
+     * 写出一段独立的内容，gzip输出时作为单独的gzip成员
+     */
+    private void writeMember(OutputStream outputStream, ExportRequest request, WriterAction action) throws IOException {
+        GZIPOutputStream gzip = request.isGzip() ? new GZIPOutputStream(outputStream) : null;
+        ResultRowHandler writer = createWriter(request, gzip != null ? gzip : outputStream);
+        action.apply(writer);
+        writer.flush();
+        if (gzip != null) {
+            gzip.finish();
+        }
+    }
+
+    /**
+     * 等待一个范围读取完成，等待期间定期写回进度
+     */
+    private long await(CompletableFuture<Long> future, DataTask task, AtomicLong rows) throws IOException {
+        while (true) {
+            try {
+                return future.get(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                saveProgress(task, rows.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("导出被中断", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                throw new IOException(cause.getMessage(), cause);
+            }
+        }
+    }
+
+    private long crc32(Path path) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = Files.newInputStream(path)) {
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("删除导出分片 {} 失败: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * 写回导出进度，估算行数可能偏小，完成前最多显示99%
+     */
+    private void saveProgress(DataTask task, long rows) {
+        task.setProcessedRows(rows);
+        Long total = task.getTotalRows();
+        if (total != null && total > 0) {
+            task.setProgressPercentage((int) Math.min(99, rows * 100 / total));
+        }
+        try {
+            dataTaskRepository.save(task);
+        } catch (RuntimeException e) {
+            logger.warn("更新导出任务 {} 进度失败: {}", task.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 对输出器执行的写出操作
+     */
+    private interface WriterAction {
+        void apply(ResultRowHandler writer) throws IOException;
+    }
+
+    private String buildSql(DatabaseConnection connection, ExportRequest request) {
+        if (request.getTable() != null && !request.getTable().isEmpty()) {
+            return "SELECT * FROM " + SqlDialect.from(connection.getType()).quoteQualified(request.getTable());
+        }
+        return request.getSql();
+    }
+
+    /**
+     * 统计导出行数并定期写回任务进度，其余调用直接交给实际的输出器
+     */
+    private final class ProgressTracker implements ResultRowHandler {
+        private final DataTask task;
+        private final ResultRowHandler delegate;
+        private long rows;
+        private long lastSaved = System.currentTimeMillis();
+        private boolean ended;
+        private String errorMessage;
+
+        ProgressTracker(DataTask task, ResultRowHandler delegate) {
+            this.task = task;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void start(List<String> columns) throws IOException {
+            delegate.start(columns);
+        }
+
+        @Override
+        public void row(Object[] values) throws IOException {
+            delegate.row(values);
+            rows++;
+            if ((rows & 1023) == 0 && System.currentTimeMillis() - lastSaved >= PROGRESS_INTERVAL_MS) {
+                saveProgress();
+            }
+        }
+
+        @Override
+        public void end(long rowCount, long executionTime) throws IOException {
+            delegate.end(rowCount, executionTime);
+            ended = true;
+        }
+
+        @Override
+        public void error(String message) throws IOException {
+            errorMessage = message;
+            delegate.error(message);
+        }
+
+        private void saveProgress() {
+            lastSaved = System.currentTimeMillis();
+            ExportServiceImpl.this.saveProgress(task, rows);
+        }
+    }
+}
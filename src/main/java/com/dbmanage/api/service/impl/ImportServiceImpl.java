@@ -0,0 +1,730 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.common.Constants;
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.dto.task.DataTaskResponse;
+import com.dbmanage.api.dto.task.ImportRequest;
+import com.dbmanage.api.exception.ResourceNotFoundException;
+import com.dbmanage.api.exception.ValidationException;
+import com.dbmanage.api.model.DataTask;
+import com.dbmanage.api.model.DatabaseConnection;
+import com.dbmanage.api.repository.DataTaskRepository;
+import com.dbmanage.api.repository.DatabaseConnectionRepository;
+import com.dbmanage.api.service.ConnectionService;
+import com.dbmanage.api.service.ImportService;
+import com.dbmanage.api.service.QueryResultCache;
+import com.dbmanage.api.service.TaskExecutionService;
+import com.dbmanage.api.util.CsvRowReader;
+import com.dbmanage.api.util.SqlDialect;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 数据导入服务实现类
+ * 流水线：流式解析文件 → 按目标表列类型转换 → 分批写入。
+ * PostgreSQL使用COPY FROM STDIN，其余数据库使用executeBatch，
+ * 由连接池开启的驱动参数走原生快速路径（MySQL rewriteBatchedStatements、SQL Server useBulkCopyForBatchInsert）
+ */
+@Service
+public class ImportServiceImpl implements ImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportServiceImpl.class);
+
+    /**
+     * 进度写回间隔（毫秒）
+     */
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+
+    private final AppProperties.DataImport config;
+    private final Path spoolDir;
+
+    @Autowired
+    private DataTaskRepository dataTaskRepository;
+
+    @Autowired
+    private DatabaseConnectionRepository connectionRepository;
+
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Autowired
+    private TaskExecutionService taskExecutionService;
+
+    @Autowired
+    private QueryResultCache queryResultCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    public ImportServiceImpl(AppProperties appProperties) {
+        this.config = appProperties.getDataImport();
+        this.spoolDir = Paths.get(appProperties.getSpool().getDir());
+    }
+
+    @Override
+    public DataTaskResponse submit(Long userId, ImportRequest request, MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new ValidationException("导入文件不能为空", "file");
+        }
+        String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "import";
+        String lowerName = fileName.toLowerCase(Locale.ROOT);
+        boolean gzip = request.getGzip() != null ? request.getGzip() : lowerName.endsWith(".gz");
+        String format = request.getFormat();
+        if (format == null || format.isEmpty()) {
+            String baseName = gzip && lowerName.endsWith(".gz") ? lowerName.substring(0, lowerName.length() - 3) : lowerName;
+            format = baseName.endsWith(".ndjson") || baseName.endsWith(".jsonl")
+                    ? Constants.Task.FORMAT_NDJSON : Constants.Task.FORMAT_CSV;
+        }
+        if (!Constants.Task.FORMAT_CSV.equals(format) && !Constants.Task.FORMAT_NDJSON.equals(format)) {
+            throw new ValidationException("不支持的导入格式: " + format, "format");
+        }
+
+        DatabaseConnection connection = connectionRepository.findById(request.getConnectionId())
+                .filter(c -> c.getUser().getId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + request.getConnectionId()));
+
+        DataTask task = new DataTask();
+        task.setType(Constants.Task.TYPE_IMPORT);
+        task.setConnection(connection);
+        task.setUser(connection.getUser());
+        task.setTableName(request.getTable());
+        task.setFileName(fileName);
+        task = dataTaskRepository.save(task);
+
+        // 请求结束后上传的临时文件会被删除，先保存到本地
+        Path path = spoolDir.resolve("import-" + task.getId());
+        try {
+            Files.createDirectories(spoolDir);
+            file.transferTo(path);
+        } catch (IOException e) {
+            task.setStatus(Constants.Task.STATUS_FAILED);
+            task.setErrorMessage("保存上传文件失败: " + e.getMessage());
+            task.setCompletedAt(new Date());
+            dataTaskRepository.save(task);
+            throw new IllegalStateException(task.getErrorMessage(), e);
+        }
+        task.setFilePath(path.toString());
+        task = dataTaskRepository.save(task);
+
+        DataTask submitted = task;
+        boolean csv = Constants.Task.FORMAT_CSV.equals(format);
+        try {
+            taskExecutionService.submit(connection.getId(), () -> {
+                run(submitted, request, csv, gzip);
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            deleteFile(path);
+            task.setStatus(Constants.Task.STATUS_FAILED);
+            task.setErrorMessage(e.getMessage());
+            task.setCompletedAt(new Date());
+            dataTaskRepository.save(task);
+            throw e;
+        }
+        return new DataTaskResponse(task);
+    }
+
+    private void run(DataTask task, ImportRequest request, boolean csv, boolean gzip) {
+        task.setStatus(Constants.Task.STATUS_RUNNING);
+        task.setStartedAt(new Date());
+        task = dataTaskRepository.save(task);
+
+        Path path = Paths.get(task.getFilePath());
+        DatabaseConnection connection = task.getConnection();
+        SqlDialect dialect = SqlDialect.from(connection.getType());
+        int batchSize = request.getBatchSize() != null && request.getBatchSize() > 0 ? request.getBatchSize() : config.getBatchSize();
+        Progress progress = new Progress(task, Files.isRegularFile(path) ? path.toFile().length() : 0);
+
+        try (CountingInputStream counting = new CountingInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024));
+             RowSource source = csv ? new CsvSource(decode(counting, gzip)) : new NdjsonSource(decode(counting, gzip));
+             Connection conn = connectionService.getConnection(connection)) {
+            progress.input = counting;
+
+            if (request.getDatabase() != null && !request.getDatabase().isEmpty()) {
+                conn.setCatalog(request.getDatabase());
+            }
+            List<TargetColumn> columns = resolveColumns(conn, dialect, request.getTable(), source.columns());
+
+            long rows = dialect == SqlDialect.POSTGRESQL
+                    ? copyIn(conn, dialect, request.getTable(), columns, source, batchSize, progress)
+                    : batchInsert(conn, dialect, request.getTable(), columns, source, batchSize, progress);
+
+            task.setProcessedRows(rows);
+            task.setTotalRows(rows);
+            task.setProgressPercentage(100);
+            task.setStatus(Constants.Task.STATUS_COMPLETED);
+            logger.info("导入任务 {} 完成，共 {} 行", task.getId(), rows);
+        } catch (Exception e) {
+            logger.warn("导入任务 {} 失败，已写入 {} 行: {}", task.getId(), progress.committed, e.getMessage());
+            task.setProcessedRows(progress.committed);
+            task.setErrorMessage(e.getMessage());
+            task.setStatus(Constants.Task.STATUS_FAILED);
+        } finally {
+            // 失败时已提交的批次同样会改变表数据
+            queryResultCache.invalidateTables(connection.getId(), Collections.singleton(request.getTable()));
+            deleteFile(path);
+            task.setFilePath(null);
+            task.setCompletedAt(new Date());
+            dataTaskRepository.save(task);
+        }
+    }
+
+    /**
+     * 通过结果集元数据读取目标表的列，与文件中的字段名按不区分大小写匹配
+     */
+    private List<TargetColumn> resolveColumns(Connection conn, SqlDialect dialect, String table, List<String> fields) throws SQLException {
+        Map<String, TargetColumn> tableColumns = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM " + dialect.quoteQualified(table) + " WHERE 1 = 0")) {
+            ResultSetMetaData metaData = rs.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                TargetColumn column = new TargetColumn(metaData.getColumnName(i), metaData.getColumnType(i));
+                tableColumns.put(column.name.toLowerCase(Locale.ROOT), column);
+            }
+        }
+
+        List<TargetColumn> columns = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            TargetColumn column = field != null ? tableColumns.get(field.trim().toLowerCase(Locale.ROOT)) : null;
+            if (column == null) {
+                throw new ValidationException("表 " + table + " 中不存在列: " + field);
+            }
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    /**
+     * PostgreSQL快速路径：按CSV格式分段写入COPY FROM STDIN，类型由服务端转换，整个导入在一个事务内完成
+     */
+    private long copyIn(Connection conn, SqlDialect dialect, String table, List<TargetColumn> columns,
+                        RowSource source, int batchSize, Progress progress) throws SQLException, IOException {
+        String sql = "COPY " + dialect.quoteQualified(table) + " ("
+                + columns.stream().map(column -> dialect.quote(column.name)).collect(Collectors.joining(", "))
+                + ") FROM STDIN WITH (FORMAT csv)";
+        CopyIn copyIn = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        try {
+            StringBuilder chunk = new StringBuilder(64 * 1024);
+            long sent = 0;
+            int pending = 0;
+            Object[] values;
+            while ((values = source.next()) != null) {
+                appendCopyRow(chunk, values, columns, source.lineNumber());
+                pending++;
+                if (pending >= batchSize) {
+                    writeChunk(copyIn, chunk);
+                    sent += pending;
+                    pending = 0;
+                    progress.update(sent, false);
+                }
+            }
+            if (pending > 0) {
+                writeChunk(copyIn, chunk);
+            }
+            long rows = copyIn.endCopy();
+            progress.update(rows, true);
+            return rows;
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void appendCopyRow(StringBuilder chunk, Object[] values, List<TargetColumn> columns, long lineNumber) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                chunk.append(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                // 未加引号的空字段为NULL
+                continue;
+            }
+            String text;
+            if (isBinary(columns.get(i).jdbcType) && value instanceof String) {
+                // 导出文件中的二进制数据为Base64，COPY需要bytea十六进制格式
+                text = "\\x" + toHex(decodeBase64((String) value, columns.get(i), lineNumber));
+            } else {
+                text = toText(value);
+            }
+            chunk.append('"').append(text.replace("\"", "\"\"")).append('"');
+        }
+        chunk.append('\n');
+    }
+
+    private void writeChunk(CopyIn copyIn, StringBuilder chunk) throws SQLException {
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+
+    /**
+     * 通用路径：预编译INSERT + executeBatch，每批提交一次
+     */
+    private long batchInsert(Connection conn, SqlDialect dialect, String table, List<TargetColumn> columns,
+                             RowSource source, int batchSize, Progress progress) throws SQLException, IOException {
+        String sql = "INSERT INTO " + dialect.quoteQualified(table) + " ("
+                + columns.stream().map(column -> dialect.quote(column.name)).collect(Collectors.joining(", "))
+                + ") VALUES ("
+                + columns.stream().map(column -> "?").collect(Collectors.joining(", "))
+                + ")";
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            long committed = 0;
+            int pending = 0;
+            Object[] values;
+            while ((values = source.next()) != null) {
+                for (int i = 0; i < values.length; i++) {
+                    bindValue(ps, i + 1, values[i], columns.get(i), source.lineNumber());
+                }
+                ps.addBatch();
+                pending++;
+                if (pending >= batchSize) {
+                    ps.executeBatch();
+                    conn.commit();
+                    committed += pending;
+                    pending = 0;
+                    progress.update(committed, true);
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+                conn.commit();
+                committed += pending;
+            }
+            progress.update(committed, true);
+            return committed;
+        } catch (SQLException | IOException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * 按目标列的JDBC类型转换并绑定值，文件中的字符串转换失败时报告行号
+     */
+    private void bindValue(PreparedStatement ps, int index, Object value, TargetColumn column, long lineNumber) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, column.jdbcType);
+            return;
+        }
+        if (value instanceof Map || value instanceof Collection) {
+            ps.setString(index, toText(value));
+            return;
+        }
+        if (!(value instanceof String)) {
+            if (value instanceof Number && isTemporal(column.jdbcType)) {
+                // NDJSON中的日期可能是毫秒时间戳
+                ps.setTimestamp(index, new Timestamp(((Number) value).longValue()));
+            } else {
+                ps.setObject(index, value);
+            }
+            return;
+        }
+
+        String text = (String) value;
+        try {
+            switch (column.jdbcType) {
+                case Types.BIT:
+                case Types.BOOLEAN:
+                    ps.setBoolean(index, parseBoolean(text));
+                    break;
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                case Types.BIGINT:
+                    ps.setLong(index, Long.parseLong(text.trim()));
+                    break;
+                case Types.REAL:
+                case Types.FLOAT:
+                case Types.DOUBLE:
+                    ps.setDouble(index, Double.parseDouble(text.trim()));
+                    break;
+                case Types.NUMERIC:
+                case Types.DECIMAL:
+                    ps.setBigDecimal(index, new BigDecimal(text.trim()));
+                    break;
+                case Types.DATE:
+                    ps.setDate(index, java.sql.Date.valueOf(LocalDate.parse(text.trim())));
+                    break;
+                case Types.TIME:
+                    ps.setTime(index, java.sql.Time.valueOf(LocalTime.parse(text.trim())));
+                    break;
+                case Types.TIMESTAMP:
+                    ps.setTimestamp(index, Timestamp.valueOf(LocalDateTime.parse(text.trim().replace(' ', 'T'))));
+                    break;
+                case Types.BINARY:
+                case Types.VARBINARY:
+                case Types.LONGVARBINARY:
+                case Types.BLOB:
+                    ps.setBytes(index, decodeBase64(text, column, lineNumber));
+                    break;
+                default:
+                    ps.setString(index, text);
+                    break;
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new ValidationException("第 " + lineNumber + " 行列 " + column.name + " 的值无法转换: " + text);
+        }
+    }
+
+    private boolean parseBoolean(String text) {
+        switch (text.trim().toLowerCase(Locale.ROOT)) {
+            case "1":
+            case "true":
+            case "t":
+            case "y":
+            case "yes":
+                return true;
+            case "0":
+            case "false":
+            case "f":
+            case "n":
+            case "no":
+                return false;
+            default:
+                throw new NumberFormatException(text);
+        }
+    }
+
+    private byte[] decodeBase64(String text, TargetColumn column, long lineNumber) {
+        try {
+            return Base64.getDecoder().decode(text.trim());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("第 " + lineNumber + " 行列 " + column.name + " 不是有效的Base64数据");
+        }
+    }
+
+    private String toText(Object value) {
+        if (value instanceof Map || value instanceof Collection) {
+            try {
+                return objectMapper.writeValueAsString(value);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("无法序列化JSON值: " + e.getMessage(), e);
+            }
+        }
+        return value.toString();
+    }
+
+    private static boolean isBinary(int jdbcType) {
+        return jdbcType == Types.BINARY || jdbcType == Types.VARBINARY
+                || jdbcType == Types.LONGVARBINARY || jdbcType == Types.BLOB;
+    }
+
+    private static boolean isTemporal(int jdbcType) {
+        return jdbcType == Types.DATE || jdbcType == Types.TIME || jdbcType == Types.TIMESTAMP
+                || jdbcType == Types.TIMESTAMP_WITH_TIMEZONE;
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] digits = "0123456789abcdef".toCharArray();
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = digits[(bytes[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = digits[bytes[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    private static InputStream decode(InputStream input, boolean gzip) throws IOException {
+        return gzip ? new GZIPInputStream(input, 64 * 1024) : input;
+    }
+
+    private void deleteFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("删除导入文件 {} 失败: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * 目标表的列
+     */
+    private static final class TargetColumn {
+        private final String name;
+        private final int jdbcType;
+
+        TargetColumn(String name, int jdbcType) {
+            this.name = name;
+            this.jdbcType = jdbcType;
+        }
+    }
+
+    /**
+     * 导入文件的行来源
+     */
+    private interface RowSource extends Closeable {
+
+        /**
+         * 文件中的字段名
+         */
+        List<String> columns();
+
+        /**
+         * 读取下一行，值按字段名顺序排列，文件结束时返回null
+         */
+        Object[] next() throws IOException;
+
+        /**
+         * 当前行号，用于错误提示
+         */
+        long lineNumber();
+    }
+
+    /**
+     * CSV行来源，首行为表头，空行忽略
+     */
+    private static final class CsvSource implements RowSource {
+        private final CsvRowReader reader;
+        private final List<String> columns;
+
+        CsvSource(InputStream input) throws IOException {
+            this.reader = new CsvRowReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            List<String> header = reader.readRow();
+            if (header == null) {
+                throw new ValidationException("导入文件为空");
+            }
+            this.columns = header;
+        }
+
+        @Override
+        public List<String> columns() {
+            return columns;
+        }
+
+        @Override
+        public Object[] next() throws IOException {
+            List<String> row;
+            do {
+                row = reader.readRow();
+            } while (row != null && row.size() == 1 && row.get(0) == null && columns.size() > 1);
+            if (row == null) {
+                return null;
+            }
+            if (row.size() != columns.size()) {
+                throw new ValidationException("第 " + reader.getLineNumber() + " 行有 " + row.size()
+                        + " 个字段，表头有 " + columns.size() + " 个");
+            }
+            return row.toArray();
+        }
+
+        @Override
+        public long lineNumber() {
+            return reader.getLineNumber();
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * NDJSON行来源，支持两种格式：
+     * 每行一个对象（字段名取自第一个对象）；
+     * 或导出接口的格式，首行为 {"type":"columns",...}，随后每行一个数组
+     */
+    private final class NdjsonSource implements RowSource {
+        private final JsonParser parser;
+        private final List<String> columns;
+        private Map<String, Object> firstObject;
+        private long lineNumber;
+
+        @SuppressWarnings("unchecked")
+        NdjsonSource(InputStream input) throws IOException {
+            this.parser = objectMapper.getFactory().createParser(input);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ValidationException("NDJSON文件首行必须是JSON对象");
+            }
+            lineNumber = 1;
+            Map<String, Object> first = objectMapper.readValue(parser, Map.class);
+            if ("columns".equals(first.get("type")) && first.get("columns") instanceof List) {
+                this.columns = new ArrayList<>();
+                for (Object column : (List<Object>) first.get("columns")) {
+                    columns.add(String.valueOf(column));
+                }
+            } else {
+                this.columns = new ArrayList<>(first.keySet());
+                this.firstObject = first;
+            }
+        }
+
+        @Override
+        public List<String> columns() {
+            return columns;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object[] next() throws IOException {
+            if (firstObject != null) {
+                Object[] values = fromObject(firstObject);
+                firstObject = null;
+                return values;
+            }
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            lineNumber++;
+            if (token == JsonToken.START_ARRAY) {
+                List<Object> array = objectMapper.readValue(parser, List.class);
+                if (array.size() != columns.size()) {
+                    throw new ValidationException("第 " + lineNumber + " 行有 " + array.size()
+                            + " 个值，列信息有 " + columns.size() + " 个");
+                }
+                return array.toArray();
+            }
+            if (token == JsonToken.START_OBJECT) {
+                Map<String, Object> object = objectMapper.readValue(parser, Map.class);
+                Object type = object.get("type");
+                if ("end".equals(type)) {
+                    return null;
+                }
+                if ("error".equals(type)) {
+                    throw new ValidationException("导出文件包含错误信息: " + object.get("message"));
+                }
+                return fromObject(object);
+            }
+            throw new ValidationException("第 " + lineNumber + " 行不是JSON对象或数组");
+        }
+
+        private Object[] fromObject(Map<String, Object> object) {
+            Object[] values = new Object[columns.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = object.get(columns.get(i));
+            }
+            return values;
+        }
+
+        @Override
+        public long lineNumber() {
+            return lineNumber;
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+
+    /**
+     * 导入进度，按读取的文件字节数估算百分比，定期写回任务
+     */
+    private final class Progress {
+        private final DataTask task;
+        private final long fileSize;
+        private CountingInputStream input;
+        private long committed;
+        private long lastSaved = System.currentTimeMillis();
+
+        Progress(DataTask task, long fileSize) {
+            this.task = task;
+            this.fileSize = fileSize;
+        }
+
+        /**
+         * @param rows 已写入的行数
+         * @param durable 这些行是否已提交
+         */
+        void update(long rows, boolean durable) {
+            if (durable) {
+                committed = rows;
+            }
+            if (System.currentTimeMillis() - lastSaved < PROGRESS_INTERVAL_MS) {
+                return;
+            }
+            lastSaved = System.currentTimeMillis();
+            task.setProcessedRows(rows);
+            if (fileSize > 0 && input != null) {
+                task.setProgressPercentage((int) Math.min(99, input.count * 100 / fileSize));
+            }
+            try {
+                dataTaskRepository.save(task);
+            } catch (RuntimeException e) {
+                logger.warn("更新导入任务 {} 进度失败: {}", task.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 统计已读取字节数的输入流，用于计算进度
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
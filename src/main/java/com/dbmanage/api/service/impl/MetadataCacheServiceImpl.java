@@ -0,0 +1,150 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.service.MetadataCacheService;
+import com.dbmanage.api.util.SingleFlight;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 元数据缓存服务实现类
+ * 基于Caffeine，条目数量和存活时间均有上限；相同键的并发加载只执行一次，其余调用共享结果。
+ * 每个连接有一个版本号，失效时递增，加载期间发生过失效的结果不写入缓存
+ */
+@Service
+public class MetadataCacheServiceImpl implements MetadataCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetadataCacheServiceImpl.class);
+
+    private final AppProperties.MetadataCache config;
+    private final Cache<MetadataKey, Object> cache;
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final SingleFlight<MetadataKey, Object> loads = new SingleFlight<>();
+
+    @Autowired
+    public MetadataCacheServiceImpl(AppProperties appProperties) {
+        this.config = appProperties.getMetadataCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfterWrite(Duration.ofSeconds(config.getTtlSeconds()))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long connectionId, String kind, String database, String name, Supplier<T> loader) {
+        if (connectionId == null) {
+            return loader.get();
+        }
+        MetadataKey key = new MetadataKey(connectionId, kind, database, name);
+        if (!config.isEnabled()) {
+            // 未启用缓存时仍合并相同键的并发加载
+            return (T) loads.execute(key, loader::get);
+        }
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        // 加载期间不持有缓存内部的锁（cache.get会在整个加载期间锁住哈希桶，阻塞其他键的写入），
+        // 同一键的并发未命中由SingleFlight合并
+        return (T) loads.execute(key, () -> {
+            long version = getVersion(connectionId);
+            Object value = loader.get();
+            if (value != null) {
+                cache.put(key, value);
+                // 写入后再检查版本号：加载期间或写入的同时发生过失效（如执行了DDL），则移除刚写入的旧元数据
+                if (getVersion(connectionId) != version) {
+                    cache.asMap().remove(key, value);
+                }
+            }
+            return value;
+        });
+    }
+
+    private long getVersion(Long connectionId) {
+        return versions.computeIfAbsent(connectionId, id -> new AtomicLong()).get();
+    }
+
+    @Override
+    public int invalidate(Long connectionId) {
+        versions.computeIfAbsent(connectionId, id -> new AtomicLong()).incrementAndGet();
+        int count = 0;
+        Iterator<MetadataKey> iterator = cache.asMap().keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().connectionId.equals(connectionId)) {
+                iterator.remove();
+                count++;
+            }
+        }
+        if (count > 0) {
+            logger.info("连接 {} 的元数据缓存已失效，共 {} 项", connectionId, count);
+        }
+        return count;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", config.isEnabled());
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("coalescing", loads.getStats());
+        return result;
+    }
+
+    /**
+     * 缓存键
+     */
+    private static final class MetadataKey {
+        private final Long connectionId;
+        private final String kind;
+        private final String database;
+        private final String name;
+
+        MetadataKey(Long connectionId, String kind, String database, String name) {
+            this.connectionId = connectionId;
+            this.kind = kind;
+            this.database = database;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MetadataKey)) {
+                return false;
+            }
+            MetadataKey that = (MetadataKey) o;
+            return connectionId.equals(that.connectionId)
+                    && kind.equals(that.kind)
+                    && Objects.equals(database, that.database)
+                    && Objects.equals(name, that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(connectionId, kind, database, name);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.dbmanage.api.common.Constants;
 import com.dbmanage.api.config.AiProperties;
 import com.dbmanage.api.config.OpenAiProperties;
 import com.dbmanage.api.config.DeepSeekProperties;
+import com.dbmanage.api.service.AiResponseCacheService;
 import com.dbmanage.api.service.DeepSeekService;
 import com.dbmanage.api.service.NlpToSqlService;
 import com.dbmanage.api.service.SqlFormatterService;
@@ -12,6 +13,7 @@ import com.theokanning.openai.completion.chat.ChatCompletionRequest;
 import com.theokanning.openai.completion.chat.ChatCompletionResult;
 import com.theokanning.openai.completion.chat.ChatMessage;
 import com.theokanning.openai.service.OpenAiService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.slf4j.Logger;
@@ -35,7 +37,7 @@ import java.util.stream.Collectors;
 /**
  * AI模型服务实现类
  * 处理自然语言转换为SQL
- * 支持OpenAI和DeepSeek模型
+ * 支持OpenAI和DeepSeek模型，相同的问题和结构命中响应缓存时不再调用模型
  */
 @Service
 public class NlpToSqlServiceImpl implements NlpToSqlService {
@@ -57,6 +59,9 @@ public class NlpToSqlServiceImpl implements NlpToSqlService {
     @Autowired
     private SqlFormatterService sqlFormatterService;
     
+    @Autowired
+    private AiResponseCacheService responseCache;
+    
     private OpenAiService openAiService;
     
     @PostConstruct
@@ -76,6 +81,15 @@ public class NlpToSqlServiceImpl implements NlpToSqlService {
 
     @Override
     public String generateSql(String naturalLanguageQuery, String dialect, String schemaInfo, String modelType) {
+        return responseCache.get(AiResponseCacheService.OPERATION_GENERATE_SQL, modelName(modelType), dialect,
+                naturalLanguageQuery, schemaInfo, new TypeReference<String>() {},
+                () -> requestSql(naturalLanguageQuery, dialect, schemaInfo, modelType));
+    }
+
+    /**
+     * 调用模型生成SQL
+     */
+    private String requestSql(String naturalLanguageQuery, String dialect, String schemaInfo, String modelType) {
         // 准备聊天消息
         List<ChatMessage> messages = new ArrayList<>();
 
@@ -101,12 +115,8 @@ public class NlpToSqlServiceImpl implements NlpToSqlService {
         ));
 
         // 创建请求对象
-        String modelName = Constants.AiModel.DEEPSEEK.equalsIgnoreCase(modelType) 
-            ? deepSeekProperties.getModel() 
-            : openAiProperties.getModel();
-            
         ChatCompletionRequest completionRequest = ChatCompletionRequest.builder()
-                .model(modelName)
+                .model(modelName(modelType))
                 .messages(messages)
                 .temperature(Constants.AiModel.DEFAULT_TEMPERATURE)
                 .maxTokens(Constants.AiModel.DEFAULT_MAX_TOKENS)
@@ -160,6 +170,15 @@ public class NlpToSqlServiceImpl implements NlpToSqlService {
         return input.trim();
     }
     
+    /**
+     * 根据模型类型获取配置的模型名称
+     */
+    private String modelName(String modelType) {
+        return Constants.AiModel.DEEPSEEK.equalsIgnoreCase(modelType)
+            ? deepSeekProperties.getModel()
+            : openAiProperties.getModel();
+    }
+
     /**
      * 格式化数据库结构信息，使其更易于AI理解
      */
@@ -170,6 +189,15 @@ public class NlpToSqlServiceImpl implements NlpToSqlService {
 
     @Override
     public List<String> getSqlCompletions(String partialSql, String dialect, String schemaInfo, String modelType) {
+        return responseCache.get(AiResponseCacheService.OPERATION_COMPLETIONS, modelName(modelType), dialect,
+                partialSql, schemaInfo, new TypeReference<List<String>>() {},
+                () -> requestCompletions(partialSql, dialect, schemaInfo, modelType));
+    }
+
+    /**
+     * 调用模型获取补全建议，失败时返回空列表
+     */
+    private List<String> requestCompletions(String partialSql, String dialect, String schemaInfo, String modelType) {
         // 准备聊天消息
         List<ChatMessage> messages = new ArrayList<>();
 
@@ -195,12 +223,8 @@ public class NlpToSqlServiceImpl implements NlpToSqlService {
         ));
 
         // 创建请求对象
-        String modelName = Constants.AiModel.DEEPSEEK.equalsIgnoreCase(modelType) 
-            ? deepSeekProperties.getModel() 
-            : openAiProperties.getModel();
-            
         ChatCompletionRequest completionRequest = ChatCompletionRequest.builder()
-                .model(modelName)
+                .model(modelName(modelType))
                 .messages(messages)
                 .temperature(Constants.AiModel.CREATIVE_TEMPERATURE) // 适当提高温度以获得多样化的建议
                 .maxTokens(Constants.AiModel.DEFAULT_MAX_TOKENS)
@@ -249,6 +273,16 @@ public class NlpToSqlServiceImpl implements NlpToSqlService {
 
     @Override
     public List<Map<String, String>> getSqlExamples(String dialect, String schemaInfo, String modelType) {
+        // 示例只依赖方言和结构，几乎总能命中缓存
+        return responseCache.get(AiResponseCacheService.OPERATION_EXAMPLES, modelName(modelType), dialect,
+                "", schemaInfo, new TypeReference<List<Map<String, String>>>() {},
+                () -> requestExamples(dialect, schemaInfo, modelType));
+    }
+
+    /**
+     * 调用模型获取查询示例，失败时返回空列表
+     */
+    private List<Map<String, String>> requestExamples(String dialect, String schemaInfo, String modelType) {
         // 准备聊天消息
         List<ChatMessage> messages = new ArrayList<>();
 
@@ -274,12 +308,8 @@ public class NlpToSqlServiceImpl implements NlpToSqlService {
         ));
 
         // 创建请求对象
-        String modelName = Constants.AiModel.DEEPSEEK.equalsIgnoreCase(modelType) 
-            ? deepSeekProperties.getModel() 
-            : openAiProperties.getModel();
-            
         ChatCompletionRequest completionRequest = ChatCompletionRequest.builder()
-                .model(modelName)
+                .model(modelName(modelType))
                 .messages(messages)
                 .temperature(Constants.AiModel.CREATIVE_TEMPERATURE) // 适当提高温度以获得多样化的示例
                 .maxTokens(Constants.AiModel.DEFAULT_MAX_TOKENS)
@@ -315,7 +345,7 @@ public class NlpToSqlServiceImpl implements NlpToSqlService {
                     // 使用Jackson解析JSON
                     examples = new ObjectMapper().readValue(
                         response, 
-                        new com.fasterxml.jackson.core.type.TypeReference<List<Map<String, String>>>() {}
+                        new TypeReference<List<Map<String, String>>>() {}
                     );
                     
                     // 确保每个示例都包含description和sql字段
@@ -0,0 +1,166 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.exception.ValidationException;
+import com.dbmanage.api.service.QueryExecutionRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 查询执行登记服务实现类
+ */
+@Service
+public class QueryExecutionRegistryImpl implements QueryExecutionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryExecutionRegistryImpl.class);
+
+    /**
+     * 列表中展示的SQL最大长度
+     */
+    private static final int SQL_PREVIEW_LENGTH = 200;
+
+    private final Map<String, RunningExecution> executions = new ConcurrentHashMap<>();
+
+    @Override
+    public String register(String executionId, Long userId, Long connectionId, String sql) {
+        String id = executionId != null && !executionId.isEmpty() ? executionId : UUID.randomUUID().toString();
+        RunningExecution execution = new RunningExecution(userId, connectionId, sql);
+        if (executions.putIfAbsent(id, execution) != null) {
+            throw new ValidationException("执行ID已存在: " + id, "executionId");
+        }
+        return id;
+    }
+
+    @Override
+    public void attach(String executionId, Statement statement) {
+        RunningExecution execution = executions.get(executionId);
+        if (execution == null) {
+            return;
+        }
+        boolean cancelled;
+        synchronized (execution) {
+            execution.statement = statement;
+            cancelled = execution.cancelled;
+        }
+        if (cancelled) {
+            cancelStatement(executionId, statement);
+        }
+    }
+
+    @Override
+    public void attachParallel(String executionId, Statement statement) {
+        RunningExecution execution = executions.get(executionId);
+        if (execution == null) {
+            return;
+        }
+        boolean cancelled;
+        synchronized (execution) {
+            execution.parallelStatements.add(statement);
+            cancelled = execution.cancelled;
+        }
+        if (cancelled) {
+            cancelStatement(executionId, statement);
+        }
+    }
+
+    @Override
+    public void detachParallel(String executionId, Statement statement) {
+        RunningExecution execution = executions.get(executionId);
+        if (execution == null) {
+            return;
+        }
+        synchronized (execution) {
+            execution.parallelStatements.remove(statement);
+        }
+    }
+
+    @Override
+    public boolean isCancelled(String executionId) {
+        RunningExecution execution = executions.get(executionId);
+        return execution != null && execution.cancelled;
+    }
+
+    @Override
+    public boolean cancel(String executionId, Long userId) {
+        RunningExecution execution = executions.get(executionId);
+        if (execution == null || !execution.userId.equals(userId)) {
+            return false;
+        }
+        List<Statement> statements;
+        synchronized (execution) {
+            execution.cancelled = true;
+            statements = new ArrayList<>(execution.parallelStatements);
+            if (execution.statement != null) {
+                statements.add(execution.statement);
+            }
+        }
+        for (Statement statement : statements) {
+            cancelStatement(executionId, statement);
+        }
+        logger.info("用户 {} 取消执行 {}", userId, executionId);
+        return true;
+    }
+
+    @Override
+    public void unregister(String executionId) {
+        executions.remove(executionId);
+    }
+
+    @Override
+    public List<Map<String, Object>> getRunning(Long userId) {
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> result = new ArrayList<>();
+        executions.forEach((id, execution) -> {
+            if (!execution.userId.equals(userId)) {
+                return;
+            }
+            Map<String, Object> item = new HashMap<>();
+            item.put("executionId", id);
+            item.put("connectionId", execution.connectionId);
+            item.put("sql", execution.sql.length() > SQL_PREVIEW_LENGTH
+                    ? execution.sql.substring(0, SQL_PREVIEW_LENGTH) + "..." : execution.sql);
+            item.put("startTime", execution.startTime);
+            item.put("elapsed", now - execution.startTime);
+            item.put("cancelled", execution.cancelled);
+            result.add(item);
+        });
+        return result;
+    }
+
+    private void cancelStatement(String executionId, Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException e) {
+            // 语句可能已执行完毕并关闭
+            logger.warn("取消执行 {} 失败: {}", executionId, e.getMessage());
+        }
+    }
+
+    /**
+     * 正在执行的查询
+     */
+    private static final class RunningExecution {
+        private final Long userId;
+        private final Long connectionId;
+        private final String sql;
+        private final long startTime = System.currentTimeMillis();
+        private volatile boolean cancelled;
+        private Statement statement;
+        private final List<Statement> parallelStatements = new ArrayList<>();
+
+        RunningExecution(Long userId, Long connectionId, String sql) {
+            this.userId = userId;
+            this.connectionId = connectionId;
+            this.sql = sql != null ? sql : "";
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.model.QueryHistory;
+import com.dbmanage.api.service.QueryHistoryWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 查询历史写入器实现类
+ * 有界队列 + 单个后台线程，攒满一批或等待超过flushIntervalMs时通过JDBC批量插入写入，
+ * 不经过JPA，避免IDENTITY主键导致Hibernate无法批量插入
+ */
+@Service
+public class QueryHistoryWriterImpl implements QueryHistoryWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryHistoryWriterImpl.class);
+
+    private static final String INSERT_SQL = "INSERT INTO query_history "
+            + "(sql, query_text, execution_time, affected_rows, is_success, error_message, statement_type, "
+            + "favorite, connection_id, user_id, executed_at, created_at, status) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final AppProperties.History config;
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<QueryHistory> queue;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    private volatile boolean running = true;
+    private Thread worker;
+
+    @Autowired
+    public QueryHistoryWriterImpl(AppProperties appProperties, JdbcTemplate jdbcTemplate) {
+        this.config = appProperties.getHistory();
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = new Thread(this::run, "query-history-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public boolean submit(QueryHistory history) {
+        // 执行时间以提交时刻为准，批量写入时不会触发@PrePersist
+        Date now = new Date();
+        if (history.getExecutedAt() == null) {
+            history.setExecutedAt(now);
+        }
+        if (history.getCreatedAt() == null) {
+            history.setCreatedAt(now);
+        }
+
+        try {
+            if (running && queue.offer(history, config.getOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long count = dropped.incrementAndGet();
+        if (count == 1 || count % 1000 == 0) {
+            logger.warn("查询历史队列已满，已丢弃 {} 条记录", count);
+        }
+        return false;
+    }
+
+    /**
+     * 后台写入循环：拿到第一条记录后，在flushIntervalMs内继续攒批，攒满batchSize立即写入
+     */
+    private void run() {
+        List<QueryHistory> batch = new ArrayList<>(config.getBatchSize());
+        while (running) {
+            try {
+                QueryHistory first = queue.poll(config.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + config.getFlushIntervalMs();
+                while (batch.size() < config.getBatchSize()) {
+                    queue.drainTo(batch, config.getBatchSize() - batch.size());
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (batch.size() >= config.getBatchSize() || remaining <= 0) {
+                        break;
+                    }
+                    QueryHistory next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // 关闭时由shutdown写入剩余记录
+                Thread.currentThread().interrupt();
+                break;
+            }
+            writeBatch(batch);
+            batch.clear();
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<QueryHistory> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, history) -> {
+                ps.setString(1, history.getSql());
+                ps.setString(2, history.getQueryText());
+                setLong(ps, 3, history.getExecutionTime());
+                if (history.getAffectedRows() != null) {
+                    ps.setInt(4, history.getAffectedRows());
+                } else {
+                    ps.setNull(4, Types.INTEGER);
+                }
+                ps.setBoolean(5, Boolean.TRUE.equals(history.getIsSuccess()));
+                ps.setString(6, history.getErrorMessage());
+                ps.setString(7, history.getStatementType());
+                ps.setBoolean(8, Boolean.TRUE.equals(history.getFavorite()));
+                ps.setLong(9, history.getConnection().getId());
+                ps.setLong(10, history.getUser().getId());
+                ps.setTimestamp(11, new Timestamp(history.getExecutedAt().getTime()));
+                ps.setTimestamp(12, new Timestamp(history.getCreatedAt().getTime()));
+                ps.setString(13, history.getStatus());
+            });
+            written.addAndGet(batch.size());
+            batches.incrementAndGet();
+        } catch (Exception e) {
+            // 历史记录不影响查询结果，写入失败只记录日志
+            failed.addAndGet(batch.size());
+            logger.error("批量写入查询历史失败，共 {} 条: {}", batch.size(), e.getMessage(), e);
+        }
+    }
+
+    private void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queued", queue.size());
+        stats.put("capacity", config.getQueueCapacity());
+        stats.put("written", written.get());
+        stats.put("batches", batches.get());
+        stats.put("dropped", dropped.get());
+        stats.put("failed", failed.get());
+        return stats;
+    }
+
+    /**
+     * 应用关闭时停止后台线程，并把队列中剩余的记录全部写入
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        List<QueryHistory> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int i = 0; i < remaining.size(); i += config.getBatchSize()) {
+            writeBatch(remaining.subList(i, Math.min(i + config.getBatchSize(), remaining.size())));
+        }
+        logger.info("查询历史写入器已关闭，共写入 {} 条，丢弃 {} 条", written.get(), dropped.get());
+    }
+}
@@ -0,0 +1,316 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.common.Constants;
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.dto.query.QueryRequest;
+import com.dbmanage.api.dto.task.DataTaskResponse;
+import com.dbmanage.api.dto.task.QueryJobPage;
+import com.dbmanage.api.exception.ResourceNotFoundException;
+import com.dbmanage.api.exception.ValidationException;
+import com.dbmanage.api.model.DataTask;
+import com.dbmanage.api.model.DatabaseConnection;
+import com.dbmanage.api.repository.DataTaskRepository;
+import com.dbmanage.api.repository.DatabaseConnectionRepository;
+import com.dbmanage.api.service.QueryExecutionRegistry;
+import com.dbmanage.api.service.QueryJobService;
+import com.dbmanage.api.service.QueryService;
+import com.dbmanage.api.service.TaskExecutionService;
+import com.dbmanage.api.util.ResultSpoolReader;
+import com.dbmanage.api.util.ResultSpoolWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步查询服务实现类
+ * 任务状态保存在data_tasks表中，查询通过任务执行服务在目标连接的通道中运行，
+ * 结果由 {@link ResultSpoolWriter} 按行组写入文件；过期的结果文件由后台线程定期删除
+ */
+@Service
+public class QueryJobServiceImpl implements QueryJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryJobServiceImpl.class);
+
+    private final AppProperties.Spool config;
+    private final Path spoolDir;
+
+    /**
+     * 执行中任务的结果写入器，用于读取进度和取消
+     */
+    private final Map<Long, ResultSpoolWriter> writers = new ConcurrentHashMap<>();
+
+    /**
+     * 已请求取消的任务，排队中的任务开始执行时检查
+     */
+    private final Set<Long> cancelRequested = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService cleaner;
+
+    @Autowired
+    private DataTaskRepository dataTaskRepository;
+
+    @Autowired
+    private DatabaseConnectionRepository connectionRepository;
+
+    @Autowired
+    private QueryService queryService;
+
+    @Autowired
+    private TaskExecutionService taskExecutionService;
+
+    @Autowired
+    private QueryExecutionRegistry queryExecutionRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    public QueryJobServiceImpl(AppProperties appProperties) {
+        this.config = appProperties.getSpool();
+        this.spoolDir = Paths.get(config.getDir());
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(spoolDir);
+
+        // 服务重启前未结束的任务已无法继续
+        List<DataTask> interrupted = dataTaskRepository.findByStatusIn(
+                Arrays.asList(Constants.Task.STATUS_PENDING, Constants.Task.STATUS_RUNNING));
+        for (DataTask task : interrupted) {
+            deleteFile(task);
+            task.setErrorMessage("服务重启，任务已中断");
+            finish(task, Constants.Task.STATUS_FAILED);
+        }
+
+        cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "spool-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleaner.scheduleWithFixedDelay(this::cleanExpired, config.getCleanupIntervalSeconds(),
+                config.getCleanupIntervalSeconds(), TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (cleaner != null) {
+            cleaner.shutdownNow();
+        }
+        writers.values().forEach(ResultSpoolWriter::cancel);
+    }
+
+    @Override
+    public DataTaskResponse submit(Long userId, QueryRequest request) {
+        DatabaseConnection connection = connectionRepository.findById(request.getConnectionId())
+                .filter(c -> c.getUser().getId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + request.getConnectionId()));
+
+        DataTask task = new DataTask();
+        task.setType(Constants.Task.TYPE_QUERY);
+        task.setConnection(connection);
+        task.setUser(connection.getUser());
+        task = dataTaskRepository.save(task);
+
+        Path path = spoolDir.resolve("query-" + task.getId() + ".spool");
+        task.setFileName(path.getFileName().toString());
+        task.setFilePath(path.toString());
+        task = dataTaskRepository.save(task);
+
+        // 执行ID与任务绑定，取消任务时通过执行登记服务中断语句
+        request.setExecutionId(executionId(task.getId()));
+        DataTask submitted = task;
+        try {
+            taskExecutionService.submit(connection.getId(), () -> {
+                run(submitted, request, path);
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            task.setErrorMessage(e.getMessage());
+            finish(task, Constants.Task.STATUS_FAILED);
+            throw e;
+        }
+        return new DataTaskResponse(task);
+    }
+
+    private void run(DataTask task, QueryRequest request, Path path) {
+        if (cancelRequested.remove(task.getId())) {
+            finish(task, Constants.Task.STATUS_CANCELLED);
+            return;
+        }
+        task.setStatus(Constants.Task.STATUS_RUNNING);
+        task.setStartedAt(new Date());
+        dataTaskRepository.save(task);
+
+        ResultSpoolWriter writer = null;
+        String errorMessage = null;
+        try {
+            writer = new ResultSpoolWriter(path, objectMapper, config.getRowGroupSize(),
+                    config.getMaxFileSizeMb() * 1024 * 1024);
+            writers.put(task.getId(), writer);
+            if (cancelRequested.contains(task.getId())) {
+                writer.cancel();
+            }
+            queryService.streamQuery(request, writer);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("异步查询 {} 执行失败: {}", task.getId(), e.getMessage());
+            errorMessage = e.getMessage();
+        } finally {
+            writers.remove(task.getId());
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    logger.warn("关闭结果文件 {} 失败: {}", path, e.getMessage());
+                }
+            }
+        }
+
+        boolean cancelled = cancelRequested.remove(task.getId());
+        if (writer != null && writer.isCompleted() && !cancelled) {
+            task.setTotalRows(writer.getRowCount());
+            task.setProcessedRows(writer.getRowCount());
+            task.setProgressPercentage(100);
+            finish(task, Constants.Task.STATUS_COMPLETED);
+            return;
+        }
+
+        deleteFile(task);
+        if (writer != null) {
+            task.setProcessedRows(writer.getRowCount());
+            if (writer.getErrorMessage() != null) {
+                errorMessage = writer.getErrorMessage();
+            }
+        }
+        task.setErrorMessage(errorMessage);
+        finish(task, cancelled ? Constants.Task.STATUS_CANCELLED : Constants.Task.STATUS_FAILED);
+    }
+
+    @Override
+    public DataTaskResponse getJob(Long userId, Long jobId) {
+        DataTask task = getOwnedTask(userId, jobId);
+        DataTaskResponse response = new DataTaskResponse(task);
+        ResultSpoolWriter writer = writers.get(jobId);
+        if (writer != null) {
+            response.setProcessedRows(writer.getRowCount());
+        }
+        return response;
+    }
+
+    @Override
+    public QueryJobPage getPage(Long userId, Long jobId, long offset, int limit) {
+        DataTask task = getOwnedTask(userId, jobId);
+        if (!Constants.Task.STATUS_COMPLETED.equals(task.getStatus())) {
+            throw new ValidationException("任务状态为 " + task.getStatus() + "，没有可读取的结果");
+        }
+        if (offset < 0) {
+            throw new ValidationException("offset不能小于0", "offset");
+        }
+        int pageSize = Math.max(1, Math.min(limit, config.getMaxPageSize()));
+
+        try {
+            ResultSpoolReader reader = ResultSpoolReader.open(Paths.get(task.getFilePath()), objectMapper);
+            List<Object[]> rows = reader.read(offset, pageSize);
+
+            QueryJobPage page = new QueryJobPage();
+            page.setJobId(jobId);
+            page.setColumns(reader.getColumns());
+            page.setRows(rows);
+            page.setOffset(offset);
+            page.setTotal(reader.getRowCount());
+            page.setHasMore(offset + rows.size() < reader.getRowCount());
+            return page;
+        } catch (IOException e) {
+            throw new IllegalStateException("读取结果文件失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public DataTaskResponse cancel(Long userId, Long jobId) {
+        DataTask task = getOwnedTask(userId, jobId);
+        String status = task.getStatus();
+        if (Constants.Task.STATUS_PENDING.equals(status) || Constants.Task.STATUS_RUNNING.equals(status)) {
+            cancelRequested.add(jobId);
+            ResultSpoolWriter writer = writers.get(jobId);
+            if (writer != null) {
+                writer.cancel();
+            }
+            queryExecutionRegistry.cancel(executionId(jobId), userId);
+        } else if (Constants.Task.STATUS_COMPLETED.equals(status)) {
+            // 已完成的任务提前释放结果文件
+            deleteFile(task);
+            task.setStatus(Constants.Task.STATUS_EXPIRED);
+            task = dataTaskRepository.save(task);
+        }
+        return new DataTaskResponse(task);
+    }
+
+    /**
+     * 删除超过保留时间的结果文件
+     */
+    private void cleanExpired() {
+        try {
+            Date cutoff = new Date(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(config.getTtlMinutes()));
+            List<DataTask> expired = dataTaskRepository.findByStatusAndCompletedAtBefore(Constants.Task.STATUS_COMPLETED, cutoff);
+            for (DataTask task : expired) {
+                if (task.getFilePath() == null) {
+                    continue;
+                }
+                deleteFile(task);
+                task.setStatus(Constants.Task.STATUS_EXPIRED);
+                dataTaskRepository.save(task);
+            }
+            if (!expired.isEmpty()) {
+                logger.info("已清理 {} 个过期的结果文件", expired.size());
+            }
+        } catch (Exception e) {
+            logger.error("清理过期结果文件失败: {}", e.getMessage(), e);
+        }
+    }
+
+    private DataTask getOwnedTask(Long userId, Long jobId) {
+        return dataTaskRepository.findById(jobId)
+                .filter(task -> task.getUser().getId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + jobId));
+    }
+
+    private void finish(DataTask task, String status) {
+        task.setStatus(status);
+        task.setCompletedAt(new Date());
+        dataTaskRepository.save(task);
+    }
+
+    private void deleteFile(DataTask task) {
+        if (task.getFilePath() == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(task.getFilePath()));
+        } catch (IOException e) {
+            logger.warn("删除结果文件 {} 失败: {}", task.getFilePath(), e.getMessage());
+        }
+    }
+
+    private static String executionId(Long jobId) {
+        return "job-" + jobId;
+    }
+}
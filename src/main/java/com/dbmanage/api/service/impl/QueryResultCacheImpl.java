@@ -0,0 +1,309 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.common.Constants;
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.dto.query.QueryRequest;
+import com.dbmanage.api.dto.query.QueryResponse;
+import com.dbmanage.api.service.QueryResultCache;
+import com.dbmanage.api.util.SingleFlight;
+import com.dbmanage.api.util.SqlDialect;
+import com.dbmanage.api.util.SqlScriptParser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 查询结果缓存实现类
+ * 基于Caffeine（W-TinyLFU淘汰），按估算的结果内存占用加权限制总大小，每个条目有独立的存活时间。
+ * 每个连接维护一个版本号，任何失效都会递增版本号，查询执行期间版本号变化的结果不会写入缓存，
+ * 避免执行较慢的查询在DML之后写回旧数据。
+ * 相同查询的并发未命中只执行一次，避免缓存过期或失效的瞬间大量请求同时打到数据库。
+ * 通过视图、函数或其他客户端修改的数据不会触发失效，只能等待条目过期
+ */
+@Service
+public class QueryResultCacheImpl implements QueryResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryResultCacheImpl.class);
+
+    private final AppProperties.ResultCache config;
+    private final Cache<CacheKey, CacheEntry> cache;
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final SingleFlight<CacheKey, QueryResponse> loads = new SingleFlight<>();
+
+    @Autowired
+    public QueryResultCacheImpl(AppProperties appProperties) {
+        this.config = appProperties.getResultCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(config.getMaxSizeMb() * 1024 * 1024)
+                .weigher((CacheKey key, CacheEntry entry) -> entry.weight)
+                .expireAfter(new Expiry<CacheKey, CacheEntry>() {
+                    @Override
+                    public long expireAfterCreate(CacheKey key, CacheEntry entry, long currentTime) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(CacheKey key, CacheEntry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(CacheKey key, CacheEntry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public QueryResponse get(Long connectionId, QueryRequest request, SqlDialect dialect, int maxRows,
+                             Supplier<QueryResponse> loader) {
+        CacheKey key = new CacheKey(connectionId, request, dialect, maxRows);
+        if (config.isEnabled()) {
+            CacheEntry entry = cache.getIfPresent(key);
+            if (entry != null) {
+                return copyOf(entry.response);
+            }
+        }
+
+        // 执行查询期间不持有缓存内部的锁，同一键的并发未命中由SingleFlight合并
+        AtomicBoolean executed = new AtomicBoolean();
+        QueryResponse response = loads.execute(key, () -> {
+            executed.set(true);
+            long version = getVersion(connectionId);
+            QueryResponse result = loader.get();
+            put(key, request, dialect, result, version);
+            return result;
+        });
+        // 执行方直接返回结果，等待方得到副本，执行ID、执行时间等字段互不影响
+        return executed.get() ? response : copyOf(response);
+    }
+
+    private long getVersion(Long connectionId) {
+        return versions.computeIfAbsent(connectionId, id -> new AtomicLong()).get();
+    }
+
+    /**
+     * 缓存查询结果，执行期间该连接发生过失效时不缓存
+     */
+    private void put(CacheKey key, QueryRequest request, SqlDialect dialect, QueryResponse response, long version) {
+        if (!config.isEnabled() || !response.isSuccess() || !response.isQueryResult()) {
+            return;
+        }
+        long weight = estimateSize(response);
+        if (weight > config.getMaxEntrySizeMb() * 1024 * 1024) {
+            logger.debug("查询结果约 {} 字节，超过单条缓存上限，不缓存", weight);
+            return;
+        }
+        long ttlSeconds = request.getCacheTtlSeconds() != null && request.getCacheTtlSeconds() > 0
+                ? Math.min(request.getCacheTtlSeconds(), config.getMaxTtlSeconds())
+                : config.getTtlSeconds();
+
+        CacheEntry entry = new CacheEntry();
+        entry.response = copyOf(response);
+        entry.weight = (int) weight;
+        entry.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        entry.tables = SqlScriptParser.referencedTables(request.getSql(), dialect);
+        cache.put(key, entry);
+        // 写入后再检查版本号：执行期间或写入的同时发生过失效，则移除刚写入的条目
+        if (getVersion(key.connectionId) != version) {
+            cache.asMap().remove(key, entry);
+        }
+    }
+
+    @Override
+    public int invalidateTables(Long connectionId, Collection<String> tables) {
+        Set<String> names = new HashSet<>();
+        for (String table : tables) {
+            // 与 SqlScriptParser.referencedTables 的结果一致：去掉schema前缀和引号，小写
+            String name = table.substring(table.lastIndexOf('.') + 1).replaceAll("[\"`\\[\\]]", "");
+            names.add(name.toLowerCase(Locale.ROOT));
+        }
+        return remove(connectionId, names);
+    }
+
+    @Override
+    public int invalidate(Long connectionId) {
+        return remove(connectionId, null);
+    }
+
+    private int remove(Long connectionId, Set<String> tables) {
+        versions.computeIfAbsent(connectionId, id -> new AtomicLong()).incrementAndGet();
+        int count = 0;
+        Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = cache.asMap().entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<CacheKey, CacheEntry> entry = iterator.next();
+            if (entry.getKey().connectionId.equals(connectionId)
+                    && (tables == null || entry.getValue().tables.stream().anyMatch(tables::contains))) {
+                iterator.remove();
+                count++;
+            }
+        }
+        if (count > 0) {
+            logger.debug("连接 {} 的查询结果缓存已失效 {} 项", connectionId, count);
+        }
+        return count;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", config.isEnabled());
+        result.put("size", cache.estimatedSize());
+        result.put("weightedSizeBytes", cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L));
+        result.put("maxSizeBytes", config.getMaxSizeMb() * 1024 * 1024);
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("coalescing", loads.getStats());
+        return result;
+    }
+
+    /**
+     * 缓存中保存的结果与返回给调用方的结果相互独立，调用方修改执行时间、执行ID等字段不影响缓存
+     */
+    private static QueryResponse copyOf(QueryResponse source) {
+        QueryResponse copy = new QueryResponse();
+        copy.setQueryResult(source.isQueryResult());
+        copy.setAffectedRows(source.getAffectedRows());
+        copy.setColumns(source.getColumns());
+        copy.setData(source.getData());
+        copy.setRows(source.getRows());
+        copy.setColumnMetadata(source.getColumnMetadata());
+        copy.setStatementType(source.getStatementType());
+        copy.setExecutionTime(source.getExecutionTime());
+        copy.setSuccess(source.isSuccess());
+        copy.setStatus(source.getStatus());
+        copy.setTruncated(source.isTruncated());
+        copy.setCached(true);
+        return copy;
+    }
+
+    /**
+     * 估算结果占用的堆内存（字节），用于按内存限制缓存大小
+     */
+    private static long estimateSize(QueryResponse response) {
+        long size = 256;
+        if (response.getColumns() != null) {
+            for (String column : response.getColumns()) {
+                size += valueSize(column);
+            }
+        }
+        if (response.getData() != null) {
+            for (Map<String, Object> row : response.getData()) {
+                // LinkedHashMap本身及每个节点的开销，列名字符串在行之间共享
+                size += 64;
+                for (Object value : row.values()) {
+                    size += 40 + valueSize(value);
+                }
+            }
+        }
+        if (response.getRows() != null) {
+            for (Object[] row : response.getRows()) {
+                size += 24 + 8L * row.length;
+                for (Object value : row) {
+                    size += valueSize(value);
+                }
+            }
+        }
+        if (response.getColumnMetadata() != null) {
+            size += 128L * response.getColumnMetadata().size();
+        }
+        return size;
+    }
+
+    private static long valueSize(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return 48 + 2L * ((String) value).length();
+        }
+        if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return 24;
+        }
+        return 64;
+    }
+
+    /**
+     * 缓存键
+     */
+    private static final class CacheKey {
+        private final Long connectionId;
+        private final String database;
+        private final String sql;
+        private final Map<String, Object> params;
+        private final List<Object> parameters;
+        private final boolean columnar;
+        private final int maxRows;
+
+        CacheKey(Long connectionId, QueryRequest request, SqlDialect dialect, int maxRows) {
+            this.connectionId = connectionId;
+            this.database = request.getDatabase();
+            this.sql = SqlScriptParser.normalize(request.getSql(), dialect);
+            this.params = request.getParams();
+            this.parameters = request.getParameters();
+            this.columnar = Constants.Sql.RESULT_FORMAT_COLUMNAR.equalsIgnoreCase(request.getResultFormat());
+            this.maxRows = maxRows;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey that = (CacheKey) o;
+            return connectionId.equals(that.connectionId)
+                    && maxRows == that.maxRows
+                    && columnar == that.columnar
+                    && sql.equals(that.sql)
+                    && Objects.equals(database, that.database)
+                    && Objects.equals(params, that.params)
+                    && Objects.equals(parameters, that.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(connectionId, database, sql, params, parameters, columnar, maxRows);
+        }
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class CacheEntry {
+        private QueryResponse response;
+        private Set<String> tables;
+        private int weight;
+        private long ttlNanos;
+    }
+}
@@ -1,5 +1,7 @@
 package com.dbmanage.api.service.impl;
 
+import com.dbmanage.api.common.Constants;
+import com.dbmanage.api.dto.query.ColumnMetadata;
 import com.dbmanage.api.dto.query.QueryHistoryResponse;
 import com.dbmanage.api.dto.query.QueryRequest;
 import com.dbmanage.api.dto.query.QueryResponse;
@@ -13,7 +15,20 @@ import com.dbmanage.api.repository.DatabaseConnectionRepository;
 import com.dbmanage.api.repository.QueryHistoryRepository;
 import com.dbmanage.api.repository.SavedQueryRepository;
 import com.dbmanage.api.repository.UserRepository;
+import com.dbmanage.api.service.ConnectionService;
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.service.MetadataCacheService;
+import com.dbmanage.api.service.QueryExecutionRegistry;
+import com.dbmanage.api.service.QueryHistoryWriter;
+import com.dbmanage.api.service.QueryResultCache;
 import com.dbmanage.api.service.QueryService;
+import com.dbmanage.api.service.ResultRowHandler;
+import com.dbmanage.api.util.SqlDialect;
+import com.dbmanage.api.util.SqlScriptParser;
+import com.dbmanage.api.util.SqlStatement;
+import com.dbmanage.api.util.SqlStatementType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +36,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -47,107 +63,162 @@ public class QueryServiceImpl implements QueryService {
     @Autowired
     private SavedQueryRepository savedQueryRepository;
     
+    @Autowired
+    private ConnectionService connectionService;
+    
+    @Autowired
+    private AppProperties appProperties;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MetadataCacheService metadataCacheService;
+    
+    @Autowired
+    private QueryHistoryWriter queryHistoryWriter;
+    
+    @Autowired
+    private QueryExecutionRegistry queryExecutionRegistry;
+    
+    @Autowired
+    private QueryResultCache queryResultCache;
+    
     /**
      * 执行SQL查询
      * @param request 查询请求
      * @return 查询响应
      */
     @Override
-    @Transactional
     public QueryResponse executeQuery(QueryRequest request) {
         long startTime = System.currentTimeMillis();
         
+        // 查找连接
+        DatabaseConnection connection = connectionRepository.findById(request.getConnectionId())
+                .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + request.getConnectionId()));
+        
+        // 按方言切分脚本，字符串、注释和过程体中的分号不会被当作语句分隔符
+        SqlDialect dialect = SqlDialect.from(connection.getType());
+        List<SqlStatement> statements = SqlScriptParser.parse(request.getSql(), dialect);
+        int maxRows = resolveMaxRows(request, connection);
+        
+        // 结果缓存只用于单条只读查询
+        boolean cacheable = Boolean.TRUE.equals(request.getUseCache())
+                && statements.size() == 1 && statements.get(0).getType().isQuery();
+        if (!cacheable) {
+            return execute(request, connection, dialect, statements, maxRows, startTime);
+        }
+        // 缓存未命中时，相同的查询并发执行只会实际执行一次，其余请求等待并共享结果
+        QueryResponse response = queryResultCache.get(connection.getId(), request, dialect, maxRows,
+                () -> execute(request, connection, dialect, statements, maxRows, startTime));
+        response.setExecutionTime(System.currentTimeMillis() - startTime);
+        return response;
+    }
+    
+    /**
+     * 执行已切分的SQL语句
+     */
+    private QueryResponse execute(QueryRequest request, DatabaseConnection connection, SqlDialect dialect,
+                                  List<SqlStatement> statements, int maxRows, long startTime) {
         // 创建响应对象
         QueryResponse response = new QueryResponse();
         response.setSuccess(false);
         
-        // 查找连接
-        DatabaseConnection connection = connectionRepository.findById(request.getConnectionId())
-                .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + request.getConnectionId()));
+        // 是否执行过DDL语句，执行过则需要使该连接的元数据缓存失效
+        boolean schemaChanged = false;
+        
+        // 执行的语句可能修改的表，用于使结果缓存失效；无法确定时使该连接的全部结果缓存失效
+        Set<String> writtenTables = new HashSet<>();
+        boolean unknownWrites = false;
+        
+        // 登记执行，客户端可凭执行ID取消
+        String executionId = queryExecutionRegistry.register(request.getExecutionId(),
+                connection.getUser().getId(), connection.getId(), request.getSql());
+        response.setExecutionId(executionId);
+        int timeout = resolveQueryTimeout(request, connection);
         
         // 执行查询
-        try (Connection conn = DriverManager.getConnection(
-                connection.getUrl(),
-                connection.getUsername(),
-                connection.getPassword());
-             Statement stmt = conn.createStatement()) {
+        try (Connection conn = connectionService.getConnection(connection)) {
             
-            // 检查SQL类型
-            String sql = request.getSql().trim();
+            boolean columnar = Constants.Sql.RESULT_FORMAT_COLUMNAR.equalsIgnoreCase(request.getResultFormat());
             
             // 设置当前数据库上下文
             String database = request.getDatabase();
             if (database != null && !database.isEmpty()) {
-                // 执行USE语句切换到指定数据库
-                stmt.execute("USE `" + database + "`");
+                // 通过setCatalog切换数据库，连接归还连接池时会自动恢复默认数据库
+                conn.setCatalog(database);
                 logger.info("切换到数据库: {}", database);
             }
             
-            // 检查是否有多个SQL语句（通过分号分隔）
-            String[] sqlStatements = sql.split(";");
-            
             // 默认使用最后一个语句的结果作为返回
             boolean isQueryResult = false;
             boolean lastStatementSuccess = false;
             
-            for (int i = 0; i < sqlStatements.length; i++) {
-                String currentSql = sqlStatements[i].trim();
-                if (currentSql.isEmpty()) {
-                    continue; // 跳过空语句
+            if (hasParameters(request)) {
+                // 带参数的SQL使用PreparedStatement执行，由驱动缓存预编译语句
+                if (statements.size() != 1) {
+                    throw new SQLException("带参数的SQL只能包含一条语句");
                 }
+                SqlStatement statement = statements.get(0);
+                response.setStatementType(statement.getType().name());
+                schemaChanged = statement.getType().isDdl();
+                unknownWrites = !collectWrittenTables(statement, dialect, writtenTables);
                 
-                logger.info("执行SQL语句 {}/{}: {}", i + 1, sqlStatements.length, currentSql);
+                // 优先绑定 :name 命名参数，SQL中没有命名参数时按顺序绑定parameters
+                List<Object> values = new ArrayList<>();
+                String sql = SqlScriptParser.bindNamedParameters(statement.getSql(), dialect, request.getParams(), values);
+                if (values.isEmpty() && request.getParameters() != null) {
+                    values.addAll(request.getParameters());
+                }
                 
-                boolean isCurrentQueryResult = isSelectQuery(currentSql);
+                logger.info("执行预编译SQL [{}]: {}", statement.getType(), sql);
                 
-                // 如果是最后一个有效语句，记录查询类型
-                if (i == sqlStatements.length - 1 || i == sqlStatements.length - 2 && sqlStatements[sqlStatements.length - 1].trim().isEmpty()) {
-                    isQueryResult = isCurrentQueryResult;
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    applyLimits(ps, timeout, maxRows);
+                    queryExecutionRegistry.attach(executionId, ps);
+                    bindParameters(ps, values);
+                    isQueryResult = readResult(ps, ps.execute(), response, columnar, maxRows);
                 }
-                
-                if (isCurrentQueryResult) {
-                    try (ResultSet rs = stmt.executeQuery(currentSql)) {
-                        // 如果是最后一个语句，或者是包含有意义结果的查询，获取结果
-                        if (i == sqlStatements.length - 1 || i == sqlStatements.length - 2 && sqlStatements[sqlStatements.length - 1].trim().isEmpty()) {
-                            ResultSetMetaData metaData = rs.getMetaData();
-                            int columnCount = metaData.getColumnCount();
-                            
-                            // 获取列名
-                            List<String> columns = new ArrayList<>();
-                            for (int j = 1; j <= columnCount; j++) {
-                                columns.add(metaData.getColumnLabel(j));
-                            }
-                            response.setColumns(columns);
-                            
-                            // 获取数据
-                            List<Map<String, Object>> data = new ArrayList<>();
-                            while (rs.next()) {
-                                Map<String, Object> row = new HashMap<>();
-                                for (int j = 1; j <= columnCount; j++) {
-                                    String columnName = metaData.getColumnLabel(j);
-                                    Object value = rs.getObject(j);
-                                    row.put(columnName, value);
-                                }
-                                data.add(row);
-                            }
-                            response.setData(data);
+                lastStatementSuccess = true;
+            } else {
+                try (Statement stmt = conn.createStatement()) {
+                    applyLimits(stmt, timeout, maxRows);
+                    queryExecutionRegistry.attach(executionId, stmt);
+                    for (int i = 0; i < statements.size(); i++) {
+                        if (queryExecutionRegistry.isCancelled(executionId)) {
+                            // 取消时脚本中尚未执行的语句不再执行
+                            throw new SQLException("执行已取消", "57014");
+                        }
+                        SqlStatement statement = statements.get(i);
+                        boolean last = i == statements.size() - 1;
+                        
+                        logger.info("执行SQL语句 {}/{} [{}]: {}", i + 1, statements.size(), statement.getType(), statement.getSql());
+                        
+                        // 执行失败时记录的是出错语句的类型
+                        response.setStatementType(statement.getType().name());
+                        // 先标记再执行，DDL执行失败时也可能已部分生效
+                        schemaChanged |= statement.getType().isDdl();
+                        unknownWrites |= !collectWrittenTables(statement, dialect, writtenTables);
+                        boolean hasResultSet = stmt.execute(statement.getSql());
+                        
+                        if (statement.getType() == SqlStatementType.USE_DATABASE) {
+                            // USE会直接切换会话数据库，通过setCatalog标记连接已修改，归还连接池时恢复默认数据库
+                            conn.setCatalog(conn.getCatalog());
+                        }
+                        
+                        if (last) {
+                            isQueryResult = readResult(stmt, hasResultSet, response, columnar, maxRows);
                         }
                         lastStatementSuccess = true;
                     }
-                } else {
-                    // 非SELECT查询（如INSERT, UPDATE, DELETE）
-                    int affectedRows = stmt.executeUpdate(currentSql);
-                    // 如果是最后一个语句，记录影响的行数
-                    if (i == sqlStatements.length - 1 || i == sqlStatements.length - 2 && sqlStatements[sqlStatements.length - 1].trim().isEmpty()) {
-                        response.setAffectedRows(affectedRows);
-                    }
-                    lastStatementSuccess = true;
                 }
             }
             
             // 设置查询执行是否成功
             response.setSuccess(lastStatementSuccess);
             response.setQueryResult(isQueryResult);
+            response.setStatus(lastStatementSuccess ? Constants.Sql.STATUS_SUCCESS : Constants.Sql.STATUS_FAILED);
+            response.setExecutionTime(System.currentTimeMillis() - startTime);
             
             // 保存查询历史
             saveQueryHistory(connection, request.getSql(), System.currentTimeMillis() - startTime, response, null);
@@ -156,10 +227,18 @@ public class QueryServiceImpl implements QueryService {
             logger.error("SQL execution error: ", e);
             response.setSuccess(false);
             response.setErrorMessage(e.getMessage());
+            response.setStatus(resolveFailureStatus(executionId, e));
             
             // 保存错误的查询历史
             saveQueryHistory(connection, request.getSql(), System.currentTimeMillis() - startTime, response, e.getMessage());
+        } finally {
+            queryExecutionRegistry.unregister(executionId);
+        }
+        
+        if (schemaChanged) {
+            metadataCacheService.invalidate(connection.getId());
         }
+        invalidateResultCache(connection.getId(), writtenTables, unknownWrites);
         
         // 设置执行时间
         response.setExecutionTime(System.currentTimeMillis() - startTime);
@@ -167,6 +246,122 @@ public class QueryServiceImpl implements QueryService {
         return response;
     }
     
+    /**
+     * 流式执行SQL查询
+     * @param request 查询请求
+     * @param handler 结果行处理器
+     */
+    @Override
+    public void streamQuery(QueryRequest request, ResultRowHandler handler) throws IOException {
+        long startTime = System.currentTimeMillis();
+        
+        // 查找连接
+        DatabaseConnection connection = connectionRepository.findById(request.getConnectionId())
+                .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + request.getConnectionId()));
+        
+        // 脚本中只有最后一条语句的结果会被流式输出，之前的语句（如SET）依次执行
+        SqlDialect dialect = SqlDialect.from(connection.getType());
+        List<SqlStatement> statements = SqlScriptParser.parse(request.getSql(), dialect);
+        if (statements.isEmpty()) {
+            handler.error("SQL语句不能为空");
+            return;
+        }
+        SqlStatement target = statements.get(statements.size() - 1);
+        
+        QueryResponse response = new QueryResponse();
+        response.setQueryResult(true);
+        response.setStatementType(target.getType().name());
+        
+        // 流式查询不限制行数，只应用超时
+        String executionId = queryExecutionRegistry.register(request.getExecutionId(),
+                connection.getUser().getId(), connection.getId(), request.getSql());
+        response.setExecutionId(executionId);
+        int timeout = resolveQueryTimeout(request, connection);
+        
+        try (Connection conn = connectionService.getConnection(connection)) {
+            
+            String database = request.getDatabase();
+            if (database != null && !database.isEmpty()) {
+                conn.setCatalog(database);
+            }
+            
+            boolean cursorTransaction = false;
+            try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                applyLimits(stmt, timeout, 0);
+                queryExecutionRegistry.attach(executionId, stmt);
+                // 之前的语句按连接原有的自动提交方式执行，其中的DML和DDL不会随下面的游标事务一起回滚
+                for (int i = 0; i < statements.size() - 1; i++) {
+                    stmt.execute(statements.get(i).getSql());
+                }
+                
+                // PostgreSQL只有在事务内才会使用游标分批读取
+                if ("postgresql".equalsIgnoreCase(connection.getType()) && conn.getAutoCommit()) {
+                    conn.setAutoCommit(false);
+                    cursorTransaction = true;
+                }
+                stmt.setFetchSize(getStreamingFetchSize(connection));
+                
+                try (ResultSet rs = stmt.executeQuery(target.getSql())) {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    int columnCount = metaData.getColumnCount();
+                    
+                    List<String> columns = new ArrayList<>(columnCount);
+                    for (int i = 1; i <= columnCount; i++) {
+                        columns.add(metaData.getColumnLabel(i));
+                    }
+                    handler.start(columns);
+                    
+                    // 行数组在每行之间复用，避免大结果集产生大量临时对象
+                    Object[] values = new Object[columnCount];
+                    long rowCount = 0;
+                    while (rs.next()) {
+                        for (int i = 1; i <= columnCount; i++) {
+                            values[i - 1] = rs.getObject(i);
+                        }
+                        handler.row(values);
+                        rowCount++;
+                    }
+                    if (cursorTransaction) {
+                        // 最后一条语句可能是带RETURNING的DML，读取完成后提交
+                        conn.commit();
+                    }
+                    
+                    long executionTime = System.currentTimeMillis() - startTime;
+                    handler.end(rowCount, executionTime);
+                    
+                    response.setSuccess(true);
+                    response.setStatus(Constants.Sql.STATUS_SUCCESS);
+                    saveQueryHistory(connection, request.getSql(), executionTime, response, null);
+                }
+            } finally {
+                if (cursorTransaction) {
+                    // 出错或客户端断开时回滚，已提交时回滚不产生影响
+                    conn.rollback();
+                    conn.setAutoCommit(true);
+                }
+            }
+            
+        } catch (SQLException e) {
+            logger.error("SQL streaming error: ", e);
+            response.setSuccess(false);
+            response.setStatus(resolveFailureStatus(executionId, e));
+            saveQueryHistory(connection, request.getSql(), System.currentTimeMillis() - startTime, response, e.getMessage());
+            handler.error(e.getMessage());
+        } finally {
+            queryExecutionRegistry.unregister(executionId);
+            // 最后一条之前的语句可能包含DDL
+            if (statements.stream().anyMatch(statement -> statement.getType().isDdl())) {
+                metadataCacheService.invalidate(connection.getId());
+            }
+            Set<String> writtenTables = new HashSet<>();
+            boolean unknownWrites = false;
+            for (SqlStatement statement : statements) {
+                unknownWrites |= !collectWrittenTables(statement, dialect, writtenTables);
+            }
+            invalidateResultCache(connection.getId(), writtenTables, unknownWrites);
+        }
+    }
+    
     /**
      * 获取数据库结构信息
      * @param connectionId 数据库连接ID
@@ -174,16 +369,18 @@ public class QueryServiceImpl implements QueryService {
      */
     @Override
     public List<Map<String, Object>> getDatabaseStructure(Long connectionId) {
+        return metadataCacheService.get(connectionId, MetadataCacheService.STRUCTURE, null, null,
+                () -> loadDatabaseStructure(connectionId));
+    }
+    
+    private List<Map<String, Object>> loadDatabaseStructure(Long connectionId) {
         // 查找连接
         DatabaseConnection connection = connectionRepository.findById(connectionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + connectionId));
                 
         List<Map<String, Object>> result = new ArrayList<>();
         
-        try (Connection conn = DriverManager.getConnection(
-                connection.getUrl(),
-                connection.getUsername(),
-                connection.getPassword())) {
+        try (Connection conn = connectionService.getConnection(connection)) {
             
             DatabaseMetaData metaData = conn.getMetaData();
             
@@ -276,16 +473,18 @@ public class QueryServiceImpl implements QueryService {
      */
     @Override
     public List<Map<String, Object>> getTableStructure(Long connectionId, String tableName) {
+        return metadataCacheService.get(connectionId, MetadataCacheService.TABLE_STRUCTURE, null, tableName,
+                () -> loadTableStructure(connectionId, tableName));
+    }
+    
+    private List<Map<String, Object>> loadTableStructure(Long connectionId, String tableName) {
         // 查找连接
         DatabaseConnection connection = connectionRepository.findById(connectionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + connectionId));
                 
         List<Map<String, Object>> result = new ArrayList<>();
         
-        try (Connection conn = DriverManager.getConnection(
-                connection.getUrl(),
-                connection.getUsername(),
-                connection.getPassword())) {
+        try (Connection conn = connectionService.getConnection(connection)) {
             
             DatabaseMetaData metaData = conn.getMetaData();
             String catalog = null;
@@ -426,16 +625,18 @@ public class QueryServiceImpl implements QueryService {
      */
     @Override
     public List<Map<String, Object>> getDatabaseTables(Long connectionId, String database, String schemaName) {
+        return metadataCacheService.get(connectionId, MetadataCacheService.TABLES, database, schemaName,
+                () -> loadDatabaseTables(connectionId, database, schemaName));
+    }
+    
+    private List<Map<String, Object>> loadDatabaseTables(Long connectionId, String database, String schemaName) {
         // 查找连接
         DatabaseConnection connection = connectionRepository.findById(connectionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + connectionId));
                 
         List<Map<String, Object>> result = new ArrayList<>();
         
-        try (Connection conn = DriverManager.getConnection(
-                connection.getUrl(),
-                connection.getUsername(),
-                connection.getPassword())) {
+        try (Connection conn = connectionService.getConnection(connection)) {
             
             DatabaseMetaData metaData = conn.getMetaData();
             
@@ -474,16 +675,18 @@ public class QueryServiceImpl implements QueryService {
      */
     @Override
     public List<Map<String, Object>> getDatabaseViews(Long connectionId, String database, String schemaName) {
+        return metadataCacheService.get(connectionId, MetadataCacheService.VIEWS, database, schemaName,
+                () -> loadDatabaseViews(connectionId, database, schemaName));
+    }
+    
+    private List<Map<String, Object>> loadDatabaseViews(Long connectionId, String database, String schemaName) {
         // 查找连接
         DatabaseConnection connection = connectionRepository.findById(connectionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + connectionId));
                 
         List<Map<String, Object>> result = new ArrayList<>();
         
-        try (Connection conn = DriverManager.getConnection(
-                connection.getUrl(),
-                connection.getUsername(),
-                connection.getPassword())) {
+        try (Connection conn = connectionService.getConnection(connection)) {
             
             DatabaseMetaData metaData = conn.getMetaData();
             
@@ -520,16 +723,18 @@ public class QueryServiceImpl implements QueryService {
      */
     @Override
     public List<Map<String, Object>> getDatabaseFunctions(Long connectionId, String database, String schemaName) {
+        return metadataCacheService.get(connectionId, MetadataCacheService.FUNCTIONS, database, schemaName,
+                () -> loadDatabaseFunctions(connectionId, database, schemaName));
+    }
+    
+    private List<Map<String, Object>> loadDatabaseFunctions(Long connectionId, String database, String schemaName) {
         // 查找连接
         DatabaseConnection connection = connectionRepository.findById(connectionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + connectionId));
                 
         List<Map<String, Object>> result = new ArrayList<>();
         
-        try (Connection conn = DriverManager.getConnection(
-                connection.getUrl(),
-                connection.getUsername(),
-                connection.getPassword())) {
+        try (Connection conn = connectionService.getConnection(connection)) {
             
             DatabaseMetaData metaData = conn.getMetaData();
             
@@ -591,16 +796,18 @@ public class QueryServiceImpl implements QueryService {
      */
     @Override
     public List<Map<String, Object>> getDatabaseEvents(Long connectionId, String database, String schemaName) {
+        return metadataCacheService.get(connectionId, MetadataCacheService.EVENTS, database, schemaName,
+                () -> loadDatabaseEvents(connectionId, database, schemaName));
+    }
+    
+    private List<Map<String, Object>> loadDatabaseEvents(Long connectionId, String database, String schemaName) {
         // 查找连接
         DatabaseConnection connection = connectionRepository.findById(connectionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + connectionId));
                 
         List<Map<String, Object>> result = new ArrayList<>();
         
-        try (Connection conn = DriverManager.getConnection(
-                connection.getUrl(),
-                connection.getUsername(),
-                connection.getPassword())) {
+        try (Connection conn = connectionService.getConnection(connection)) {
             
             // 由于JDBC API没有直接支持获取事件列表的方法，根据不同数据库类型需要不同处理
             // 以MySQL为例，MySQL支持事件
@@ -713,9 +920,190 @@ public class QueryServiceImpl implements QueryService {
                 .collect(Collectors.toList());
     }
     
-    // 辅助方法：判断SQL是否为SELECT查询
-    private boolean isSelectQuery(String sql) {
-        return sql.trim().toLowerCase().startsWith("select");
+    // 辅助方法：读取语句执行结果，取第一个结果集；没有结果集时取最后一个更新计数
+    private boolean readResult(Statement stmt, boolean hasResultSet, QueryResponse response, boolean columnar, int maxRows) throws SQLException {
+        while (true) {
+            if (hasResultSet) {
+                try (ResultSet rs = stmt.getResultSet()) {
+                    readResultSet(rs, response, columnar, maxRows);
+                }
+                return true;
+            }
+            int updateCount = stmt.getUpdateCount();
+            if (updateCount == -1) {
+                return false;
+            }
+            response.setAffectedRows(updateCount);
+            hasResultSet = stmt.getMoreResults();
+        }
+    }
+    
+    /**
+     * 收集语句可能修改的表
+     *
+     * @return 影响范围是否已确定；DDL、存储过程调用、匿名块等无法确定时返回false
+     */
+    private boolean collectWrittenTables(SqlStatement statement, SqlDialect dialect, Set<String> tables) {
+        SqlStatementType type = statement.getType();
+        if (type.isQuery() || type.getCategory() == SqlStatementType.Category.TRANSACTION
+                || type == SqlStatementType.SET || type == SqlStatementType.USE_DATABASE) {
+            return true;
+        }
+        if (type.isDml()) {
+            Set<String> referenced = SqlScriptParser.referencedTables(statement.getSql(), dialect);
+            tables.addAll(referenced);
+            return !referenced.isEmpty();
+        }
+        return false;
+    }
+    
+    private void invalidateResultCache(Long connectionId, Set<String> writtenTables, boolean unknownWrites) {
+        if (unknownWrites) {
+            queryResultCache.invalidate(connectionId);
+        } else if (!writtenTables.isEmpty()) {
+            queryResultCache.invalidateTables(connectionId, writtenTables);
+        }
+    }
+    
+    // 辅助方法：请求中是否带有SQL参数
+    private boolean hasParameters(QueryRequest request) {
+        return (request.getParameters() != null && !request.getParameters().isEmpty())
+                || (request.getParams() != null && !request.getParams().isEmpty());
+    }
+    
+    // 辅助方法：按顺序绑定参数
+    private void bindParameters(PreparedStatement ps, List<Object> values) throws SQLException {
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            if (value == null) {
+                ps.setNull(i + 1, Types.NULL);
+            } else if (value instanceof Map || value instanceof Collection) {
+                // JSON对象或数组按JSON字符串传入
+                try {
+                    ps.setString(i + 1, objectMapper.writeValueAsString(value));
+                } catch (JsonProcessingException e) {
+                    throw new SQLException("无法序列化第" + (i + 1) + "个参数: " + e.getMessage(), e);
+                }
+            } else {
+                ps.setObject(i + 1, value);
+            }
+        }
+    }
+    
+    // 辅助方法：读取结果集到响应对象，maxRows大于0时最多读取maxRows行，还有更多行时标记为已截断
+    private void readResultSet(ResultSet rs, QueryResponse response, boolean columnar, int maxRows) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        
+        // 获取列名
+        List<String> columns = new ArrayList<>();
+        for (int j = 1; j <= columnCount; j++) {
+            columns.add(metaData.getColumnLabel(j));
+        }
+        response.setColumns(columns);
+        
+        if (columnar) {
+            // 列式格式：列信息只返回一次，每行为数组
+            response.setColumnMetadata(buildColumnMetadata(metaData));
+            List<Object[]> rows = new ArrayList<>();
+            while (rs.next()) {
+                if (maxRows > 0 && rows.size() >= maxRows) {
+                    response.setTruncated(true);
+                    break;
+                }
+                Object[] row = new Object[columnCount];
+                for (int j = 1; j <= columnCount; j++) {
+                    row[j - 1] = rs.getObject(j);
+                }
+                rows.add(row);
+            }
+            response.setRows(rows);
+        } else {
+            // 获取数据
+            List<Map<String, Object>> data = new ArrayList<>();
+            while (rs.next()) {
+                if (maxRows > 0 && data.size() >= maxRows) {
+                    response.setTruncated(true);
+                    break;
+                }
+                Map<String, Object> row = new HashMap<>();
+                for (int j = 1; j <= columnCount; j++) {
+                    Object value = rs.getObject(j);
+                    row.put(columns.get(j - 1), value);
+                }
+                data.add(row);
+            }
+            response.setData(data);
+        }
+    }
+    
+    // 辅助方法：从结果集元数据构建列元数据
+    private List<ColumnMetadata> buildColumnMetadata(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        List<ColumnMetadata> result = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            ColumnMetadata column = new ColumnMetadata();
+            column.setName(metaData.getColumnLabel(i));
+            column.setTypeName(metaData.getColumnTypeName(i));
+            column.setJdbcType(metaData.getColumnType(i));
+            column.setPrecision(metaData.getPrecision(i));
+            column.setScale(metaData.getScale(i));
+            column.setNullable(metaData.isNullable(i) != ResultSetMetaData.columnNoNulls);
+            column.setAutoIncrement(metaData.isAutoIncrement(i));
+            column.setTableName(metaData.getTableName(i));
+            result.add(column);
+        }
+        return result;
+    }
+    
+    // 辅助方法：语句超时时间，优先使用请求中的值，其次是连接配置，最后是全局默认值
+    private int resolveQueryTimeout(QueryRequest request, DatabaseConnection connection) {
+        if (request.getTimeoutSeconds() != null) {
+            return Math.max(request.getTimeoutSeconds(), 0);
+        }
+        if (connection.getQueryTimeout() != null) {
+            return Math.max(connection.getQueryTimeout(), 0);
+        }
+        return appProperties.getQuery().getTimeoutSeconds();
+    }
+    
+    // 辅助方法：结果最大行数，请求中的值不能超过连接或全局的限制
+    private int resolveMaxRows(QueryRequest request, DatabaseConnection connection) {
+        int limit = connection.getMaxRows() != null ? Math.max(connection.getMaxRows(), 0) : appProperties.getQuery().getMaxRows();
+        if (request.getMaxRows() != null && request.getMaxRows() > 0) {
+            return limit > 0 ? Math.min(request.getMaxRows(), limit) : request.getMaxRows();
+        }
+        return limit;
+    }
+    
+    // 辅助方法：设置语句超时和最大行数，多取一行用于判断结果是否被截断
+    private void applyLimits(Statement stmt, int timeout, int maxRows) throws SQLException {
+        if (timeout > 0) {
+            stmt.setQueryTimeout(timeout);
+        }
+        if (maxRows > 0 && maxRows < Integer.MAX_VALUE) {
+            stmt.setMaxRows(maxRows + 1);
+        }
+    }
+    
+    // 辅助方法：根据异常判断执行失败的状态，取消和超时在各驱动中都表现为SQLException
+    private String resolveFailureStatus(String executionId, SQLException e) {
+        if (queryExecutionRegistry.isCancelled(executionId)) {
+            return Constants.Sql.STATUS_CANCELLED;
+        }
+        // 57014: PostgreSQL query_canceled；HY008: SQL Server等驱动的操作已取消
+        if (e instanceof SQLTimeoutException || "57014".equals(e.getSQLState()) || "HY008".equals(e.getSQLState())) {
+            return Constants.Sql.STATUS_TIMEOUT;
+        }
+        return Constants.Sql.STATUS_FAILED;
+    }
+    
+    // 辅助方法：流式查询使用的fetchSize，MySQL驱动只有设置为Integer.MIN_VALUE时才会逐行流式读取
+    private int getStreamingFetchSize(DatabaseConnection connection) {
+        if ("mysql".equalsIgnoreCase(connection.getType())) {
+            return Integer.MIN_VALUE;
+        }
+        return appProperties.getQuery().getFetchSize();
     }
     
     // 辅助方法：保存查询历史
@@ -728,6 +1116,8 @@ public class QueryServiceImpl implements QueryService {
             history.setQueryText(sql);
             history.setExecutionTime(executionTime);
             history.setIsSuccess(response.isSuccess());
+            history.setStatementType(response.getStatementType());
+            history.setStatus(response.getStatus());
             
             if (response.isSuccess()) {
                 if (response.isQueryResult()) {
@@ -744,7 +1134,8 @@ public class QueryServiceImpl implements QueryService {
             history.setConnection(connection);
             history.setUser(user);
             
-            queryHistoryRepository.save(history);
+            // 异步批量写入，查询响应不等待管理库
+            queryHistoryWriter.submit(history);
         } catch (Exception e) {
             logger.error("Error saving query history: ", e);
         }
@@ -784,6 +1175,8 @@ public class QueryServiceImpl implements QueryService {
         response.setAffectedRows(queryHistory.getAffectedRows());
         response.setSuccess(queryHistory.getIsSuccess());
         response.setErrorMessage(queryHistory.getErrorMessage());
+        response.setStatementType(queryHistory.getStatementType());
+        response.setStatus(queryHistory.getStatus());
         response.setConnectionId(queryHistory.getConnection().getId());
         response.setConnectionName(queryHistory.getConnection().getName());
         response.settype(queryHistory.getConnection().getType());
@@ -0,0 +1,229 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.dto.query.RowCount;
+import com.dbmanage.api.exception.ResourceNotFoundException;
+import com.dbmanage.api.model.DatabaseConnection;
+import com.dbmanage.api.repository.DatabaseConnectionRepository;
+import com.dbmanage.api.service.ConnectionService;
+import com.dbmanage.api.service.RowCountService;
+import com.dbmanage.api.service.TaskExecutionService;
+import com.dbmanage.api.util.SqlDialect;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 表行数统计服务实现类
+ * 估算值来自 information_schema.TABLES.TABLE_ROWS、pg_class.reltuples、sys.partitions 或 ALL_TABLES.NUM_ROWS；
+ * 精确计数通过任务执行服务在目标连接的通道中异步执行。
+ * 估算值和精确值缓存在同一个缓存中，估算值的缓存时间较短，表数据分页时不必每页都查询统计信息
+ */
+@Service
+public class RowCountServiceImpl implements RowCountService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowCountServiceImpl.class);
+
+    private final Cache<String, CountEntry> counts;
+
+    /**
+     * 正在执行的精确计数，避免同一张表重复提交
+     */
+    private final Map<String, Boolean> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    private DatabaseConnectionRepository connectionRepository;
+
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Autowired
+    private TaskExecutionService taskExecutionService;
+
+    @Autowired
+    public RowCountServiceImpl(AppProperties appProperties) {
+        AppProperties.RowCount config = appProperties.getRowCount();
+        long exactTtlNanos = Duration.ofSeconds(config.getExactTtlSeconds()).toNanos();
+        long estimateTtlNanos = Duration.ofSeconds(config.getEstimateTtlSeconds()).toNanos();
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfter(new Expiry<String, CountEntry>() {
+                    @Override
+                    public long expireAfterCreate(String key, CountEntry entry, long currentTime) {
+                        return entry.estimated ? estimateTtlNanos : exactTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CountEntry entry, long currentTime, long currentDuration) {
+                        return entry.estimated ? estimateTtlNanos : exactTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CountEntry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public RowCount getRowCount(Long connectionId, String database, String table, boolean exact) {
+        String key = connectionId + "|" + database + "|" + table;
+        RowCount rowCount = new RowCount();
+
+        CountEntry cached = counts.getIfPresent(key);
+        if (cached != null && !cached.estimated) {
+            rowCount.setCount(cached.count);
+            return rowCount;
+        }
+
+        DatabaseConnection connection = connectionRepository.findById(connectionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + connectionId));
+
+        if (cached == null) {
+            cached = new CountEntry(estimate(connection, database, table), true);
+            // 估算期间完成的精确计数不被覆盖
+            CountEntry existing = counts.asMap().putIfAbsent(key, cached);
+            if (existing != null && !existing.estimated) {
+                rowCount.setCount(existing.count);
+                return rowCount;
+            }
+        }
+        rowCount.setCount(cached.count);
+        rowCount.setEstimated(true);
+
+        // 统计信息不可用时（如从未ANALYZE的表）也在后台计算精确值
+        if (exact || rowCount.getCount() == null) {
+            rowCount.setExactPending(scheduleExactCount(connection, database, table, key));
+        }
+        return rowCount;
+    }
+
+    /**
+     * 从数据库统计信息读取估算行数
+     * @return 估算行数，不支持或统计信息缺失时返回null
+     */
+    private Long estimate(DatabaseConnection connection, String database, String table) {
+        SqlDialect dialect = SqlDialect.from(connection.getType());
+        String schema = null;
+        String name = table;
+        int dot = table.lastIndexOf('.');
+        if (dot > 0) {
+            schema = table.substring(0, dot);
+            name = table.substring(dot + 1);
+        }
+
+        try (Connection conn = connectionService.getConnection(connection)) {
+            if (database != null && !database.isEmpty()) {
+                conn.setCatalog(database);
+            }
+
+            String sql;
+            switch (dialect) {
+                case MYSQL:
+                    // InnoDB的TABLE_ROWS为采样估算值
+                    sql = "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?";
+                    return queryLong(conn, sql, schema != null ? schema : conn.getCatalog(), name);
+                case POSTGRESQL:
+                    sql = "SELECT c.reltuples::bigint FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace "
+                            + "WHERE n.nspname = COALESCE(?, current_schema()) AND c.relname = ?";
+                    Long reltuples = queryLong(conn, sql, schema, name);
+                    // 从未VACUUM/ANALYZE过的表reltuples为-1
+                    return reltuples != null && reltuples >= 0 ? reltuples : null;
+                case SQLSERVER:
+                    sql = "SELECT SUM(p.rows) FROM sys.partitions p WHERE p.object_id = OBJECT_ID(?) AND p.index_id IN (0, 1)";
+                    return queryLong(conn, sql, table);
+                case ORACLE:
+                    sql = "SELECT NUM_ROWS FROM ALL_TABLES WHERE OWNER = ? AND TABLE_NAME = ?";
+                    String owner = schema != null ? schema : conn.getMetaData().getUserName();
+                    return queryLong(conn, sql, owner.toUpperCase(), name.toUpperCase());
+                default:
+                    return null;
+            }
+        } catch (SQLException e) {
+            logger.warn("获取表 {} 的估算行数失败: {}", table, e.getMessage());
+            return null;
+        }
+    }
+
+    private Long queryLong(Connection conn, String sql, String... parameters) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                ps.setString(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    long value = rs.getLong(1);
+                    return rs.wasNull() ? null : value;
+                }
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 在后台执行COUNT(*)，结果写入缓存
+     * @return 是否有精确计数正在执行
+     */
+    private boolean scheduleExactCount(DatabaseConnection connection, String database, String table, String key) {
+        if (pending.putIfAbsent(key, Boolean.TRUE) != null) {
+            return true;
+        }
+        String sql = "SELECT COUNT(*) FROM " + SqlDialect.from(connection.getType()).quoteQualified(table);
+        try {
+            taskExecutionService.submit(connection.getId(), () -> {
+                long startTime = System.currentTimeMillis();
+                try (Connection conn = connectionService.getConnection(connection)) {
+                    if (database != null && !database.isEmpty()) {
+                        conn.setCatalog(database);
+                    }
+                    try (Statement stmt = conn.createStatement();
+                         ResultSet rs = stmt.executeQuery(sql)) {
+                        rs.next();
+                        long count = rs.getLong(1);
+                        counts.put(key, new CountEntry(count, false));
+                        logger.info("表 {} 精确行数 {}，耗时 {} ms", table, count, System.currentTimeMillis() - startTime);
+                        return count;
+                    }
+                } catch (SQLException e) {
+                    logger.warn("统计表 {} 的精确行数失败: {}", table, e.getMessage());
+                    return null;
+                } finally {
+                    pending.remove(key);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+            logger.warn("精确计数任务被拒绝: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 缓存的行数，统计信息缺失时估算值为null
+     */
+    private static final class CountEntry {
+        private final Long count;
+        private final boolean estimated;
+
+        private CountEntry(Long count, boolean estimated) {
+            this.count = count;
+            this.estimated = estimated;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.dto.query.SchemaSnapshotResponse;
+import com.dbmanage.api.exception.ResourceNotFoundException;
+import com.dbmanage.api.service.SchemaChangedEvent;
+import com.dbmanage.api.service.SchemaSearchService;
+import com.dbmanage.api.service.SchemaSnapshotService;
+import com.dbmanage.api.util.SchemaSearchIndex;
+import com.dbmanage.api.util.SingleFlight;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 结构搜索服务实现类
+ * 每个连接的每个数据库一个索引，由最新的结构快照构建。快照生成新版本时，变化的表放入一个小的增量索引，
+ * 基础索引中对应的表被屏蔽，搜索时合并两者的结果；增量累积过多时重建整个索引。
+ * 索引不可修改，更新时整体替换，搜索不需要加锁
+ */
+@Service
+public class SchemaSearchServiceImpl implements SchemaSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaSearchServiceImpl.class);
+
+    private static final Comparator<SchemaSearchIndex.Hit> HIT_ORDER =
+            Comparator.comparingInt(SchemaSearchIndex.Hit::getScore).reversed()
+                    .thenComparingInt(hit -> hit.getName().length())
+                    .thenComparing(SchemaSearchIndex.Hit::getName);
+
+    @Autowired
+    private SchemaSnapshotService schemaSnapshotService;
+
+    private final AppProperties.SchemaSearch config;
+    private final Cache<IndexKey, IndexState> indexes;
+    private final SingleFlight<IndexKey, IndexState> builds = new SingleFlight<>();
+
+    private final AtomicLong buildCount = new AtomicLong();
+    private final AtomicLong updateCount = new AtomicLong();
+    private final AtomicLong compactCount = new AtomicLong();
+
+    @Autowired
+    public SchemaSearchServiceImpl(AppProperties appProperties) {
+        this.config = appProperties.getSchemaSearch();
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(config.getMaxIndexes())
+                .expireAfterAccess(Duration.ofMinutes(config.getIdleMinutes()))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public List<SchemaSearchIndex.Hit> search(Long userId, Long connectionId, String database, String query,
+                                              String kind, int limit) {
+        if (kind != null && !kind.isEmpty()
+                && !SchemaSearchIndex.KIND_TABLE.equals(kind) && !SchemaSearchIndex.KIND_COLUMN.equals(kind)) {
+            throw new IllegalArgumentException("不支持的条目类型: " + kind);
+        }
+        IndexState state = getState(userId, connectionId, database);
+        int size = Math.max(1, Math.min(limit, config.getMaxResults()));
+        String kindFilter = kind == null || kind.isEmpty() ? null : kind;
+        List<SchemaSearchIndex.Hit> hits = state.base.search(query, kindFilter, size, state.shadowed);
+        if (state.delta.size() > 0) {
+            hits.addAll(state.delta.search(query, kindFilter, size, null));
+            hits.sort(HIT_ORDER);
+            if (hits.size() > size) {
+                hits = new ArrayList<>(hits.subList(0, size));
+            }
+        }
+        return hits;
+    }
+
+    @Override
+    public SchemaSearchIndex.Table findTable(Long userId, Long connectionId, String database, String name) {
+        IndexState state = getState(userId, connectionId, database);
+        String key = name.toLowerCase(Locale.ROOT);
+        SchemaSearchIndex.Table table = state.tablesByName.get(key);
+        if (table == null) {
+            List<SchemaSearchIndex.Table> tables = state.tablesByShortName.get(key);
+            table = tables == null ? null : tables.get(0);
+        }
+        return table;
+    }
+
+    @Override
+    public List<SchemaSearchIndex.Table> listTables(Long userId, Long connectionId, String database, String prefix,
+                                                    int limit) {
+        IndexState state = getState(userId, connectionId, database);
+        String from = prefix == null ? "" : prefix.toLowerCase(Locale.ROOT);
+        String to = from + Character.MAX_VALUE;
+        List<SchemaSearchIndex.Table> result = new ArrayList<>();
+        if (from.indexOf('.') >= 0) {
+            for (SchemaSearchIndex.Table table : state.tablesByName.subMap(from, to).values()) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.add(table);
+            }
+            return result;
+        }
+        for (List<SchemaSearchIndex.Table> tables : state.tablesByShortName.subMap(from, to).values()) {
+            for (SchemaSearchIndex.Table table : tables) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                result.add(table);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 结构快照生成新版本时更新对应的索引
+     * 版本连续时合并变化的表；索引落后不止一个版本（如并发刷新）时丢弃索引，下次搜索重新构建
+     */
+    @EventListener
+    public void onSchemaChanged(SchemaChangedEvent event) {
+        for (Map.Entry<IndexKey, IndexState> entry : indexes.asMap().entrySet()) {
+            if (!entry.getKey().connectionId.equals(event.getConnectionId())) {
+                continue;
+            }
+            IndexState state = entry.getValue();
+            if (!state.database.equals(event.getDatabase()) || state.version >= event.getVersion()) {
+                continue;
+            }
+            if (state.version + 1 != event.getVersion()) {
+                indexes.asMap().remove(entry.getKey(), state);
+                logger.info("连接 {} 数据库 {} 的搜索索引落后于快照版本 {}，已丢弃",
+                        event.getConnectionId(), event.getDatabase(), event.getVersion());
+                continue;
+            }
+            IndexState updated = apply(state, event);
+            if (indexes.asMap().replace(entry.getKey(), state, updated)) {
+                updateCount.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public int invalidate(Long connectionId) {
+        int count = 0;
+        for (IndexKey key : new ArrayList<>(indexes.asMap().keySet())) {
+            if (key.connectionId.equals(connectionId) && indexes.asMap().remove(key) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long entries = 0;
+        long deltaTables = 0;
+        for (IndexState state : indexes.asMap().values()) {
+            entries += state.base.size() + state.delta.size();
+            deltaTables += state.deltaTables.size();
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("indexes", indexes.estimatedSize());
+        result.put("entries", entries);
+        result.put("deltaTables", deltaTables);
+        result.put("builds", buildCount.get());
+        result.put("updates", updateCount.get());
+        result.put("compactions", compactCount.get());
+        result.put("hitRate", indexes.stats().hitRate());
+        result.put("building", builds.getInFlight());
+        return result;
+    }
+
+    /**
+     * 获取索引，不存在时构建，同一数据库的并发构建只执行一次
+     */
+    private IndexState getState(Long userId, Long connectionId, String database) {
+        IndexKey key = new IndexKey(connectionId, database == null ? "" : database);
+        IndexState state = indexes.getIfPresent(key);
+        if (state == null) {
+            state = builds.execute(key, () -> {
+                IndexState built = build(userId, connectionId, database);
+                indexes.put(key, built);
+                return built;
+            });
+        }
+        if (!state.userId.equals(userId)) {
+            throw new ResourceNotFoundException("Connection not found with id: " + connectionId);
+        }
+        return state;
+    }
+
+    /**
+     * 由最新的结构快照构建索引，数据库还没有快照时先刷新
+     */
+    private IndexState build(Long userId, Long connectionId, String database) {
+        long startTime = System.currentTimeMillis();
+        SchemaSnapshotResponse snapshot;
+        try {
+            snapshot = schemaSnapshotService.getSnapshot(userId, connectionId, database, null);
+        } catch (ResourceNotFoundException e) {
+            schemaSnapshotService.refresh(userId, connectionId, database, false);
+            snapshot = schemaSnapshotService.getSnapshot(userId, connectionId, database, null);
+        }
+
+        Map<String, SchemaSearchIndex.Table> tables = new LinkedHashMap<>();
+        for (Map<String, Object> node : snapshot.getTables()) {
+            SchemaSearchIndex.Table table = toTable(node);
+            tables.put(table.getName(), table);
+        }
+        IndexState state = new IndexState(userId, snapshot.getDatabase(), snapshot.getVersion(),
+                SchemaSearchIndex.build(tables.values()), tables, Collections.emptySet(), Collections.emptyMap());
+        buildCount.incrementAndGet();
+        logger.info("连接 {} 数据库 {} 的搜索索引构建完成，快照版本 {}，{} 个条目，耗时 {}ms",
+                connectionId, snapshot.getDatabase(), snapshot.getVersion(), state.base.size(),
+                System.currentTimeMillis() - startTime);
+        return state;
+    }
+
+    /**
+     * 把新版本中变化和删除的表合并到索引，增量过多时重建
+     */
+    private IndexState apply(IndexState state, SchemaChangedEvent event) {
+        Set<String> shadowed = new HashSet<>(state.shadowed);
+        Map<String, SchemaSearchIndex.Table> deltaTables = new LinkedHashMap<>(state.deltaTables);
+        for (String name : event.getRemovedTables()) {
+            deltaTables.remove(name);
+            if (state.baseTables.containsKey(name)) {
+                shadowed.add(name);
+            }
+        }
+        for (Map<String, Object> node : event.getChangedTables()) {
+            SchemaSearchIndex.Table table = toTable(node);
+            deltaTables.put(table.getName(), table);
+            if (state.baseTables.containsKey(table.getName())) {
+                shadowed.add(table.getName());
+            }
+        }
+
+        if (deltaTables.size() <= config.getMaxDeltaTables()) {
+            return new IndexState(state.userId, state.database, event.getVersion(),
+                    state.base, state.baseTables, shadowed, deltaTables);
+        }
+        Map<String, SchemaSearchIndex.Table> tables = new LinkedHashMap<>();
+        for (SchemaSearchIndex.Table table : state.baseTables.values()) {
+            if (!shadowed.contains(table.getName())) {
+                tables.put(table.getName(), table);
+            }
+        }
+        tables.putAll(deltaTables);
+        compactCount.incrementAndGet();
+        return new IndexState(state.userId, state.database, event.getVersion(),
+                SchemaSearchIndex.build(tables.values()), tables, Collections.emptySet(), Collections.emptyMap());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SchemaSearchIndex.Table toTable(Map<String, Object> node) {
+        String schema = (String) node.get("schema");
+        String name = (String) node.get("name");
+        List<SchemaSearchIndex.Column> columns = new ArrayList<>();
+        Object columnNodes = node.get("columns");
+        if (columnNodes instanceof List) {
+            for (Map<String, Object> column : (List<Map<String, Object>>) columnNodes) {
+                columns.add(new SchemaSearchIndex.Column((String) column.get("name"),
+                        (String) column.get("type"), (String) column.get("comment")));
+            }
+        }
+        return new SchemaSearchIndex.Table(schema == null ? name : schema + "." + name,
+                (String) node.get("type"), (String) node.get("comment"), columns);
+    }
+
+    /**
+     * 索引的当前状态：基础索引、被屏蔽的基础表和增量索引，整体替换不做修改
+     */
+    private static final class IndexState {
+        private final Long userId;
+        private final String database;
+        private final int version;
+        private final SchemaSearchIndex base;
+        private final Map<String, SchemaSearchIndex.Table> baseTables;
+        private final Set<String> shadowed;
+        private final Map<String, SchemaSearchIndex.Table> deltaTables;
+        private final SchemaSearchIndex delta;
+        // 当前所有表，按小写的完整名称和不带schema的名称排序，用于按名称查找
+        private final NavigableMap<String, SchemaSearchIndex.Table> tablesByName = new TreeMap<>();
+        private final NavigableMap<String, List<SchemaSearchIndex.Table>> tablesByShortName = new TreeMap<>();
+
+        IndexState(Long userId, String database, int version, SchemaSearchIndex base,
+                   Map<String, SchemaSearchIndex.Table> baseTables, Set<String> shadowed,
+                   Map<String, SchemaSearchIndex.Table> deltaTables) {
+            this.userId = userId;
+            this.database = database;
+            this.version = version;
+            this.base = base;
+            this.baseTables = baseTables;
+            this.shadowed = shadowed;
+            this.deltaTables = deltaTables;
+            this.delta = SchemaSearchIndex.build(deltaTables.values());
+            for (SchemaSearchIndex.Table table : baseTables.values()) {
+                if (!shadowed.contains(table.getName())) {
+                    addTable(table);
+                }
+            }
+            for (SchemaSearchIndex.Table table : deltaTables.values()) {
+                addTable(table);
+            }
+        }
+
+        private void addTable(SchemaSearchIndex.Table table) {
+            String name = table.getName().toLowerCase(Locale.ROOT);
+            tablesByName.put(name, table);
+            tablesByShortName.computeIfAbsent(name.substring(name.lastIndexOf('.') + 1), k -> new ArrayList<>(1))
+                    .add(table);
+        }
+    }
+
+    private static final class IndexKey {
+        private final Long connectionId;
+        private final String database;
+
+        IndexKey(Long connectionId, String database) {
+            this.connectionId = connectionId;
+            this.database = database;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof IndexKey)) {
+                return false;
+            }
+            IndexKey other = (IndexKey) o;
+            return connectionId.equals(other.connectionId) && database.equals(other.database);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(connectionId, database);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.exception.ResourceNotFoundException;
+import com.dbmanage.api.model.DatabaseConnection;
+import com.dbmanage.api.repository.DatabaseConnectionRepository;
+import com.dbmanage.api.service.ConnectionService;
+import com.dbmanage.api.service.MetadataCacheService;
+import com.dbmanage.api.service.SchemaService;
+import com.dbmanage.api.util.SqlDialect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据库结构服务实现类
+ * 每种数据库用三条系统表查询（表、字段、索引）加载整个库的结构，
+ * 各查询统一列别名，由同一套代码组装结果
+ */
+@Service
+public class SchemaServiceImpl implements SchemaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaServiceImpl.class);
+
+    /**
+     * PostgreSQL中需要排除的系统模式
+     */
+    private static final String PG_USER_SCHEMAS = "n.nspname NOT IN ('pg_catalog', 'information_schema') "
+            + "AND n.nspname NOT LIKE 'pg_toast%' AND n.nspname NOT LIKE 'pg_temp%'";
+
+    private static final CatalogQueries MYSQL_QUERIES = new CatalogQueries(
+            "SELECT TABLE_SCHEMA AS table_schema, TABLE_NAME AS table_name, TABLE_COMMENT AS table_comment "
+                    + "FROM information_schema.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_TYPE = 'BASE TABLE' "
+                    + "ORDER BY TABLE_NAME",
+            "SELECT TABLE_SCHEMA AS table_schema, TABLE_NAME AS table_name, COLUMN_NAME AS column_name, "
+                    + "UPPER(DATA_TYPE) AS data_type, COALESCE(CHARACTER_MAXIMUM_LENGTH, NUMERIC_PRECISION) AS column_size, "
+                    + "IS_NULLABLE AS nullable, COLUMN_DEFAULT AS column_default, ORDINAL_POSITION AS ordinal_position, "
+                    + "COLUMN_COMMENT AS column_comment "
+                    + "FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = ? "
+                    + "ORDER BY TABLE_NAME, ORDINAL_POSITION",
+            "SELECT TABLE_SCHEMA AS table_schema, TABLE_NAME AS table_name, INDEX_NAME AS index_name, "
+                    + "CASE WHEN NON_UNIQUE = 0 THEN 1 ELSE 0 END AS is_unique, "
+                    + "CASE WHEN INDEX_NAME = 'PRIMARY' THEN 1 ELSE 0 END AS is_primary, "
+                    + "COLUMN_NAME AS column_name "
+                    + "FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = ? "
+                    + "ORDER BY TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX",
+            true);
+
+    private static final CatalogQueries POSTGRESQL_QUERIES = new CatalogQueries(
+            "SELECT n.nspname AS table_schema, c.relname AS table_name, "
+                    + "obj_description(c.oid, 'pg_class') AS table_comment "
+                    + "FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace "
+                    + "WHERE c.relkind IN ('r', 'p') AND " + PG_USER_SCHEMAS + " "
+                    + "ORDER BY n.nspname, c.relname",
+            "SELECT n.nspname AS table_schema, c.relname AS table_name, a.attname AS column_name, "
+                    + "format_type(a.atttypid, a.atttypmod) AS data_type, "
+                    + "CASE WHEN a.atttypid IN (1042, 1043) AND a.atttypmod > 4 THEN a.atttypmod - 4 END AS column_size, "
+                    + "CASE WHEN a.attnotnull THEN 'NO' ELSE 'YES' END AS nullable, "
+                    + "pg_get_expr(d.adbin, d.adrelid) AS column_default, a.attnum AS ordinal_position, "
+                    + "col_description(c.oid, a.attnum) AS column_comment "
+                    + "FROM pg_attribute a "
+                    + "JOIN pg_class c ON c.oid = a.attrelid "
+                    + "JOIN pg_namespace n ON n.oid = c.relnamespace "
+                    + "LEFT JOIN pg_attrdef d ON d.adrelid = a.attrelid AND d.adnum = a.attnum "
+                    + "WHERE c.relkind IN ('r', 'p') AND a.attnum > 0 AND NOT a.attisdropped AND " + PG_USER_SCHEMAS + " "
+                    + "ORDER BY n.nspname, c.relname, a.attnum",
+            "SELECT n.nspname AS table_schema, t.relname AS table_name, i.relname AS index_name, "
+                    + "CASE WHEN ix.indisunique THEN 1 ELSE 0 END AS is_unique, "
+                    + "CASE WHEN ix.indisprimary THEN 1 ELSE 0 END AS is_primary, "
+                    + "a.attname AS column_name "
+                    + "FROM pg_index ix "
+                    + "JOIN pg_class i ON i.oid = ix.indexrelid "
+                    + "JOIN pg_class t ON t.oid = ix.indrelid "
+                    + "JOIN pg_namespace n ON n.oid = t.relnamespace "
+                    + "JOIN pg_attribute a ON a.attrelid = t.oid AND a.attnum = ANY(ix.indkey) "
+                    + "WHERE t.relkind IN ('r', 'p') AND " + PG_USER_SCHEMAS + " "
+                    + "ORDER BY n.nspname, t.relname, i.relname, array_position(ix.indkey::int2[], a.attnum)",
+            false);
+
+    private static final CatalogQueries SQLSERVER_QUERIES = new CatalogQueries(
+            "SELECT s.name AS table_schema, t.name AS table_name, CAST(ep.value AS NVARCHAR(4000)) AS table_comment "
+                    + "FROM sys.tables t "
+                    + "JOIN sys.schemas s ON s.schema_id = t.schema_id "
+                    + "LEFT JOIN sys.extended_properties ep ON ep.major_id = t.object_id AND ep.minor_id = 0 "
+                    + "AND ep.class = 1 AND ep.name = 'MS_Description' "
+                    + "WHERE t.is_ms_shipped = 0 "
+                    + "ORDER BY s.name, t.name",
+            "SELECT s.name AS table_schema, t.name AS table_name, c.name AS column_name, "
+                    + "UPPER(ty.name) AS data_type, c.max_length AS column_size, "
+                    + "CASE WHEN c.is_nullable = 1 THEN 'YES' ELSE 'NO' END AS nullable, "
+                    + "dc.definition AS column_default, c.column_id AS ordinal_position, "
+                    + "CAST(ep.value AS NVARCHAR(4000)) AS column_comment "
+                    + "FROM sys.columns c "
+                    + "JOIN sys.tables t ON t.object_id = c.object_id "
+                    + "JOIN sys.schemas s ON s.schema_id = t.schema_id "
+                    + "JOIN sys.types ty ON ty.user_type_id = c.user_type_id "
+                    + "LEFT JOIN sys.default_constraints dc ON dc.object_id = c.default_object_id "
+                    + "LEFT JOIN sys.extended_properties ep ON ep.major_id = c.object_id AND ep.minor_id = c.column_id "
+                    + "AND ep.class = 1 AND ep.name = 'MS_Description' "
+                    + "WHERE t.is_ms_shipped = 0 "
+                    + "ORDER BY s.name, t.name, c.column_id",
+            "SELECT s.name AS table_schema, t.name AS table_name, i.name AS index_name, "
+                    + "CAST(i.is_unique AS INT) AS is_unique, CAST(i.is_primary_key AS INT) AS is_primary, "
+                    + "c.name AS column_name "
+                    + "FROM sys.indexes i "
+                    + "JOIN sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id "
+                    + "JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id "
+                    + "JOIN sys.tables t ON t.object_id = i.object_id "
+                    + "JOIN sys.schemas s ON s.schema_id = t.schema_id "
+                    + "WHERE t.is_ms_shipped = 0 AND i.name IS NOT NULL AND ic.is_included_column = 0 "
+                    + "ORDER BY s.name, t.name, i.name, ic.key_ordinal",
+            false);
+
+    private static final CatalogQueries ORACLE_QUERIES = new CatalogQueries(
+            "SELECT t.OWNER AS table_schema, t.TABLE_NAME AS table_name, c.COMMENTS AS table_comment "
+                    + "FROM ALL_TABLES t "
+                    + "LEFT JOIN ALL_TAB_COMMENTS c ON c.OWNER = t.OWNER AND c.TABLE_NAME = t.TABLE_NAME "
+                    + "WHERE t.OWNER = ? "
+                    + "ORDER BY t.TABLE_NAME",
+            "SELECT c.OWNER AS table_schema, c.TABLE_NAME AS table_name, c.COLUMN_NAME AS column_name, "
+                    + "c.DATA_TYPE AS data_type, COALESCE(c.DATA_PRECISION, c.CHAR_LENGTH) AS column_size, "
+                    + "CASE WHEN c.NULLABLE = 'Y' THEN 'YES' ELSE 'NO' END AS nullable, "
+                    + "c.DATA_DEFAULT AS column_default, c.COLUMN_ID AS ordinal_position, cc.COMMENTS AS column_comment "
+                    + "FROM ALL_TAB_COLUMNS c "
+                    + "LEFT JOIN ALL_COL_COMMENTS cc ON cc.OWNER = c.OWNER AND cc.TABLE_NAME = c.TABLE_NAME "
+                    + "AND cc.COLUMN_NAME = c.COLUMN_NAME "
+                    + "WHERE c.OWNER = ? "
+                    + "ORDER BY c.TABLE_NAME, c.COLUMN_ID",
+            "SELECT i.TABLE_OWNER AS table_schema, i.TABLE_NAME AS table_name, i.INDEX_NAME AS index_name, "
+                    + "CASE WHEN i.UNIQUENESS = 'UNIQUE' THEN 1 ELSE 0 END AS is_unique, "
+                    + "CASE WHEN con.CONSTRAINT_NAME IS NOT NULL THEN 1 ELSE 0 END AS is_primary, "
+                    + "ic.COLUMN_NAME AS column_name "
+                    + "FROM ALL_INDEXES i "
+                    + "JOIN ALL_IND_COLUMNS ic ON ic.INDEX_OWNER = i.OWNER AND ic.INDEX_NAME = i.INDEX_NAME "
+                    + "LEFT JOIN ALL_CONSTRAINTS con ON con.OWNER = i.TABLE_OWNER AND con.INDEX_NAME = i.INDEX_NAME "
+                    + "AND con.CONSTRAINT_TYPE = 'P' "
+                    + "WHERE i.TABLE_OWNER = ? "
+                    + "ORDER BY i.TABLE_NAME, i.INDEX_NAME, ic.COLUMN_POSITION",
+            true);
+
+    @Autowired
+    private DatabaseConnectionRepository connectionRepository;
+
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Autowired
+    private MetadataCacheService metadataCacheService;
+
+    /**
+     * 批量加载数据库中所有表的结构
+     * @param connectionId 数据库连接ID
+     * @param database 数据库名称
+     * @return 表结构列表
+     */
+    @Override
+    public List<Map<String, Object>> getDatabaseSchema(Long connectionId, String database) {
+        return metadataCacheService.get(connectionId, MetadataCacheService.SCHEMA, database, null,
+                () -> loadDatabaseSchema(connectionId, database));
+    }
+
+    private List<Map<String, Object>> loadDatabaseSchema(Long connectionId, String database) {
+        DatabaseConnection connection = connectionRepository.findById(connectionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + connectionId));
+
+        long startTime = System.currentTimeMillis();
+        SqlDialect dialect = SqlDialect.from(connection.getType());
+
+        try (Connection conn = connectionService.getConnection(connection)) {
+            Map<String, Map<String, Object>> tables;
+            switch (dialect) {
+                case MYSQL:
+                    tables = loadWithCatalogQueries(conn, MYSQL_QUERIES, database != null ? database : conn.getCatalog());
+                    break;
+                case POSTGRESQL:
+                    // PostgreSQL不能跨库查询系统表，加载当前库下所有用户模式
+                    tables = loadWithCatalogQueries(conn, POSTGRESQL_QUERIES, null);
+                    break;
+                case SQLSERVER:
+                    if (database != null && !database.isEmpty()) {
+                        // sys视图只返回当前库的对象，连接归还连接池时会自动恢复默认数据库
+                        conn.setCatalog(database);
+                    }
+                    tables = loadWithCatalogQueries(conn, SQLSERVER_QUERIES, null);
+                    break;
+                case ORACLE:
+                    String owner = database != null && !database.isEmpty() ? database : conn.getMetaData().getUserName();
+                    tables = loadWithCatalogQueries(conn, ORACLE_QUERIES, owner.toUpperCase());
+                    break;
+                default:
+                    tables = loadWithMetaData(conn, database);
+            }
+
+            logger.info("加载数据库 {} 的结构完成，共 {} 张表，耗时 {} ms",
+                    database, tables.size(), System.currentTimeMillis() - startTime);
+            return new ArrayList<>(tables.values());
+        } catch (SQLException e) {
+            logger.error("Error loading database schema: ", e);
+            throw new RuntimeException("Error loading database schema: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 使用系统表查询加载结构
+     * @param conn 数据库连接
+     * @param queries 方言对应的查询
+     * @param owner 数据库或模式名称，仅在查询需要绑定参数时使用
+     * @return 以 模式.表名 为键的表结构
+     */
+    private Map<String, Map<String, Object>> loadWithCatalogQueries(Connection conn, CatalogQueries queries, String owner)
+            throws SQLException {
+        Map<String, Map<String, Object>> tables = new LinkedHashMap<>();
+
+        try (PreparedStatement ps = prepare(conn, queries.tablesSql, queries, owner);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                String schema = rs.getString("table_schema");
+                String name = rs.getString("table_name");
+                tables.put(tableKey(schema, name), newTable(schema, name, rs.getString("table_comment")));
+            }
+        }
+
+        try (PreparedStatement ps = prepare(conn, queries.columnsSql, queries, owner);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                // 字段查询同时返回视图的字段，不在表集合中的直接跳过
+                Map<String, Object> table = tables.get(tableKey(rs.getString("table_schema"), rs.getString("table_name")));
+                if (table == null) {
+                    continue;
+                }
+                Map<String, Object> column = new HashMap<>();
+                column.put("name", rs.getString("column_name"));
+                column.put("type", rs.getString("data_type"));
+                column.put("size", rs.getInt("column_size"));
+                column.put("nullable", "YES".equals(rs.getString("nullable")));
+                column.put("defaultValue", rs.getString("column_default"));
+                column.put("ordinalPosition", rs.getInt("ordinal_position"));
+                column.put("isPrimaryKey", false);
+                String comment = rs.getString("column_comment");
+                column.put("comment", comment != null ? comment : "");
+                columnsOf(table).add(column);
+            }
+        }
+
+        try (PreparedStatement ps = prepare(conn, queries.indexesSql, queries, owner);
+             ResultSet rs = ps.executeQuery()) {
+            // 结果按表、索引、列顺序排列，相邻行属于同一索引时合并
+            Map<String, Object> currentIndex = null;
+            String currentKey = null;
+            while (rs.next()) {
+                String key = tableKey(rs.getString("table_schema"), rs.getString("table_name"));
+                Map<String, Object> table = tables.get(key);
+                if (table == null) {
+                    continue;
+                }
+                String indexName = rs.getString("index_name");
+                String indexKey = key + "." + indexName;
+                if (!indexKey.equals(currentKey)) {
+                    currentKey = indexKey;
+                    currentIndex = new HashMap<>();
+                    currentIndex.put("name", indexName);
+                    currentIndex.put("unique", rs.getInt("is_unique") == 1);
+                    currentIndex.put("primary", rs.getInt("is_primary") == 1);
+                    currentIndex.put("columns", new ArrayList<String>());
+                    indexesOf(table).add(currentIndex);
+                }
+                String columnName = rs.getString("column_name");
+                stringsOf(currentIndex, "columns").add(columnName);
+                if (Boolean.TRUE.equals(currentIndex.get("primary"))) {
+                    stringsOf(table, "primaryKey").add(columnName);
+                }
+            }
+        }
+
+        markPrimaryKeys(tables);
+        return tables;
+    }
+
+    /**
+     * 无法识别的数据库通过DatabaseMetaData按库整体获取表和字段，不加载索引
+     */
+    private Map<String, Map<String, Object>> loadWithMetaData(Connection conn, String database) throws SQLException {
+        Map<String, Map<String, Object>> tables = new LinkedHashMap<>();
+        DatabaseMetaData metaData = conn.getMetaData();
+
+        try (ResultSet rs = metaData.getTables(database, null, null, new String[]{"TABLE"})) {
+            while (rs.next()) {
+                String schema = rs.getString("TABLE_SCHEM");
+                String name = rs.getString("TABLE_NAME");
+                tables.put(tableKey(schema, name), newTable(schema, name, rs.getString("REMARKS")));
+            }
+        }
+
+        try (ResultSet rs = metaData.getColumns(database, null, null, null)) {
+            while (rs.next()) {
+                Map<String, Object> table = tables.get(tableKey(rs.getString("TABLE_SCHEM"), rs.getString("TABLE_NAME")));
+                if (table == null) {
+                    continue;
+                }
+                Map<String, Object> column = new HashMap<>();
+                column.put("name", rs.getString("COLUMN_NAME"));
+                column.put("type", rs.getString("TYPE_NAME"));
+                column.put("size", rs.getInt("COLUMN_SIZE"));
+                column.put("nullable", "YES".equals(rs.getString("IS_NULLABLE")));
+                column.put("defaultValue", rs.getString("COLUMN_DEF"));
+                column.put("ordinalPosition", rs.getInt("ORDINAL_POSITION"));
+                column.put("isPrimaryKey", false);
+                String remarks = rs.getString("REMARKS");
+                column.put("comment", remarks != null ? remarks : "");
+                columnsOf(table).add(column);
+            }
+        }
+
+        return tables;
+    }
+
+    private PreparedStatement prepare(Connection conn, String sql, CatalogQueries queries, String owner) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql);
+        if (queries.bindOwner) {
+            ps.setString(1, owner);
+        }
+        return ps;
+    }
+
+    private Map<String, Object> newTable(String schema, String name, String comment) {
+        Map<String, Object> table = new HashMap<>();
+        table.put("name", name);
+        table.put("schema", schema);
+        table.put("comment", comment != null ? comment : "");
+        table.put("columns", new ArrayList<Map<String, Object>>());
+        table.put("primaryKey", new ArrayList<String>());
+        table.put("indexes", new ArrayList<Map<String, Object>>());
+        return table;
+    }
+
+    private void markPrimaryKeys(Map<String, Map<String, Object>> tables) {
+        for (Map<String, Object> table : tables.values()) {
+            List<String> primaryKey = stringsOf(table, "primaryKey");
+            if (primaryKey.isEmpty()) {
+                continue;
+            }
+            for (Map<String, Object> column : columnsOf(table)) {
+                column.put("isPrimaryKey", primaryKey.contains(column.get("name")));
+            }
+        }
+    }
+
+    private String tableKey(String schema, String name) {
+        return schema + "." + name;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> columnsOf(Map<String, Object> table) {
+        return (List<Map<String, Object>>) table.get("columns");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> indexesOf(Map<String, Object> table) {
+        return (List<Map<String, Object>>) table.get("indexes");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> stringsOf(Map<String, Object> map, String key) {
+        return (List<String>) map.get(key);
+    }
+
+    /**
+     * 一种数据库的结构查询
+     * 所有查询统一使用 table_schema、table_name 等列别名
+     */
+    private static final class CatalogQueries {
+        private final String tablesSql;
+        private final String columnsSql;
+        private final String indexesSql;
+        private final boolean bindOwner;
+
+        CatalogQueries(String tablesSql, String columnsSql, String indexesSql, boolean bindOwner) {
+            this.tablesSql = tablesSql;
+            this.columnsSql = columnsSql;
+            this.indexesSql = indexesSql;
+            this.bindOwner = bindOwner;
+        }
+    }
+}
@@ -0,0 +1,622 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.dto.query.SchemaDiff;
+import com.dbmanage.api.dto.query.SchemaSnapshotResponse;
+import com.dbmanage.api.exception.ResourceNotFoundException;
+import com.dbmanage.api.model.DatabaseConnection;
+import com.dbmanage.api.model.SchemaSnapshot;
+import com.dbmanage.api.model.SchemaSnapshotTable;
+import com.dbmanage.api.repository.DatabaseConnectionRepository;
+import com.dbmanage.api.repository.SchemaSnapshotRepository;
+import com.dbmanage.api.repository.SchemaSnapshotTableRepository;
+import com.dbmanage.api.service.ConnectionService;
+import com.dbmanage.api.service.SchemaChangedEvent;
+import com.dbmanage.api.service.SchemaSnapshotService;
+import com.dbmanage.api.util.SingleFlight;
+import com.dbmanage.api.util.SqlDialect;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 结构快照服务实现类
+ * 刷新时先用一条查询读取所有表的变化信号（MySQL的CREATE_TIME/UPDATE_TIME、PostgreSQL的pg_class和pg_attribute的xmin
+ * 及注释的哈希、SQL Server的modify_date、Oracle的LAST_DDL_TIME），信号与上一版本相同的表直接沿用，只对其余的表读取列和主键。
+ * 表结构行记录有效的版本范围，未变化的表在新版本中不重复保存。
+ * 不会改变信号的结构变化（如PostgreSQL只修改列默认值）需要强制刷新才能发现。
+ * 生成新版本后发布 {@link SchemaChangedEvent}
+ */
+@Service
+public class SchemaSnapshotServiceImpl implements SchemaSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaSnapshotServiceImpl.class);
+
+    private static final String[] TABLE_TYPES = {"TABLE", "VIEW"};
+
+    private static final TypeReference<Map<String, Object>> DEFINITION_TYPE = new TypeReference<Map<String, Object>>() {
+    };
+
+    private final AppProperties.SchemaSnapshot config;
+
+    /**
+     * 同一数据库的并发刷新只执行一次
+     */
+    private final SingleFlight<String, SchemaSnapshotResponse> refreshes = new SingleFlight<>();
+
+    @Autowired
+    private DatabaseConnectionRepository connectionRepository;
+
+    @Autowired
+    private SchemaSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private SchemaSnapshotTableRepository tableRepository;
+
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public SchemaSnapshotServiceImpl(AppProperties appProperties) {
+        this.config = appProperties.getSchemaSnapshot();
+    }
+
+    @Override
+    public SchemaSnapshotResponse refresh(Long userId, Long connectionId, String database, boolean force) {
+        DatabaseConnection connection = getOwnedConnection(userId, connectionId);
+        String databaseName = resolveDatabase(connection, database);
+        return refreshes.execute(connectionId + "\u0000" + databaseName, () -> doRefresh(connection, databaseName, force));
+    }
+
+    private SchemaSnapshotResponse doRefresh(DatabaseConnection connection, String databaseName, boolean force) {
+        SchemaSnapshot latest = snapshotRepository
+                .findFirstByConnectionAndDatabaseNameOrderByVersionDesc(connection, databaseName).orElse(null);
+        Map<String, SchemaSnapshotTable> current = new HashMap<>();
+        if (latest != null) {
+            for (SchemaSnapshotTable table : tableRepository.findByConnectionAndDatabaseNameAndLastVersionIsNull(connection, databaseName)) {
+                current.put(qualifiedName(table.getSchemaName(), table.getTableName()), table);
+            }
+        }
+
+        // 读取目标数据库，变化信号相同的表不再读取结构
+        List<TableSignal> signals;
+        List<TableSignal> reread = new ArrayList<>();
+        try (Connection conn = connectionService.getConnection(connection)) {
+            if (!databaseName.isEmpty()) {
+                conn.setCatalog(databaseName);
+            }
+            signals = readSignals(conn, SqlDialect.from(connection.getType()), databaseName);
+            DatabaseMetaData metaData = conn.getMetaData();
+            for (TableSignal signal : signals) {
+                SchemaSnapshotTable previous = current.get(signal.key());
+                if (!force && previous != null && signal.signal != null
+                        && signal.signal.equals(previous.getChangeSignal())) {
+                    continue;
+                }
+                signal.definition = readDefinition(metaData, databaseName, signal);
+                reread.add(signal);
+            }
+        } catch (SQLException e) {
+            logger.error("Error refreshing schema snapshot: ", e);
+            throw new RuntimeException("Error refreshing schema snapshot: " + e.getMessage(), e);
+        }
+
+        RefreshResult result = transactionTemplate.execute(status ->
+                save(connection, databaseName, latest, current, signals, reread));
+        SchemaSnapshot snapshot = result.snapshot;
+        if (result.event != null) {
+            eventPublisher.publishEvent(result.event);
+        }
+        logger.info("连接 {} 数据库 {} 结构快照刷新完成，版本 {}，重新读取 {} 个表",
+                connection.getId(), databaseName, snapshot.getVersion(), reread.size());
+
+        SchemaSnapshotResponse response = new SchemaSnapshotResponse(snapshot);
+        response.setRereadTables(reread.size());
+        return response;
+    }
+
+    /**
+     * 保存刷新结果：结构有变化时生成新版本，关闭变化和删除的表的有效范围；只有信号变化时原地更新信号
+     */
+    private RefreshResult save(DatabaseConnection connection, String databaseName, SchemaSnapshot latest,
+                                Map<String, SchemaSnapshotTable> current, List<TableSignal> signals,
+                                List<TableSignal> reread) {
+        Map<String, TableSignal> present = new HashMap<>();
+        for (TableSignal signal : signals) {
+            present.put(signal.key(), signal);
+        }
+
+        List<SchemaSnapshotTable> removed = current.entrySet().stream()
+                .filter(entry -> !present.containsKey(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+        List<TableSignal> changed = new ArrayList<>();
+        List<SchemaSnapshotTable> signalOnly = new ArrayList<>();
+        for (TableSignal signal : reread) {
+            SchemaSnapshotTable previous = current.get(signal.key());
+            if (previous == null || !previous.getDefinition().equals(signal.definition)
+                    || !Objects.equals(previous.getTableType(), signal.type)) {
+                changed.add(signal);
+            } else if (!Objects.equals(previous.getChangeSignal(), signal.signal)) {
+                // 结构未变，只是信号变了（如MySQL的UPDATE_TIME随数据写入变化）
+                previous.setChangeSignal(signal.signal);
+                signalOnly.add(previous);
+            }
+        }
+        tableRepository.saveAll(signalOnly);
+
+        if (latest != null && changed.isEmpty() && removed.isEmpty()) {
+            latest.setCheckedAt(new Date());
+            return new RefreshResult(snapshotRepository.save(latest), null);
+        }
+
+        int version = latest != null ? latest.getVersion() + 1 : 1;
+        List<SchemaSnapshotTable> updates = new ArrayList<>(removed);
+        for (TableSignal signal : changed) {
+            SchemaSnapshotTable previous = current.get(signal.key());
+            if (previous != null) {
+                updates.add(previous);
+            }
+            SchemaSnapshotTable table = new SchemaSnapshotTable();
+            table.setConnection(connection);
+            table.setDatabaseName(databaseName);
+            table.setSchemaName(signal.schema);
+            table.setTableName(signal.name);
+            table.setTableType(signal.type);
+            table.setChangeSignal(signal.signal);
+            table.setDefinition(signal.definition);
+            table.setFirstVersion(version);
+            tableRepository.save(table);
+        }
+        for (SchemaSnapshotTable table : updates) {
+            table.setLastVersion(version - 1);
+        }
+        tableRepository.saveAll(updates);
+
+        SchemaSnapshot snapshot = new SchemaSnapshot();
+        snapshot.setConnection(connection);
+        snapshot.setDatabaseName(databaseName);
+        snapshot.setVersion(version);
+        snapshot.setTableCount(signals.size());
+        snapshot.setChangedTables(changed.size() + removed.size());
+        snapshot = snapshotRepository.save(snapshot);
+
+        // 删除超出保留数量的旧版本
+        int oldestKept = version - Math.max(1, config.getKeepVersions()) + 1;
+        if (oldestKept > 1) {
+            tableRepository.deleteExpired(connection, databaseName, oldestKept);
+            snapshotRepository.deleteByConnectionAndDatabaseNameAndVersionLessThan(connection, databaseName, oldestKept);
+        }
+
+        List<Map<String, Object>> changedTables = new ArrayList<>();
+        for (TableSignal signal : changed) {
+            changedTables.add(tableNode(signal.schema, signal.name, signal.type, signal.definition));
+        }
+        List<String> removedTables = removed.stream()
+                .map(table -> qualifiedName(table.getSchemaName(), table.getTableName()))
+                .collect(Collectors.toList());
+        return new RefreshResult(snapshot,
+                new SchemaChangedEvent(connection.getId(), databaseName, version, changedTables, removedTables));
+    }
+
+    /**
+     * 用一条查询读取所有表和视图的变化信号，不支持的数据库或查询失败时通过元数据列出表，信号为空
+     */
+    private List<TableSignal> readSignals(Connection conn, SqlDialect dialect, String databaseName) throws SQLException {
+        try {
+            switch (dialect) {
+                case MYSQL:
+                    return readMySqlSignals(conn, databaseName);
+                case POSTGRESQL:
+                    return querySignals(conn,
+                            "SELECT n.nspname, c.relname, CASE WHEN c.relkind IN ('v', 'm') THEN 'VIEW' ELSE 'TABLE' END, " +
+                            // COMMENT ON 只修改pg_description，注释内容的哈希也作为信号的一部分
+                            "c.xmin::text || ':' || COALESCE(MAX(a.xmin::text::bigint), 0) || ':' || COALESCE((" +
+                            "SELECT md5(string_agg(d.objsubid || ':' || d.description, '|' ORDER BY d.objsubid)) " +
+                            "FROM pg_description d WHERE d.objoid = c.oid AND d.classoid = 'pg_class'::regclass), ''), " +
+                            "obj_description(c.oid, 'pg_class') " +
+                            "FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                            "LEFT JOIN pg_attribute a ON a.attrelid = c.oid AND a.attnum > 0 " +
+                            "WHERE c.relkind IN ('r', 'p', 'v', 'm', 'f') " +
+                            "AND n.nspname NOT IN ('pg_catalog', 'information_schema') " +
+                            "AND n.nspname NOT LIKE 'pg\\_toast%' AND n.nspname NOT LIKE 'pg\\_temp%' " +
+                            "GROUP BY n.nspname, c.relname, c.relkind, c.xmin::text, c.oid");
+                case SQLSERVER:
+                    return querySignals(conn,
+                            "SELECT s.name, o.name, CASE o.type WHEN 'V' THEN 'VIEW' ELSE 'TABLE' END, " +
+                            "CONVERT(varchar(30), o.modify_date, 126), NULL " +
+                            "FROM sys.objects o JOIN sys.schemas s ON s.schema_id = o.schema_id " +
+                            "WHERE o.type IN ('U', 'V') AND o.is_ms_shipped = 0");
+                case ORACLE:
+                    return querySignals(conn,
+                            "SELECT OWNER, OBJECT_NAME, OBJECT_TYPE, TO_CHAR(LAST_DDL_TIME, 'YYYY-MM-DD HH24:MI:SS'), NULL " +
+                            "FROM ALL_OBJECTS WHERE OBJECT_TYPE IN ('TABLE', 'VIEW') " +
+                            "AND OWNER = SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')");
+                default:
+                    break;
+            }
+        } catch (SQLException e) {
+            logger.warn("读取表变化信号失败，将重新读取全部表结构: {}", e.getMessage());
+        }
+
+        List<TableSignal> signals = new ArrayList<>();
+        try (ResultSet rs = conn.getMetaData().getTables(emptyToNull(databaseName), null, null, TABLE_TYPES)) {
+            while (rs.next()) {
+                TableSignal signal = new TableSignal();
+                signal.schema = rs.getString("TABLE_SCHEM");
+                signal.name = rs.getString("TABLE_NAME");
+                signal.type = rs.getString("TABLE_TYPE");
+                signal.comment = rs.getString("REMARKS");
+                signals.add(signal);
+            }
+        }
+        return signals;
+    }
+
+    private List<TableSignal> readMySqlSignals(Connection conn, String databaseName) throws SQLException {
+        List<TableSignal> signals = new ArrayList<>();
+        String sql = "SELECT TABLE_NAME, TABLE_TYPE, CREATE_TIME, UPDATE_TIME, TABLE_COMMENT " +
+                "FROM information_schema.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_TYPE IN ('BASE TABLE', 'VIEW')";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, databaseName);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    TableSignal signal = new TableSignal();
+                    signal.name = rs.getString(1);
+                    signal.type = "VIEW".equals(rs.getString(2)) ? "VIEW" : "TABLE";
+                    String created = rs.getString(3);
+                    String updated = rs.getString(4);
+                    // 视图没有创建和修改时间，每次都重新读取
+                    signal.signal = created == null && updated == null ? null : created + "|" + updated;
+                    signal.comment = emptyToNull(rs.getString(5));
+                    signals.add(signal);
+                }
+            }
+        }
+        return signals;
+    }
+
+    private List<TableSignal> querySignals(Connection conn, String sql) throws SQLException {
+        List<TableSignal> signals = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                TableSignal signal = new TableSignal();
+                signal.schema = rs.getString(1);
+                signal.name = rs.getString(2);
+                signal.type = rs.getString(3);
+                signal.signal = rs.getString(4);
+                signal.comment = rs.getString(5);
+                signals.add(signal);
+            }
+        }
+        return signals;
+    }
+
+    /**
+     * 读取表的列和主键，序列化为JSON；键的顺序固定，相同结构得到相同的字符串
+     */
+    private String readDefinition(DatabaseMetaData metaData, String databaseName, TableSignal signal) throws SQLException {
+        String catalog = emptyToNull(databaseName);
+        List<Map<String, Object>> columns = new ArrayList<>();
+        try (ResultSet rs = metaData.getColumns(catalog, signal.schema, signal.name, null)) {
+            while (rs.next()) {
+                // 表名参数是LIKE模式，下划线会匹配其他表
+                if (!signal.name.equals(rs.getString("TABLE_NAME"))
+                        || (signal.schema != null && !signal.schema.equals(rs.getString("TABLE_SCHEM")))) {
+                    continue;
+                }
+                Map<String, Object> column = new LinkedHashMap<>();
+                column.put("name", rs.getString("COLUMN_NAME"));
+                column.put("type", rs.getString("TYPE_NAME"));
+                column.put("size", rs.getInt("COLUMN_SIZE"));
+                int scale = rs.getInt("DECIMAL_DIGITS");
+                column.put("scale", rs.wasNull() ? null : scale);
+                column.put("nullable", rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls);
+                column.put("default", rs.getString("COLUMN_DEF"));
+                column.put("autoIncrement", "YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT")));
+                column.put("comment", emptyToNull(rs.getString("REMARKS")));
+                columns.add(column);
+            }
+        }
+
+        List<String> primaryKey = new ArrayList<>();
+        if (!"VIEW".equals(signal.type)) {
+            Map<Integer, String> keyColumns = new TreeMap<>();
+            try (ResultSet rs = metaData.getPrimaryKeys(catalog, signal.schema, signal.name)) {
+                while (rs.next()) {
+                    keyColumns.put(rs.getInt("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+                }
+            }
+            primaryKey.addAll(keyColumns.values());
+        }
+
+        Map<String, Object> definition = new LinkedHashMap<>();
+        definition.put("comment", signal.comment);
+        definition.put("columns", columns);
+        definition.put("primaryKey", primaryKey);
+        try {
+            return objectMapper.writeValueAsString(definition);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化表结构失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<SchemaSnapshotResponse> getSnapshots(Long userId, Long connectionId, String database) {
+        DatabaseConnection connection = getOwnedConnection(userId, connectionId);
+        return snapshotRepository.findByConnectionAndDatabaseNameOrderByVersionDesc(connection, resolveDatabase(connection, database))
+                .stream()
+                .map(SchemaSnapshotResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public SchemaSnapshotResponse getSnapshot(Long userId, Long connectionId, String database, Integer version) {
+        DatabaseConnection connection = getOwnedConnection(userId, connectionId);
+        String databaseName = resolveDatabase(connection, database);
+        SchemaSnapshot snapshot = findSnapshot(connection, databaseName, version);
+
+        List<Map<String, Object>> tables = new ArrayList<>();
+        for (SchemaSnapshotTable table : findTables(snapshot)) {
+            tables.add(tableNode(table.getSchemaName(), table.getTableName(), table.getTableType(), table.getDefinition()));
+        }
+        SchemaSnapshotResponse response = new SchemaSnapshotResponse(snapshot);
+        response.setTables(tables);
+        return response;
+    }
+
+    @Override
+    public SchemaDiff diff(Long userId, Long connectionId, String database, Integer fromVersion, Integer toVersion) {
+        DatabaseConnection connection = getOwnedConnection(userId, connectionId);
+        String databaseName = resolveDatabase(connection, database);
+        SchemaSnapshot from = findSnapshot(connection, databaseName, fromVersion);
+        SchemaSnapshot to = findSnapshot(connection, databaseName, toVersion);
+
+        Map<String, SchemaSnapshotTable> before = tablesByName(findTables(from));
+        Map<String, SchemaSnapshotTable> after = tablesByName(findTables(to));
+
+        SchemaDiff diff = new SchemaDiff();
+        diff.setConnectionId(connectionId);
+        diff.setDatabase(databaseName);
+        diff.setFromVersion(from.getVersion());
+        diff.setToVersion(to.getVersion());
+        for (Map.Entry<String, SchemaSnapshotTable> entry : after.entrySet()) {
+            SchemaSnapshotTable previous = before.get(entry.getKey());
+            if (previous == null) {
+                diff.getAddedTables().add(entry.getKey());
+            } else if (!previous.getId().equals(entry.getValue().getId())) {
+                // 同一行在两个版本中都有效说明结构未变，不必比较
+                SchemaDiff.TableChange change = compare(entry.getKey(), previous, entry.getValue());
+                if (change != null) {
+                    diff.getChangedTables().add(change);
+                }
+            }
+        }
+        for (String name : before.keySet()) {
+            if (!after.containsKey(name)) {
+                diff.getRemovedTables().add(name);
+            }
+        }
+        Collections.sort(diff.getAddedTables());
+        Collections.sort(diff.getRemovedTables());
+        return diff;
+    }
+
+    @SuppressWarnings("unchecked")
+    private SchemaDiff.TableChange compare(String name, SchemaSnapshotTable previous, SchemaSnapshotTable current) {
+        Map<String, Object> before = parseDefinition(previous);
+        Map<String, Object> after = parseDefinition(current);
+        Map<String, Map<String, Object>> beforeColumns = columnsByName((List<Map<String, Object>>) before.get("columns"));
+        Map<String, Map<String, Object>> afterColumns = columnsByName((List<Map<String, Object>>) after.get("columns"));
+
+        SchemaDiff.TableChange change = new SchemaDiff.TableChange();
+        change.setTable(name);
+        for (Map.Entry<String, Map<String, Object>> entry : afterColumns.entrySet()) {
+            Map<String, Object> column = beforeColumns.get(entry.getKey());
+            if (column == null) {
+                change.getAddedColumns().add(entry.getValue());
+            } else if (!column.equals(entry.getValue())) {
+                Map<String, Object> changed = new LinkedHashMap<>();
+                changed.put("name", entry.getKey());
+                changed.put("before", column);
+                changed.put("after", entry.getValue());
+                change.getChangedColumns().add(changed);
+            }
+        }
+        for (String column : beforeColumns.keySet()) {
+            if (!afterColumns.containsKey(column)) {
+                change.getRemovedColumns().add(column);
+            }
+        }
+        if (!Objects.equals(before.get("primaryKey"), after.get("primaryKey"))) {
+            change.setPrimaryKeyBefore((List<String>) before.get("primaryKey"));
+            change.setPrimaryKeyAfter((List<String>) after.get("primaryKey"));
+        }
+        change.setPropertiesChanged(!Objects.equals(before.get("comment"), after.get("comment"))
+                || !Objects.equals(previous.getTableType(), current.getTableType()));
+
+        boolean unchanged = change.getAddedColumns().isEmpty() && change.getRemovedColumns().isEmpty()
+                && change.getChangedColumns().isEmpty() && change.getPrimaryKeyAfter() == null
+                && !change.isPropertiesChanged();
+        return unchanged ? null : change;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public String describe(Long userId, Long connectionId, String database) {
+        DatabaseConnection connection = getOwnedConnection(userId, connectionId);
+        String databaseName = resolveDatabase(connection, database);
+        SchemaSnapshot snapshot = snapshotRepository
+                .findFirstByConnectionAndDatabaseNameOrderByVersionDesc(connection, databaseName).orElse(null);
+        if (snapshot == null) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("数据库类型: ").append(connection.getType()).append('\n');
+        sb.append("数据库: ").append(databaseName).append('\n');
+        for (SchemaSnapshotTable table : findTables(snapshot)) {
+            Map<String, Object> definition = parseDefinition(table);
+            List<String> primaryKey = (List<String>) definition.get("primaryKey");
+            sb.append('\n').append("VIEW".equals(table.getTableType()) ? "视图 " : "表 ")
+                    .append(qualifiedName(table.getSchemaName(), table.getTableName()));
+            if (definition.get("comment") != null) {
+                sb.append(" -- ").append(definition.get("comment"));
+            }
+            sb.append('\n');
+            for (Map<String, Object> column : (List<Map<String, Object>>) definition.get("columns")) {
+                sb.append("  ").append(column.get("name")).append(' ').append(column.get("type"));
+                if (primaryKey != null && primaryKey.contains(column.get("name"))) {
+                    sb.append(" PRIMARY KEY");
+                }
+                if (Boolean.FALSE.equals(column.get("nullable"))) {
+                    sb.append(" NOT NULL");
+                }
+                if (column.get("comment") != null) {
+                    sb.append(" -- ").append(column.get("comment"));
+                }
+                sb.append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private SchemaSnapshot findSnapshot(DatabaseConnection connection, String databaseName, Integer version) {
+        if (version == null) {
+            return snapshotRepository.findFirstByConnectionAndDatabaseNameOrderByVersionDesc(connection, databaseName)
+                    .orElseThrow(() -> new ResourceNotFoundException("数据库 " + databaseName + " 还没有结构快照"));
+        }
+        return snapshotRepository.findByConnectionAndDatabaseNameAndVersion(connection, databaseName, version)
+                .orElseThrow(() -> new ResourceNotFoundException("Schema snapshot not found with version: " + version));
+    }
+
+    private List<SchemaSnapshotTable> findTables(SchemaSnapshot snapshot) {
+        List<SchemaSnapshotTable> tables = tableRepository.findAtVersion(
+                snapshot.getConnection(), snapshot.getDatabaseName(), snapshot.getVersion());
+        tables.sort((a, b) -> qualifiedName(a.getSchemaName(), a.getTableName())
+                .compareTo(qualifiedName(b.getSchemaName(), b.getTableName())));
+        return tables;
+    }
+
+    private Map<String, Object> parseDefinition(SchemaSnapshotTable table) {
+        return parseDefinition(table.getDefinition());
+    }
+
+    private Map<String, Object> parseDefinition(String definition) {
+        try {
+            return objectMapper.readValue(definition, DEFINITION_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("解析表结构失败: " + e.getMessage(), e);
+        }
+    }
+
+    private Map<String, Object> tableNode(String schema, String name, String type, String definition) {
+        Map<String, Object> node = new LinkedHashMap<>();
+        node.put("schema", schema);
+        node.put("name", name);
+        node.put("type", type);
+        node.putAll(parseDefinition(definition));
+        return node;
+    }
+
+    private static Map<String, SchemaSnapshotTable> tablesByName(List<SchemaSnapshotTable> tables) {
+        Map<String, SchemaSnapshotTable> result = new LinkedHashMap<>();
+        for (SchemaSnapshotTable table : tables) {
+            result.put(qualifiedName(table.getSchemaName(), table.getTableName()), table);
+        }
+        return result;
+    }
+
+    private static Map<String, Map<String, Object>> columnsByName(List<Map<String, Object>> columns) {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        if (columns != null) {
+            for (Map<String, Object> column : columns) {
+                result.put(String.valueOf(column.get("name")), column);
+            }
+        }
+        return result;
+    }
+
+    private DatabaseConnection getOwnedConnection(Long userId, Long connectionId) {
+        return connectionRepository.findById(connectionId)
+                .filter(c -> c.getUser().getId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + connectionId));
+    }
+
+    /**
+     * 未指定数据库时使用连接的默认数据库，都为空时使用空字符串（如Oracle按当前用户的模式读取）
+     */
+    private static String resolveDatabase(DatabaseConnection connection, String database) {
+        if (database != null && !database.isEmpty()) {
+            return database;
+        }
+        return connection.getDatabase() != null ? connection.getDatabase() : "";
+    }
+
+    private static String qualifiedName(String schema, String table) {
+        return schema == null ? table : schema + "." + table;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static final class RefreshResult {
+        private final SchemaSnapshot snapshot;
+        private final SchemaChangedEvent event;
+
+        RefreshResult(SchemaSnapshot snapshot, SchemaChangedEvent event) {
+            this.snapshot = snapshot;
+            this.event = event;
+        }
+    }
+
+    /**
+     * 目标数据库中一个表的变化信号，需要重新读取时附带读取到的结构
+     */
+    private static final class TableSignal {
+        private String schema;
+        private String name;
+        private String type;
+        private String signal;
+        private String comment;
+        private String definition;
+
+        String key() {
+            return qualifiedName(schema, name);
+        }
+    }
+}
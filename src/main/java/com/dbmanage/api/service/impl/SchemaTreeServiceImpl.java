@@ -0,0 +1,258 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.dto.query.SchemaTreePage;
+import com.dbmanage.api.exception.ResourceNotFoundException;
+import com.dbmanage.api.model.DatabaseConnection;
+import com.dbmanage.api.repository.DatabaseConnectionRepository;
+import com.dbmanage.api.service.ConnectionService;
+import com.dbmanage.api.service.MetadataCacheService;
+import com.dbmanage.api.service.SchemaTreeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 对象树服务实现类
+ * 每次请求只调用一次DatabaseMetaData方法读取一层节点，读满一页即停止，
+ * 表和列的名称过滤转换为元数据查询的LIKE模式在数据库端执行；结果按页缓存在元数据缓存中
+ */
+@Service
+public class SchemaTreeServiceImpl implements SchemaTreeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaTreeServiceImpl.class);
+
+    public static final String LEVEL_DATABASE = "database";
+    public static final String LEVEL_SCHEMA = "schema";
+    public static final String LEVEL_TABLE = "table";
+    public static final String LEVEL_COLUMN = "column";
+
+    private static final String[] TABLE_TYPES = {"TABLE", "VIEW"};
+
+    private final AppProperties.SchemaTree config;
+
+    @Autowired
+    private DatabaseConnectionRepository connectionRepository;
+
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Autowired
+    private MetadataCacheService metadataCacheService;
+
+    @Autowired
+    public SchemaTreeServiceImpl(AppProperties appProperties) {
+        this.config = appProperties.getSchemaTree();
+    }
+
+    @Override
+    public List<String> getDatabases(Long connectionId) {
+        return metadataCacheService.get(connectionId, MetadataCacheService.CATALOGS, null, null,
+                () -> loadDatabases(connectionId));
+    }
+
+    private List<String> loadDatabases(Long connectionId) {
+        DatabaseConnection connection = findConnection(connectionId);
+        List<String> databases = new ArrayList<>();
+        try (Connection conn = connectionService.getConnection(connection);
+             ResultSet rs = conn.getMetaData().getCatalogs()) {
+            while (rs.next()) {
+                databases.add(rs.getString("TABLE_CAT"));
+            }
+        } catch (SQLException e) {
+            logger.error("Error fetching databases: ", e);
+            throw new RuntimeException("Error fetching databases: " + e.getMessage(), e);
+        }
+        return databases;
+    }
+
+    @Override
+    public SchemaTreePage getChildren(Long connectionId, String database, String schema, String table,
+                                      String filter, int offset, int limit) {
+        long startTime = System.currentTimeMillis();
+        int pageOffset = Math.max(0, offset);
+        int pageSize = Math.max(1, Math.min(limit, config.getMaxPageSize()));
+        String databaseName = emptyToNull(database);
+        String schemaName = emptyToNull(schema);
+        String tableName = emptyToNull(table);
+        String nameFilter = emptyToNull(filter);
+
+        // 元数据缓存键只有数据库和名称两部分，其余参数拼接为名称
+        String key = String.join("\u0000", String.valueOf(schemaName), String.valueOf(tableName),
+                String.valueOf(nameFilter), String.valueOf(pageOffset), String.valueOf(pageSize));
+        SchemaTreePage cached = metadataCacheService.get(connectionId, MetadataCacheService.TREE, databaseName, key,
+                () -> loadChildren(connectionId, databaseName, schemaName, tableName, nameFilter, pageOffset, pageSize));
+
+        // 缓存中的分页结果由多个请求共享，返回副本
+        SchemaTreePage page = new SchemaTreePage();
+        page.setLevel(cached.getLevel());
+        page.setNodes(cached.getNodes());
+        page.setOffset(cached.getOffset());
+        page.setHasMore(cached.isHasMore());
+        page.setExecutionTime(System.currentTimeMillis() - startTime);
+        return page;
+    }
+
+    private SchemaTreePage loadChildren(Long connectionId, String database, String schema, String table,
+                                        String filter, int offset, int limit) {
+        DatabaseConnection connection = findConnection(connectionId);
+        SchemaTreePage page = new SchemaTreePage();
+        page.setOffset(offset);
+        List<Map<String, Object>> nodes = new ArrayList<>();
+
+        try (Connection conn = connectionService.getConnection(connection)) {
+            DatabaseMetaData metaData = conn.getMetaData();
+            boolean hasMore;
+
+            if (database == null) {
+                // getCatalogs没有名称模式参数，在读取时过滤
+                page.setLevel(LEVEL_DATABASE);
+                String lowerFilter = filter != null ? filter.toLowerCase(Locale.ROOT) : null;
+                try (ResultSet rs = metaData.getCatalogs()) {
+                    hasMore = readPage(rs, offset, limit, nodes, row -> {
+                        String name = row.getString("TABLE_CAT");
+                        if (lowerFilter != null && !name.toLowerCase(Locale.ROOT).contains(lowerFilter)) {
+                            return null;
+                        }
+                        Map<String, Object> node = node("catalog-" + name, name, LEVEL_DATABASE, false);
+                        node.put("database", name);
+                        return node;
+                    });
+                }
+            } else if (schema == null && table == null && metaData.supportsSchemasInTableDefinitions()) {
+                page.setLevel(LEVEL_SCHEMA);
+                try (ResultSet rs = metaData.getSchemas(database, namePattern(metaData, filter))) {
+                    hasMore = readPage(rs, offset, limit, nodes, row -> {
+                        String name = row.getString("TABLE_SCHEM");
+                        Map<String, Object> node = node("schema-" + database + "-" + name, name, LEVEL_SCHEMA, false);
+                        node.put("database", database);
+                        node.put("schema", name);
+                        return node;
+                    });
+                }
+            } else if (table == null) {
+                page.setLevel(LEVEL_TABLE);
+                try (ResultSet rs = metaData.getTables(database, schema, namePattern(metaData, filter), TABLE_TYPES)) {
+                    hasMore = readPage(rs, offset, limit, nodes, row -> {
+                        String name = row.getString("TABLE_NAME");
+                        String tableType = row.getString("TABLE_TYPE");
+                        String type = "VIEW".equalsIgnoreCase(tableType) ? "view" : "table";
+                        Map<String, Object> node = node(type + "-" + database + "-" + schema + "-" + name, name, type, false);
+                        node.put("database", database);
+                        node.put("schema", schema);
+                        node.put("table", name);
+                        node.put("tableType", tableType);
+                        node.put("remarks", row.getString("REMARKS"));
+                        return node;
+                    });
+                }
+            } else {
+                page.setLevel(LEVEL_COLUMN);
+                try (ResultSet rs = metaData.getColumns(database, schema, table, namePattern(metaData, filter))) {
+                    hasMore = readPage(rs, offset, limit, nodes, row -> {
+                        String name = row.getString("COLUMN_NAME");
+                        String dataType = row.getString("TYPE_NAME");
+                        Map<String, Object> node = node("column-" + database + "-" + schema + "-" + table + "-" + name,
+                                name + " (" + dataType + ")", LEVEL_COLUMN, true);
+                        node.put("name", name);
+                        node.put("dataType", dataType);
+                        node.put("columnSize", row.getInt("COLUMN_SIZE"));
+                        node.put("nullable", row.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls);
+                        node.put("remarks", row.getString("REMARKS"));
+                        return node;
+                    });
+                }
+            }
+            page.setNodes(nodes);
+            page.setHasMore(hasMore);
+        } catch (SQLException e) {
+            logger.error("Error fetching schema tree: ", e);
+            throw new RuntimeException("Error fetching schema tree: " + e.getMessage(), e);
+        }
+        return page;
+    }
+
+    /**
+     * 跳过offset个节点后读取一页，多读一个节点判断是否还有下一页
+     *
+     * @return 是否还有下一页
+     */
+    private static boolean readPage(ResultSet rs, int offset, int limit, List<Map<String, Object>> nodes,
+                                    NodeReader reader) throws SQLException {
+        int skipped = 0;
+        while (rs.next()) {
+            Map<String, Object> node = reader.read(rs);
+            if (node == null) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            if (nodes.size() == limit) {
+                return true;
+            }
+            nodes.add(node);
+        }
+        return false;
+    }
+
+    /**
+     * 将名称过滤转换为元数据查询的LIKE模式
+     * 按数据库保存未加引号标识符的大小写转换，转义过滤字符串中的通配符
+     */
+    private static String namePattern(DatabaseMetaData metaData, String filter) throws SQLException {
+        if (filter == null) {
+            return null;
+        }
+        String value = filter;
+        if (metaData.storesUpperCaseIdentifiers()) {
+            value = value.toUpperCase(Locale.ROOT);
+        } else if (metaData.storesLowerCaseIdentifiers()) {
+            value = value.toLowerCase(Locale.ROOT);
+        }
+        String escape = metaData.getSearchStringEscape();
+        if (escape != null && !escape.isEmpty()) {
+            value = value.replace(escape, escape + escape)
+                    .replace("%", escape + "%")
+                    .replace("_", escape + "_");
+        }
+        return "%" + value + "%";
+    }
+
+    private static Map<String, Object> node(String id, String label, String type, boolean leaf) {
+        Map<String, Object> node = new HashMap<>();
+        node.put("id", id);
+        node.put("label", label);
+        node.put("type", type);
+        node.put("leaf", leaf);
+        return node;
+    }
+
+    private DatabaseConnection findConnection(Long connectionId) {
+        return connectionRepository.findById(connectionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + connectionId));
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 将元数据结果集的当前行转换为节点，返回null表示跳过该行
+     */
+    private interface NodeReader {
+        Map<String, Object> read(ResultSet rs) throws SQLException;
+    }
+}
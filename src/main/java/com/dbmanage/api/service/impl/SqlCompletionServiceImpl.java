@@ -0,0 +1,258 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.dto.query.SqlCompletionResponse;
+import com.dbmanage.api.service.SchemaSearchService;
+import com.dbmanage.api.service.SqlCompletionService;
+import com.dbmanage.api.util.SchemaSearchIndex;
+import com.dbmanage.api.util.SqlCompletionContext;
+import com.dbmanage.api.util.SqlDialect;
+import com.dbmanage.api.util.SqlScriptParser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 本地SQL补全服务实现类
+ * 光标处的上下文由SqlScriptParser分析，表和列来自结构搜索索引（基于结构快照，首次使用时构建），
+ * 之后的每次补全只做内存查找。以输入内容开头的补全项排在前面，其余包含输入内容的排在后面
+ */
+@Service
+public class SqlCompletionServiceImpl implements SqlCompletionService {
+
+    private static final int MAX_ITEMS = 200;
+
+    private static final String KIND_KEYWORD = "keyword";
+    private static final String KIND_FUNCTION = "function";
+
+    private static final List<String> STATEMENT_KEYWORDS = Arrays.asList(
+            "SELECT", "INSERT INTO", "UPDATE", "DELETE FROM", "WITH", "CREATE TABLE", "CREATE INDEX", "CREATE VIEW",
+            "ALTER TABLE", "DROP TABLE", "TRUNCATE TABLE", "EXPLAIN", "SHOW", "DESCRIBE");
+
+    private static final List<String> CLAUSE_KEYWORDS = Arrays.asList(
+            "WHERE", "FROM", "AS", "JOIN", "LEFT JOIN", "RIGHT JOIN", "INNER JOIN", "FULL JOIN", "CROSS JOIN", "ON",
+            "USING", "AND", "OR", "NOT", "IN", "LIKE", "BETWEEN", "IS NULL", "IS NOT NULL", "GROUP BY", "ORDER BY",
+            "HAVING", "LIMIT", "OFFSET", "ASC", "DESC", "UNION", "UNION ALL", "SET", "VALUES", "RETURNING");
+
+    private static final List<String> EXPRESSION_KEYWORDS = Arrays.asList(
+            "DISTINCT", "CASE", "WHEN", "THEN", "ELSE", "END", "NULL", "NOT", "AND", "OR", "IN", "EXISTS", "LIKE",
+            "BETWEEN", "IS", "AS", "TRUE", "FALSE");
+
+    private static final List<String> COMMON_FUNCTIONS = Arrays.asList(
+            "COUNT", "SUM", "AVG", "MIN", "MAX", "COALESCE", "NULLIF", "CAST", "UPPER", "LOWER", "TRIM", "LENGTH",
+            "SUBSTRING", "CONCAT", "REPLACE", "ROUND", "ABS", "CEIL", "FLOOR", "CURRENT_DATE", "CURRENT_TIMESTAMP",
+            "ROW_NUMBER", "RANK", "DENSE_RANK", "LAG", "LEAD");
+
+    private static final Map<SqlDialect, List<String>> DIALECT_FUNCTIONS = new EnumMap<>(SqlDialect.class);
+
+    static {
+        DIALECT_FUNCTIONS.put(SqlDialect.MYSQL, Arrays.asList(
+                "IFNULL", "NOW", "DATE_FORMAT", "DATE_ADD", "DATE_SUB", "DATEDIFF", "GROUP_CONCAT", "CHAR_LENGTH",
+                "JSON_EXTRACT"));
+        DIALECT_FUNCTIONS.put(SqlDialect.POSTGRESQL, Arrays.asList(
+                "NOW", "TO_CHAR", "TO_DATE", "DATE_TRUNC", "EXTRACT", "STRING_AGG", "ARRAY_AGG", "JSONB_BUILD_OBJECT",
+                "GENERATE_SERIES"));
+        DIALECT_FUNCTIONS.put(SqlDialect.SQLSERVER, Arrays.asList(
+                "ISNULL", "GETDATE", "DATEADD", "DATEDIFF", "FORMAT", "LEN", "STRING_AGG", "IIF"));
+        DIALECT_FUNCTIONS.put(SqlDialect.ORACLE, Arrays.asList(
+                "NVL", "NVL2", "SYSDATE", "TO_CHAR", "TO_DATE", "TO_NUMBER", "DECODE", "LISTAGG", "TRUNC"));
+    }
+
+    @Autowired
+    private SchemaSearchService schemaSearchService;
+
+    @Override
+    public SqlCompletionResponse complete(Long userId, Long connectionId, String database, String sql, Integer cursor,
+                                          String dialect, int limit) {
+        long startTime = System.currentTimeMillis();
+        SqlDialect sqlDialect = SqlDialect.from(dialect);
+        SqlCompletionContext context = SqlScriptParser.completionContext(sql, cursor == null ? -1 : cursor, sqlDialect);
+        Candidates candidates = new Candidates(context.getPrefix(), Math.max(1, Math.min(limit, MAX_ITEMS)));
+
+        switch (context.getKind()) {
+            case KEYWORD:
+                candidates.addKeywords(context.isStatementStart() ? STATEMENT_KEYWORDS : CLAUSE_KEYWORDS);
+                break;
+            case TABLE:
+                if (connectionId != null) {
+                    addTables(candidates, userId, connectionId, database, context);
+                }
+                break;
+            case COLUMN:
+                if (connectionId != null) {
+                    addColumns(candidates, userId, connectionId, database, context);
+                }
+                if (context.getQualifier() == null) {
+                    candidates.addFunctions(COMMON_FUNCTIONS);
+                    candidates.addFunctions(DIALECT_FUNCTIONS.getOrDefault(sqlDialect, Collections.emptyList()));
+                    candidates.addKeywords(EXPRESSION_KEYWORDS);
+                }
+                break;
+            default:
+                break;
+        }
+
+        SqlCompletionResponse response = new SqlCompletionResponse();
+        response.setContext(context.getKind().name().toLowerCase(Locale.ROOT));
+        response.setPrefix(context.getPrefix());
+        response.setReplaceStart(context.getReplaceStart());
+        response.setNaturalLanguage(context.isNaturalLanguage());
+        response.setItems(candidates.result());
+        response.setExecutionTime(System.currentTimeMillis() - startTime);
+        return response;
+    }
+
+    /**
+     * 补全表名：schema. 之后列出该schema的表，否则按名称前缀列出，不够时补充子串和模糊匹配
+     */
+    private void addTables(Candidates candidates, Long userId, Long connectionId, String database,
+                           SqlCompletionContext context) {
+        String prefix = context.getPrefix();
+        if (context.getQualifier() != null) {
+            String schemaPrefix = context.getQualifier() + ".";
+            for (SchemaSearchIndex.Table table : schemaSearchService.listTables(userId, connectionId, database,
+                    schemaPrefix + prefix, candidates.limit)) {
+                candidates.addTable(table, table.getName().substring(schemaPrefix.length()));
+            }
+            return;
+        }
+        for (SchemaSearchIndex.Table table : schemaSearchService.listTables(userId, connectionId, database,
+                prefix, candidates.limit)) {
+            candidates.addTable(table, table.getName());
+        }
+        if (!prefix.isEmpty() && !candidates.isFull()) {
+            for (SchemaSearchIndex.Hit hit : schemaSearchService.search(userId, connectionId, database, prefix,
+                    SchemaSearchIndex.KIND_TABLE, candidates.limit)) {
+                candidates.add(hit.getTable(), SchemaSearchIndex.KIND_TABLE, detail(hit.getType(), hit.getComment()),
+                        true);
+            }
+        }
+    }
+
+    /**
+     * 补全列名：限定名指向语句中的表（别名或表名）或任意已知表时给出该表的列，否则视为schema给出其中的表；
+     * 没有限定名时给出语句中所有表的列，语句中还没有表时在全部列中搜索
+     */
+    private void addColumns(Candidates candidates, Long userId, Long connectionId, String database,
+                            SqlCompletionContext context) {
+        String qualifier = context.getQualifier();
+        if (qualifier != null) {
+            String name = qualifier;
+            for (SqlCompletionContext.TableRef ref : context.getTables()) {
+                if (ref.matches(qualifier)) {
+                    name = ref.getName();
+                    break;
+                }
+            }
+            SchemaSearchIndex.Table table = schemaSearchService.findTable(userId, connectionId, database, name);
+            if (table != null) {
+                addColumns(candidates, table, false);
+            } else {
+                addTables(candidates, userId, connectionId, database, context);
+            }
+            return;
+        }
+
+        Set<String> seen = new HashSet<>();
+        for (SqlCompletionContext.TableRef ref : context.getTables()) {
+            SchemaSearchIndex.Table table = seen.add(ref.getName().toLowerCase(Locale.ROOT))
+                    ? schemaSearchService.findTable(userId, connectionId, database, ref.getName()) : null;
+            if (table != null) {
+                addColumns(candidates, table, context.getTables().size() > 1);
+            }
+        }
+        if (context.getTables().isEmpty() && !context.getPrefix().isEmpty()) {
+            for (SchemaSearchIndex.Hit hit : schemaSearchService.search(userId, connectionId, database,
+                    context.getPrefix(), SchemaSearchIndex.KIND_COLUMN, candidates.limit)) {
+                candidates.add(hit.getColumn(), SchemaSearchIndex.KIND_COLUMN,
+                        detail(hit.getType(), hit.getTable()), true);
+            }
+        }
+    }
+
+    private void addColumns(Candidates candidates, SchemaSearchIndex.Table table, boolean withTable) {
+        for (SchemaSearchIndex.Column column : table.getColumns()) {
+            candidates.add(column.getName(), SchemaSearchIndex.KIND_COLUMN,
+                    detail(column.getType(), withTable ? table.getName() : column.getComment()), false);
+        }
+    }
+
+    private static String detail(String first, String second) {
+        if (first == null || first.isEmpty()) {
+            return second;
+        }
+        return second == null || second.isEmpty() ? first : first + " · " + second;
+    }
+
+    /**
+     * 收集补全项：以输入内容开头的放在前面，只包含输入内容的放在后面，同名同类型的只保留一个
+     */
+    private static final class Candidates {
+        private final String prefix;
+        private final int limit;
+        private final List<SqlCompletionResponse.Item> leading = new ArrayList<>();
+        private final List<SqlCompletionResponse.Item> trailing = new ArrayList<>();
+        private final Set<String> seen = new HashSet<>();
+
+        Candidates(String prefix, int limit) {
+            this.prefix = prefix.toLowerCase(Locale.ROOT);
+            this.limit = limit;
+        }
+
+        boolean isFull() {
+            return leading.size() >= limit;
+        }
+
+        void addKeywords(List<String> keywords) {
+            for (String keyword : keywords) {
+                add(keyword, KIND_KEYWORD, null, false);
+            }
+        }
+
+        void addFunctions(List<String> functions) {
+            for (String function : functions) {
+                add(function, KIND_FUNCTION, null, false);
+            }
+        }
+
+        void addTable(SchemaSearchIndex.Table table, String label) {
+            add(label, SchemaSearchIndex.KIND_TABLE, detail(table.getType(), table.getComment()), false);
+        }
+
+        /**
+         * @param matched 是否已由搜索索引匹配（包括模糊匹配），此时不再按输入内容过滤
+         */
+        void add(String label, String kind, String detail, boolean matched) {
+            if (label == null || isFull() || !seen.add(kind + ":" + label)) {
+                return;
+            }
+            String lower = label.toLowerCase(Locale.ROOT);
+            if (lower.startsWith(prefix)) {
+                leading.add(new SqlCompletionResponse.Item(label, kind, detail));
+            } else if (matched || lower.contains(prefix)) {
+                trailing.add(new SqlCompletionResponse.Item(label, kind, detail));
+            } else {
+                seen.remove(kind + ":" + label);
+            }
+        }
+
+        List<SqlCompletionResponse.Item> result() {
+            List<SqlCompletionResponse.Item> items = new ArrayList<>(leading);
+            for (SqlCompletionResponse.Item item : trailing) {
+                if (items.size() >= limit) {
+                    break;
+                }
+                items.add(item);
+            }
+            return items;
+        }
+    }
+}
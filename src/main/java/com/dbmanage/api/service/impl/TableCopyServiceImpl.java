@@ -0,0 +1,681 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.common.Constants;
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.dto.query.RowCount;
+import com.dbmanage.api.dto.task.DataTaskResponse;
+import com.dbmanage.api.dto.task.TableCopyRequest;
+import com.dbmanage.api.exception.ResourceNotFoundException;
+import com.dbmanage.api.exception.ValidationException;
+import com.dbmanage.api.model.DataTask;
+import com.dbmanage.api.model.DatabaseConnection;
+import com.dbmanage.api.repository.DataTaskRepository;
+import com.dbmanage.api.repository.DatabaseConnectionRepository;
+import com.dbmanage.api.service.ConnectionService;
+import com.dbmanage.api.service.DatabaseTypeService;
+import com.dbmanage.api.service.QueryResultCache;
+import com.dbmanage.api.service.RowCountService;
+import com.dbmanage.api.service.TableCopyService;
+import com.dbmanage.api.service.TableDataService;
+import com.dbmanage.api.service.TaskExecutionService;
+import com.dbmanage.api.util.SqlDialect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 跨连接表复制服务实现类
+ * 读取端在独立线程中流式读取源表，按批放入有界队列；写入端在目标连接的任务通道中取出批次，
+ * executeBatch后逐批提交。队列满时读取端阻塞，队列空时写入端等待，吞吐由较慢的一端决定，
+ * 内存中最多保留 queueCapacity + 2 个批次。
+ * 增量复制按键列从目标表的最大值之后继续读取，已提交的批次不会重复写入
+ */
+@Service
+public class TableCopyServiceImpl implements TableCopyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableCopyServiceImpl.class);
+
+    /**
+     * 进度写回间隔（毫秒），也是写入端等待批次时检查取消的间隔
+     */
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+
+    private final AppProperties.TableCopy config;
+    private final int fetchSize;
+
+    /**
+     * 读取端线程，读取端只在队列上阻塞，不占用任务执行服务的通道配额
+     */
+    private final ExecutorService readers;
+
+    /**
+     * 已请求取消的任务
+     */
+    private final Set<Long> cancelRequested = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private DataTaskRepository dataTaskRepository;
+
+    @Autowired
+    private DatabaseConnectionRepository connectionRepository;
+
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Autowired
+    private TaskExecutionService taskExecutionService;
+
+    @Autowired
+    private TableDataService tableDataService;
+
+    @Autowired
+    private RowCountService rowCountService;
+
+    @Autowired
+    private DatabaseTypeService databaseTypeService;
+
+    @Autowired
+    private QueryResultCache queryResultCache;
+
+    @Autowired
+    public TableCopyServiceImpl(AppProperties appProperties) {
+        this.config = appProperties.getTableCopy();
+        this.fetchSize = appProperties.getQuery().getFetchSize();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.readers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "table-copy-reader-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readers.shutdownNow();
+    }
+
+    @Override
+    public DataTaskResponse submit(Long userId, TableCopyRequest request) {
+        if (request.isTruncate() && request.isIncremental()) {
+            throw new ValidationException("增量复制不能同时清空目标表", "truncate");
+        }
+        DatabaseConnection source = getOwnedConnection(userId, request.getSourceConnectionId());
+        DatabaseConnection target = getOwnedConnection(userId, request.getTargetConnectionId());
+        if (request.getTargetTable() == null || request.getTargetTable().trim().isEmpty()) {
+            request.setTargetTable(request.getSourceTable());
+        }
+        if (source.getId().equals(target.getId())
+                && request.getSourceTable().equalsIgnoreCase(request.getTargetTable())
+                && String.valueOf(request.getSourceDatabase()).equals(String.valueOf(request.getTargetDatabase()))) {
+            throw new ValidationException("源表与目标表相同");
+        }
+
+        DataTask task = new DataTask();
+        task.setType(Constants.Task.TYPE_COPY);
+        task.setConnection(target);
+        task.setUser(target.getUser());
+        task.setTableName(request.getTargetTable());
+        // 用源表的估算行数计算进度
+        RowCount rowCount = rowCountService.getRowCount(source.getId(), request.getSourceDatabase(), request.getSourceTable(), false);
+        task.setTotalRows(rowCount.getCount());
+        task = dataTaskRepository.save(task);
+
+        DataTask submitted = task;
+        try {
+            taskExecutionService.submit(target.getId(), () -> {
+                run(submitted, request, source);
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            task.setErrorMessage(e.getMessage());
+            finish(task, Constants.Task.STATUS_FAILED);
+            throw e;
+        }
+        return new DataTaskResponse(task);
+    }
+
+    @Override
+    public DataTaskResponse cancel(Long userId, Long taskId) {
+        DataTask task = dataTaskRepository.findById(taskId)
+                .filter(t -> t.getUser().getId().equals(userId) && Constants.Task.TYPE_COPY.equals(t.getType()))
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+        if (Constants.Task.STATUS_PENDING.equals(task.getStatus()) || Constants.Task.STATUS_RUNNING.equals(task.getStatus())) {
+            cancelRequested.add(taskId);
+        }
+        return new DataTaskResponse(task);
+    }
+
+    private void run(DataTask task, TableCopyRequest request, DatabaseConnection source) {
+        if (cancelRequested.remove(task.getId())) {
+            finish(task, Constants.Task.STATUS_CANCELLED);
+            return;
+        }
+        task.setStatus(Constants.Task.STATUS_RUNNING);
+        task.setStartedAt(new Date());
+        task = dataTaskRepository.save(task);
+
+        long startTime = System.currentTimeMillis();
+        DatabaseConnection target = task.getConnection();
+        int batchSize = request.getBatchSize() != null && request.getBatchSize() > 0 ? request.getBatchSize() : config.getBatchSize();
+        Pipeline pipeline = new Pipeline(Math.max(1, config.getQueueCapacity()));
+        long committed = 0;
+        String status = Constants.Task.STATUS_COMPLETED;
+        try (Connection conn = connectionService.getConnection(target)) {
+            if (request.getTargetDatabase() != null && !request.getTargetDatabase().isEmpty()) {
+                conn.setCatalog(request.getTargetDatabase());
+            }
+            SqlDialect sourceDialect = SqlDialect.from(source.getType());
+            SqlDialect targetDialect = SqlDialect.from(target.getType());
+
+            List<Column> sourceColumns = describeSource(source, request);
+            List<String> keyColumns = tableDataService.getKeyColumns(source.getId(), request.getSourceDatabase(), request.getSourceTable());
+            String keyColumn = request.getKeyColumn() != null && !request.getKeyColumn().trim().isEmpty()
+                    ? request.getKeyColumn().trim()
+                    : keyColumns.size() == 1 ? keyColumns.get(0) : null;
+            if (request.isIncremental() && keyColumn == null) {
+                throw new ValidationException("增量复制需要源表有单列主键，或通过keyColumn指定键列", "keyColumn");
+            }
+            // 增量复制从目标表键列的最大值之后继续，键列有重复值时与最大值相等的未复制行会被跳过
+            if (request.isIncremental() && !isUniqueKey(source, request, sourceColumns, keyColumns, keyColumn)) {
+                throw new ValidationException("增量复制的键列必须是源表的单列主键或非空唯一索引: " + keyColumn, "keyColumn");
+            }
+
+            if (!tableExists(conn, targetDialect, request.getTargetTable())) {
+                if (!request.isCreateTable()) {
+                    throw new ValidationException("目标表不存在: " + request.getTargetTable());
+                }
+                createTable(conn, targetDialect, target, request.getTargetTable(), sourceColumns, keyColumns);
+            } else if (request.isTruncate()) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("TRUNCATE TABLE " + targetDialect.quoteQualified(request.getTargetTable()));
+                }
+            }
+            List<Column> targetColumns = resolveTargetColumns(conn, targetDialect, request.getTargetTable(), sourceColumns);
+
+            StringBuilder sql = new StringBuilder("SELECT ")
+                    .append(sourceColumns.stream().map(column -> sourceDialect.quote(column.name)).collect(Collectors.joining(", ")))
+                    .append(" FROM ").append(sourceDialect.quoteQualified(request.getSourceTable()));
+            Object resumeValue = null;
+            if (request.isIncremental()) {
+                resumeValue = findResumeValue(conn, targetDialect, request.getTargetTable(), targetColumns, sourceColumns, keyColumn);
+                if (resumeValue != null) {
+                    sql.append(" WHERE ").append(sourceDialect.quote(keyColumn)).append(" > ?");
+                    logger.info("复制任务 {} 从 {} > {} 继续", task.getId(), keyColumn, resumeValue);
+                }
+            }
+            if (keyColumn != null) {
+                // 按键列顺序写入，中断后可用增量复制续传
+                sql.append(" ORDER BY ").append(sourceDialect.quote(keyColumn));
+            }
+
+            String readSql = sql.toString();
+            Object readFrom = resumeValue;
+            readers.execute(() -> read(source, request.getSourceDatabase(), readSql, readFrom, sourceColumns, batchSize, pipeline));
+
+            committed = write(conn, targetDialect, task, request.getTargetTable(), targetColumns, pipeline);
+            if (pipeline.readError != null) {
+                throw pipeline.readError;
+            }
+            if (pipeline.stopped) {
+                status = Constants.Task.STATUS_CANCELLED;
+            } else {
+                task.setTotalRows(committed);
+                task.setProgressPercentage(100);
+            }
+            long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+            logger.info("复制任务 {} 结束（{}），{} -> {}，共 {} 行，{} 行/秒", task.getId(), status,
+                    request.getSourceTable(), request.getTargetTable(), committed, committed * 1000 / elapsed);
+        } catch (Exception e) {
+            logger.warn("复制任务 {} 失败，已写入 {} 行: {}", task.getId(), pipeline.committed, e.getMessage());
+            task.setErrorMessage(e.getMessage());
+            status = Constants.Task.STATUS_FAILED;
+        } finally {
+            pipeline.stop();
+            cancelRequested.remove(task.getId());
+            queryResultCache.invalidateTables(target.getId(), Collections.singleton(request.getTargetTable()));
+            task.setProcessedRows(Math.max(committed, pipeline.committed));
+            finish(task, status);
+        }
+    }
+
+    /**
+     * 读取端：流式读取源表，按批放入队列，结束或出错时放入结束标记
+     */
+    private void read(DatabaseConnection source, String database, String sql, Object resumeValue, List<Column> columns,
+                      int batchSize, Pipeline pipeline) {
+        SqlDialect dialect = SqlDialect.from(source.getType());
+        try (Connection conn = connectionService.getConnection(source)) {
+            if (database != null && !database.isEmpty()) {
+                conn.setCatalog(database);
+            }
+            // PostgreSQL只有在事务内才会使用游标分批读取
+            boolean cursorNeedsTransaction = dialect == SqlDialect.POSTGRESQL && conn.getAutoCommit();
+            if (cursorNeedsTransaction) {
+                conn.setAutoCommit(false);
+            }
+            try (PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                // MySQL驱动只有fetchSize为Integer.MIN_VALUE时才逐行流式读取
+                ps.setFetchSize(dialect == SqlDialect.MYSQL ? Integer.MIN_VALUE : fetchSize);
+                if (resumeValue != null) {
+                    ps.setObject(1, resumeValue);
+                }
+                pipeline.statement = ps;
+                try (ResultSet rs = ps.executeQuery()) {
+                    List<Object[]> batch = new ArrayList<>(batchSize);
+                    while (rs.next()) {
+                        Object[] values = new Object[columns.size()];
+                        for (int i = 0; i < values.length; i++) {
+                            values[i] = readValue(rs, i + 1, columns.get(i).jdbcType);
+                        }
+                        batch.add(values);
+                        if (batch.size() >= batchSize) {
+                            if (!pipeline.put(batch)) {
+                                return;
+                            }
+                            batch = new ArrayList<>(batchSize);
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        pipeline.put(batch);
+                    }
+                }
+            } finally {
+                pipeline.statement = null;
+                if (cursorNeedsTransaction) {
+                    conn.rollback();
+                    conn.setAutoCommit(true);
+                }
+            }
+        } catch (Exception e) {
+            if (!pipeline.stopped) {
+                pipeline.readError = e instanceof InterruptedException
+                        ? new IllegalStateException("读取源表被中断", e)
+                        : e;
+            }
+        } finally {
+            pipeline.finish();
+        }
+    }
+
+    /**
+     * 写入端：从队列取出批次，executeBatch后提交，等待期间写回进度并检查取消
+     *
+     * @return 已提交的行数
+     */
+    private long write(Connection conn, SqlDialect dialect, DataTask task, String table, List<Column> columns,
+                       Pipeline pipeline) throws SQLException, InterruptedException {
+        String sql = "INSERT INTO " + dialect.quoteQualified(table) + " ("
+                + columns.stream().map(column -> dialect.quote(column.name)).collect(Collectors.joining(", "))
+                + ") VALUES ("
+                + columns.stream().map(column -> "?").collect(Collectors.joining(", "))
+                + ")";
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        long lastSaved = System.currentTimeMillis();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            while (true) {
+                if (cancelRequested.contains(task.getId())) {
+                    pipeline.stop();
+                    break;
+                }
+                List<Object[]> batch = pipeline.queue.poll(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (batch == Pipeline.END) {
+                    break;
+                }
+                if (batch != null) {
+                    for (Object[] values : batch) {
+                        for (int i = 0; i < values.length; i++) {
+                            if (values[i] == null) {
+                                ps.setNull(i + 1, columns.get(i).jdbcType);
+                            } else {
+                                ps.setObject(i + 1, values[i]);
+                            }
+                        }
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    conn.commit();
+                    pipeline.committed += batch.size();
+                }
+                if (System.currentTimeMillis() - lastSaved >= PROGRESS_INTERVAL_MS) {
+                    lastSaved = System.currentTimeMillis();
+                    saveProgress(task, pipeline.committed);
+                }
+            }
+            return pipeline.committed;
+        } catch (SQLException | RuntimeException e) {
+            // 当前批次回滚，已提交的批次保留
+            pipeline.stop();
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * 读取源列的值，驱动特有的类型转换为标准Java类型，使其能绑定到另一种数据库
+     */
+    private Object readValue(ResultSet rs, int index, int jdbcType) throws SQLException {
+        Object value = rs.getObject(index);
+        if (value == null || value instanceof byte[]) {
+            return value;
+        }
+        if (value instanceof Clob) {
+            Clob clob = (Clob) value;
+            return clob.getSubString(1, (int) clob.length());
+        }
+        if (value instanceof Blob) {
+            Blob blob = (Blob) value;
+            return blob.getBytes(1, (int) blob.length());
+        }
+        if (value instanceof SQLXML) {
+            return ((SQLXML) value).getString();
+        }
+        if (value instanceof UUID) {
+            return value.toString();
+        }
+        if (value instanceof java.sql.Array || !value.getClass().getName().startsWith("java.")) {
+            // 如PostgreSQL的PGobject（json、interval等）、Oracle的TIMESTAMP
+            if (jdbcType == Types.TIMESTAMP || jdbcType == Types.DATE) {
+                return rs.getTimestamp(index);
+            }
+            return value.toString();
+        }
+        return value;
+    }
+
+    private List<Column> describeSource(DatabaseConnection source, TableCopyRequest request) throws SQLException {
+        SqlDialect dialect = SqlDialect.from(source.getType());
+        try (Connection conn = connectionService.getConnection(source)) {
+            if (request.getSourceDatabase() != null && !request.getSourceDatabase().isEmpty()) {
+                conn.setCatalog(request.getSourceDatabase());
+            }
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT * FROM " + dialect.quoteQualified(request.getSourceTable()) + " WHERE 1 = 0")) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                List<Column> columns = new ArrayList<>();
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    Column column = new Column(metaData.getColumnName(i), metaData.getColumnType(i));
+                    column.typeName = metaData.getColumnTypeName(i);
+                    column.precision = metaData.getPrecision(i);
+                    column.scale = metaData.getScale(i);
+                    column.nullable = metaData.isNullable(i) != ResultSetMetaData.columnNoNulls;
+                    columns.add(column);
+                }
+                return columns;
+            }
+        }
+    }
+
+    /**
+     * 键列是否为源表的单列主键，或所有值非空的单列唯一索引
+     */
+    private boolean isUniqueKey(DatabaseConnection source, TableCopyRequest request, List<Column> sourceColumns,
+                                List<String> keyColumns, String keyColumn) throws SQLException {
+        if (keyColumns.size() == 1 && keyColumns.get(0).equalsIgnoreCase(keyColumn)) {
+            return true;
+        }
+        boolean nullable = sourceColumns.stream()
+                .anyMatch(column -> column.name.equalsIgnoreCase(keyColumn) && column.nullable);
+        if (nullable) {
+            return false;
+        }
+        String schema = null;
+        String name = request.getSourceTable();
+        int dot = name.lastIndexOf('.');
+        if (dot > 0) {
+            schema = name.substring(0, dot);
+            name = name.substring(dot + 1);
+        }
+        try (Connection conn = connectionService.getConnection(source)) {
+            if (request.getSourceDatabase() != null && !request.getSourceDatabase().isEmpty()) {
+                conn.setCatalog(request.getSourceDatabase());
+            }
+            Map<String, List<String>> uniqueIndexes = new HashMap<>();
+            try (ResultSet rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), schema, name, true, true)) {
+                while (rs.next()) {
+                    String indexName = rs.getString("INDEX_NAME");
+                    String columnName = rs.getString("COLUMN_NAME");
+                    if (indexName != null && columnName != null) {
+                        uniqueIndexes.computeIfAbsent(indexName, key -> new ArrayList<>()).add(columnName);
+                    }
+                }
+            }
+            return uniqueIndexes.values().stream()
+                    .anyMatch(columns -> columns.size() == 1 && columns.get(0).equalsIgnoreCase(keyColumn));
+        }
+    }
+
+    private boolean tableExists(Connection conn, SqlDialect dialect, String table) {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM " + dialect.quoteQualified(table) + " WHERE 1 = 0")) {
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 按源表结构在目标库建表，列类型由 {@link DatabaseTypeService#mapColumnType} 映射，保留非空约束和主键；
+     * 主键列由 {@link DatabaseTypeService#mapKeyColumnType} 映射，不能建索引的大文本类型改为有界长度
+     */
+    private void createTable(Connection conn, SqlDialect dialect, DatabaseConnection target, String table,
+                             List<Column> columns, List<String> keyColumns) throws SQLException {
+        StringBuilder sql = new StringBuilder("CREATE TABLE ").append(dialect.quoteQualified(table)).append(" (");
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            String type = databaseTypeService.mapColumnType(target.getType(), column.jdbcType, column.typeName,
+                    column.precision, column.scale);
+            if (keyColumns.stream().anyMatch(key -> key.equalsIgnoreCase(column.name))) {
+                String keyType = databaseTypeService.mapKeyColumnType(target.getType(), column.jdbcType, column.typeName,
+                        column.precision, column.scale);
+                if (!keyType.equals(type)) {
+                    logger.warn("主键列 {} 的类型 {} 在目标库中不能作为主键，改为 {}，超出长度的值将写入失败",
+                            column.name, type, keyType);
+                    type = keyType;
+                }
+            }
+            sql.append(dialect.quote(column.name)).append(' ').append(type);
+            if (!column.nullable) {
+                sql.append(" NOT NULL");
+            }
+        }
+        if (!keyColumns.isEmpty()) {
+            sql.append(", PRIMARY KEY (")
+                    .append(keyColumns.stream().map(dialect::quote).collect(Collectors.joining(", ")))
+                    .append(')');
+        }
+        sql.append(')');
+        logger.info("创建目标表: {}", sql);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql.toString());
+        }
+    }
+
+    /**
+     * 按源列名（不区分大小写）匹配目标表的列，返回与源列顺序一致的目标列
+     */
+    private List<Column> resolveTargetColumns(Connection conn, SqlDialect dialect, String table, List<Column> sourceColumns) throws SQLException {
+        Map<String, Column> tableColumns = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM " + dialect.quoteQualified(table) + " WHERE 1 = 0")) {
+            ResultSetMetaData metaData = rs.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                Column column = new Column(metaData.getColumnName(i), metaData.getColumnType(i));
+                tableColumns.put(column.name.toLowerCase(Locale.ROOT), column);
+            }
+        }
+
+        List<Column> columns = new ArrayList<>(sourceColumns.size());
+        List<String> missing = new ArrayList<>();
+        for (Column sourceColumn : sourceColumns) {
+            Column column = tableColumns.get(sourceColumn.name.toLowerCase(Locale.ROOT));
+            if (column == null) {
+                missing.add(sourceColumn.name);
+            }
+            columns.add(column);
+        }
+        if (!missing.isEmpty()) {
+            throw new ValidationException("目标表 " + table + " 中不存在列: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    /**
+     * 查询目标表中键列的最大值，作为增量复制的起点
+     */
+    private Object findResumeValue(Connection conn, SqlDialect dialect, String table, List<Column> targetColumns,
+                                   List<Column> sourceColumns, String keyColumn) throws SQLException {
+        Column column = null;
+        for (int i = 0; i < sourceColumns.size(); i++) {
+            if (sourceColumns.get(i).name.equalsIgnoreCase(keyColumn)) {
+                column = targetColumns.get(i);
+            }
+        }
+        if (column == null) {
+            throw new ValidationException("源表中不存在键列: " + keyColumn, "keyColumn");
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(" + dialect.quote(column.name) + ") FROM " + dialect.quoteQualified(table))) {
+            return rs.next() ? readValue(rs, 1, column.jdbcType) : null;
+        }
+    }
+
+    private void saveProgress(DataTask task, long rows) {
+        task.setProcessedRows(rows);
+        Long total = task.getTotalRows();
+        if (total != null && total > 0) {
+            // 估算行数可能偏小，完成前最多显示99%
+            task.setProgressPercentage((int) Math.min(99, rows * 100 / total));
+        }
+        try {
+            dataTaskRepository.save(task);
+        } catch (RuntimeException e) {
+            logger.warn("更新复制任务 {} 进度失败: {}", task.getId(), e.getMessage());
+        }
+    }
+
+    private DatabaseConnection getOwnedConnection(Long userId, Long connectionId) {
+        return connectionRepository.findById(connectionId)
+                .filter(c -> c.getUser().getId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + connectionId));
+    }
+
+    private void finish(DataTask task, String status) {
+        task.setStatus(status);
+        task.setCompletedAt(new Date());
+        dataTaskRepository.save(task);
+    }
+
+    /**
+     * 表的列
+     */
+    private static final class Column {
+        private final String name;
+        private final int jdbcType;
+        private String typeName;
+        private int precision;
+        private int scale;
+        private boolean nullable = true;
+
+        Column(String name, int jdbcType) {
+            this.name = name;
+            this.jdbcType = jdbcType;
+        }
+    }
+
+    /**
+     * 读取端与写入端之间的有界批次队列
+     */
+    private static final class Pipeline {
+
+        /**
+         * 结束标记，按引用比较
+         */
+        private static final List<Object[]> END = new ArrayList<>(0);
+
+        private final BlockingQueue<List<Object[]>> queue;
+        private volatile boolean stopped;
+        private volatile Exception readError;
+        private volatile Statement statement;
+        private long committed;
+
+        Pipeline(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /**
+         * 放入一个批次，队列满时阻塞，写入端停止后返回false
+         */
+        boolean put(List<Object[]> batch) throws InterruptedException {
+            while (!stopped) {
+                if (queue.offer(batch, PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void finish() {
+            try {
+                put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * 停止读取端，正在执行的源查询通过Statement.cancel中断
+         */
+        void stop() {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            Statement current = statement;
+            if (current != null) {
+                try {
+                    current.cancel();
+                } catch (SQLException e) {
+                    logger.debug("取消源表查询失败: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,640 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.dto.query.TableDataBatchRequest;
+import com.dbmanage.api.dto.query.TableDataBatchResponse;
+import com.dbmanage.api.dto.query.TableDataPage;
+import com.dbmanage.api.exception.ResourceNotFoundException;
+import com.dbmanage.api.exception.ValidationException;
+import com.dbmanage.api.model.DatabaseConnection;
+import com.dbmanage.api.model.QueryHistory;
+import com.dbmanage.api.repository.DatabaseConnectionRepository;
+import com.dbmanage.api.service.ConnectionService;
+import com.dbmanage.api.service.MetadataCacheService;
+import com.dbmanage.api.service.QueryHistoryWriter;
+import com.dbmanage.api.service.QueryResultCache;
+import com.dbmanage.api.service.TableDataService;
+import com.dbmanage.api.util.SqlDialect;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * 表数据编辑服务实现类
+ */
+@Service
+public class TableDataServiceImpl implements TableDataService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableDataServiceImpl.class);
+
+    private static final String INSERT = "insert";
+    private static final String UPDATE = "update";
+    private static final String DELETE = "delete";
+
+    @Autowired
+    private DatabaseConnectionRepository connectionRepository;
+
+    @Autowired
+    private QueryHistoryWriter queryHistoryWriter;
+
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    private MetadataCacheService metadataCacheService;
+
+    @Autowired
+    private QueryResultCache queryResultCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 批量执行表数据的插入、更新、删除
+     */
+    @Override
+    public TableDataBatchResponse executeBatch(Long connectionId, String database, String table, TableDataBatchRequest request) {
+        long startTime = System.currentTimeMillis();
+
+        List<TableDataBatchRequest.Operation> operations = request.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            throw new ValidationException("编辑操作不能为空");
+        }
+
+        DatabaseConnection connection = connectionRepository.findById(connectionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + connectionId));
+
+        SqlDialect dialect = SqlDialect.from(connection.getType());
+        String tableName = dialect.quoteQualified(table);
+
+        // 只合并连续的同形状操作，保持请求中的执行顺序（如先插入再更新同一行）
+        List<BatchGroup> groups = new ArrayList<>();
+        BatchGroup current = null;
+        for (int i = 0; i < operations.size(); i++) {
+            TableDataBatchRequest.Operation operation = operations.get(i);
+            String type = validateOperation(operation, i);
+            String shape = shapeKey(type, operation);
+            if (current == null || !current.shape.equals(shape)) {
+                current = new BatchGroup(type, shape, operation, dialect, tableName);
+                groups.add(current);
+            }
+            current.indexes.add(i);
+        }
+
+        TableDataBatchResponse response = new TableDataBatchResponse();
+        response.setTotal(operations.size());
+        response.setBatches(groups.size());
+        for (int i = 0; i < operations.size(); i++) {
+            TableDataBatchResponse.RowResult result = new TableDataBatchResponse.RowResult();
+            result.setIndex(i);
+            response.getResults().add(result);
+        }
+
+        int batchSize = Math.max(1, appProperties.getQuery().getBatchSize());
+
+        try (Connection conn = connectionService.getConnection(connection)) {
+            if (database != null && !database.isEmpty()) {
+                conn.setCatalog(database);
+            }
+
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                for (BatchGroup group : groups) {
+                    executeGroup(conn, group, operations, response.getResults(), batchSize);
+                }
+                conn.commit();
+                response.setSuccess(true);
+            } catch (SQLException e) {
+                conn.rollback();
+                logger.warn("批量编辑表 {} 失败，已回滚: {}", table, e.getMessage());
+                markRolledBack(response, e.getMessage());
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            logger.error("批量编辑表 {} 出错: ", table, e);
+            markRolledBack(response, e.getMessage());
+        }
+
+        response.setExecutionTime(System.currentTimeMillis() - startTime);
+        if (response.isSuccess()) {
+            queryResultCache.invalidateTables(connectionId, Collections.singleton(table));
+        }
+        saveHistory(connection, groups, response);
+        return response;
+    }
+
+    /**
+     * 执行同一形状的一组操作，每batchSize行提交一次executeBatch
+     */
+    private void executeGroup(Connection conn, BatchGroup group, List<TableDataBatchRequest.Operation> operations,
+                              List<TableDataBatchResponse.RowResult> results, int batchSize) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(group.sql)) {
+            int from = 0;
+            for (int k = 0; k < group.indexes.size(); k++) {
+                TableDataBatchRequest.Operation operation = operations.get(group.indexes.get(k));
+                int parameterIndex = 1;
+                for (String column : group.dataColumns) {
+                    parameterIndex = bind(ps, parameterIndex, operation.getData().get(column));
+                }
+                for (String column : group.conditionColumns) {
+                    parameterIndex = bind(ps, parameterIndex, operation.getCondition().get(column));
+                }
+                ps.addBatch();
+
+                if (k + 1 - from == batchSize || k == group.indexes.size() - 1) {
+                    flush(ps, group, from, k + 1, results);
+                    from = k + 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * 执行已累积的批次，并把更新计数对应到各行
+     * 更新或删除没有匹配到行（行已被修改或删除）时视为失败，整个事务回滚。
+     * 驱动只返回SUCCESS_NO_INFO而不给出单行计数时（如MySQL开启rewriteBatchedStatements后合并执行的批次）无法判断，
+     * 这些行按成功处理
+     */
+    private void flush(PreparedStatement ps, BatchGroup group, int from, int to,
+                       List<TableDataBatchResponse.RowResult> results) throws SQLException {
+        int[] counts;
+        try {
+            counts = ps.executeBatch();
+            applyCounts(counts, group, from, results, null);
+        } catch (BatchUpdateException e) {
+            int[] partial = e.getUpdateCounts() != null ? e.getUpdateCounts() : new int[0];
+            applyCounts(partial, group, from, results, e.getMessage());
+            // 驱动在第一个失败处停止时，只返回之前各行的计数，失败的是紧随其后的一行
+            if (partial.length < to - from) {
+                TableDataBatchResponse.RowResult failed = results.get(group.indexes.get(from + partial.length));
+                failed.setSuccess(false);
+                failed.setErrorMessage(e.getMessage());
+            }
+            throw e;
+        }
+        if (!INSERT.equals(group.type)) {
+            for (int j = 0; j < counts.length; j++) {
+                if (counts[j] == Statement.SUCCESS_NO_INFO) {
+                    logger.debug("驱动未返回第 {} 个操作的更新计数，无法检查是否匹配到行", group.indexes.get(from + j) + 1);
+                } else if (counts[j] == 0) {
+                    int index = group.indexes.get(from + j);
+                    String message = "第 " + (index + 1) + " 个操作没有匹配到任何行，数据可能已被修改或删除";
+                    TableDataBatchResponse.RowResult failed = results.get(index);
+                    failed.setSuccess(false);
+                    failed.setErrorMessage(message);
+                    throw new SQLException(message);
+                }
+            }
+        }
+    }
+
+    private void applyCounts(int[] counts, BatchGroup group, int from,
+                             List<TableDataBatchResponse.RowResult> results, String errorMessage) {
+        for (int j = 0; j < counts.length; j++) {
+            TableDataBatchResponse.RowResult result = results.get(group.indexes.get(from + j));
+            if (counts[j] == Statement.EXECUTE_FAILED) {
+                result.setSuccess(false);
+                result.setErrorMessage(errorMessage);
+            } else {
+                result.setSuccess(true);
+                // SUCCESS_NO_INFO表示驱动合并执行后无法给出单行计数
+                result.setAffectedRows(counts[j] >= 0 ? counts[j] : null);
+            }
+        }
+    }
+
+    /**
+     * 事务回滚后，除失败行外的所有行都标记为未生效
+     */
+    private void markRolledBack(TableDataBatchResponse response, String errorMessage) {
+        response.setSuccess(false);
+        response.setErrorMessage(errorMessage);
+        for (TableDataBatchResponse.RowResult result : response.getResults()) {
+            if (result.getErrorMessage() == null) {
+                result.setErrorMessage("事务已回滚，未生效");
+            }
+            result.setSuccess(false);
+            result.setAffectedRows(null);
+        }
+    }
+
+    private int bind(PreparedStatement ps, int index, Object value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.NULL);
+        } else {
+            ps.setObject(index, value);
+        }
+        return index + 1;
+    }
+
+    /**
+     * 校验操作并返回规范化的操作类型
+     */
+    private String validateOperation(TableDataBatchRequest.Operation operation, int index) {
+        String type = operation.getType() == null ? "" : operation.getType().toLowerCase();
+        boolean hasData = operation.getData() != null && !operation.getData().isEmpty();
+        boolean hasCondition = operation.getCondition() != null && !operation.getCondition().isEmpty();
+        switch (type) {
+            case INSERT:
+                if (!hasData) {
+                    throw new ValidationException("第 " + (index + 1) + " 个操作的数据不能为空");
+                }
+                break;
+            case UPDATE:
+                if (!hasData || !hasCondition) {
+                    throw new ValidationException("第 " + (index + 1) + " 个操作的更新数据和条件不能为空");
+                }
+                break;
+            case DELETE:
+                if (!hasCondition) {
+                    throw new ValidationException("第 " + (index + 1) + " 个操作的删除条件不能为空");
+                }
+                break;
+            default:
+                throw new ValidationException("第 " + (index + 1) + " 个操作的类型无效: " + operation.getType());
+        }
+        return type;
+    }
+
+    /**
+     * SQL形状：操作类型、字段集合、条件字段集合及条件值是否为NULL
+     */
+    private String shapeKey(String type, TableDataBatchRequest.Operation operation) {
+        StringBuilder key = new StringBuilder(type).append('|');
+        if (!DELETE.equals(type)) {
+            key.append(new TreeSet<>(operation.getData().keySet()));
+        }
+        key.append('|');
+        if (!INSERT.equals(type)) {
+            for (String column : new TreeSet<>(operation.getCondition().keySet())) {
+                key.append(column).append(operation.getCondition().get(column) == null ? ":null," : ",");
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * 按键集方式分页读取表数据
+     */
+    @Override
+    public TableDataPage readPage(Long connectionId, String database, String table, int limit, String cursor) {
+        long startTime = System.currentTimeMillis();
+        if (limit <= 0) {
+            throw new ValidationException("每页行数必须大于0", "limit");
+        }
+
+        DatabaseConnection connection = connectionRepository.findById(connectionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + connectionId));
+        SqlDialect dialect = SqlDialect.from(connection.getType());
+
+        try (Connection conn = connectionService.getConnection(connection)) {
+            if (database != null && !database.isEmpty()) {
+                conn.setCatalog(database);
+            }
+
+            List<String> keyColumns = metadataCacheService.get(connectionId, MetadataCacheService.KEY_COLUMNS, database, table,
+                    () -> findKeyColumns(conn, table));
+            if (keyColumns.isEmpty()) {
+                throw new ValidationException("表 " + table + " 没有主键或非空唯一索引，无法使用游标分页");
+            }
+
+            List<Object> after = cursor == null || cursor.isEmpty() ? null : decodeCursor(cursor, keyColumns);
+            // 多取一行用于判断是否还有下一页
+            String sql = buildKeysetSql(dialect, dialect.quoteQualified(table), keyColumns, after != null, limit + 1);
+            logger.debug("游标分页SQL: {}", sql);
+
+            TableDataPage page = new TableDataPage();
+            page.setKeyColumns(keyColumns);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                if (after != null) {
+                    bindKeyset(ps, dialect, after);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    List<String> columns = new ArrayList<>();
+                    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                        columns.add(metaData.getColumnLabel(i));
+                    }
+                    int[] keyIndexes = keyColumns.stream().mapToInt(key -> indexOfColumn(columns, key)).toArray();
+
+                    List<Map<String, Object>> data = new ArrayList<>();
+                    Object[] lastKey = new Object[keyIndexes.length];
+                    while (rs.next()) {
+                        if (data.size() == limit) {
+                            page.setHasMore(true);
+                            break;
+                        }
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        for (int i = 1; i <= columns.size(); i++) {
+                            row.put(columns.get(i - 1), rs.getObject(i));
+                        }
+                        for (int k = 0; k < keyIndexes.length; k++) {
+                            lastKey[k] = rs.getObject(keyIndexes[k] + 1);
+                        }
+                        data.add(row);
+                    }
+
+                    page.setColumns(columns);
+                    page.setData(data);
+                    if (page.isHasMore()) {
+                        page.setNextCursor(encodeCursor(keyColumns, lastKey));
+                    }
+                }
+            }
+            page.setExecutionTime(System.currentTimeMillis() - startTime);
+            return page;
+        } catch (SQLException e) {
+            logger.error("游标分页读取表 {} 出错: ", table, e);
+            throw new RuntimeException("读取表数据失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> getKeyColumns(Long connectionId, String database, String table) {
+        DatabaseConnection connection = connectionRepository.findById(connectionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Connection not found with id: " + connectionId));
+        return metadataCacheService.get(connectionId, MetadataCacheService.KEY_COLUMNS, database, table, () -> {
+            try (Connection conn = connectionService.getConnection(connection)) {
+                if (database != null && !database.isEmpty()) {
+                    conn.setCatalog(database);
+                }
+                return findKeyColumns(conn, table);
+            } catch (SQLException e) {
+                throw new RuntimeException("获取表 " + table + " 的键信息失败: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * 查找用于排序定位的键列：优先主键，其次所有列均非空的唯一索引
+     */
+    private List<String> findKeyColumns(Connection conn, String table) {
+        String schema = null;
+        String name = table;
+        int dot = table.lastIndexOf('.');
+        if (dot > 0) {
+            schema = table.substring(0, dot);
+            name = table.substring(dot + 1);
+        }
+
+        try {
+            String catalog = conn.getCatalog();
+            DatabaseMetaData metaData = conn.getMetaData();
+
+            TreeMap<Short, String> primaryKey = new TreeMap<>();
+            try (ResultSet rs = metaData.getPrimaryKeys(catalog, schema, name)) {
+                while (rs.next()) {
+                    primaryKey.put(rs.getShort("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+                }
+            }
+            if (!primaryKey.isEmpty()) {
+                return new ArrayList<>(primaryKey.values());
+            }
+
+            // 唯一索引中含可空列时，NULL值无法参与比较，不能作为键
+            Set<String> nullableColumns = new HashSet<>();
+            try (ResultSet rs = metaData.getColumns(catalog, schema, name, null)) {
+                while (rs.next()) {
+                    if ("YES".equals(rs.getString("IS_NULLABLE"))) {
+                        nullableColumns.add(rs.getString("COLUMN_NAME"));
+                    }
+                }
+            }
+            Map<String, TreeMap<Short, String>> uniqueIndexes = new LinkedHashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(catalog, schema, name, true, true)) {
+                while (rs.next()) {
+                    String indexName = rs.getString("INDEX_NAME");
+                    String columnName = rs.getString("COLUMN_NAME");
+                    if (indexName == null || columnName == null) {
+                        continue;
+                    }
+                    uniqueIndexes.computeIfAbsent(indexName, key -> new TreeMap<>())
+                            .put(rs.getShort("ORDINAL_POSITION"), columnName);
+                }
+            }
+            for (TreeMap<Short, String> index : uniqueIndexes.values()) {
+                if (index.values().stream().noneMatch(nullableColumns::contains)) {
+                    return new ArrayList<>(index.values());
+                }
+            }
+            return Collections.emptyList();
+        } catch (SQLException e) {
+            throw new RuntimeException("获取表 " + table + " 的键信息失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 构建键集分页SQL
+     * MySQL和PostgreSQL使用行值比较 (a, b) > (?, ?)，可直接利用复合索引；
+     * 其他数据库展开为 a > ? OR (a = ? AND b > ?)
+     */
+    private String buildKeysetSql(SqlDialect dialect, String tableName, List<String> keyColumns, boolean hasCursor, int fetch) {
+        List<String> quoted = keyColumns.stream().map(dialect::quote).collect(Collectors.toList());
+        StringBuilder sql = new StringBuilder("SELECT ");
+        if (dialect == SqlDialect.SQLSERVER) {
+            sql.append("TOP (").append(fetch).append(") ");
+        }
+        sql.append("* FROM ").append(tableName);
+
+        if (hasCursor) {
+            sql.append(" WHERE ");
+            if (quoted.size() == 1) {
+                sql.append(quoted.get(0)).append(" > ?");
+            } else if (dialect == SqlDialect.MYSQL || dialect == SqlDialect.POSTGRESQL) {
+                sql.append("(").append(String.join(", ", quoted)).append(") > (")
+                        .append(quoted.stream().map(column -> "?").collect(Collectors.joining(", "))).append(")");
+            } else {
+                List<String> terms = new ArrayList<>();
+                for (int i = 0; i < quoted.size(); i++) {
+                    List<String> parts = new ArrayList<>();
+                    for (int j = 0; j < i; j++) {
+                        parts.add(quoted.get(j) + " = ?");
+                    }
+                    parts.add(quoted.get(i) + " > ?");
+                    terms.add("(" + String.join(" AND ", parts) + ")");
+                }
+                sql.append("(").append(String.join(" OR ", terms)).append(")");
+            }
+        }
+
+        sql.append(" ORDER BY ").append(String.join(", ", quoted));
+        if (dialect == SqlDialect.ORACLE) {
+            sql.append(" FETCH FIRST ").append(fetch).append(" ROWS ONLY");
+        } else if (dialect != SqlDialect.SQLSERVER) {
+            sql.append(" LIMIT ").append(fetch);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * 绑定游标键值，参数顺序与buildKeysetSql生成的条件一致
+     */
+    private void bindKeyset(PreparedStatement ps, SqlDialect dialect, List<Object> after) throws SQLException {
+        int index = 1;
+        if (after.size() == 1 || dialect == SqlDialect.MYSQL || dialect == SqlDialect.POSTGRESQL) {
+            for (Object value : after) {
+                index = bind(ps, index, value);
+            }
+            return;
+        }
+        for (int i = 0; i < after.size(); i++) {
+            for (int j = 0; j <= i; j++) {
+                index = bind(ps, index, after.get(j));
+            }
+        }
+    }
+
+    private int indexOfColumn(List<String> columns, String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("结果集中缺少键列: " + name);
+    }
+
+    /**
+     * 游标为键列名和最后一行键值的JSON，经URL安全的Base64编码，对客户端不透明
+     */
+    private String encodeCursor(List<String> keyColumns, Object[] lastKey) {
+        List<Object> values = new ArrayList<>();
+        for (Object value : lastKey) {
+            // 日期等类型以字符串形式保存，绑定时由数据库隐式转换
+            values.add(value == null || value instanceof Number || value instanceof String || value instanceof Boolean
+                    ? value : value.toString());
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("k", keyColumns);
+        payload.put("v", values);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("生成分页游标失败", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> decodeCursor(String cursor, List<String> keyColumns) {
+        try {
+            Map<String, Object> payload = objectMapper.reader()
+                    .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                    .forType(Map.class)
+                    .readValue(Base64.getUrlDecoder().decode(cursor));
+            List<Object> values = (List<Object>) payload.get("v");
+            if (!keyColumns.equals(payload.get("k")) || values == null || values.size() != keyColumns.size()) {
+                throw new ValidationException("分页游标与表的键列不匹配，请从第一页重新读取", "cursor");
+            }
+            return values;
+        } catch (IOException | IllegalArgumentException | ClassCastException e) {
+            throw new ValidationException("无效的分页游标", "cursor");
+        }
+    }
+
+    private void saveHistory(DatabaseConnection connection, List<BatchGroup> groups, TableDataBatchResponse response) {
+        try {
+            String sql = groups.stream()
+                    .map(group -> group.sql + " -- " + group.indexes.size() + " rows")
+                    .collect(Collectors.joining(";\n"));
+            int affectedRows = response.getResults().stream()
+                    .mapToInt(result -> result.getAffectedRows() != null ? result.getAffectedRows() : 0)
+                    .sum();
+
+            QueryHistory history = new QueryHistory();
+            history.setSql(sql);
+            history.setQueryText(sql);
+            history.setExecutionTime(response.getExecutionTime());
+            history.setIsSuccess(response.isSuccess());
+            history.setAffectedRows(response.isSuccess() ? affectedRows : 0);
+            history.setErrorMessage(response.getErrorMessage());
+            history.setConnection(connection);
+            history.setUser(connection.getUser());
+            queryHistoryWriter.submit(history);
+        } catch (Exception e) {
+            logger.error("Error saving query history: ", e);
+        }
+    }
+
+    /**
+     * 连续的同一形状的一组操作，共用一条预编译SQL
+     */
+    private static class BatchGroup {
+        private final String type;
+        private final String shape;
+        private final String sql;
+        private final List<String> dataColumns = new ArrayList<>();
+        private final List<String> conditionColumns = new ArrayList<>();
+        private final List<Integer> indexes = new ArrayList<>();
+
+        BatchGroup(String type, String shape, TableDataBatchRequest.Operation first, SqlDialect dialect, String tableName) {
+            this.type = type;
+            this.shape = shape;
+            if (!DELETE.equals(type)) {
+                dataColumns.addAll(new TreeSet<>(first.getData().keySet()));
+            }
+            StringBuilder where = new StringBuilder();
+            if (!INSERT.equals(type)) {
+                for (String column : new TreeSet<>(first.getCondition().keySet())) {
+                    if (where.length() > 0) {
+                        where.append(" AND ");
+                    }
+                    if (first.getCondition().get(column) == null) {
+                        // NULL条件无法用 = ? 匹配
+                        where.append(dialect.quote(column)).append(" IS NULL");
+                    } else {
+                        where.append(dialect.quote(column)).append(" = ?");
+                        conditionColumns.add(column);
+                    }
+                }
+            }
+
+            switch (type) {
+                case INSERT:
+                    sql = "INSERT INTO " + tableName + " ("
+                            + dataColumns.stream().map(dialect::quote).collect(Collectors.joining(", "))
+                            + ") VALUES ("
+                            + dataColumns.stream().map(column -> "?").collect(Collectors.joining(", "))
+                            + ")";
+                    break;
+                case UPDATE:
+                    sql = "UPDATE " + tableName + " SET "
+                            + dataColumns.stream().map(column -> dialect.quote(column) + " = ?").collect(Collectors.joining(", "))
+                            + " WHERE " + where;
+                    break;
+                default:
+                    sql = "DELETE FROM " + tableName + " WHERE " + where;
+                    break;
+            }
+        }
+    }
+}
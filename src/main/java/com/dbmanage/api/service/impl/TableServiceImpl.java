@@ -5,6 +5,7 @@ import com.dbmanage.api.dto.*;
 import com.dbmanage.api.exception.ValidationException;
 import com.dbmanage.api.service.ConnectionService;
 import com.dbmanage.api.service.DatabaseTypeService;
+import com.dbmanage.api.service.MetadataCacheService;
 import com.dbmanage.api.service.TableService;
 import com.dbmanage.api.util.MessageResolver;
 import org.slf4j.Logger;
@@ -30,6 +31,8 @@ public class TableServiceImpl implements  TableService {
     private  ConnectionService connectionService;
     @Resource
     private  DatabaseTypeService databaseTypeService;
+    @Resource
+    private MetadataCacheService metadataCacheService;
 
     private final AppProperties appProperties;
     
@@ -236,18 +239,13 @@ public class TableServiceImpl implements  TableService {
                 String dbType = databaseTypeService.getNormalizedDatabaseType(request.getDatabaseType());
                 switch (dbType) {
                     case "mysql":
-                        try (PreparedStatement stmt = connection.prepareStatement("USE " + escapeTableName(request.getDatabaseName(), dbType))) {
-                            stmt.execute();
-                        }
+                    case "sqlserver":
+                        // 通过setCatalog切换，连接归还连接池时会自动恢复
+                        connection.setCatalog(request.getDatabaseName());
                         break;
                     case "postgresql":
                         connection.setSchema(request.getDatabaseName());
                         break;
-                    case "sqlserver":
-                        try (PreparedStatement stmt = connection.prepareStatement("USE " + escapeTableName(request.getDatabaseName(), dbType))) {
-                            stmt.execute();
-                        }
-                        break;
                     case "oracle":
                         // Oracle不需要切换schema，已经在连接字符串中指定
                         break;
@@ -294,6 +292,9 @@ public class TableServiceImpl implements  TableService {
             }
 
             logger.info("表 {} 创建成功", request.getTableName());
+        } finally {
+            // 建表、索引或外键任一步骤执行后表结构都可能已变化
+            metadataCacheService.invalidate(request.getConnectionId());
         }
     }
 
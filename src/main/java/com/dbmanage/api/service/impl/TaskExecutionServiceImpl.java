@@ -0,0 +1,232 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.service.TaskExecutionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 后台任务执行服务实现类
+ * 共享一个有界线程池，每个连接的任务先进入该连接的通道（Lane），
+ * 通道内运行中的任务数达到上限时在通道中排队，不占用线程
+ */
+@Service
+public class TaskExecutionServiceImpl implements TaskExecutionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskExecutionServiceImpl.class);
+
+    /**
+     * 未指定连接的任务使用的通道
+     */
+    private static final Long SHARED_LANE = -1L;
+
+    private final AppProperties.Executor config;
+    private final ThreadPoolExecutor pool;
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicLong rejectedTotal = new AtomicLong();
+    private volatile boolean shuttingDown;
+
+    @Autowired
+    public TaskExecutionServiceImpl(AppProperties appProperties) {
+        this.config = appProperties.getExecutor();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(config.getPoolSize(), config.getPoolSize(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "task-exec-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(false);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(Long connectionId, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Lane lane = lanes.computeIfAbsent(connectionId != null ? connectionId : SHARED_LANE, Lane::new);
+        LaneTask<T> laneTask = new LaneTask<>(lane, task, future);
+
+        synchronized (lane) {
+            if (shuttingDown) {
+                throw reject(lane, "任务执行服务正在关闭");
+            }
+            lane.submitted++;
+            if (lane.active >= config.getPerConnectionConcurrency()) {
+                if (lane.waiting.size() >= config.getPerConnectionQueue()) {
+                    lane.submitted--;
+                    throw reject(lane, "连接 " + lane.connectionId + " 的待执行任务已达上限 " + config.getPerConnectionQueue());
+                }
+                lane.waiting.add(laneTask);
+                return future;
+            }
+            lane.active++;
+        }
+
+        try {
+            pool.execute(laneTask);
+        } catch (RejectedExecutionException e) {
+            synchronized (lane) {
+                lane.active--;
+                lane.submitted--;
+            }
+            throw reject(lane, "任务线程池已满");
+        }
+        return future;
+    }
+
+    /**
+     * 任务结束后从通道中取出下一个排队任务，复用该通道的并发名额
+     */
+    private void onFinished(Lane lane) {
+        synchronized (lane) {
+            lane.completed++;
+        }
+        while (true) {
+            LaneTask<?> next;
+            synchronized (lane) {
+                next = shuttingDown ? null : lane.waiting.poll();
+                if (next == null) {
+                    lane.active--;
+                    return;
+                }
+            }
+            try {
+                pool.execute(next);
+                return;
+            } catch (RejectedExecutionException e) {
+                // 共享队列已满，该任务失败，继续尝试下一个
+                rejectedTotal.incrementAndGet();
+                synchronized (lane) {
+                    lane.rejected++;
+                }
+                next.future.completeExceptionally(new RejectedExecutionException("任务线程池已满"));
+            }
+        }
+    }
+
+    private RejectedExecutionException reject(Lane lane, String message) {
+        rejectedTotal.incrementAndGet();
+        synchronized (lane) {
+            lane.rejected++;
+        }
+        logger.warn("拒绝任务: {}", message);
+        return new RejectedExecutionException(message);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("poolSize", pool.getPoolSize());
+        stats.put("maxPoolSize", pool.getMaximumPoolSize());
+        stats.put("activeThreads", pool.getActiveCount());
+        stats.put("queuedInPool", pool.getQueue().size());
+        stats.put("completedTasks", pool.getCompletedTaskCount());
+        stats.put("rejectedTasks", rejectedTotal.get());
+
+        List<Map<String, Object>> laneStats = new ArrayList<>();
+        for (Lane lane : lanes.values()) {
+            Map<String, Object> item = new HashMap<>();
+            synchronized (lane) {
+                item.put("connectionId", SHARED_LANE.equals(lane.connectionId) ? null : lane.connectionId);
+                item.put("active", lane.active);
+                item.put("queued", lane.waiting.size());
+                item.put("submitted", lane.submitted);
+                item.put("completed", lane.completed);
+                item.put("rejected", lane.rejected);
+            }
+            laneStats.add(item);
+        }
+        stats.put("connections", laneStats);
+        return stats;
+    }
+
+    /**
+     * 应用关闭时停止接收新任务，取消排队任务并等待运行中的任务结束
+     */
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        for (Lane lane : lanes.values()) {
+            List<LaneTask<?>> cancelled;
+            synchronized (lane) {
+                cancelled = new ArrayList<>(lane.waiting);
+                lane.waiting.clear();
+            }
+            cancelled.forEach(task -> task.future.completeExceptionally(new CancellationException("任务执行服务已关闭")));
+        }
+
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(config.getShutdownTimeoutSeconds(), TimeUnit.SECONDS)) {
+                logger.warn("等待任务结束超时，强制关闭任务线程池");
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 单个目标连接的任务通道，字段均在通道对象锁内访问
+     */
+    private static final class Lane {
+        private final Long connectionId;
+        private final ArrayDeque<LaneTask<?>> waiting = new ArrayDeque<>();
+        private int active;
+        private long submitted;
+        private long completed;
+        private long rejected;
+
+        Lane(Long connectionId) {
+            this.connectionId = connectionId;
+        }
+    }
+
+    /**
+     * 通道中的任务，执行结束后通知通道调度下一个任务
+     */
+    private final class LaneTask<T> implements Runnable {
+        private final Lane lane;
+        private final Supplier<T> task;
+        private final CompletableFuture<T> future;
+
+        LaneTask(Lane lane, Supplier<T> task, CompletableFuture<T> future) {
+            this.lane = lane;
+            this.task = task;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            try {
+                future.complete(task.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                onFinished(lane);
+            }
+        }
+    }
+}
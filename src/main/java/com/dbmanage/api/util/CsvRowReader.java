@@ -0,0 +1,118 @@
+package com.dbmanage.api.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV流式读取器（RFC 4180），与 {@link CsvRowWriter} 的输出格式对应
+ * 逐字符解析，支持引号内的逗号、换行和双写的引号；未加引号的空字段读作null，加引号的空字段读作空字符串
+ */
+public class CsvRowReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder field = new StringBuilder();
+    private int position;
+    private int limit;
+    private boolean first = true;
+    private long lineNumber;
+    private int pushedBack = -1;
+
+    public CsvRowReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * 读取下一行
+     *
+     * @return 字段列表，到达文件末尾时返回null
+     * @throws IOException 读取失败或引号未闭合
+     */
+    public List<String> readRow() throws IOException {
+        int c = read();
+        if (first) {
+            first = false;
+            // 跳过UTF-8 BOM
+            if (c == '\uFEFF') {
+                c = read();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+        lineNumber++;
+
+        List<String> row = new ArrayList<>();
+        while (true) {
+            field.setLength(0);
+            boolean quoted = false;
+            if (c == '"') {
+                quoted = true;
+                while (true) {
+                    c = read();
+                    if (c == -1) {
+                        throw new IOException("第 " + lineNumber + " 行引号未闭合");
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            break;
+                        }
+                    }
+                    field.append((char) c);
+                }
+            }
+            while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                field.append((char) c);
+                c = read();
+            }
+            row.add(quoted || field.length() > 0 ? field.toString() : null);
+
+            if (c == ',') {
+                c = read();
+                continue;
+            }
+            if (c == '\r') {
+                c = read();
+                if (c != '\n' && c != -1) {
+                    pushedBack = c;
+                }
+            }
+            return row;
+        }
+    }
+
+    /**
+     * 最近读取的行号（从1开始，包含表头）
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+        if (position == limit) {
+            limit = reader.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
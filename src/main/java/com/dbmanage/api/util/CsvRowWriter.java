@@ -0,0 +1,105 @@
+package com.dbmanage.api.util;
+
+import com.dbmanage.api.service.ResultRowHandler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * CSV格式的结果输出器（RFC 4180）
+ * 首行为列名，NULL输出为空字段，空字符串输出为 ""（与 {@link CsvRowReader} 对应，导入时不会变成NULL），二进制数据输出为Base64；
+ * CSV无法表达错误信息，执行出错时抛出异常中断输出，客户端收到的是不完整的文件
+ */
+public class CsvRowWriter implements ResultRowHandler {
+
+    private final Writer writer;
+
+    public CsvRowWriter(OutputStream outputStream) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void start(List<String> columns) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(columns.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value != null) {
+                writeField(toText(value));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void end(long rowCount, long executionTime) throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void error(String message) throws IOException {
+        writer.flush();
+        throw new IOException(message);
+    }
+
+    private void writeField(String text) throws IOException {
+        // 空字符串必须加引号，否则与NULL无法区分
+        boolean quote = text.isEmpty();
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private String toText(Object value) throws IOException {
+        try {
+            if (value instanceof byte[]) {
+                return Base64.getEncoder().encodeToString((byte[]) value);
+            }
+            if (value instanceof Clob) {
+                Clob clob = (Clob) value;
+                return clob.getSubString(1, (int) clob.length());
+            }
+            if (value instanceof Blob) {
+                Blob blob = (Blob) value;
+                return Base64.getEncoder().encodeToString(blob.getBytes(1, (int) blob.length()));
+            }
+        } catch (SQLException e) {
+            throw new IOException("读取大字段失败: " + e.getMessage(), e);
+        }
+        return value.toString();
+    }
+}
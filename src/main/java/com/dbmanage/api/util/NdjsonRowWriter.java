@@ -0,0 +1,133 @@
+package com.dbmanage.api.util;
+
+import com.dbmanage.api.service.ResultRowHandler;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.time.temporal.Temporal;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * NDJSON格式的结果输出器
+ * 每行一个JSON：首行为列信息，随后每行是一个按列顺序排列的数组，最后一行为汇总信息
+ * <pre>
+ * {"type":"columns","columns":["id","name"]}
+ * [1,"a"]
+ * [2,"b"]
+ * {"type":"end","rowCount":2,"executionTime":15}
+ * </pre>
+ */
+public class NdjsonRowWriter implements ResultRowHandler {
+
+    /**
+     * 每输出多少行主动刷新一次，保证客户端能尽早收到数据
+     */
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final JsonGenerator generator;
+    private final ObjectWriter valueWriter;
+    private long written;
+
+    public NdjsonRowWriter(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        // 日期等类型沿用全局ObjectMapper的序列化配置，但不要每写一个值就刷新一次
+        this.valueWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(outputStream);
+        // 行与行之间用换行分隔
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void start(List<String> columns) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "columns");
+        generator.writeArrayFieldStart("columns");
+        for (String column : columns) {
+            generator.writeString(column);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        newLine();
+        generator.flush();
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        generator.writeStartArray();
+        for (Object value : values) {
+            writeValue(generator, valueWriter, value);
+        }
+        generator.writeEndArray();
+        newLine();
+        if (++written % FLUSH_INTERVAL == 0) {
+            generator.flush();
+        }
+    }
+
+    @Override
+    public void end(long rowCount, long executionTime) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "end");
+        generator.writeNumberField("rowCount", rowCount);
+        generator.writeNumberField("executionTime", executionTime);
+        generator.writeEndObject();
+        newLine();
+        generator.flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void error(String message) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "error");
+        generator.writeStringField("message", message);
+        generator.writeEndObject();
+        newLine();
+        generator.flush();
+    }
+
+    private void newLine() throws IOException {
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * 写出单个值，驱动返回的特有类型（如PGobject）统一按字符串输出
+     */
+    static void writeValue(JsonGenerator generator, ObjectWriter valueWriter, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof byte[]
+                || value instanceof Date || value instanceof Temporal) {
+            valueWriter.writeValue(generator, value);
+        } else if (value instanceof Clob) {
+            try {
+                Clob clob = (Clob) value;
+                generator.writeString(clob.getSubString(1, (int) clob.length()));
+            } catch (SQLException e) {
+                generator.writeNull();
+            }
+        } else if (value instanceof Blob) {
+            try {
+                Blob blob = (Blob) value;
+                generator.writeBinary(blob.getBytes(1, (int) blob.length()));
+            } catch (SQLException e) {
+                generator.writeNull();
+            }
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.dbmanage.api.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 查询结果落盘文件读取器
+ * 打开时只读取尾部信息，读取分页时根据行组起始位置内存映射所需区间，
+ * 任意一页的读取量不超过其覆盖的行组大小，与文件总大小无关
+ */
+public class ResultSpoolReader {
+
+    private final Path path;
+    private final ObjectReader rowReader;
+    private final List<String> columns;
+    private final long rowCount;
+    private final int rowGroupSize;
+    private final long[] groupOffsets;
+    private final long footerOffset;
+
+    private ResultSpoolReader(Path path, ObjectReader rowReader, List<String> columns, long rowCount,
+                              int rowGroupSize, long[] groupOffsets, long footerOffset) {
+        this.path = path;
+        this.rowReader = rowReader;
+        this.columns = columns;
+        this.rowCount = rowCount;
+        this.rowGroupSize = rowGroupSize;
+        this.groupOffsets = groupOffsets;
+        this.footerOffset = footerOffset;
+    }
+
+    /**
+     * 打开结果文件并读取尾部信息
+     *
+     * @param path 结果文件
+     * @param objectMapper JSON解析器
+     * @return 读取器
+     * @throws IOException 文件不存在或不完整
+     */
+    public static ResultSpoolReader open(Path path, ObjectMapper objectMapper) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < ResultSpoolWriter.TRAILER_LENGTH) {
+                throw new IOException("结果文件不完整: " + path.getFileName());
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(ResultSpoolWriter.TRAILER_LENGTH);
+            readFully(channel, trailer, size - ResultSpoolWriter.TRAILER_LENGTH);
+            trailer.flip();
+            long footerOffset = trailer.getLong();
+            if (trailer.getInt() != ResultSpoolWriter.MAGIC || footerOffset < 0
+                    || footerOffset > size - ResultSpoolWriter.TRAILER_LENGTH) {
+                throw new IOException("结果文件格式错误: " + path.getFileName());
+            }
+
+            ByteBuffer footer = ByteBuffer.allocate((int) (size - ResultSpoolWriter.TRAILER_LENGTH - footerOffset));
+            readFully(channel, footer, footerOffset);
+            JsonNode node = objectMapper.readTree(footer.array());
+
+            List<String> columns = new ArrayList<>();
+            node.get("columns").forEach(column -> columns.add(column.asText()));
+            JsonNode offsets = node.get("groupOffsets");
+            long[] groupOffsets = new long[offsets.size()];
+            for (int i = 0; i < groupOffsets.length; i++) {
+                groupOffsets[i] = offsets.get(i).asLong();
+            }
+            return new ResultSpoolReader(path, objectMapper.readerFor(Object[].class),
+                    Collections.unmodifiableList(columns), node.get("rowCount").asLong(),
+                    node.get("rowGroupSize").asInt(), groupOffsets, footerOffset);
+        }
+    }
+
+    /**
+     * 读取一页数据
+     *
+     * @param offset 起始行（从0开始）
+     * @param limit 最多读取的行数
+     * @return 按列顺序排列的行数据
+     * @throws IOException 读取失败
+     */
+    public List<Object[]> read(long offset, int limit) throws IOException {
+        if (offset < 0 || offset >= rowCount || limit <= 0) {
+            return Collections.emptyList();
+        }
+        long end = Math.min(offset + limit, rowCount);
+        int firstGroup = (int) (offset / rowGroupSize);
+        int lastGroup = (int) ((end - 1) / rowGroupSize);
+        long regionStart = groupOffsets[firstGroup];
+        long regionEnd = lastGroup + 1 < groupOffsets.length ? groupOffsets[lastGroup + 1] : footerOffset;
+
+        List<Object[]> rows = new ArrayList<>((int) (end - offset));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, regionEnd - regionStart);
+            try (JsonParser parser = rowReader.getFactory().createParser(new ByteBufferBackedInputStream(region))) {
+                // 跳过行组内位于起始行之前的行
+                long index = (long) firstGroup * rowGroupSize;
+                while (index < end && parser.nextToken() == JsonToken.START_ARRAY) {
+                    if (index >= offset) {
+                        rows.add(rowReader.readValue(parser));
+                    } else {
+                        parser.skipChildren();
+                    }
+                    index++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("结果文件不完整");
+            }
+        }
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+}
@@ -0,0 +1,176 @@
+package com.dbmanage.api.util;
+
+import com.dbmanage.api.service.ResultRowHandler;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 查询结果落盘写入器
+ * 文件格式：
+ * <pre>
+ * [行数据] 每行一个JSON数组，以换行分隔
+ * [尾部信息] JSON对象：列名、总行数、行组大小、每个行组起始位置
+ * [定位信息] 8字节尾部信息起始位置 + 4字节魔数
+ * </pre>
+ * 读取时先通过定位信息找到尾部信息，再按行组起始位置只映射需要的区间，见 {@link ResultSpoolReader}
+ */
+public class ResultSpoolWriter implements ResultRowHandler, Closeable {
+
+    static final int MAGIC = 0x44425350;
+    static final int TRAILER_LENGTH = Long.BYTES + Integer.BYTES;
+
+    private final Path path;
+    private final int rowGroupSize;
+    private final long maxBytes;
+    private final CountingOutputStream output;
+    private final JsonGenerator generator;
+    private final ObjectWriter valueWriter;
+    private final List<Long> groupOffsets = new ArrayList<>();
+
+    private List<String> columns;
+    private volatile long rowCount;
+    private volatile boolean cancelled;
+    private boolean completed;
+    private String errorMessage;
+
+    public ResultSpoolWriter(Path path, ObjectMapper objectMapper, int rowGroupSize, long maxBytes) throws IOException {
+        this.path = path;
+        this.rowGroupSize = rowGroupSize;
+        this.maxBytes = maxBytes;
+        this.output = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024));
+        this.valueWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(output);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void start(List<String> columns) {
+        this.columns = new ArrayList<>(columns);
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        if (cancelled) {
+            throw new IOException("结果写入已取消");
+        }
+        if (rowCount % rowGroupSize == 0) {
+            // 行组边界处刷新生成器，得到准确的字节位置
+            generator.flush();
+            if (maxBytes > 0 && output.count > maxBytes) {
+                throw new IOException("结果文件超过大小上限 " + maxBytes / (1024 * 1024) + " MB");
+            }
+            groupOffsets.add(output.count);
+        }
+        generator.writeStartArray();
+        for (Object value : values) {
+            NdjsonRowWriter.writeValue(generator, valueWriter, value);
+        }
+        generator.writeEndArray();
+        generator.writeRaw('\n');
+        rowCount++;
+    }
+
+    @Override
+    public void end(long rowCount, long executionTime) throws IOException {
+        generator.flush();
+        long footerOffset = output.count;
+
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("columns");
+        for (String column : columns) {
+            generator.writeString(column);
+        }
+        generator.writeEndArray();
+        generator.writeNumberField("rowCount", this.rowCount);
+        generator.writeNumberField("rowGroupSize", rowGroupSize);
+        generator.writeNumberField("executionTime", executionTime);
+        generator.writeArrayFieldStart("groupOffsets");
+        for (Long offset : groupOffsets) {
+            generator.writeNumber(offset);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.flush();
+
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_LENGTH);
+        trailer.putLong(footerOffset).putInt(MAGIC);
+        output.write(trailer.array());
+        output.flush();
+        completed = true;
+    }
+
+    @Override
+    public void error(String message) {
+        this.errorMessage = message;
+    }
+
+    /**
+     * 停止写入，下一行写入时抛出异常中断查询
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 已写入行数，可在其他线程中读取作为进度
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 是否已写入完整的尾部信息
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * 统计已写出字节数的输出流
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,530 @@
+package com.dbmanage.api.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 表、列名称和注释的搜索索引
+ * 名称和注释转为小写后作为词保存在有序数组中，前缀匹配通过二分查找定位；
+ * 每个词按相邻两个字符（二元组）建立倒排表，子串匹配从最短的倒排表出发逐个验证，
+ * 模糊匹配沿有序数组增量计算前缀编辑距离并按前缀剪枝。
+ * 索引构建后不可修改，可被多个线程同时查询
+ */
+public final class SchemaSearchIndex {
+
+    public static final String KIND_TABLE = "table";
+    public static final String KIND_COLUMN = "column";
+
+    public static final String MATCH_EXACT = "exact";
+    public static final String MATCH_PREFIX = "prefix";
+    public static final String MATCH_SUBSTRING = "substring";
+    public static final String MATCH_FUZZY = "fuzzy";
+
+    /**
+     * 前缀和子串匹配时最多检查的词数（相对于返回数量的倍数），避免很短的查询扫描大量词
+     */
+    private static final int SCAN_FACTOR = 8;
+
+    private static final int[] EMPTY = new int[0];
+
+    // 条目：每个表和每个列各一个
+    private final String[] entryTables;
+    private final String[] entryColumns;
+    private final String[] entryTypes;
+    private final String[] entryComments;
+
+    // 词典：小写的名称和注释，升序
+    private final String[] terms;
+    private final int[][] postings;
+    private final boolean[] commentTerms;
+
+    // 二元组 -> 包含它的词，升序
+    private final Map<Integer, int[]> grams;
+
+    private SchemaSearchIndex(String[] entryTables, String[] entryColumns, String[] entryTypes, String[] entryComments,
+                              String[] terms, int[][] postings, boolean[] commentTerms, Map<Integer, int[]> grams) {
+        this.entryTables = entryTables;
+        this.entryColumns = entryColumns;
+        this.entryTypes = entryTypes;
+        this.entryComments = entryComments;
+        this.terms = terms;
+        this.postings = postings;
+        this.commentTerms = commentTerms;
+        this.grams = grams;
+    }
+
+    /**
+     * 构建索引
+     *
+     * @param tables 表结构
+     * @return 索引
+     */
+    public static SchemaSearchIndex build(Collection<Table> tables) {
+        List<String> entryTables = new ArrayList<>();
+        List<String> entryColumns = new ArrayList<>();
+        List<String> entryTypes = new ArrayList<>();
+        List<String> entryComments = new ArrayList<>();
+        // 词 -> [条目ID列表, 是否只来自注释]
+        Map<String, TermBuilder> termMap = new HashMap<>();
+
+        for (Table table : tables) {
+            int tableEntry = entryTables.size();
+            entryTables.add(table.name);
+            entryColumns.add(null);
+            entryTypes.add(table.type);
+            entryComments.add(table.comment);
+            String shortName = table.name.substring(table.name.lastIndexOf('.') + 1);
+            addTerm(termMap, shortName, tableEntry, false);
+            addTerm(termMap, table.name, tableEntry, false);
+            addTerm(termMap, table.comment, tableEntry, true);
+
+            for (Column column : table.columns) {
+                int columnEntry = entryTables.size();
+                entryTables.add(table.name);
+                entryColumns.add(column.name);
+                entryTypes.add(column.type);
+                entryComments.add(column.comment);
+                addTerm(termMap, column.name, columnEntry, false);
+                addTerm(termMap, column.comment, columnEntry, true);
+            }
+        }
+
+        String[] terms = termMap.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        int[][] postings = new int[terms.length][];
+        boolean[] commentTerms = new boolean[terms.length];
+        Map<Integer, IntList> gramLists = new HashMap<>();
+        for (int i = 0; i < terms.length; i++) {
+            TermBuilder builder = termMap.get(terms[i]);
+            postings[i] = builder.entries.toArray();
+            commentTerms[i] = builder.commentOnly;
+            int previous = -1;
+            for (int gram : bigrams(terms[i])) {
+                if (gram != previous) {
+                    gramLists.computeIfAbsent(gram, k -> new IntList()).add(i);
+                    previous = gram;
+                }
+            }
+        }
+        Map<Integer, int[]> grams = new HashMap<>(gramLists.size() * 2);
+        for (Map.Entry<Integer, IntList> entry : gramLists.entrySet()) {
+            grams.put(entry.getKey(), entry.getValue().toArray());
+        }
+
+        return new SchemaSearchIndex(entryTables.toArray(new String[0]), entryColumns.toArray(new String[0]),
+                entryTypes.toArray(new String[0]), entryComments.toArray(new String[0]),
+                terms, postings, commentTerms, grams);
+    }
+
+    private static void addTerm(Map<String, TermBuilder> termMap, String value, int entry, boolean comment) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        TermBuilder builder = termMap.computeIfAbsent(value.toLowerCase(Locale.ROOT), k -> new TermBuilder());
+        if (builder.entries.size() == 0 || builder.entries.last() != entry) {
+            builder.entries.add(entry);
+        }
+        builder.commentOnly &= comment;
+    }
+
+    /**
+     * 条目数（表和列）
+     */
+    public int size() {
+        return entryTables.length;
+    }
+
+    /**
+     * 搜索表和列
+     * 依次查找完全匹配、前缀匹配、子串匹配（至少2个字符）和模糊匹配（至少3个字符），
+     * 前面的匹配已经足够时不再进行后面的匹配
+     *
+     * @param query 查询字符串，不区分大小写
+     * @param kind 条目类型（table或column），为空时不限
+     * @param limit 最多返回的条目数
+     * @param excludedTables 需要排除的表，可为空
+     * @return 匹配结果，按得分降序
+     */
+    public List<Hit> search(String query, String kind, int limit, Set<String> excludedTables) {
+        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (q.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        Filter filter = new Filter(kind, excludedTables);
+        Map<Integer, Hit> hits = new LinkedHashMap<>();
+
+        // 先在词一级匹配和打分，再按得分展开倒排表，凑够limit个条目即停止
+        expand(hits, prefixMatches(q, limit), limit, filter);
+        if (hits.size() < limit && q.length() >= 2) {
+            expand(hits, substringMatches(q, limit), limit, filter);
+        }
+        if (hits.size() < limit && q.length() >= 3) {
+            expand(hits, fuzzyMatches(q, limit), limit, filter);
+        }
+
+        List<Hit> result = new ArrayList<>(hits.values());
+        result.sort(Comparator.comparingInt((Hit hit) -> -hit.score)
+                .thenComparingInt(hit -> hit.column == null ? 0 : 1)
+                .thenComparing(Hit::getName));
+        return result;
+    }
+
+    /**
+     * 前缀匹配（含完全匹配）：有序数组中以q开头的词是连续的一段，短的词更接近完全匹配
+     */
+    private List<TermMatch> prefixMatches(String q, int limit) {
+        List<TermMatch> matches = new ArrayList<>();
+        for (int i = lowerBound(q); i < terms.length && terms[i].startsWith(q) && matches.size() < limit * SCAN_FACTOR; i++) {
+            boolean exact = terms[i].length() == q.length();
+            matches.add(new TermMatch(i, exact ? MATCH_EXACT : MATCH_PREFIX,
+                    exact ? 100 : 80 - Math.min(20, terms[i].length() - q.length())));
+        }
+        return matches;
+    }
+
+    /**
+     * 子串匹配：从q中最短的二元组倒排表出发，验证每个候选词是否包含q；以q开头的词已在前缀匹配中处理
+     */
+    private List<TermMatch> substringMatches(String q, int limit) {
+        List<TermMatch> matches = new ArrayList<>();
+        int[] candidates = null;
+        for (int gram : bigrams(q)) {
+            int[] list = grams.getOrDefault(gram, EMPTY);
+            if (candidates == null || list.length < candidates.length) {
+                candidates = list;
+            }
+        }
+        if (candidates == null) {
+            return matches;
+        }
+        for (int term : candidates) {
+            if (matches.size() >= limit * SCAN_FACTOR) {
+                break;
+            }
+            if (terms[term].indexOf(q) > 0) {
+                matches.add(new TermMatch(term, MATCH_SUBSTRING, 60 - Math.min(20, terms[term].length() - q.length())));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * 模糊匹配：计算q与词的某个前缀之间的最小编辑距离，假定首字符输入正确，只查找以它开头的词。
+     * 按有序数组顺序遍历，相邻的词共享前缀部分的动态规划行；某个前缀及其所有更短前缀的距离都已超过上限时，
+     * 以该前缀开头的词全部跳过，效果相当于在字典树上做Levenshtein搜索
+     */
+    private List<TermMatch> fuzzyMatches(String q, int limit) {
+        List<TermMatch> matches = new ArrayList<>();
+        int max = q.length() <= 4 ? 1 : 2;
+        int m = q.length();
+        int maxDepth = m + max;
+        // rows[d]：词的前d个字符与q各前缀的编辑距离；best[d]：前d个字符内任一前缀与q的最小距离
+        int[][] rows = new int[maxDepth + 1][m + 1];
+        int[] best = new int[maxDepth + 1];
+        for (int j = 0; j <= m; j++) {
+            rows[0][j] = j;
+        }
+        best[0] = m;
+
+        String first = q.substring(0, 1);
+        int end = lowerBound(first + Character.MAX_VALUE);
+        String previous = "";
+        int valid = 0;
+        int i = lowerBound(first);
+        while (i < end && matches.size() < limit * SCAN_FACTOR) {
+            String term = terms[i];
+            int depth = Math.min(commonPrefix(previous, term), valid);
+            int maxTermDepth = Math.min(term.length(), maxDepth);
+            boolean pruned = false;
+            while (depth < maxTermDepth) {
+                int[] above = rows[depth];
+                int[] current = rows[depth + 1];
+                char c = term.charAt(depth);
+                current[0] = depth + 1;
+                int rowMin = current[0];
+                for (int j = 1; j <= m; j++) {
+                    int cost = q.charAt(j - 1) == c ? 0 : 1;
+                    current[j] = Math.min(Math.min(current[j - 1] + 1, above[j] + 1), above[j - 1] + cost);
+                    rowMin = Math.min(rowMin, current[j]);
+                }
+                depth++;
+                best[depth] = Math.min(best[depth - 1], current[m]);
+                if (rowMin > max) {
+                    pruned = true;
+                    break;
+                }
+            }
+            previous = term;
+            valid = depth;
+            if (pruned) {
+                // 更长的前缀距离只会更大，以该前缀开头的词与当前词的距离相同
+                int next = Math.max(i + 1, lowerBound(term.substring(0, depth) + Character.MAX_VALUE));
+                if (best[depth] <= max) {
+                    for (int j = i; j < next && matches.size() < limit * SCAN_FACTOR; j++) {
+                        matches.add(new TermMatch(j, MATCH_FUZZY, 40 - 10 * best[depth]));
+                    }
+                }
+                i = next;
+                continue;
+            }
+            // 距离为0的词是前缀匹配，已经处理
+            if (best[depth] > 0 && best[depth] <= max) {
+                matches.add(new TermMatch(i, MATCH_FUZZY, 40 - 10 * best[depth]));
+            }
+            i++;
+        }
+        return matches;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < n && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 按得分从高到低展开词的倒排表，只在注释中出现的词排在名称匹配之后
+     */
+    private void expand(Map<Integer, Hit> hits, List<TermMatch> matches, int limit, Filter filter) {
+        for (TermMatch match : matches) {
+            if (commentTerms[match.term]) {
+                match.score -= 30;
+            }
+        }
+        matches.sort(Comparator.comparingInt((TermMatch match) -> -match.score)
+                .thenComparingInt(match -> terms[match.term].length()));
+        for (TermMatch match : matches) {
+            for (int entry : postings[match.term]) {
+                if (hits.size() >= limit) {
+                    return;
+                }
+                if (!hits.containsKey(entry) && filter.accept(entryTables[entry], entryColumns[entry])) {
+                    hits.put(entry, new Hit(entryColumns[entry] == null ? KIND_TABLE : KIND_COLUMN, entryTables[entry],
+                            entryColumns[entry], entryTypes[entry], entryComments[entry], match.match, match.score));
+                }
+            }
+        }
+    }
+
+    private int lowerBound(String q) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(q) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 字符串中所有相邻两个字符组成的二元组，升序（可能重复）
+     */
+    private static int[] bigrams(String value) {
+        if (value.length() < 2) {
+            return EMPTY;
+        }
+        int[] result = new int[value.length() - 1];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (value.charAt(i) << 16) | value.charAt(i + 1);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * 索引中的表
+     */
+    public static final class Table {
+        private final String name;
+        private final String type;
+        private final String comment;
+        private final List<Column> columns;
+
+        /**
+         * @param name 表名，带schema时为 schema.table
+         * @param type 表类型
+         * @param comment 注释
+         * @param columns 列
+         */
+        public Table(String name, String type, String comment, List<Column> columns) {
+            this.name = name;
+            this.type = type;
+            this.comment = comment;
+            this.columns = columns;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getComment() {
+            return comment;
+        }
+
+        public List<Column> getColumns() {
+            return columns;
+        }
+    }
+
+    /**
+     * 索引中的列
+     */
+    public static final class Column {
+        private final String name;
+        private final String type;
+        private final String comment;
+
+        public Column(String name, String type, String comment) {
+            this.name = name;
+            this.type = type;
+            this.comment = comment;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getComment() {
+            return comment;
+        }
+    }
+
+    /**
+     * 搜索结果
+     */
+    public static final class Hit {
+        private final String kind;
+        private final String table;
+        private final String column;
+        private final String type;
+        private final String comment;
+        private final String match;
+        private final int score;
+
+        Hit(String kind, String table, String column, String type, String comment, String match, int score) {
+            this.kind = kind;
+            this.table = table;
+            this.column = column;
+            this.type = type;
+            this.comment = comment;
+            this.match = match;
+            this.score = score;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        /**
+         * 表条目为表名，列条目为 表名.列名
+         */
+        public String getName() {
+            return column == null ? table : table + "." + column;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getComment() {
+            return comment;
+        }
+
+        public String getMatch() {
+            return match;
+        }
+
+        public int getScore() {
+            return score;
+        }
+    }
+
+    private static final class TermMatch {
+        private final int term;
+        private final String match;
+        private int score;
+
+        TermMatch(int term, String match, int score) {
+            this.term = term;
+            this.match = match;
+            this.score = score;
+        }
+    }
+
+    private static final class Filter {
+        private final String kind;
+        private final Set<String> excludedTables;
+
+        Filter(String kind, Set<String> excludedTables) {
+            this.kind = kind;
+            this.excludedTables = excludedTables;
+        }
+
+        boolean accept(String table, String column) {
+            if (kind != null && !kind.equals(column == null ? KIND_TABLE : KIND_COLUMN)) {
+                return false;
+            }
+            return excludedTables == null || !excludedTables.contains(table);
+        }
+    }
+
+    private static final class TermBuilder {
+        private final IntList entries = new IntList();
+        private boolean commentOnly = true;
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int last() {
+            return values[size - 1];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.dbmanage.api.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 合并相同键的并发调用
+ * 同一键同时只有一个调用实际执行加载函数，其余调用等待并共享它的结果或异常；
+ * 加载结束后立即移除，之后的调用重新执行，本类不缓存结果
+ *
+ * @param <K> 键类型，需正确实现equals和hashCode
+ * @param <V> 结果类型
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+
+    /**
+     * 执行加载函数，相同键已有执行中的调用时等待其结果
+     *
+     * @param key 键
+     * @param loader 加载函数
+     * @return 加载结果
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            shared.incrementAndGet();
+            return await(existing);
+        }
+
+        executions.incrementAndGet();
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 执行中的键数量
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 实际执行次数、共享结果的调用次数、执行中的键数量
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("executions", executions.get());
+        stats.put("shared", shared.get());
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // 等待方收到与执行方相同的异常
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
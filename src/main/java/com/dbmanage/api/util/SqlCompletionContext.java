@@ -0,0 +1,154 @@
+package com.dbmanage.api.util;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 光标处的SQL补全上下文，由 {@link SqlScriptParser#completionContext} 分析得到
+ */
+public class SqlCompletionContext {
+
+    /**
+     * 光标处应补全的对象类型
+     */
+    public enum Kind {
+        /**
+         * 关键字，如语句开头或表名之后
+         */
+        KEYWORD,
+
+        /**
+         * 表名，如FROM、JOIN、UPDATE、INTO之后
+         */
+        TABLE,
+
+        /**
+         * 列名、函数和表达式关键字，如SELECT、WHERE、ON之后或 别名. 之后
+         */
+        COLUMN,
+
+        /**
+         * 不补全，如光标位于字符串、注释或数字中
+         */
+        NONE
+    }
+
+    private final Kind kind;
+    private final String prefix;
+    private final String qualifier;
+    private final int replaceStart;
+    private final boolean statementStart;
+    private final boolean naturalLanguage;
+    private final List<TableRef> tables;
+
+    public SqlCompletionContext(Kind kind, String prefix, String qualifier, int replaceStart,
+                                boolean statementStart, boolean naturalLanguage, List<TableRef> tables) {
+        this.kind = kind;
+        this.prefix = prefix;
+        this.qualifier = qualifier;
+        this.replaceStart = replaceStart;
+        this.statementStart = statementStart;
+        this.naturalLanguage = naturalLanguage;
+        this.tables = tables;
+    }
+
+    static SqlCompletionContext none(int cursor) {
+        return new SqlCompletionContext(Kind.NONE, "", null, cursor, false, false, Collections.emptyList());
+    }
+
+    /**
+     * 应补全的对象类型
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * 光标前正在输入的部分名称（不含引号），没有时为空字符串
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * 部分名称之前的限定名，如 u.na 中的 u、public.us 中的 public，没有时为null
+     */
+    public String getQualifier() {
+        return qualifier;
+    }
+
+    /**
+     * 补全时替换的起始位置，即部分名称（含引号）的起始位置
+     */
+    public int getReplaceStart() {
+        return replaceStart;
+    }
+
+    /**
+     * 光标是否位于语句的第一个单词
+     */
+    public boolean isStatementStart() {
+        return statementStart;
+    }
+
+    /**
+     * 文本是否更像自然语言描述而不是SQL（第一个单词不是语句关键字，或包含中日韩文字）
+     */
+    public boolean isNaturalLanguage() {
+        return naturalLanguage;
+    }
+
+    /**
+     * 光标所在语句中引用的表，包括光标之后的部分
+     */
+    public List<TableRef> getTables() {
+        return tables;
+    }
+
+    /**
+     * 语句中引用的表及其别名
+     */
+    public static class TableRef {
+
+        private final String name;
+        private String alias;
+
+        public TableRef(String name) {
+            this.name = name;
+        }
+
+        /**
+         * 表名，带schema时为 schema.table，已去掉引号
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 别名，没有时为null
+         */
+        public String getAlias() {
+            return alias;
+        }
+
+        void setAlias(String alias) {
+            this.alias = alias;
+        }
+
+        /**
+         * 限定名是否指向该表：与别名相同，或没有别名时与完整表名或不带schema的表名相同，不区分大小写
+         */
+        public boolean matches(String qualifier) {
+            if (alias != null) {
+                return alias.equalsIgnoreCase(qualifier);
+            }
+            return name.equalsIgnoreCase(qualifier)
+                    || name.substring(name.lastIndexOf('.') + 1).equalsIgnoreCase(qualifier);
+        }
+
+        @Override
+        public String toString() {
+            return alias == null ? name : name + " " + alias;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.dbmanage.api.util;
+
+/**
+ * SQL方言
+ * 描述不同数据库在词法层面的差异（引号、注释、转义、批处理分隔符）
+ */
+public enum SqlDialect {
+
+    /**
+     * MySQL：反引号标识符、#注释、字符串内反斜杠转义、DELIMITER命令
+     */
+    MYSQL(true, true),
+
+    /**
+     * PostgreSQL：$tag$美元符引用、E''转义字符串、嵌套块注释
+     */
+    POSTGRESQL(false, false),
+
+    /**
+     * SQL Server：[]标识符、GO批处理分隔符
+     */
+    SQLSERVER(false, false),
+
+    /**
+     * Oracle：q'[...]'替代引用、单独一行的 / 结束PL/SQL块
+     */
+    ORACLE(false, false),
+
+    /**
+     * 未知数据库，按标准SQL处理
+     */
+    GENERIC(false, false);
+
+    private final boolean backslashEscapes;
+    private final boolean hashComments;
+
+    SqlDialect(boolean backslashEscapes, boolean hashComments) {
+        this.backslashEscapes = backslashEscapes;
+        this.hashComments = hashComments;
+    }
+
+    /**
+     * 字符串字面量中反斜杠是否为转义符
+     */
+    public boolean isBackslashEscapes() {
+        return backslashEscapes;
+    }
+
+    /**
+     * 是否支持 # 开头的单行注释
+     */
+    public boolean isHashComments() {
+        return hashComments;
+    }
+
+    /**
+     * 根据连接类型获取方言
+     *
+     * @param type 连接类型，如mysql、postgresql
+     * @return 方言，无法识别时返回GENERIC
+     */
+    public static SqlDialect from(String type) {
+        if (type == null) {
+            return GENERIC;
+        }
+        switch (type.toLowerCase()) {
+            case "mysql":
+            case "mariadb":
+                return MYSQL;
+            case "postgresql":
+            case "postgres":
+                return POSTGRESQL;
+            case "sqlserver":
+            case "mssql":
+                return SQLSERVER;
+            case "oracle":
+                return ORACLE;
+            default:
+                return GENERIC;
+        }
+    }
+
+    /**
+     * 按方言规则为标识符加引号
+     *
+     * @param identifier 标识符
+     * @return 加引号后的标识符
+     */
+    public String quote(String identifier) {
+        switch (this) {
+            case MYSQL:
+                return "`" + identifier.replace("`", "``") + "`";
+            case SQLSERVER:
+                return "[" + identifier.replace("]", "]]") + "]";
+            default:
+                return "\"" + identifier.replace("\"", "\"\"") + "\"";
+        }
+    }
+
+    /**
+     * 为可能带模式前缀的名称（schema.table）逐段加引号
+     *
+     * @param name 名称
+     * @return 加引号后的名称
+     */
+    public String quoteQualified(String name) {
+        StringBuilder quoted = new StringBuilder();
+        for (String part : name.split("\\.")) {
+            if (quoted.length() > 0) {
+                quoted.append('.');
+            }
+            quoted.append(quote(part));
+        }
+        return quoted.toString();
+    }
+}
@@ -0,0 +1,1327 @@
+package com.dbmanage.api.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SQL脚本解析器
+ * 单次扫描脚本，识别字符串、标识符引号、注释和过程体，按语句边界切分并识别每条语句的类型。
+ * 扫描过程中不做大小写转换和正则替换，只在输出语句时截取一次子串。
+ * <p>
+ * 支持的方言差异：
+ * <ul>
+ *     <li>MySQL：反引号、# 注释、反斜杠转义、DELIMITER 命令</li>
+ *     <li>PostgreSQL：$tag$ 美元符引用、E'' 字符串、嵌套块注释</li>
+ *     <li>SQL Server：[] 标识符、GO 批处理分隔符</li>
+ *     <li>Oracle：q'[...]' 替代引用、单独一行的 / 结束PL/SQL块</li>
+ * </ul>
+ * 存储过程、函数、触发器等带过程体的语句中，BEGIN/CASE ... END 内部的分号不会被视为语句结束。
+ */
+public final class SqlScriptParser {
+
+    /**
+     * 记录每条语句开头的单词数量，用于识别语句类型
+     */
+    private static final int HEAD_WORDS = 8;
+
+    /**
+     * 其后紧跟表名的关键字
+     */
+    private static final Set<String> TABLE_KEYWORDS = new HashSet<>(Arrays.asList(
+            "FROM", "JOIN", "UPDATE", "INTO", "USING", "TABLE"));
+
+    /**
+     * 表名之前可能出现的修饰词，如 DROP TABLE IF EXISTS、FROM ONLY、JOIN LATERAL
+     */
+    private static final Set<String> TABLE_MODIFIERS = new HashSet<>(Arrays.asList(
+            "TABLE", "ONLY", "IF", "NOT", "EXISTS", "LATERAL", "IGNORE", "LOW_PRIORITY", "QUICK"));
+
+    /**
+     * 表名之后不是别名的子句关键字
+     */
+    private static final Set<String> CLAUSE_KEYWORDS = new HashSet<>(Arrays.asList(
+            "WHERE", "JOIN", "LEFT", "RIGHT", "INNER", "OUTER", "CROSS", "FULL", "NATURAL", "ON", "USING",
+            "GROUP", "ORDER", "HAVING", "LIMIT", "OFFSET", "FETCH", "UNION", "INTERSECT", "EXCEPT", "MINUS",
+            "WINDOW", "FOR", "SET", "VALUES", "SELECT", "RETURNING", "WITH", "PARTITION", "TABLESAMPLE"));
+
+    /**
+     * 其后是表达式（可补全列名）的关键字
+     */
+    private static final Set<String> EXPRESSION_KEYWORDS = new HashSet<>(Arrays.asList(
+            "SELECT", "DISTINCT", "WHERE", "ON", "AND", "OR", "NOT", "BY", "HAVING", "SET", "WHEN", "THEN", "ELSE",
+            "CASE", "LIKE", "BETWEEN", "RETURNING", "IN", "ALL", "ANY", "SOME", "EXISTS", "AS"));
+
+    /**
+     * 语句开头的关键字，第一个单词不在其中的文本视为自然语言
+     */
+    private static final Set<String> STATEMENT_KEYWORDS = new HashSet<>(Arrays.asList(
+            "SELECT", "INSERT", "UPDATE", "DELETE", "WITH", "CREATE", "ALTER", "DROP", "TRUNCATE", "RENAME",
+            "SHOW", "DESC", "DESCRIBE", "EXPLAIN", "MERGE", "REPLACE", "UPSERT", "GRANT", "REVOKE", "USE", "SET",
+            "CALL", "EXEC", "EXECUTE", "DO", "BEGIN", "START", "COMMIT", "ROLLBACK", "SAVEPOINT", "DECLARE",
+            "VALUES", "TABLE", "ANALYZE", "VACUUM", "COPY", "LOCK", "OPTIMIZE", "COMMENT", "PREPARE"));
+
+    // 补全分析时的词法单元类型
+    private static final int TOKEN_WORD = 0;
+    private static final int TOKEN_IDENTIFIER = 1;
+    private static final int TOKEN_LITERAL = 2;
+    private static final int TOKEN_SYMBOL = 3;
+
+    private SqlScriptParser() {
+    }
+
+    /**
+     * 解析SQL脚本
+     *
+     * @param script SQL脚本
+     * @param dialect SQL方言
+     * @return 语句列表，不包含空语句和只有注释的语句
+     */
+    public static List<SqlStatement> parse(String script, SqlDialect dialect) {
+        List<SqlStatement> statements = new ArrayList<>();
+        if (script == null || script.isEmpty()) {
+            return statements;
+        }
+        new Scanner(script, dialect == null ? SqlDialect.GENERIC : dialect, statements).run();
+        return statements;
+    }
+
+    /**
+     * 识别单条SQL语句的类型
+     *
+     * @param sql SQL语句
+     * @param dialect SQL方言
+     * @return 第一条语句的类型，没有有效语句时返回UNKNOWN
+     */
+    public static SqlStatementType classify(String sql, SqlDialect dialect) {
+        List<SqlStatement> statements = parse(sql, dialect);
+        return statements.isEmpty() ? SqlStatementType.UNKNOWN : statements.get(0).getType();
+    }
+
+    /**
+     * 将SQL中的 :name 命名参数替换为 ? 占位符
+     *
+     * @param sql SQL语句
+     * @param dialect SQL方言
+     * @param params 参数名到参数值的映射
+     * @param values 按占位符顺序追加参数值
+     * @return 替换后的SQL
+     */
+    public static String bindNamedParameters(String sql, SqlDialect dialect, Map<String, ?> params, List<Object> values) {
+        if (sql == null || params == null || params.isEmpty()) {
+            return sql;
+        }
+        return new Scanner(sql, dialect == null ? SqlDialect.GENERIC : dialect, null).bindNamed(params, values);
+    }
+
+    /**
+     * 规范化SQL，用于判断两条SQL是否相同：去掉注释，字符串和引号标识符之外的连续空白合并为一个空格，
+     * 去掉首尾空白和末尾的分号。不做大小写转换，部分数据库的表名区分大小写
+     *
+     * @param sql SQL语句
+     * @param dialect SQL方言
+     * @return 规范化后的SQL
+     */
+    public static String normalize(String sql, SqlDialect dialect) {
+        if (sql == null) {
+            return null;
+        }
+        return new Scanner(sql, dialect == null ? SqlDialect.GENERIC : dialect, null).normalize(null);
+    }
+
+    /**
+     * 提取SQL中引用的表名：FROM、JOIN、UPDATE、INTO、USING之后的名称，包括FROM后逗号分隔的多个表。
+     * 表名去掉引号和schema前缀并转为小写，子查询、字符串和注释中的内容不会误识别为表名
+     *
+     * @param sql SQL语句
+     * @param dialect SQL方言
+     * @return 表名集合，按出现顺序
+     */
+    public static Set<String> referencedTables(String sql, SqlDialect dialect) {
+        Set<String> tables = new LinkedHashSet<>();
+        if (sql != null) {
+            new Scanner(sql, dialect == null ? SqlDialect.GENERIC : dialect, null).normalize(tables);
+        }
+        return tables;
+    }
+
+    /**
+     * 分析光标处的补全上下文：光标前正在输入的部分名称和限定名、应补全的对象类型，
+     * 以及光标所在语句中引用的表和别名（包括光标之后的FROM子句）。
+     * 光标位于字符串、注释或数字中时返回NONE
+     *
+     * @param sql SQL文本
+     * @param cursor 光标位置，超出范围时视为文本末尾
+     * @param dialect SQL方言
+     * @return 补全上下文
+     */
+    public static SqlCompletionContext completionContext(String sql, int cursor, SqlDialect dialect) {
+        String text = sql == null ? "" : sql;
+        int position = cursor < 0 || cursor > text.length() ? text.length() : cursor;
+        return new Scanner(text, dialect == null ? SqlDialect.GENERIC : dialect, null).complete(position);
+    }
+
+    /**
+     * 扫描状态
+     */
+    private static final class Scanner {
+
+        private final String s;
+        private final int n;
+        private final SqlDialect dialect;
+        private final List<SqlStatement> out;
+
+        private int pos;
+        private String delimiter = ";";
+
+        // 当前语句状态
+        private int contentStart = -1;
+        private int contentLine;
+        private boolean leadingParen;
+        private boolean routine;
+        private int depth;
+        private final int[] wordStart = new int[HEAD_WORDS];
+        private final int[] wordEnd = new int[HEAD_WORDS];
+        private int wordCount;
+
+        // 行号按需增量统计
+        private int lineScanPos;
+        private int line = 1;
+
+        Scanner(String script, SqlDialect dialect, List<SqlStatement> out) {
+            this.s = script;
+            this.n = script.length();
+            this.dialect = dialect;
+            this.out = out;
+        }
+
+        void run() {
+            while (pos < n) {
+                if ((pos == 0 || s.charAt(pos - 1) == '\n') && lineCommand()) {
+                    continue;
+                }
+
+                char c = s.charAt(pos);
+                if (Character.isWhitespace(c)) {
+                    pos++;
+                    continue;
+                }
+
+                char next = pos + 1 < n ? s.charAt(pos + 1) : '\0';
+
+                // 注释
+                if (c == '-' && next == '-'
+                        && (dialect != SqlDialect.MYSQL || pos + 2 >= n || Character.isWhitespace(s.charAt(pos + 2)))) {
+                    pos = skipLineComment(pos);
+                    continue;
+                }
+                if (c == '#' && dialect.isHashComments()) {
+                    pos = skipLineComment(pos);
+                    continue;
+                }
+                if (c == '/' && next == '*') {
+                    // MySQL的 /*! ... */ 是可执行注释，视为语句内容
+                    if (dialect == SqlDialect.MYSQL && pos + 2 < n && s.charAt(pos + 2) == '!') {
+                        markContent();
+                    }
+                    pos = skipBlockComment(pos);
+                    continue;
+                }
+
+                // 语句分隔符
+                if (!";".equals(delimiter)) {
+                    if (s.startsWith(delimiter, pos)) {
+                        finish(pos);
+                        pos += delimiter.length();
+                        reset();
+                        continue;
+                    }
+                } else if (c == ';' && depth <= 0 && !endsOnlyAtBatchSeparator()) {
+                    finish(pos);
+                    pos++;
+                    reset();
+                    continue;
+                }
+
+                if (contentStart < 0 && c == '(') {
+                    leadingParen = true;
+                }
+                markContent();
+
+                if (c == '\'') {
+                    pos = skipQuoted(pos, '\'', dialect.isBackslashEscapes());
+                } else if (c == '"') {
+                    pos = skipQuoted(pos, '"', dialect.isBackslashEscapes());
+                } else if (c == '`' && dialect == SqlDialect.MYSQL) {
+                    pos = skipQuoted(pos, '`', false);
+                } else if (c == '[' && dialect == SqlDialect.SQLSERVER) {
+                    pos = skipQuoted(pos, ']', false);
+                } else if (c == '$' && dialect == SqlDialect.POSTGRESQL) {
+                    pos = skipDollarQuoted(pos);
+                } else if (Character.isLetter(c) || c == '_') {
+                    pos = word(pos);
+                } else if (Character.isDigit(c)) {
+                    pos = skipWordChars(pos + 1);
+                } else {
+                    pos++;
+                }
+            }
+            finish(n);
+        }
+
+        /**
+         * 将 :name 形式的命名参数替换为 ?，字符串、注释和PostgreSQL的 :: 类型转换不受影响
+         */
+        String bindNamed(Map<String, ?> params, List<Object> values) {
+            StringBuilder sb = null;
+            int copied = 0;
+            while (pos < n) {
+                char c = s.charAt(pos);
+                char next = pos + 1 < n ? s.charAt(pos + 1) : '\0';
+                if (c == '-' && next == '-'
+                        && (dialect != SqlDialect.MYSQL || pos + 2 >= n || Character.isWhitespace(s.charAt(pos + 2)))) {
+                    pos = skipLineComment(pos);
+                } else if (c == '#' && dialect.isHashComments()) {
+                    pos = skipLineComment(pos);
+                } else if (c == '/' && next == '*') {
+                    pos = skipBlockComment(pos);
+                } else if (c == '\'') {
+                    pos = skipQuoted(pos, '\'', dialect.isBackslashEscapes());
+                } else if (c == '"') {
+                    pos = skipQuoted(pos, '"', dialect.isBackslashEscapes());
+                } else if (c == '`' && dialect == SqlDialect.MYSQL) {
+                    pos = skipQuoted(pos, '`', false);
+                } else if (c == '[' && dialect == SqlDialect.SQLSERVER) {
+                    pos = skipQuoted(pos, ']', false);
+                } else if (c == '$' && dialect == SqlDialect.POSTGRESQL) {
+                    pos = skipDollarQuoted(pos);
+                } else if (c == ':' && next == ':') {
+                    pos += 2;
+                } else if (c == ':' && (Character.isLetter(next) || next == '_')) {
+                    int end = skipWordChars(pos + 1);
+                    String name = s.substring(pos + 1, end);
+                    // 只替换请求中提供了值的参数名，其余保持原样
+                    if (params.containsKey(name)) {
+                        if (sb == null) {
+                            sb = new StringBuilder(n);
+                        }
+                        sb.append(s, copied, pos).append('?');
+                        values.add(params.get(name));
+                        copied = end;
+                    }
+                    pos = end;
+                } else if (Character.isLetter(c) || c == '_') {
+                    int literalEnd = skipPrefixedLiteral(pos);
+                    pos = literalEnd >= 0 ? literalEnd : skipWordChars(pos + 1);
+                } else {
+                    pos++;
+                }
+            }
+            if (sb == null) {
+                return s;
+            }
+            return sb.append(s, copied, n).toString();
+        }
+
+        /**
+         * 按词法单元重新输出SQL，同时识别表名
+         *
+         * @param tables 收集表名，为空时不识别
+         */
+        String normalize(Set<String> tables) {
+            StringBuilder sb = new StringBuilder(n);
+            boolean space = false;
+            // 0：无；1：等待表名；2：刚读到FROM列表中的表名；3：已读到表别名
+            int state = 0;
+            boolean fromList = false;
+            while (pos < n) {
+                char c = s.charAt(pos);
+                char next = pos + 1 < n ? s.charAt(pos + 1) : '\0';
+                if (Character.isWhitespace(c)) {
+                    space = true;
+                    pos++;
+                    continue;
+                }
+                if (c == '-' && next == '-'
+                        && (dialect != SqlDialect.MYSQL || pos + 2 >= n || Character.isWhitespace(s.charAt(pos + 2)))) {
+                    pos = skipLineComment(pos);
+                    space = true;
+                    continue;
+                }
+                if (c == '#' && dialect.isHashComments()) {
+                    pos = skipLineComment(pos);
+                    space = true;
+                    continue;
+                }
+                if (c == '/' && next == '*' && !(dialect == SqlDialect.MYSQL && pos + 2 < n && s.charAt(pos + 2) == '!')) {
+                    pos = skipBlockComment(pos);
+                    space = true;
+                    continue;
+                }
+
+                int start = pos;
+                boolean identifier = false;
+                if (c == '/' && next == '*') {
+                    // MySQL的可执行注释原样保留
+                    pos = skipBlockComment(pos);
+                } else if (c == '\'') {
+                    pos = skipQuoted(pos, '\'', dialect.isBackslashEscapes());
+                } else if (c == '"') {
+                    pos = skipQuoted(pos, '"', dialect.isBackslashEscapes());
+                    identifier = true;
+                } else if (c == '`' && dialect == SqlDialect.MYSQL) {
+                    pos = skipQuoted(pos, '`', false);
+                    identifier = true;
+                } else if (c == '[' && dialect == SqlDialect.SQLSERVER) {
+                    pos = skipQuoted(pos, ']', false);
+                    identifier = true;
+                } else if (c == '$' && dialect == SqlDialect.POSTGRESQL) {
+                    pos = skipDollarQuoted(pos);
+                } else if (Character.isLetter(c) || c == '_') {
+                    int literalEnd = skipPrefixedLiteral(pos);
+                    if (literalEnd >= 0) {
+                        pos = literalEnd;
+                    } else {
+                        pos = skipWordChars(pos + 1);
+                        identifier = true;
+                    }
+                } else if (Character.isDigit(c)) {
+                    pos = skipWordChars(pos + 1);
+                } else {
+                    pos++;
+                }
+
+                if (space && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                space = false;
+                sb.append(s, start, pos);
+
+                if (tables == null) {
+                    continue;
+                }
+                String word = identifier && (Character.isLetter(c) || c == '_')
+                        ? s.substring(start, pos).toUpperCase(Locale.ROOT) : null;
+                if (state == 1) {
+                    if (word != null && TABLE_MODIFIERS.contains(word)) {
+                        continue;
+                    }
+                    if (identifier) {
+                        int end = qualifiedName(start, tables);
+                        sb.append(s, pos, end);
+                        pos = end;
+                        state = fromList ? 2 : 0;
+                        continue;
+                    }
+                    // 子查询、VALUES等
+                    state = 0;
+                } else if (state == 2 || state == 3) {
+                    if (c == ',') {
+                        state = 1;
+                        continue;
+                    }
+                    if (state == 2 && word != null && !CLAUSE_KEYWORDS.contains(word)) {
+                        // AS 或别名
+                        state = "AS".equals(word) ? 2 : 3;
+                        continue;
+                    }
+                    state = 0;
+                }
+                if (word != null && TABLE_KEYWORDS.contains(word)) {
+                    state = 1;
+                    fromList = "FROM".equals(word) || "UPDATE".equals(word);
+                }
+            }
+            int length = sb.length();
+            while (length > 0 && sb.charAt(length - 1) == ';') {
+                length--;
+            }
+            sb.setLength(length);
+            return sb.toString().trim();
+        }
+
+        /**
+         * 读取可能带schema前缀的名称，把最后一段（去掉引号、小写）加入表名集合
+         *
+         * @param start 名称第一段的起始位置，pos已位于第一段之后
+         * @return 名称之后的位置
+         */
+        private int qualifiedName(int start, Set<String> tables) {
+            int partStart = start;
+            int p = pos;
+            while (p + 1 < n && s.charAt(p) == '.') {
+                char c = s.charAt(p + 1);
+                int end;
+                if (c == '"') {
+                    end = skipQuoted(p + 1, '"', false);
+                } else if (c == '`' && dialect == SqlDialect.MYSQL) {
+                    end = skipQuoted(p + 1, '`', false);
+                } else if (c == '[' && dialect == SqlDialect.SQLSERVER) {
+                    end = skipQuoted(p + 1, ']', false);
+                } else if (Character.isLetter(c) || c == '_') {
+                    end = skipWordChars(p + 2);
+                } else {
+                    break;
+                }
+                partStart = p + 1;
+                p = end;
+            }
+            String name = s.substring(partStart, p);
+            if (name.length() >= 2 && !Character.isLetterOrDigit(name.charAt(0)) && name.charAt(0) != '_') {
+                name = name.substring(1, name.length() - 1);
+            }
+            tables.add(name.toLowerCase(Locale.ROOT));
+            return p;
+        }
+
+        /**
+         * 分析补全上下文，见 {@link SqlScriptParser#completionContext}
+         */
+        SqlCompletionContext complete(int cursor) {
+            // 收集光标所在语句的词法单元：{起始位置, 结束位置, 类型}
+            List<int[]> tokens = new ArrayList<>();
+            while (pos < n) {
+                char c = s.charAt(pos);
+                char next = pos + 1 < n ? s.charAt(pos + 1) : '\0';
+                if (Character.isWhitespace(c)) {
+                    pos++;
+                    continue;
+                }
+                int start = pos;
+                if ((c == '-' && next == '-'
+                        && (dialect != SqlDialect.MYSQL || pos + 2 >= n || Character.isWhitespace(s.charAt(pos + 2))))
+                        || (c == '#' && dialect.isHashComments())) {
+                    pos = skipLineComment(pos);
+                    if (start < cursor && cursor <= pos) {
+                        return SqlCompletionContext.none(cursor);
+                    }
+                    continue;
+                }
+                if (c == '/' && next == '*') {
+                    pos = skipBlockComment(pos);
+                    if (start < cursor && (cursor < pos || pos - start < 4 || !s.startsWith("*/", pos - 2))) {
+                        return SqlCompletionContext.none(cursor);
+                    }
+                    continue;
+                }
+                if (c == ';') {
+                    if (start >= cursor) {
+                        break;
+                    }
+                    tokens.clear();
+                    pos++;
+                    continue;
+                }
+
+                int type;
+                if (c == '\'') {
+                    pos = skipQuoted(pos, '\'', dialect.isBackslashEscapes());
+                    type = TOKEN_LITERAL;
+                } else if (c == '"') {
+                    pos = skipQuoted(pos, '"', dialect.isBackslashEscapes());
+                    type = TOKEN_IDENTIFIER;
+                } else if (c == '`' && dialect == SqlDialect.MYSQL) {
+                    pos = skipQuoted(pos, '`', false);
+                    type = TOKEN_IDENTIFIER;
+                } else if (c == '[' && dialect == SqlDialect.SQLSERVER) {
+                    pos = skipQuoted(pos, ']', false);
+                    type = TOKEN_IDENTIFIER;
+                } else if (c == '$' && dialect == SqlDialect.POSTGRESQL) {
+                    pos = skipDollarQuoted(pos);
+                    type = pos - start > 1 ? TOKEN_LITERAL : TOKEN_SYMBOL;
+                } else if (Character.isLetter(c) || c == '_') {
+                    int literalEnd = skipPrefixedLiteral(pos);
+                    if (literalEnd >= 0) {
+                        pos = literalEnd;
+                        type = TOKEN_LITERAL;
+                    } else {
+                        pos = skipWordChars(pos + 1);
+                        type = TOKEN_WORD;
+                    }
+                } else if (Character.isDigit(c)) {
+                    pos = skipWordChars(pos + 1);
+                    type = TOKEN_LITERAL;
+                } else {
+                    pos++;
+                    type = TOKEN_SYMBOL;
+                }
+
+                int[] token = {start, pos, type};
+                if (start < cursor && type == TOKEN_LITERAL && (cursor < pos || isOpen(token))) {
+                    return SqlCompletionContext.none(cursor);
+                }
+                tokens.add(token);
+                if (start < cursor && isOpen(token)) {
+                    // 未结束的引号标识符，之后的文本都在引号内
+                    break;
+                }
+            }
+
+            // 光标处正在输入的名称
+            int prefixToken = -1;
+            int before = 0;
+            while (before < tokens.size() && tokens.get(before)[1] < cursor) {
+                before++;
+            }
+            if (before < tokens.size() && tokens.get(before)[0] < cursor) {
+                int[] token = tokens.get(before);
+                if (token[2] == TOKEN_LITERAL) {
+                    return SqlCompletionContext.none(cursor);
+                }
+                if (token[2] == TOKEN_WORD || token[2] == TOKEN_IDENTIFIER && (cursor < token[1] || isOpen(token))) {
+                    prefixToken = before;
+                } else {
+                    before++;
+                }
+            }
+            String prefix = "";
+            int replaceStart = cursor;
+            if (prefixToken >= 0) {
+                int[] token = tokens.get(prefixToken);
+                replaceStart = token[0];
+                prefix = token[2] == TOKEN_IDENTIFIER
+                        ? s.substring(token[0] + 1, cursor) : s.substring(token[0], cursor);
+            }
+
+            // 名称之前紧邻的限定名，如 u. 或 public.
+            List<String> qualifierParts = new ArrayList<>();
+            int edge = replaceStart;
+            int first = before - 1;
+            while (first >= 1 && isSymbol(tokens.get(first), '.') && tokens.get(first)[1] == edge
+                    && isName(tokens.get(first - 1)) && tokens.get(first - 1)[1] == tokens.get(first)[0]) {
+                qualifierParts.add(0, nameOf(tokens.get(first - 1)));
+                edge = tokens.get(first - 1)[0];
+                first -= 2;
+            }
+            int contextEnd = first + 1;
+            String qualifier = qualifierParts.isEmpty() ? null : String.join(".", qualifierParts);
+
+            // 识别表名和别名，同时记录光标处的状态
+            // 0：无；1：等待表名；2：刚读到表名；3：已读到表别名
+            List<SqlCompletionContext.TableRef> tables = new ArrayList<>();
+            SqlCompletionContext.TableRef current = null;
+            int state = 0;
+            int stateAtCursor = 0;
+            boolean fromList = false;
+            for (int k = 0; k <= tokens.size(); k++) {
+                if (k == contextEnd) {
+                    stateAtCursor = state;
+                }
+                if (k == tokens.size()) {
+                    break;
+                }
+                int[] token = tokens.get(k);
+                String word = token[2] == TOKEN_WORD ? s.substring(token[0], token[1]).toUpperCase(Locale.ROOT) : null;
+                if (state == 1) {
+                    if (word != null && TABLE_MODIFIERS.contains(word)) {
+                        continue;
+                    }
+                    if (isName(token)) {
+                        // 光标之前的名称不跨过光标处的限定名读取
+                        int limit = k < contextEnd ? contextEnd : tokens.size();
+                        List<String> parts = new ArrayList<>();
+                        parts.add(nameOf(token));
+                        int end = k;
+                        while (end + 2 < limit && isSymbol(tokens.get(end + 1), '.') && isName(tokens.get(end + 2))) {
+                            parts.add(nameOf(tokens.get(end + 2)));
+                            end += 2;
+                        }
+                        if (k == contextEnd && (prefixToken >= 0 || contextEnd < before)) {
+                            // 光标处正在输入的表名
+                            current = null;
+                            end = Math.max(end, Math.max(prefixToken, before - 1));
+                        } else {
+                            current = new SqlCompletionContext.TableRef(String.join(".", parts));
+                            tables.add(current);
+                        }
+                        k = end;
+                        state = 2;
+                        continue;
+                    }
+                    // 子查询、VALUES等
+                    state = 0;
+                } else if (state == 2 || state == 3) {
+                    if (fromList && isSymbol(token, ',')) {
+                        state = 1;
+                        continue;
+                    }
+                    if (state == 2 && (word != null && !CLAUSE_KEYWORDS.contains(word) || token[2] == TOKEN_IDENTIFIER)) {
+                        if (!"AS".equals(word)) {
+                            if (current != null && k != prefixToken) {
+                                current.setAlias(nameOf(token));
+                            }
+                            state = 3;
+                        }
+                        continue;
+                    }
+                    state = 0;
+                }
+                if (word != null && TABLE_KEYWORDS.contains(word)) {
+                    state = 1;
+                    fromList = "FROM".equals(word) || "UPDATE".equals(word);
+                }
+            }
+
+            SqlCompletionContext.Kind kind;
+            if (stateAtCursor == 1) {
+                kind = SqlCompletionContext.Kind.TABLE;
+            } else if (qualifier != null) {
+                kind = SqlCompletionContext.Kind.COLUMN;
+            } else if (stateAtCursor == 2 || stateAtCursor == 3 || contextEnd == 0) {
+                kind = SqlCompletionContext.Kind.KEYWORD;
+            } else {
+                int[] last = tokens.get(contextEnd - 1);
+                if (last[2] == TOKEN_WORD) {
+                    String word = s.substring(last[0], last[1]).toUpperCase(Locale.ROOT);
+                    kind = EXPRESSION_KEYWORDS.contains(word)
+                            ? SqlCompletionContext.Kind.COLUMN : SqlCompletionContext.Kind.KEYWORD;
+                } else if (last[2] == TOKEN_SYMBOL && !isSymbol(last, ')') && !isSymbol(last, '*')) {
+                    kind = SqlCompletionContext.Kind.COLUMN;
+                } else {
+                    kind = SqlCompletionContext.Kind.KEYWORD;
+                }
+            }
+
+            boolean naturalLanguage = false;
+            if (!tokens.isEmpty() && tokens.get(0)[2] == TOKEN_WORD) {
+                int[] token = tokens.get(0);
+                String word = s.substring(token[0], token[1]);
+                naturalLanguage = prefixToken != 0 && !STATEMENT_KEYWORDS.contains(word.toUpperCase(Locale.ROOT))
+                        || word.codePoints().anyMatch(cp -> cp >= 0x2E80);
+            }
+            return new SqlCompletionContext(kind, prefix, qualifier, replaceStart, contextEnd == 0,
+                    naturalLanguage, tables);
+        }
+
+        /**
+         * 字符串或引号标识符是否没有结束引号
+         */
+        private boolean isOpen(int[] token) {
+            if (token[2] != TOKEN_IDENTIFIER && (token[2] != TOKEN_LITERAL || s.charAt(token[0]) != '\'')) {
+                return false;
+            }
+            char open = s.charAt(token[0]);
+            return token[1] - token[0] < 2 || s.charAt(token[1] - 1) != (open == '[' ? ']' : open);
+        }
+
+        private boolean isSymbol(int[] token, char symbol) {
+            return token[2] == TOKEN_SYMBOL && s.charAt(token[0]) == symbol;
+        }
+
+        private boolean isName(int[] token) {
+            return token[2] == TOKEN_WORD || token[2] == TOKEN_IDENTIFIER;
+        }
+
+        /**
+         * 名称的文本，引号标识符去掉引号
+         */
+        private String nameOf(int[] token) {
+            if (token[2] != TOKEN_IDENTIFIER) {
+                return s.substring(token[0], token[1]);
+            }
+            return s.substring(token[0] + 1, isOpen(token) ? token[1] : token[1] - 1);
+        }
+
+        /**
+         * 处理行首的客户端命令：MySQL的DELIMITER、SQL Server的GO、Oracle的 /
+         *
+         * @return 是否已处理该行
+         */
+        private boolean lineCommand() {
+            int p = skipBlanks(pos);
+            switch (dialect) {
+                case MYSQL:
+                case GENERIC:
+                    if (contentStart < 0 && s.regionMatches(true, p, "DELIMITER", 0, 9)
+                            && p + 9 < n && (s.charAt(p + 9) == ' ' || s.charAt(p + 9) == '\t')) {
+                        int eol = endOfLine(p);
+                        String value = s.substring(p + 9, eol).trim();
+                        if (!value.isEmpty()) {
+                            delimiter = value;
+                        }
+                        pos = eol;
+                        reset();
+                        return true;
+                    }
+                    return false;
+                case SQLSERVER:
+                    if (s.regionMatches(true, p, "GO", 0, 2) && (p + 2 >= n || !isWordChar(s.charAt(p + 2)))) {
+                        int q = p + 2;
+                        while (q < n && s.charAt(q) != '\n' && (Character.isWhitespace(s.charAt(q)) || Character.isDigit(s.charAt(q)))) {
+                            q++;
+                        }
+                        if (q >= n || s.charAt(q) == '\n') {
+                            finish(pos);
+                            pos = q;
+                            reset();
+                            return true;
+                        }
+                    }
+                    return false;
+                case ORACLE:
+                    if (p < n && s.charAt(p) == '/') {
+                        int q = skipBlanks(p + 1);
+                        if (q >= n || s.charAt(q) == '\n' || s.charAt(q) == '\r') {
+                            finish(pos);
+                            pos = q;
+                            reset();
+                            return true;
+                        }
+                    }
+                    return false;
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Oracle和SQL Server中的过程体只能由 / 或 GO 结束，内部的分号都属于过程体
+         */
+        private boolean endsOnlyAtBatchSeparator() {
+            return routine && (dialect == SqlDialect.ORACLE || dialect == SqlDialect.SQLSERVER);
+        }
+
+        /**
+         * 跳过带前缀的字符串字面量：Oracle的 q'[...]'、PostgreSQL的 E'...'
+         *
+         * @return 字面量之后的位置，不是带前缀的字面量时返回-1
+         */
+        private int skipPrefixedLiteral(int start) {
+            char c = s.charAt(start);
+            char next = start + 1 < n ? s.charAt(start + 1) : '\0';
+            if (dialect == SqlDialect.ORACLE) {
+                if ((c == 'q' || c == 'Q') && next == '\'') {
+                    return skipOracleQuoted(start + 1);
+                }
+                if ((c == 'n' || c == 'N') && (next == 'q' || next == 'Q') && start + 2 < n && s.charAt(start + 2) == '\'') {
+                    return skipOracleQuoted(start + 2);
+                }
+            }
+            if (dialect == SqlDialect.POSTGRESQL && (c == 'e' || c == 'E') && next == '\'') {
+                return skipQuoted(start + 1, '\'', true);
+            }
+            return -1;
+        }
+
+        private int word(int start) {
+            int literalEnd = skipPrefixedLiteral(start);
+            if (literalEnd >= 0) {
+                return literalEnd;
+            }
+
+            int end = skipWordChars(start + 1);
+
+            if (wordCount < HEAD_WORDS) {
+                wordStart[wordCount] = start;
+                wordEnd[wordCount] = end;
+                wordCount++;
+                if (!routine) {
+                    routine = detectRoutine();
+                }
+            }
+
+            if (routine || dialect == SqlDialect.SQLSERVER) {
+                if (matches(start, end, "BEGIN")) {
+                    if (!nextWordIs(end, "TRAN", "TRANSACTION", "DISTRIBUTED", "DIALOG", "CONVERSATION", "WORK")) {
+                        depth++;
+                    }
+                } else if (matches(start, end, "CASE")) {
+                    depth++;
+                } else if (matches(start, end, "END")) {
+                    // END IF / END LOOP 等不对应BEGIN；END CASE 关闭CASE，其后的CASE不再计为新的块
+                    if (nextWordIs(end, "CASE")) {
+                        depth--;
+                        return skipWordChars(skipWhitespace(end));
+                    }
+                    if (!nextWordIs(end, "IF", "LOOP", "WHILE", "REPEAT", "FOR")) {
+                        depth--;
+                    }
+                }
+            }
+            return end;
+        }
+
+        /**
+         * 根据语句开头的单词判断是否为带过程体的语句
+         */
+        private boolean detectRoutine() {
+            if (headIs(0, "CREATE") || headIs(0, "ALTER")) {
+                for (int i = 1; i < wordCount; i++) {
+                    if (headIs(i, "TABLE") || headIs(i, "VIEW") || headIs(i, "INDEX") || headIs(i, "DATABASE")
+                            || headIs(i, "SCHEMA") || headIs(i, "USER") || headIs(i, "SEQUENCE")) {
+                        return false;
+                    }
+                    if (headIs(i, "PROCEDURE") || headIs(i, "FUNCTION") || headIs(i, "TRIGGER")
+                            || headIs(i, "EVENT") || headIs(i, "PACKAGE")
+                            || (dialect == SqlDialect.ORACLE && headIs(i, "TYPE"))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return dialect == SqlDialect.ORACLE && wordCount == 1 && (headIs(0, "DECLARE") || headIs(0, "BEGIN"));
+        }
+
+        private void markContent() {
+            if (contentStart >= 0) {
+                return;
+            }
+            contentStart = pos;
+            for (int i = lineScanPos; i < pos; i++) {
+                if (s.charAt(i) == '\n') {
+                    line++;
+                }
+            }
+            lineScanPos = pos;
+            contentLine = line;
+        }
+
+        private void finish(int end) {
+            if (contentStart < 0) {
+                return;
+            }
+            int e = end;
+            while (e > contentStart && Character.isWhitespace(s.charAt(e - 1))) {
+                e--;
+            }
+            if (e > contentStart) {
+                out.add(new SqlStatement(s.substring(contentStart, e), classify(e), contentStart, contentLine));
+            }
+        }
+
+        private void reset() {
+            contentStart = -1;
+            leadingParen = false;
+            routine = false;
+            depth = 0;
+            wordCount = 0;
+        }
+
+        private SqlStatementType classify(int end) {
+            if (wordCount == 0) {
+                return leadingParen ? SqlStatementType.SELECT : SqlStatementType.UNKNOWN;
+            }
+            if (!leadingParen && headIs(0, "WITH")) {
+                return classifyWith(end);
+            }
+            if (leadingParen || headIs(0, "SELECT") || headIs(0, "VALUES")
+                    || (dialect == SqlDialect.POSTGRESQL && headIs(0, "TABLE"))) {
+                return SqlStatementType.SELECT;
+            }
+            if (headIs(0, "INSERT") || headIs(0, "REPLACE")) {
+                return SqlStatementType.INSERT;
+            }
+            if (headIs(0, "UPDATE")) {
+                return SqlStatementType.UPDATE;
+            }
+            if (headIs(0, "DELETE")) {
+                return SqlStatementType.DELETE;
+            }
+            if (headIs(0, "MERGE")) {
+                return SqlStatementType.MERGE;
+            }
+            if (headIs(0, "TRUNCATE")) {
+                return SqlStatementType.TRUNCATE;
+            }
+            if (headIs(0, "CREATE")) {
+                return classifyCreate(objectWord());
+            }
+            if (headIs(0, "ALTER")) {
+                return classifyAlter(objectWord());
+            }
+            if (headIs(0, "DROP")) {
+                return classifyDrop(objectWord());
+            }
+            if (headIs(0, "RENAME") || headIs(0, "COMMENT")) {
+                return SqlStatementType.OTHER_DDL;
+            }
+            if (headIs(0, "BEGIN")) {
+                if (dialect == SqlDialect.ORACLE
+                        || (dialect == SqlDialect.SQLSERVER && !(headIs(1, "TRAN") || headIs(1, "TRANSACTION") || headIs(1, "DISTRIBUTED")))) {
+                    return SqlStatementType.BLOCK;
+                }
+                return SqlStatementType.TRANSACTION;
+            }
+            if (headIs(0, "DECLARE")) {
+                return dialect == SqlDialect.ORACLE ? SqlStatementType.BLOCK : SqlStatementType.SET;
+            }
+            if (headIs(0, "DO")) {
+                return SqlStatementType.BLOCK;
+            }
+            if (headIs(0, "START") || headIs(0, "COMMIT") || headIs(0, "ROLLBACK") || headIs(0, "SAVEPOINT")
+                    || headIs(0, "RELEASE") || headIs(0, "END") || headIs(0, "ABORT")) {
+                return SqlStatementType.TRANSACTION;
+            }
+            if (headIs(0, "EXPLAIN")) {
+                return SqlStatementType.EXPLAIN;
+            }
+            if (headIs(0, "DESCRIBE") || headIs(0, "DESC")) {
+                return SqlStatementType.DESCRIBE;
+            }
+            if (headIs(0, "SHOW")) {
+                return SqlStatementType.SHOW;
+            }
+            if (headIs(0, "USE")) {
+                return SqlStatementType.USE_DATABASE;
+            }
+            if (headIs(0, "SET")) {
+                return SqlStatementType.SET;
+            }
+            if (headIs(0, "GRANT")) {
+                return SqlStatementType.GRANT;
+            }
+            if (headIs(0, "REVOKE")) {
+                return SqlStatementType.REVOKE;
+            }
+            if (headIs(0, "CALL") || headIs(0, "EXEC") || headIs(0, "EXECUTE")) {
+                return SqlStatementType.CALL;
+            }
+            return SqlStatementType.UNKNOWN;
+        }
+
+        /**
+         * 查找CREATE/ALTER/DROP之后的对象类型单词，跳过OR REPLACE、TEMPORARY、UNIQUE等修饰词
+         *
+         * @return 对象类型单词的下标，未找到返回-1
+         */
+        private int objectWord() {
+            for (int i = 1; i < wordCount; i++) {
+                if (headIs(i, "TABLE") || headIs(i, "VIEW") || headIs(i, "MATERIALIZED") || headIs(i, "INDEX")
+                        || headIs(i, "PROCEDURE") || headIs(i, "FUNCTION") || headIs(i, "TRIGGER")
+                        || headIs(i, "DATABASE") || headIs(i, "SCHEMA") || headIs(i, "USER") || headIs(i, "EVENT")
+                        || headIs(i, "SEQUENCE") || headIs(i, "TYPE") || headIs(i, "PACKAGE") || headIs(i, "ROLE")) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private SqlStatementType classifyCreate(int i) {
+            if (i < 0) {
+                return SqlStatementType.OTHER_DDL;
+            }
+            if (headIs(i, "TABLE")) {
+                return SqlStatementType.CREATE_TABLE;
+            } else if (headIs(i, "VIEW") || headIs(i, "MATERIALIZED")) {
+                return SqlStatementType.CREATE_VIEW;
+            } else if (headIs(i, "INDEX")) {
+                return SqlStatementType.CREATE_INDEX;
+            } else if (headIs(i, "PROCEDURE")) {
+                return SqlStatementType.CREATE_PROCEDURE;
+            } else if (headIs(i, "FUNCTION")) {
+                return SqlStatementType.CREATE_FUNCTION;
+            } else if (headIs(i, "TRIGGER")) {
+                return SqlStatementType.CREATE_TRIGGER;
+            } else if (headIs(i, "DATABASE") || headIs(i, "SCHEMA")) {
+                return SqlStatementType.CREATE_DATABASE;
+            } else if (headIs(i, "USER")) {
+                return SqlStatementType.CREATE_USER;
+            } else if (headIs(i, "EVENT")) {
+                return SqlStatementType.CREATE_EVENT;
+            }
+            return SqlStatementType.OTHER_DDL;
+        }
+
+        private SqlStatementType classifyAlter(int i) {
+            if (i < 0) {
+                return SqlStatementType.OTHER_DDL;
+            }
+            if (headIs(i, "TABLE")) {
+                return SqlStatementType.ALTER_TABLE;
+            } else if (headIs(i, "VIEW") || headIs(i, "MATERIALIZED")) {
+                return SqlStatementType.ALTER_VIEW;
+            } else if (headIs(i, "USER")) {
+                return SqlStatementType.ALTER_USER;
+            } else if (headIs(i, "EVENT")) {
+                return SqlStatementType.ALTER_EVENT;
+            }
+            return SqlStatementType.OTHER_DDL;
+        }
+
+        private SqlStatementType classifyDrop(int i) {
+            if (i < 0) {
+                return SqlStatementType.OTHER_DDL;
+            }
+            if (headIs(i, "TABLE")) {
+                return SqlStatementType.DROP_TABLE;
+            } else if (headIs(i, "VIEW") || headIs(i, "MATERIALIZED")) {
+                return SqlStatementType.DROP_VIEW;
+            } else if (headIs(i, "INDEX")) {
+                return SqlStatementType.DROP_INDEX;
+            } else if (headIs(i, "PROCEDURE")) {
+                return SqlStatementType.DROP_PROCEDURE;
+            } else if (headIs(i, "FUNCTION")) {
+                return SqlStatementType.DROP_FUNCTION;
+            } else if (headIs(i, "TRIGGER")) {
+                return SqlStatementType.DROP_TRIGGER;
+            } else if (headIs(i, "DATABASE") || headIs(i, "SCHEMA")) {
+                return SqlStatementType.DROP_DATABASE;
+            } else if (headIs(i, "USER")) {
+                return SqlStatementType.DROP_USER;
+            } else if (headIs(i, "EVENT")) {
+                return SqlStatementType.DROP_EVENT;
+            }
+            return SqlStatementType.OTHER_DDL;
+        }
+
+        /**
+         * WITH语句按CTE列表之后的主语句分类；CTE中包含INSERT、UPDATE、DELETE、MERGE时，
+         * 即使主语句是查询也按该DML分类（如PostgreSQL的 WITH d AS (DELETE ... RETURNING *) SELECT ...）
+         */
+        private SqlStatementType classifyWith(int end) {
+            SqlStatementType cteDml = null;
+            int parens = 0;
+            boolean afterOpen = false;
+            int p = wordEnd[0];
+            while (p < end) {
+                char c = s.charAt(p);
+                char next = p + 1 < end ? s.charAt(p + 1) : '\0';
+                if (Character.isWhitespace(c)) {
+                    p++;
+                    continue;
+                }
+                if (c == '-' && next == '-'
+                        && (dialect != SqlDialect.MYSQL || p + 2 >= end || Character.isWhitespace(s.charAt(p + 2)))) {
+                    p = skipLineComment(p);
+                    continue;
+                }
+                if (c == '#' && dialect.isHashComments()) {
+                    p = skipLineComment(p);
+                    continue;
+                }
+                if (c == '/' && next == '*') {
+                    p = skipBlockComment(p);
+                    continue;
+                }
+                boolean open = false;
+                if (c == '(') {
+                    parens++;
+                    open = true;
+                    p++;
+                } else if (c == ')') {
+                    parens--;
+                    p++;
+                } else if (c == '\'') {
+                    p = skipQuoted(p, '\'', dialect.isBackslashEscapes());
+                } else if (c == '"') {
+                    p = skipQuoted(p, '"', dialect.isBackslashEscapes());
+                } else if (c == '`' && dialect == SqlDialect.MYSQL) {
+                    p = skipQuoted(p, '`', false);
+                } else if (c == '[' && dialect == SqlDialect.SQLSERVER) {
+                    p = skipQuoted(p, ']', false);
+                } else if (c == '$' && dialect == SqlDialect.POSTGRESQL) {
+                    p = skipDollarQuoted(p);
+                } else if (Character.isLetter(c) || c == '_') {
+                    int wordEndPos = skipWordChars(p + 1);
+                    SqlStatementType dml = dmlType(p, wordEndPos);
+                    if (parens <= 0) {
+                        if (dml != null) {
+                            return dml;
+                        }
+                        if (matches(p, wordEndPos, "SELECT") || matches(p, wordEndPos, "VALUES")
+                                || matches(p, wordEndPos, "TABLE")) {
+                            break;
+                        }
+                    } else if (afterOpen && dml != null && cteDml == null) {
+                        // 只看CTE主体的第一个单词，子查询中的 FOR UPDATE 等不算
+                        cteDml = dml;
+                    }
+                    p = wordEndPos;
+                } else {
+                    p++;
+                }
+                afterOpen = open;
+            }
+            return cteDml != null ? cteDml : SqlStatementType.SELECT;
+        }
+
+        private SqlStatementType dmlType(int start, int end) {
+            if (matches(start, end, "INSERT")) {
+                return SqlStatementType.INSERT;
+            }
+            if (matches(start, end, "UPDATE")) {
+                return SqlStatementType.UPDATE;
+            }
+            if (matches(start, end, "DELETE")) {
+                return SqlStatementType.DELETE;
+            }
+            if (matches(start, end, "MERGE")) {
+                return SqlStatementType.MERGE;
+            }
+            return null;
+        }
+
+        private boolean headIs(int index, String keyword) {
+            return index < wordCount && matches(wordStart[index], wordEnd[index], keyword);
+        }
+
+        private boolean matches(int start, int end, String keyword) {
+            return end - start == keyword.length() && s.regionMatches(true, start, keyword, 0, keyword.length());
+        }
+
+        private boolean nextWordIs(int from, String... keywords) {
+            int start = skipWhitespace(from);
+            int end = skipWordChars(start);
+            for (String keyword : keywords) {
+                if (matches(start, end, keyword)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isWordChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '$' || (c == '#' && !dialect.isHashComments());
+        }
+
+        /**
+         * 跳过单词字符；自定义分隔符可能由单词字符组成或紧跟在单词之后（如 END$$），遇到时停止
+         */
+        private int skipWordChars(int from) {
+            boolean customDelimiter = !";".equals(delimiter);
+            int p = from;
+            while (p < n && isWordChar(s.charAt(p))) {
+                if (customDelimiter && s.startsWith(delimiter, p)) {
+                    break;
+                }
+                p++;
+            }
+            return p;
+        }
+
+        private int skipWhitespace(int from) {
+            int p = from;
+            while (p < n && Character.isWhitespace(s.charAt(p))) {
+                p++;
+            }
+            return p;
+        }
+
+        private int skipBlanks(int from) {
+            int p = from;
+            while (p < n && (s.charAt(p) == ' ' || s.charAt(p) == '\t')) {
+                p++;
+            }
+            return p;
+        }
+
+        private int endOfLine(int from) {
+            int eol = s.indexOf('\n', from);
+            return eol < 0 ? n : eol;
+        }
+
+        private int skipLineComment(int start) {
+            return endOfLine(start);
+        }
+
+        private int skipBlockComment(int start) {
+            // PostgreSQL允许块注释嵌套
+            boolean nested = dialect == SqlDialect.POSTGRESQL;
+            int level = 1;
+            int p = start + 2;
+            while (p < n) {
+                char c = s.charAt(p);
+                if (c == '*' && p + 1 < n && s.charAt(p + 1) == '/') {
+                    p += 2;
+                    if (--level == 0) {
+                        return p;
+                    }
+                } else if (nested && c == '/' && p + 1 < n && s.charAt(p + 1) == '*') {
+                    level++;
+                    p += 2;
+                } else {
+                    p++;
+                }
+            }
+            return n;
+        }
+
+        /**
+         * 跳过引号括起的内容，引号重复两次表示转义
+         *
+         * @param start 起始引号位置
+         * @param close 结束引号字符
+         * @param backslash 是否支持反斜杠转义
+         * @return 结束引号之后的位置
+         */
+        private int skipQuoted(int start, char close, boolean backslash) {
+            int p = start + 1;
+            while (p < n) {
+                char c = s.charAt(p);
+                if (backslash && c == '\\') {
+                    p += 2;
+                } else if (c == close) {
+                    if (p + 1 < n && s.charAt(p + 1) == close) {
+                        p += 2;
+                    } else {
+                        return p + 1;
+                    }
+                } else {
+                    p++;
+                }
+            }
+            return n;
+        }
+
+        /**
+         * 跳过PostgreSQL的 $tag$ ... $tag$ 引用，$1 这类位置参数不做处理
+         */
+        private int skipDollarQuoted(int start) {
+            int p = start + 1;
+            if (p < n && Character.isDigit(s.charAt(p))) {
+                return p;
+            }
+            while (p < n && (Character.isLetterOrDigit(s.charAt(p)) || s.charAt(p) == '_')) {
+                p++;
+            }
+            if (p >= n || s.charAt(p) != '$') {
+                return start + 1;
+            }
+            String tag = s.substring(start, p + 1);
+            int close = s.indexOf(tag, p + 1);
+            return close < 0 ? n : close + tag.length();
+        }
+
+        /**
+         * 跳过Oracle的 q'[...]' 替代引用
+         *
+         * @param quote q之后的单引号位置
+         */
+        private int skipOracleQuoted(int quote) {
+            if (quote + 1 >= n) {
+                return n;
+            }
+            char open = s.charAt(quote + 1);
+            char close;
+            switch (open) {
+                case '[':
+                    close = ']';
+                    break;
+                case '{':
+                    close = '}';
+                    break;
+                case '(':
+                    close = ')';
+                    break;
+                case '<':
+                    close = '>';
+                    break;
+                default:
+                    close = open;
+            }
+            int p = quote + 2;
+            while (p + 1 < n) {
+                if (s.charAt(p) == close && s.charAt(p + 1) == '\'') {
+                    return p + 2;
+                }
+                p++;
+            }
+            return n;
+        }
+    }
+}
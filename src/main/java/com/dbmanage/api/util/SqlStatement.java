@@ -0,0 +1,52 @@
+package com.dbmanage.api.util;
+
+/**
+ * SQL脚本中切分出的单条语句
+ */
+public class SqlStatement {
+
+    private final String sql;
+    private final SqlStatementType type;
+    private final int offset;
+    private final int line;
+
+    public SqlStatement(String sql, SqlStatementType type, int offset, int line) {
+        this.sql = sql;
+        this.type = type;
+        this.offset = offset;
+        this.line = line;
+    }
+
+    /**
+     * 语句文本，不含结尾的分隔符及前导注释
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * 语句类型
+     */
+    public SqlStatementType getType() {
+        return type;
+    }
+
+    /**
+     * 语句在原脚本中的起始位置
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * 语句在原脚本中的起始行号（从1开始）
+     */
+    public int getLine() {
+        return line;
+    }
+
+    @Override
+    public String toString() {
+        return type + ": " + sql;
+    }
+}
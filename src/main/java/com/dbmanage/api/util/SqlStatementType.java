@@ -0,0 +1,93 @@
+package com.dbmanage.api.util;
+
+/**
+ * SQL语句类型
+ * 名称与前端使用的sqlType字符串保持一致
+ */
+public enum SqlStatementType {
+
+    SELECT(Category.QUERY),
+    INSERT(Category.DML),
+    UPDATE(Category.DML),
+    DELETE(Category.DML),
+    MERGE(Category.DML),
+    CREATE_TABLE(Category.DDL),
+    ALTER_TABLE(Category.DDL),
+    DROP_TABLE(Category.DDL),
+    TRUNCATE(Category.DDL),
+    CREATE_VIEW(Category.DDL),
+    ALTER_VIEW(Category.DDL),
+    DROP_VIEW(Category.DDL),
+    CREATE_INDEX(Category.DDL),
+    DROP_INDEX(Category.DDL),
+    CREATE_PROCEDURE(Category.DDL),
+    CREATE_FUNCTION(Category.DDL),
+    DROP_PROCEDURE(Category.DDL),
+    DROP_FUNCTION(Category.DDL),
+    CREATE_TRIGGER(Category.DDL),
+    DROP_TRIGGER(Category.DDL),
+    CREATE_DATABASE(Category.DDL),
+    DROP_DATABASE(Category.DDL),
+    CREATE_EVENT(Category.DDL),
+    ALTER_EVENT(Category.DDL),
+    DROP_EVENT(Category.DDL),
+    /**
+     * 其他结构变更，如序列、类型、重命名、注释
+     */
+    OTHER_DDL(Category.DDL),
+    CREATE_USER(Category.OTHER),
+    ALTER_USER(Category.OTHER),
+    DROP_USER(Category.OTHER),
+    GRANT(Category.OTHER),
+    REVOKE(Category.OTHER),
+    TRANSACTION(Category.TRANSACTION),
+    EXPLAIN(Category.QUERY),
+    DESCRIBE(Category.QUERY),
+    SHOW(Category.QUERY),
+    USE_DATABASE(Category.OTHER),
+    SET(Category.OTHER),
+    CALL(Category.OTHER),
+    /**
+     * 匿名过程块，如Oracle的DECLARE/BEGIN块、PostgreSQL的DO
+     */
+    BLOCK(Category.OTHER),
+    UNKNOWN(Category.OTHER);
+
+    /**
+     * 语句大类
+     */
+    public enum Category {
+        QUERY, DML, DDL, TRANSACTION, OTHER
+    }
+
+    private final Category category;
+
+    SqlStatementType(Category category) {
+        this.category = category;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    /**
+     * 是否为返回结果集的查询类语句
+     */
+    public boolean isQuery() {
+        return category == Category.QUERY;
+    }
+
+    /**
+     * 是否为修改数据的语句
+     */
+    public boolean isDml() {
+        return category == Category.DML;
+    }
+
+    /**
+     * 是否为修改数据库结构的语句
+     */
+    public boolean isDdl() {
+        return category == Category.DDL;
+    }
+}
@@ -0,0 +1,3 @@
+-- 添加语句类型字段到查询历史表
+ALTER TABLE query_history
+ADD COLUMN IF NOT EXISTS statement_type VARCHAR(30);
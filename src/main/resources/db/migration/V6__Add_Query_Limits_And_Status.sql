@@ -0,0 +1,10 @@
+-- 添加连接级别的语句超时和最大行数
+ALTER TABLE database_connections
+ADD COLUMN IF NOT EXISTS query_timeout INTEGER;
+
+ALTER TABLE database_connections
+ADD COLUMN IF NOT EXISTS max_rows INTEGER;
+
+-- 添加执行状态字段到查询历史表
+ALTER TABLE query_history
+ADD COLUMN IF NOT EXISTS status VARCHAR(20);
@@ -0,0 +1,31 @@
+-- 创建结构快照表，每个连接的每个数据库按版本递增
+CREATE TABLE IF NOT EXISTS schema_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    connection_id BIGINT NOT NULL,
+    database_name VARCHAR(200) NOT NULL,
+    version INTEGER NOT NULL,
+    table_count INTEGER,
+    changed_tables INTEGER,
+    created_at TIMESTAMP DEFAULT NOW(),
+    checked_at TIMESTAMP,
+    FOREIGN KEY (connection_id) REFERENCES database_connections(id) ON DELETE CASCADE,
+    UNIQUE (connection_id, database_name, version)
+);
+
+-- 创建快照表结构表，每行在 first_version 到 last_version 之间的版本中有效，last_version为空表示当前版本
+CREATE TABLE IF NOT EXISTS schema_snapshot_tables (
+    id BIGSERIAL PRIMARY KEY,
+    connection_id BIGINT NOT NULL,
+    database_name VARCHAR(200) NOT NULL,
+    schema_name VARCHAR(200),
+    table_name VARCHAR(200) NOT NULL,
+    table_type VARCHAR(50),
+    change_signal VARCHAR(200),
+    definition TEXT NOT NULL,
+    first_version INTEGER NOT NULL,
+    last_version INTEGER,
+    FOREIGN KEY (connection_id) REFERENCES database_connections(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_schema_snapshot_tables_version
+    ON schema_snapshot_tables(connection_id, database_name, first_version, last_version);
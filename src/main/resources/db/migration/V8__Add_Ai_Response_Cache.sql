@@ -0,0 +1,13 @@
+-- 创建AI响应缓存表，按模型、方言、规范化后的问题和结构指纹的哈希查找
+CREATE TABLE IF NOT EXISTS ai_response_cache (
+    id BIGSERIAL PRIMARY KEY,
+    cache_key VARCHAR(64) NOT NULL UNIQUE,
+    operation VARCHAR(30) NOT NULL,
+    model VARCHAR(100),
+    response TEXT NOT NULL,
+    hit_count INTEGER DEFAULT 0,
+    created_at TIMESTAMP DEFAULT NOW(),
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_ai_response_cache_expires_at ON ai_response_cache(expires_at);
@@ -0,0 +1,234 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.common.Constants;
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.dto.task.ExportRequest;
+import com.dbmanage.api.model.DataTask;
+import com.dbmanage.api.model.DatabaseConnection;
+import com.dbmanage.api.model.User;
+import com.dbmanage.api.repository.DataTaskRepository;
+import com.dbmanage.api.service.ConnectionService;
+import com.dbmanage.api.service.QueryExecutionRegistry;
+import com.dbmanage.api.service.TableDataService;
+import com.dbmanage.api.service.TaskExecutionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 导出服务测试类
+ * 用模拟的JDBC对象验证PostgreSQL并行导出的快照路径
+ */
+public class ExportServiceImplTest {
+
+    private static final String SNAPSHOT = "00000003-0000001B-1";
+
+    @Mock
+    private DataTaskRepository dataTaskRepository;
+
+    @Mock
+    private ConnectionService connectionService;
+
+    @Mock
+    private TableDataService tableDataService;
+
+    @Mock
+    private TaskExecutionService taskExecutionService;
+
+    @Mock
+    private QueryExecutionRegistry queryExecutionRegistry;
+
+    @Spy
+    private AppProperties appProperties = new AppProperties();
+
+    @InjectMocks
+    private ExportServiceImpl exportService;
+
+    @TempDir
+    Path spoolDir;
+
+    private DataTask task;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        appProperties.getSpool().setDir(spoolDir.toString());
+
+        User user = new User();
+        user.setId(1L);
+        DatabaseConnection connection = new DatabaseConnection();
+        connection.setId(10L);
+        connection.setType("postgresql");
+        connection.setUser(user);
+        task = new DataTask();
+        task.setId(100L);
+        task.setConnection(connection);
+        task.setUser(user);
+
+        when(dataTaskRepository.findById(100L)).thenReturn(Optional.of(task));
+        when(dataTaskRepository.save(any(DataTask.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(queryExecutionRegistry.register(anyString(), anyLong(), anyLong(), anyString())).thenReturn("export-100");
+        when(tableDataService.getKeyColumns(10L, null, "orders")).thenReturn(Collections.singletonList("id"));
+        // 各范围在当前线程中同步执行
+        when(taskExecutionService.submit(anyLong(), any())).thenAnswer(invocation -> {
+            Supplier<?> supplier = invocation.getArgument(1);
+            return CompletableFuture.completedFuture(supplier.get());
+        });
+    }
+
+    /**
+     * 测试PostgreSQL并行导出时各范围导入同一个快照
+     */
+    @Test
+    public void testParallelExportImportsSnapshot() throws Exception {
+        Connection splitConn = mock(Connection.class);
+        Statement splitStmt = mock(Statement.class);
+        when(splitConn.createStatement()).thenReturn(splitStmt);
+        when(splitStmt.executeQuery(anyString())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            if (sql.contains("MIN(")) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.next()).thenReturn(true);
+                when(rs.getBigDecimal(1)).thenReturn(BigDecimal.ONE);
+                when(rs.getBigDecimal(2)).thenReturn(BigDecimal.valueOf(100));
+                return rs;
+            }
+            return resultSet();
+        });
+
+        Connection snapshotConn = mock(Connection.class);
+        Statement snapshotStmt = mock(Statement.class);
+        ResultSet snapshotRs = mock(ResultSet.class);
+        when(snapshotConn.createStatement()).thenReturn(snapshotStmt);
+        when(snapshotStmt.executeQuery("SELECT pg_export_snapshot()")).thenReturn(snapshotRs);
+        when(snapshotRs.next()).thenReturn(true);
+        when(snapshotRs.getString(1)).thenReturn(SNAPSHOT);
+        when(snapshotConn.getAutoCommit()).thenReturn(false);
+
+        Connection rangeConn = mock(Connection.class);
+        Statement rangeStmt = mock(Statement.class);
+        PreparedStatement rangePs = mock(PreparedStatement.class);
+        when(rangeConn.getAutoCommit()).thenReturn(true);
+        when(rangeConn.createStatement()).thenReturn(rangeStmt);
+        when(rangeConn.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY)))
+                .thenReturn(rangePs);
+        when(rangePs.executeQuery()).thenAnswer(invocation -> resultSet(1, 2));
+
+        when(connectionService.getConnection(task.getConnection()))
+                .thenReturn(splitConn, snapshotConn, rangeConn, rangeConn);
+
+        ExportRequest request = new ExportRequest();
+        request.setConnectionId(10L);
+        request.setTable("orders");
+        request.setFormat(Constants.Task.FORMAT_CSV);
+        request.setParallelism(2);
+        request.setGzip(false);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.export(100L, request, output);
+
+        verify(snapshotStmt).execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+        verify(rangeStmt, times(2)).execute("SET TRANSACTION SNAPSHOT '" + SNAPSHOT + "'");
+        verify(snapshotConn).rollback();
+        verify(snapshotConn).close();
+        verify(queryExecutionRegistry).unregister("export-100");
+
+        assertEquals(Constants.Task.STATUS_COMPLETED, task.getStatus());
+        assertEquals(4L, task.getTotalRows());
+        String csv = output.toString(StandardCharsets.UTF_8.name());
+        assertEquals("id\r\n1\r\n2\r\n1\r\n2\r\n", csv, "表头之后按范围顺序输出");
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            assertEquals(0, files.count(), "分片文件应已删除");
+        }
+    }
+
+    /**
+     * 测试获取快照连接失败时导出任务失败且不遗留分片
+     */
+    @Test
+    public void testParallelExportFailsWhenSnapshotConnectionUnavailable() throws Exception {
+        Connection splitConn = mock(Connection.class);
+        Statement splitStmt = mock(Statement.class);
+        when(splitConn.createStatement()).thenReturn(splitStmt);
+        when(splitStmt.executeQuery(anyString())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            if (sql.contains("MIN(")) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.next()).thenReturn(true);
+                when(rs.getBigDecimal(1)).thenReturn(BigDecimal.ONE);
+                when(rs.getBigDecimal(2)).thenReturn(BigDecimal.valueOf(100));
+                return rs;
+            }
+            return resultSet();
+        });
+        when(connectionService.getConnection(task.getConnection()))
+                .thenReturn(splitConn)
+                .thenThrow(new SQLException("连接池已耗尽"));
+
+        ExportRequest request = new ExportRequest();
+        request.setConnectionId(10L);
+        request.setTable("orders");
+        request.setFormat(Constants.Task.FORMAT_CSV);
+        request.setParallelism(2);
+
+        IOException exception = assertThrows(IOException.class,
+                () -> exportService.export(100L, request, new ByteArrayOutputStream()));
+        assertTrue(exception.getMessage().contains("连接池已耗尽"));
+        assertEquals(Constants.Task.STATUS_FAILED, task.getStatus());
+        verify(taskExecutionService, never()).submit(anyLong(), any());
+        verify(queryExecutionRegistry).unregister("export-100");
+    }
+
+    /**
+     * 构造只有一个整数列id的结果集
+     */
+    private ResultSet resultSet(Object... values) throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(metaData.getColumnLabel(1)).thenReturn("id");
+        when(metaData.getColumnType(1)).thenReturn(Types.INTEGER);
+
+        Iterator<Object> rows = Arrays.asList(values).iterator();
+        Object[] current = new Object[1];
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getMetaData()).thenReturn(metaData);
+        when(rs.next()).thenAnswer(invocation -> {
+            if (!rows.hasNext()) {
+                return false;
+            }
+            current[0] = rows.next();
+            return true;
+        });
+        when(rs.getObject(1)).thenAnswer(invocation -> current[0]);
+        return rs;
+    }
+}
@@ -0,0 +1,114 @@
+package com.dbmanage.api.service.impl;
+
+import com.dbmanage.api.config.AppProperties;
+import com.dbmanage.api.dto.query.RowCount;
+import com.dbmanage.api.model.DatabaseConnection;
+import com.dbmanage.api.repository.DatabaseConnectionRepository;
+import com.dbmanage.api.service.ConnectionService;
+import com.dbmanage.api.service.TaskExecutionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 表行数统计服务测试类
+ */
+public class RowCountServiceImplTest {
+
+    @Mock
+    private DatabaseConnectionRepository connectionRepository;
+
+    @Mock
+    private ConnectionService connectionService;
+
+    @Mock
+    private TaskExecutionService taskExecutionService;
+
+    @Mock
+    private Connection conn;
+
+    @Mock
+    private PreparedStatement estimateStatement;
+
+    private RowCountServiceImpl rowCountService;
+
+    private DatabaseConnection connection;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        rowCountService = new RowCountServiceImpl(new AppProperties());
+        ReflectionTestUtils.setField(rowCountService, "connectionRepository", connectionRepository);
+        ReflectionTestUtils.setField(rowCountService, "connectionService", connectionService);
+        ReflectionTestUtils.setField(rowCountService, "taskExecutionService", taskExecutionService);
+
+        connection = new DatabaseConnection();
+        connection.setId(10L);
+        connection.setType("postgresql");
+        when(connectionRepository.findById(10L)).thenReturn(Optional.of(connection));
+        when(connectionService.getConnection(connection)).thenReturn(conn);
+
+        ResultSet estimate = mock(ResultSet.class);
+        when(conn.prepareStatement(anyString())).thenReturn(estimateStatement);
+        when(estimateStatement.executeQuery()).thenReturn(estimate);
+        when(estimate.next()).thenReturn(true);
+        when(estimate.getLong(1)).thenReturn(1000L);
+    }
+
+    /**
+     * 测试估算行数在缓存时间内只查询一次统计信息
+     */
+    @Test
+    public void testEstimateIsCached() throws Exception {
+        RowCount first = rowCountService.getRowCount(10L, null, "public.orders", false);
+        RowCount second = rowCountService.getRowCount(10L, null, "public.orders", false);
+
+        assertTrue(first.isEstimated());
+        assertTrue(second.isEstimated());
+        assertEquals(1000L, second.getCount());
+        verify(estimateStatement, times(1)).executeQuery();
+
+        rowCountService.getRowCount(10L, null, "public.customers", false);
+        verify(estimateStatement, times(2)).executeQuery();
+    }
+
+    /**
+     * 测试精确计数完成后替换缓存中的估算值
+     */
+    @Test
+    public void testExactCountReplacesEstimate() throws Exception {
+        Statement countStatement = mock(Statement.class);
+        ResultSet count = mock(ResultSet.class);
+        when(conn.createStatement()).thenReturn(countStatement);
+        when(countStatement.executeQuery(anyString())).thenReturn(count);
+        when(count.next()).thenReturn(true);
+        when(count.getLong(1)).thenReturn(1234L);
+        when(taskExecutionService.submit(anyLong(), any())).thenAnswer(invocation -> {
+            Supplier<?> supplier = invocation.getArgument(1);
+            return CompletableFuture.completedFuture(supplier.get());
+        });
+
+        RowCount estimated = rowCountService.getRowCount(10L, null, "public.orders", true);
+        assertTrue(estimated.isEstimated());
+        assertEquals(1000L, estimated.getCount());
+
+        RowCount exact = rowCountService.getRowCount(10L, null, "public.orders", false);
+        assertFalse(exact.isEstimated());
+        assertEquals(1234L, exact.getCount());
+        verify(estimateStatement, times(1)).executeQuery();
+    }
+}
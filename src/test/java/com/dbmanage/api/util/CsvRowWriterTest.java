@@ -0,0 +1,45 @@
+package com.dbmanage.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CSV输出器测试类
+ */
+public class CsvRowWriterTest {
+
+    /**
+     * 测试输出的CSV能由CsvRowReader原样读回，NULL和空字符串保持区分
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvRowWriter writer = new CsvRowWriter(out);
+        writer.start(Arrays.asList("id", "name", "note"));
+        writer.row(new Object[]{1, null, ""});
+        writer.row(new Object[]{2, "", null});
+        writer.row(new Object[]{3, "a,b", "say \"hi\"\r\nbye"});
+        writer.end(3, 0);
+
+        String csv = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(csv.contains("1,,\"\"\r\n"));
+
+        try (CsvRowReader reader = new CsvRowReader(new StringReader(csv))) {
+            assertEquals(Arrays.asList("id", "name", "note"), reader.readRow());
+            assertEquals(Arrays.asList("1", null, ""), reader.readRow());
+            assertEquals(Arrays.asList("2", "", null), reader.readRow());
+            List<String> row = reader.readRow();
+            assertEquals("a,b", row.get(1));
+            assertEquals("say \"hi\"\r\nbye", row.get(2));
+            assertNull(reader.readRow());
+        }
+    }
+}
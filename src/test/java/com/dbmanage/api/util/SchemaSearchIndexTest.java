@@ -0,0 +1,134 @@
+package com.dbmanage.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 结构搜索索引测试类
+ */
+public class SchemaSearchIndexTest {
+
+    private static SchemaSearchIndex index() {
+        return SchemaSearchIndex.build(Arrays.asList(
+                new SchemaSearchIndex.Table("public.orders", "TABLE", "订单", Arrays.asList(
+                        new SchemaSearchIndex.Column("id", "int8", null),
+                        new SchemaSearchIndex.Column("customer_id", "int8", null),
+                        new SchemaSearchIndex.Column("order_date", "date", null))),
+                new SchemaSearchIndex.Table("public.order_items", "TABLE", null, Arrays.asList(
+                        new SchemaSearchIndex.Column("id", "int8", null),
+                        new SchemaSearchIndex.Column("order_id", "int8", null),
+                        new SchemaSearchIndex.Column("product_id", "int8", null))),
+                new SchemaSearchIndex.Table("public.customers", "TABLE", null, Arrays.asList(
+                        new SchemaSearchIndex.Column("id", "int8", null),
+                        new SchemaSearchIndex.Column("name", "varchar", null))),
+                new SchemaSearchIndex.Table("public.audit_log", "TABLE", "records customer changes",
+                        Collections.singletonList(new SchemaSearchIndex.Column("id", "int8", null)))));
+    }
+
+    /**
+     * 测试完全匹配和前缀匹配，完全匹配和较短的词排在前面
+     */
+    @Test
+    public void testPrefixSearch() {
+        SchemaSearchIndex index = index();
+        assertEquals(13, index.size());
+
+        List<SchemaSearchIndex.Hit> hits = index.search("ORDERS", null, 10, null);
+        assertEquals("public.orders", hits.get(0).getName());
+        assertEquals(SchemaSearchIndex.MATCH_EXACT, hits.get(0).getMatch());
+        assertEquals(SchemaSearchIndex.KIND_TABLE, hits.get(0).getKind());
+
+        hits = index.search("order", null, 10, null);
+        assertEquals("public.orders", hits.get(0).getName());
+        assertEquals("public.order_items.order_id", hits.get(1).getName());
+        for (SchemaSearchIndex.Hit hit : hits) {
+            assertEquals(SchemaSearchIndex.MATCH_PREFIX, hit.getMatch());
+        }
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(hits.get(i - 1).getScore() >= hits.get(i).getScore());
+        }
+
+        // 带schema的完整表名也可以匹配
+        hits = index.search("public.cust", SchemaSearchIndex.KIND_TABLE, 10, null);
+        assertEquals(1, hits.size());
+        assertEquals("public.customers", hits.get(0).getName());
+    }
+
+    /**
+     * 测试子串匹配，注释中的匹配排在名称匹配之后
+     */
+    @Test
+    public void testSubstringSearch() {
+        SchemaSearchIndex index = index();
+
+        List<SchemaSearchIndex.Hit> hits = index.search("_id", SchemaSearchIndex.KIND_COLUMN, 10, null);
+        assertEquals(3, hits.size());
+        assertEquals("public.order_items.order_id", hits.get(0).getName());
+        assertEquals("public.order_items.product_id", hits.get(1).getName());
+        assertEquals("public.orders.customer_id", hits.get(2).getName());
+        for (SchemaSearchIndex.Hit hit : hits) {
+            assertEquals(SchemaSearchIndex.MATCH_SUBSTRING, hit.getMatch());
+        }
+
+        hits = index.search("customer", null, 10, null);
+        assertEquals("public.customers", hits.get(0).getName());
+        assertEquals(SchemaSearchIndex.MATCH_PREFIX, hits.get(0).getMatch());
+        assertEquals("public.orders.customer_id", hits.get(1).getName());
+        SchemaSearchIndex.Hit last = hits.get(hits.size() - 1);
+        assertEquals("public.audit_log", last.getName());
+        assertEquals(SchemaSearchIndex.MATCH_SUBSTRING, last.getMatch());
+        assertTrue(last.getScore() < hits.get(1).getScore());
+    }
+
+    /**
+     * 测试模糊匹配只在没有更好的匹配时补充，且排在前缀匹配之后
+     */
+    @Test
+    public void testFuzzySearch() {
+        SchemaSearchIndex index = index();
+
+        List<SchemaSearchIndex.Hit> hits = index.search("custmer", null, 10, null);
+        assertFalse(hits.isEmpty());
+        assertEquals("public.customers", hits.get(0).getName());
+        assertEquals(SchemaSearchIndex.MATCH_FUZZY, hits.get(0).getMatch());
+        assertTrue(hits.stream().anyMatch(hit -> "public.orders.customer_id".equals(hit.getName())));
+
+        // 编辑距离超出上限、首字符不同时不匹配
+        assertTrue(index.search("xyzzy", null, 10, null).isEmpty());
+        assertTrue(index.search("ustomers", null, 10, null).stream()
+                .noneMatch(hit -> SchemaSearchIndex.MATCH_FUZZY.equals(hit.getMatch())));
+
+        hits = index.search("nam", null, 10, null);
+        assertEquals("public.customers.name", hits.get(0).getName());
+        assertEquals(SchemaSearchIndex.MATCH_PREFIX, hits.get(0).getMatch());
+    }
+
+    /**
+     * 测试返回数量上限、类型过滤和排除的表
+     */
+    @Test
+    public void testLimitAndFilters() {
+        SchemaSearchIndex index = index();
+
+        // 4个id列完全匹配，3个 *_id 列子串匹配；数量有限时只保留得分最高的
+        assertEquals(7, index.search("id", null, 10, null).size());
+        List<SchemaSearchIndex.Hit> hits = index.search("id", null, 2, null);
+        assertEquals(2, hits.size());
+        for (SchemaSearchIndex.Hit hit : hits) {
+            assertEquals(SchemaSearchIndex.MATCH_EXACT, hit.getMatch());
+        }
+        assertTrue(index.search("id", null, 0, null).isEmpty());
+        assertTrue(index.search("  ", null, 10, null).isEmpty());
+
+        assertTrue(index.search("order", SchemaSearchIndex.KIND_TABLE, 10, null).stream()
+                .allMatch(hit -> SchemaSearchIndex.KIND_TABLE.equals(hit.getKind())));
+        hits = index.search("order", null, 10, Collections.singleton("public.orders"));
+        assertFalse(hits.isEmpty());
+        assertTrue(hits.stream().noneMatch(hit -> "public.orders".equals(hit.getTable())));
+    }
+}
@@ -0,0 +1,271 @@
+package com.dbmanage.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL脚本解析器测试类
+ */
+public class SqlScriptParserTest {
+
+    /**
+     * 测试按分号切分多条语句
+     */
+    @Test
+    public void testSplitSimpleScript() {
+        List<SqlStatement> statements = SqlScriptParser.parse(
+                "SELECT 1;\n  insert into t values (1);\n\n;  ", SqlDialect.MYSQL);
+
+        assertEquals(2, statements.size());
+        assertEquals("SELECT 1", statements.get(0).getSql());
+        assertEquals(SqlStatementType.SELECT, statements.get(0).getType());
+        assertEquals("insert into t values (1)", statements.get(1).getSql());
+        assertEquals(SqlStatementType.INSERT, statements.get(1).getType());
+        assertEquals(2, statements.get(1).getLine());
+    }
+
+    /**
+     * 测试字符串和注释中的分号不会切分语句
+     */
+    @Test
+    public void testSemicolonInsideLiteralsAndComments() {
+        String script = "INSERT INTO t VALUES ('a;b', \"c;d\", 'it''s;', 'x\\';y');\n"
+                + "-- comment; here\n"
+                + "# another; comment\n"
+                + "/* block; comment */ UPDATE `a;b` SET c = 1";
+        List<SqlStatement> statements = SqlScriptParser.parse(script, SqlDialect.MYSQL);
+
+        assertEquals(2, statements.size());
+        assertEquals(SqlStatementType.INSERT, statements.get(0).getType());
+        assertEquals("UPDATE `a;b` SET c = 1", statements.get(1).getSql());
+        assertEquals(SqlStatementType.UPDATE, statements.get(1).getType());
+    }
+
+    /**
+     * 测试MySQL存储过程体及DELIMITER命令
+     */
+    @Test
+    public void testMysqlRoutineBody() {
+        String script = "CREATE PROCEDURE p()\nBEGIN\n  DECLARE x INT;\n  IF x > 0 THEN SET x = 1; END IF;\n"
+                + "  SELECT CASE WHEN x = 1 THEN 'a' ELSE 'b' END;\nEND;\nSELECT 2;";
+        List<SqlStatement> statements = SqlScriptParser.parse(script, SqlDialect.MYSQL);
+
+        assertEquals(2, statements.size());
+        assertEquals(SqlStatementType.CREATE_PROCEDURE, statements.get(0).getType());
+        assertTrue(statements.get(0).getSql().endsWith("END"));
+        assertEquals("SELECT 2", statements.get(1).getSql());
+
+        String delimited = "DELIMITER $$\nCREATE TRIGGER tr BEFORE INSERT ON t FOR EACH ROW SET NEW.a = 1;$$\n"
+                + "DELIMITER ;\nDROP TABLE t;";
+        statements = SqlScriptParser.parse(delimited, SqlDialect.MYSQL);
+
+        assertEquals(2, statements.size());
+        assertEquals(SqlStatementType.CREATE_TRIGGER, statements.get(0).getType());
+        assertEquals(SqlStatementType.DROP_TABLE, statements.get(1).getType());
+
+        // 分隔符紧跟在END之后
+        String attached = "DELIMITER $$\nCREATE PROCEDURE p()\nBEGIN\n  SELECT 1;\nEND$$\n"
+                + "CREATE PROCEDURE q()\nBEGIN\n  SELECT 2;\nEND$$\nDELIMITER ;\nSELECT 3;";
+        statements = SqlScriptParser.parse(attached, SqlDialect.MYSQL);
+
+        assertEquals(3, statements.size());
+        assertTrue(statements.get(0).getSql().endsWith("END"));
+        assertEquals(SqlStatementType.CREATE_PROCEDURE, statements.get(1).getType());
+        assertEquals("SELECT 3", statements.get(2).getSql());
+    }
+
+    /**
+     * 测试过程体中的CASE语句
+     */
+    @Test
+    public void testMysqlCaseStatement() {
+        String script = "CREATE PROCEDURE p(x INT)\nBEGIN\n  CASE x\n    WHEN 1 THEN SELECT 'a';\n"
+                + "    ELSE SELECT CASE WHEN x > 1 THEN 'b' END;\n  END CASE;\nEND;\nSELECT 2;\nSELECT 3;";
+        List<SqlStatement> statements = SqlScriptParser.parse(script, SqlDialect.MYSQL);
+
+        assertEquals(3, statements.size());
+        assertEquals(SqlStatementType.CREATE_PROCEDURE, statements.get(0).getType());
+        assertTrue(statements.get(0).getSql().endsWith("END"));
+        assertEquals("SELECT 2", statements.get(1).getSql());
+        assertEquals("SELECT 3", statements.get(2).getSql());
+    }
+
+    /**
+     * 测试PostgreSQL美元符引用
+     */
+    @Test
+    public void testPostgresDollarQuote() {
+        String script = "CREATE OR REPLACE FUNCTION f() RETURNS int AS $body$\nBEGIN\n  RETURN 1;\nEND;\n$body$ LANGUAGE plpgsql;\n"
+                + "SELECT $1::text, E'a\\';b';";
+        List<SqlStatement> statements = SqlScriptParser.parse(script, SqlDialect.POSTGRESQL);
+
+        assertEquals(2, statements.size());
+        assertEquals(SqlStatementType.CREATE_FUNCTION, statements.get(0).getType());
+        assertEquals(SqlStatementType.SELECT, statements.get(1).getType());
+    }
+
+    /**
+     * 测试SQL Server的GO分隔符和Oracle的 / 结束符
+     */
+    @Test
+    public void testBatchSeparators() {
+        String tsql = "CREATE PROCEDURE p AS\nSET NOCOUNT ON;\nSELECT [a;b] FROM t;\nGO\nBEGIN TRAN;\nCOMMIT;";
+        List<SqlStatement> statements = SqlScriptParser.parse(tsql, SqlDialect.SQLSERVER);
+
+        assertEquals(3, statements.size());
+        assertEquals(SqlStatementType.CREATE_PROCEDURE, statements.get(0).getType());
+        assertEquals(SqlStatementType.TRANSACTION, statements.get(1).getType());
+        assertEquals(SqlStatementType.TRANSACTION, statements.get(2).getType());
+
+        String plsql = "CREATE OR REPLACE PROCEDURE p IS\n  v NUMBER;\nBEGIN\n  v := q'[it's;]';\nEND;\n/\nSELECT 1 FROM dual;";
+        statements = SqlScriptParser.parse(plsql, SqlDialect.ORACLE);
+
+        assertEquals(2, statements.size());
+        assertEquals(SqlStatementType.CREATE_PROCEDURE, statements.get(0).getType());
+        assertTrue(statements.get(0).getSql().endsWith("END;"));
+        assertEquals("SELECT 1 FROM dual", statements.get(1).getSql());
+    }
+
+    /**
+     * 测试语句类型识别
+     */
+    @Test
+    public void testClassify() {
+        assertEquals(SqlStatementType.SELECT, SqlScriptParser.classify("  -- c\n with x as (select 1) select * from x", SqlDialect.GENERIC));
+        assertEquals(SqlStatementType.SELECT, SqlScriptParser.classify("(SELECT 1) UNION (SELECT 2)", SqlDialect.GENERIC));
+        assertEquals(SqlStatementType.CREATE_TABLE, SqlScriptParser.classify("create temporary table t (id int)", SqlDialect.MYSQL));
+        assertEquals(SqlStatementType.CREATE_INDEX, SqlScriptParser.classify("CREATE UNIQUE INDEX i ON t (a)", SqlDialect.MYSQL));
+        assertEquals(SqlStatementType.CREATE_VIEW, SqlScriptParser.classify("CREATE OR REPLACE VIEW v AS SELECT 1", SqlDialect.MYSQL));
+        assertEquals(SqlStatementType.DROP_TABLE, SqlScriptParser.classify("DROP TABLE IF EXISTS t", SqlDialect.MYSQL));
+        assertEquals(SqlStatementType.OTHER_DDL, SqlScriptParser.classify("CREATE SEQUENCE s", SqlDialect.POSTGRESQL));
+        assertEquals(SqlStatementType.TRANSACTION, SqlScriptParser.classify("START TRANSACTION", SqlDialect.MYSQL));
+        assertEquals(SqlStatementType.SHOW, SqlScriptParser.classify("show tables", SqlDialect.MYSQL));
+        assertEquals(SqlStatementType.UNKNOWN, SqlScriptParser.classify("-- only a comment", SqlDialect.MYSQL));
+    }
+
+    /**
+     * 测试WITH语句按主语句和CTE中的DML分类
+     */
+    @Test
+    public void testClassifyWith() {
+        assertEquals(SqlStatementType.SELECT, SqlScriptParser.classify(
+                "WITH RECURSIVE r (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM r WHERE n < 5), "
+                        + "u AS (SELECT * FROM t FOR UPDATE) SELECT * FROM r, u", SqlDialect.POSTGRESQL));
+        assertEquals(SqlStatementType.DELETE, SqlScriptParser.classify(
+                "WITH d AS (DELETE FROM t RETURNING *) SELECT * FROM d", SqlDialect.POSTGRESQL));
+        assertEquals(SqlStatementType.INSERT, SqlScriptParser.classify(
+                "WITH x AS NOT MATERIALIZED ( /* c */ INSERT INTO t VALUES (1) RETURNING id) SELECT id FROM x",
+                SqlDialect.POSTGRESQL));
+        assertEquals(SqlStatementType.UPDATE, SqlScriptParser.classify(
+                "WITH x AS (SELECT id FROM s WHERE flag = 'delete') UPDATE t SET a = 1 WHERE id IN (SELECT id FROM x)",
+                SqlDialect.MYSQL));
+        assertEquals(SqlStatementType.DELETE, SqlScriptParser.classify(
+                "WITH x AS (SELECT 1 AS id) DELETE FROM t WHERE id IN (SELECT id FROM x)", SqlDialect.SQLSERVER));
+        assertEquals(SqlStatementType.INSERT, SqlScriptParser.classify(
+                "WITH x AS (SELECT 1) INSERT INTO t SELECT * FROM x", SqlDialect.POSTGRESQL));
+
+        Set<String> tables = SqlScriptParser.referencedTables(
+                "WITH d AS (DELETE FROM public.t RETURNING *) SELECT * FROM d", SqlDialect.POSTGRESQL);
+        assertTrue(tables.contains("t"));
+    }
+
+    /**
+     * 测试命名参数替换
+     */
+    @Test
+    public void testBindNamedParameters() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", 1);
+        params.put("name", "a");
+        List<Object> values = new ArrayList<>();
+
+        String sql = SqlScriptParser.bindNamedParameters(
+                "SELECT ':id', x::text, :unknown FROM t /* :id */ WHERE id = :id AND name = :name",
+                SqlDialect.POSTGRESQL, params, values);
+
+        assertEquals("SELECT ':id', x::text, :unknown FROM t /* :id */ WHERE id = ? AND name = ?", sql);
+        assertEquals(2, values.size());
+        assertEquals(1, values.get(0));
+        assertEquals("a", values.get(1));
+    }
+
+    /**
+     * 测试SQL规范化，字符串中的空白保持不变
+     */
+    @Test
+    public void testNormalize() {
+        String sql = SqlScriptParser.normalize("  SELECT *\n  FROM t -- comment\n WHERE a = 'x  y' ;", SqlDialect.MYSQL);
+
+        assertEquals("SELECT * FROM t WHERE a = 'x  y'", sql);
+        assertEquals(sql, SqlScriptParser.normalize("SELECT * /* c */ FROM t\tWHERE a = 'x  y'", SqlDialect.MYSQL));
+    }
+
+    /**
+     * 测试提取引用的表名
+     */
+    @Test
+    public void testReferencedTables() {
+        Set<String> tables = SqlScriptParser.referencedTables(
+                "SELECT * FROM users u, logs JOIN `db`.`Orders` o ON o.uid = u.id WHERE x IN (SELECT id FROM items)",
+                SqlDialect.MYSQL);
+        assertEquals(new LinkedHashSet<>(Arrays.asList("users", "logs", "orders", "items")), tables);
+
+        assertTrue(SqlScriptParser.referencedTables("UPDATE public.\"Accounts\" SET a = 1", SqlDialect.POSTGRESQL).contains("accounts"));
+        assertTrue(SqlScriptParser.referencedTables("INSERT INTO t (a) VALUES ('FROM x')", SqlDialect.MYSQL).contains("t"));
+        assertFalse(SqlScriptParser.referencedTables("INSERT INTO t (a) VALUES ('FROM x')", SqlDialect.MYSQL).contains("x"));
+    }
+
+    /**
+     * 测试补全上下文：表名、限定名和关键字位置，以及光标之后的别名
+     */
+    @Test
+    public void testCompletionContext() {
+        SqlCompletionContext context = SqlScriptParser.completionContext("SELECT * FROM us", -1, SqlDialect.MYSQL);
+        assertEquals(SqlCompletionContext.Kind.TABLE, context.getKind());
+        assertEquals("us", context.getPrefix());
+        assertEquals(14, context.getReplaceStart());
+
+        String sql = "SELECT u.na FROM users u JOIN `db`.`orders` AS o ON o.uid = u.id";
+        context = SqlScriptParser.completionContext(sql, 11, SqlDialect.MYSQL);
+        assertEquals(SqlCompletionContext.Kind.COLUMN, context.getKind());
+        assertEquals("u", context.getQualifier());
+        assertEquals("na", context.getPrefix());
+        assertEquals(2, context.getTables().size());
+        assertTrue(context.getTables().get(0).matches("u"));
+        assertEquals("db.orders", context.getTables().get(1).getName());
+        assertEquals("o", context.getTables().get(1).getAlias());
+
+        assertEquals(SqlCompletionContext.Kind.KEYWORD,
+                SqlScriptParser.completionContext("SELECT * FROM users ", -1, SqlDialect.MYSQL).getKind());
+        assertEquals(SqlCompletionContext.Kind.COLUMN,
+                SqlScriptParser.completionContext("UPDATE users SET ", -1, SqlDialect.MYSQL).getKind());
+        assertEquals("public", SqlScriptParser.completionContext("SELECT 1; SELECT * FROM public.", -1,
+                SqlDialect.POSTGRESQL).getQualifier());
+    }
+
+    /**
+     * 测试字符串和注释中不补全，以及自然语言识别
+     */
+    @Test
+    public void testCompletionContextLiteralsAndNaturalLanguage() {
+        assertEquals(SqlCompletionContext.Kind.NONE,
+                SqlScriptParser.completionContext("SELECT * FROM t WHERE a = 'x", -1, SqlDialect.MYSQL).getKind());
+        assertEquals(SqlCompletionContext.Kind.NONE,
+                SqlScriptParser.completionContext("SELECT * FROM t -- wh", -1, SqlDialect.MYSQL).getKind());
+        assertEquals("Us", SqlScriptParser.completionContext("SELECT * FROM \"Us", -1, SqlDialect.POSTGRESQL).getPrefix());
+
+        assertTrue(SqlScriptParser.completionContext("list all users older than", -1, SqlDialect.MYSQL).isNaturalLanguage());
+        assertTrue(SqlScriptParser.completionContext("查询所有用户", -1, SqlDialect.MYSQL).isNaturalLanguage());
+        assertFalse(SqlScriptParser.completionContext("sel", -1, SqlDialect.MYSQL).isNaturalLanguage());
+        assertFalse(SqlScriptParser.completionContext("SELECT 姓名 FROM ", -1, SqlDialect.MYSQL).isNaturalLanguage());
+    }
+}